@@ -1,8 +1,15 @@
+import groovy.json.JsonSlurper
+import java.sql.Driver
+import java.util.Properties
+
 plugins {
     alias(libs.plugins.android.application)
     id("org.jetbrains.kotlin.kapt")
 }
 
+// Room 导出的数据库结构（每次编译重新生成，不提交）
+val roomSchemaDir: Provider<Directory> = layout.buildDirectory.dir("roomSchemas")
+
 android {
     namespace = "com.wcw.wordnet"
     compileSdk = 36
@@ -15,6 +22,13 @@ android {
         versionName = "1.0"
 
         testInstrumentationRunner = "androidx.test.runner.AndroidJUnitRunner"
+
+        javaCompileOptions {
+            annotationProcessorOptions {
+                // Room 在编译时导出当前版本的数据库结构，预置数据库按它建表
+                arguments += mapOf("room.schemaLocation" to roomSchemaDir.get().asFile.path)
+            }
+        }
     }
 
     buildTypes {
@@ -35,6 +49,13 @@ android {
         viewBinding = true
         buildConfig = true
     }
+
+    testOptions {
+        unitTests.all {
+            // 基准测试默认跳过：./gradlew :app:testDebugUnitTest -Dwordnet.bench=true
+            it.systemProperty("wordnet.bench", System.getProperty("wordnet.bench") ?: "false")
+        }
+    }
 }
 
 dependencies {
@@ -44,6 +65,8 @@ dependencies {
     implementation(libs.activity)
     implementation(libs.constraintlayout)
     testImplementation(libs.junit)
+    // 查询计划回归测试：在 JVM 上用 SQLite 执行 EXPLAIN QUERY PLAN
+    testImplementation("org.xerial:sqlite-jdbc:3.45.1.0")
     androidTestImplementation(libs.ext.junit)
     androidTestImplementation(libs.espresso.core)
 
@@ -58,8 +81,177 @@ dependencies {
     implementation("io.reactivex.rxjava2:rxandroid:2.1.1")
     // ✅ 降回旧版本
     implementation("androidx.lifecycle:lifecycle-livedata-ktx:2.5.0")
+    // 单词列表分页加载（Paging 3，数据源使用 RxJava2）
+    implementation("androidx.paging:paging-runtime:3.1.1")
+    implementation("androidx.paging:paging-rxjava2:3.1.1")
+    // viewModelScope：分页数据在 ViewModel 范围内缓存（PagingLiveData.cachedIn）
+    implementation("androidx.lifecycle:lifecycle-viewmodel-ktx:2.5.0")
+    // 数据看板统计流（Flowable）转为 LiveData，有观察者时才订阅
+    implementation("androidx.lifecycle:lifecycle-reactivestreams:2.5.0")
     // ============ 添加 Navigation 依赖 ============
     implementation("androidx.navigation:navigation-fragment:2.7.7")
     implementation("androidx.navigation:navigation-ui:2.7.7")
 
-}
\ No newline at end of file
+}
+
+// ============ 预置数据库（构建时由 default_words.json 生成） ============
+
+/**
+ * 构建时把内置词库编译为 SQLite 文件，作为 assets/databases/wordnet_prebuilt.db 打包
+ * 首次启动时 Room 通过 createFromAsset 直接复制，而不是逐条插入
+ * 数据与运行时 DataInitializer 的导入结果一致：单词、词根关系、立即到期的复习项
+ *
+ * 结构取自 Room 在本次编译中导出的当前版本（AppDatabase 中 @Database 的 version），
+ * 复制后不需要迁移；版本号与结构不一致时构建失败，而不是在首次启动时崩溃。
+ * 触发器和由它们维护的派生表不在这里生成，复制时由 AppDatabase 的预置数据库回调安装并回填。
+ */
+abstract class PrebuiltDatabaseTask : DefaultTask() {
+
+    @get:InputFile
+    abstract val wordsJson: RegularFileProperty
+
+    /**
+     * AppDatabase.java，从 @Database 注解读取当前的数据库版本
+     */
+    @get:InputFile
+    abstract val databaseSource: RegularFileProperty
+
+    /**
+     * Room 导出的 AppDatabase 结构目录（<version>.json）
+     */
+    @get:InputDirectory
+    abstract val schemaDir: DirectoryProperty
+
+    @get:Classpath
+    abstract val sqliteClasspath: ConfigurableFileCollection
+
+    @get:OutputDirectory
+    abstract val outputDir: DirectoryProperty
+
+    @TaskAction
+    fun generate() {
+        val dbFile = outputDir.file("databases/wordnet_prebuilt.db").get().asFile
+        dbFile.parentFile.mkdirs()
+        dbFile.delete()
+
+        // sqlite-jdbc 来自单独的配置，不能通过 DriverManager 查找，直接实例化驱动
+        val loader = java.net.URLClassLoader(
+            sqliteClasspath.files.map { it.toURI().toURL() }.toTypedArray(),
+            javaClass.classLoader
+        )
+        val driver = loader.loadClass("org.sqlite.JDBC").getDeclaredConstructor().newInstance() as Driver
+
+        @Suppress("UNCHECKED_CAST")
+        val words = (JsonSlurper().parse(wordsJson.get().asFile) as Map<String, Any?>)["words"] as List<Map<String, Any?>>
+
+        val version = Regex("""@Database\([\s\S]*?version\s*=\s*(\d+)""")
+            .find(databaseSource.get().asFile.readText())?.groupValues?.get(1)?.toInt()
+            ?: throw GradleException("无法从 ${databaseSource.get().asFile} 读取数据库版本")
+        val schemaFile = schemaDir.file("$version.json").get().asFile
+        if (!schemaFile.isFile) {
+            throw GradleException("没有找到 Room 导出的版本 $version 数据库结构: $schemaFile")
+        }
+
+        driver.connect("jdbc:sqlite:${dbFile.absolutePath}", Properties())!!.use { connection ->
+            connection.createStatement().use { statement ->
+                schemaStatements(schemaFile, version).forEach { statement.execute(it) }
+            }
+
+            connection.autoCommit = false
+            val insertWord = connection.prepareStatement(
+                "INSERT OR IGNORE INTO word_nodes (word, memoryStrength, lastReviewed, reviewCount, isActive, " +
+                        "morphemeList, chineseMeaning) VALUES (?, 0.0, 0, 0, 1, ?, ?)")
+            val insertRelation = connection.prepareStatement(
+                "INSERT INTO morpheme_relations (morpheme, wordId, position) VALUES (?, ?, ?)")
+            val insertReview = connection.prepareStatement(
+                "INSERT OR IGNORE INTO review_queue (wordId, next_review_time, interval_days, easiness_factor, " +
+                        "repetition_count, review_state) VALUES (?, 0, 1, 2.5, 0, 0)")
+            for (entry in words) {
+                val word = entry["word"] as String
+                @Suppress("UNCHECKED_CAST")
+                val morphemes = (entry["morphemes"] as List<String>?).orEmpty()
+
+                insertWord.setString(1, word)
+                insertWord.setString(2, morphemes.joinToString(",", "[", "]") { "\"$it\"" })
+                insertWord.setString(3, entry["chinese"] as String? ?: "")
+                if (insertWord.executeUpdate() == 0) continue  // 重复的单词
+
+                // 位置规则与 WordNode.parseMorphemeRelations 相同：首个=前缀，末个=后缀，其余=词根
+                morphemes.forEachIndexed { i, morpheme ->
+                    insertRelation.setString(1, morpheme)
+                    insertRelation.setString(2, word)
+                    insertRelation.setInt(3, if (i == 0) 0 else if (i == morphemes.size - 1) 2 else 1)
+                    insertRelation.addBatch()
+                }
+                insertReview.setString(1, word)
+                insertReview.addBatch()
+            }
+            insertRelation.executeBatch()
+            insertReview.executeBatch()
+            connection.commit()
+            connection.autoCommit = true
+
+            connection.createStatement().use { statement ->
+                // 为查询规划器预先生成统计信息，并压缩文件
+                statement.execute("ANALYZE")
+                statement.execute("VACUUM")
+                // Room 按 user_version 决定是否迁移：必须正好是当前版本
+                val userVersion = statement.executeQuery("PRAGMA user_version").use { it.next(); it.getInt(1) }
+                if (userVersion != version) {
+                    throw GradleException("预置数据库的 user_version 为 $userVersion，当前数据库版本为 $version")
+                }
+            }
+        }
+        logger.lifecycle("预置数据库已生成: ${words.size} 个单词，版本 $version -> $dbFile")
+    }
+
+    /**
+     * Room 导出结构中的建表、建索引和视图语句，以及写入结构校验值的 setupQueries，最后设置 user_version
+     */
+    @Suppress("UNCHECKED_CAST")
+    private fun schemaStatements(schemaFile: java.io.File, version: Int): List<String> {
+        val database = (JsonSlurper().parse(schemaFile) as Map<String, Any?>)["database"] as Map<String, Any?>
+        val exported = (database["version"] as Number).toInt()
+        if (exported != version) {
+            throw GradleException("$schemaFile 的版本为 $exported，当前数据库版本为 $version")
+        }
+        val statements = mutableListOf<String>()
+        for (entity in database["entities"] as List<Map<String, Any?>>) {
+            val table = entity["tableName"] as String
+            statements += (entity["createSql"] as String).replace("\${TABLE_NAME}", table)
+            val indices = entity["indices"] as List<Map<String, Any?>>?
+            indices.orEmpty().forEach { statements += (it["createSql"] as String).replace("\${TABLE_NAME}", table) }
+        }
+        val views = database["views"] as List<Map<String, Any?>>?
+        views.orEmpty().forEach {
+            statements += (it["createSql"] as String).replace("\${VIEW_NAME}", it["viewName"] as String)
+        }
+        statements += database["setupQueries"] as List<String>
+        statements += "PRAGMA user_version = $version"
+        return statements
+    }
+}
+
+val prebuiltDbTooling: Configuration by configurations.creating
+
+dependencies {
+    prebuiltDbTooling("org.xerial:sqlite-jdbc:3.45.1.0")
+}
+
+androidComponents {
+    onVariants { variant ->
+        val variantName = variant.name.replaceFirstChar { it.uppercase() }
+        // 结构来自该变体的 Java 编译（Room 注解处理器在编译时导出）
+        val generatePrebuiltDatabase = tasks.register<PrebuiltDatabaseTask>("generate${variantName}PrebuiltDatabase") {
+            dependsOn("compile${variantName}JavaWithJavac")
+            wordsJson.set(layout.projectDirectory.file("src/main/res/raw/default_words.json"))
+            databaseSource.set(layout.projectDirectory.file(
+                "src/main/java/com/wcw/wordnet/data/local/database/AppDatabase.java"))
+            schemaDir.set(roomSchemaDir.map { it.dir("com.wcw.wordnet.data.local.database.AppDatabase") })
+            sqliteClasspath.from(prebuiltDbTooling)
+            outputDir.set(layout.buildDirectory.dir("generated/prebuiltDb/${variant.name}"))
+        }
+        variant.sources.assets?.addGeneratedSourceDirectory(
+            generatePrebuiltDatabase, PrebuiltDatabaseTask::outputDir)
+    }
+}
@@ -17,7 +17,7 @@ import java.util.concurrent.TimeUnit;
 public class Sm2Algorithm {
 
 
-    private static final float DEFAULT_EASINESS = 2.5f;
+    public static final float DEFAULT_EASINESS = 2.5f;
     private static final float MIN_EASINESS = 1.3f;
     private static final int MIN_INTERVAL = 1;
     private static final int MAX_QUALITY = 5;
@@ -34,6 +34,19 @@ public class Sm2Algorithm {
      * @return 更新后的复习项，包含新的EF、间隔、重复次数和下次复习时间
      */
     public ReviewQueue calculateNextReview(ReviewQueue item, int quality) {
+        return calculateNextReview(item, quality, System.currentTimeMillis());
+    }
+
+    /**
+     * 核心算法：以指定的评分时间计算下次复习时间
+     * 用于延迟写入/重放日志，保证同一条评分无论何时落库结果都相同
+     *
+     * @param item 当前复习项
+     * @param quality 用户评分（0-5）
+     * @param reviewTime 评分发生的时间戳
+     * @return 更新后的复习项
+     */
+    public ReviewQueue calculateNextReview(ReviewQueue item, int quality, long reviewTime) {
         // 1. 边界保护：确保quality在0-5之间
         quality = Math.max(0, Math.min(MAX_QUALITY, quality));
 
@@ -73,8 +86,8 @@ public class Sm2Algorithm {
             }
         }
 
-        // 5. 计算下次复习时间戳（当前时间 + 间隔天数）
-        long nextReviewTime = System.currentTimeMillis() +
+        // 5. 计算下次复习时间戳（评分时间 + 间隔天数）
+        long nextReviewTime = reviewTime +
                 TimeUnit.DAYS.toMillis(newInterval);
 
         // 6. 创建并返回更新后的复习项
@@ -89,6 +102,32 @@ public class Sm2Algorithm {
         return updatedItem;
     }
 
+    /**
+     * 计算一次复习后的记忆强度（0.0-1.0）
+     * word_nodes.memoryStrength 的唯一计算入口，实体更新和列级更新都使用它
+     *
+     * @param currentStrength 复习前的记忆强度
+     * @param currentReviewCount 复习前的复习次数
+     * @param isCorrect 是否答对（SM-2 评分 >= 3）
+     * @return 新的记忆强度
+     */
+    public static float calculateMemoryStrength(float currentStrength, int currentReviewCount, boolean isCorrect) {
+        int newCount = currentReviewCount + 1;
+
+        // 1. 基础得分：答对+0.3，答错-0.1
+        float baseGain = isCorrect ? 0.3f : -0.1f;
+
+        // 2. 复习次数增益：前3次复习得分翻倍（快速度过短期记忆）
+        float countMultiplier = newCount <= 3 ? 1.5f : 1.0f;
+
+        // 3. 难度系数：强度越高，得分衰减（后期更难提升）
+        float difficulty = 1.0f - (currentStrength * 0.5f);
+
+        // 4. 综合计算 + 边界保护
+        float finalGain = baseGain * countMultiplier * difficulty;
+        return Math.max(0.0f, Math.min(1.0f, currentStrength + finalGain));
+    }
+
     /**
      * 创建初始复习项（用于新单词）
      * 设置立即复习（nextReviewTime = 当前时间）
@@ -0,0 +1,60 @@
+package com.wcw.wordnet.data.cache;
+
+import androidx.lifecycle.LiveData;
+
+import com.wcw.wordnet.data.local.database.DatabaseSchedulers;
+import com.wcw.wordnet.model.entity.WordNode;
+
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * 经过单词缓存的单个单词 LiveData（详情页使用）
+ * - 变为活跃时先查缓存，命中则在主线程直接发出，不访问数据库
+ * - 未命中时在数据库读线程读穿透
+ * - 这个单词变化后重新读取（缓存已由变更流修补，通常直接命中）；其他单词的写入不会触发
+ */
+public class CachedWordLiveData extends LiveData<WordNode> {
+
+    private final WordCache cache;
+    private final String word;
+    private final Function<String, WordNode> loader;
+    private final WordCache.Listener reload = this::onWordsChanged;
+
+    /**
+     * @param cache 单词缓存
+     * @param word 单词
+     * @param loader 同步读取单词（数据库读线程调用）
+     */
+    public CachedWordLiveData(WordCache cache, String word, Function<String, WordNode> loader) {
+        this.cache = cache;
+        this.word = word;
+        this.loader = loader;
+    }
+
+    @Override
+    protected void onActive() {
+        cache.addListener(reload);
+        WordNode cached = cache.getWordIfPresent(word);
+        if (cached != null) {
+            setValue(cached);
+        } else {
+            loadAsync();
+        }
+    }
+
+    @Override
+    protected void onInactive() {
+        cache.removeListener(reload);
+    }
+
+    private void onWordsChanged(Set<String> words) {
+        if (words == null || words.contains(word)) {
+            loadAsync();
+        }
+    }
+
+    private void loadAsync() {
+        DatabaseSchedulers.reader().scheduleDirect(() -> postValue(cache.loadWord(word, loader)));
+    }
+}
@@ -0,0 +1,423 @@
+package com.wcw.wordnet.data.cache;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.room.InvalidationTracker;
+
+import com.wcw.wordnet.data.change.WordChangeFeed;
+import com.wcw.wordnet.data.local.database.AppDatabase;
+import com.wcw.wordnet.model.entity.MorphemeRelation;
+import com.wcw.wordnet.model.entity.WordChange;
+import com.wcw.wordnet.model.entity.WordNode;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+/**
+ * 单词与词根关系的进程内 LRU 缓存（读穿透）
+ * - 单词列表分页、复习会话取卡时顺手放入，之后打开同一个单词的详情页不再查询数据库
+ * - 复习补货按单词批量读取词根关系，只有缓存中没有的单词才查询
+ * - word_nodes 变化时由单词变更流按行修补：只替换或移除发生变化的单词，评分一张卡片不会清空整个缓存
+ * - morpheme_relations 变化时由 Room 失效通知整体清空（通知只给出表名）
+ * - 系统内存紧张时由 onTrimMemory 回收
+ *
+ * 版本号防止把失效之前读到的旧数据放回缓存：读取数据库前记下当前版本，放入时只丢弃期间
+ * 被修补过的单词（按单词记录最后修补时的版本），整体清空或回收之后则丢弃整批结果。
+ * 评分一个单词不会让同时在读的其他单词（如正在加载的一页列表）放不进缓存。
+ */
+public class WordCache {
+
+    /**
+     * 默认最多缓存的单词数（约六页单词列表）
+     */
+    public static final int DEFAULT_MAX_WORDS = 512;
+
+    /**
+     * 默认最多缓存的词根关系列表数（按单词计）
+     */
+    public static final int DEFAULT_MAX_RELATIONS = 256;
+
+    private static volatile WordCache INSTANCE;
+
+    private final LruMap<WordNode> words;
+    private final LruMap<List<MorphemeRelation>> relations;
+    private final WordCacheStats stats = new WordCacheStats();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * 当前版本：每次修补、失效或回收加一
+     */
+    private long version = 0;
+
+    /**
+     * 单词最后一次整体清空（或回收、或遗忘了更早的修补记录）时的版本，早于它开始的读取整批丢弃
+     */
+    private long wordsClearedAt = 0;
+
+    /**
+     * 词根关系最后一次整体清空或回收时的版本
+     */
+    private long relationsClearedAt = 0;
+
+    /**
+     * 单词最后一次被修补时的版本（按版本从旧到新排列，最多 maxPatchVersions 项）
+     * 记录所有变化的单词，包括不在缓存中的：它们可能正在被读取
+     */
+    private final LinkedHashMap<String, Long> patchedAt = new LinkedHashMap<>();
+    private final int maxPatchVersions;
+
+    /**
+     * 缓存中单词变化的监听者
+     */
+    public interface Listener {
+
+        /**
+         * 单词已在缓存中更新（回调时缓存已经修补或清空）
+         * @param words 发生变化的单词；null 表示全部单词都可能变化
+         */
+        void onWordsChanged(@Nullable Set<String> words);
+    }
+
+    /**
+     * 获取进程内唯一的缓存，订阅单词变更流并注册词根关系的 Room 失效监听
+     * @param db 数据库实例
+     */
+    public static WordCache getInstance(AppDatabase db) {
+        if (INSTANCE == null) {
+            synchronized (WordCache.class) {
+                if (INSTANCE == null) {
+                    WordCache cache = new WordCache(DEFAULT_MAX_WORDS, DEFAULT_MAX_RELATIONS);
+                    db.getInvalidationTracker().addObserver(
+                            new InvalidationTracker.Observer("morpheme_relations") {
+                                @Override
+                                public void onInvalidated(@NonNull Set<String> tables) {
+                                    cache.invalidate(tables);
+                                }
+                            });
+                    WordChangeFeed.getInstance(db).subscribe(new WordChangeFeed.Listener() {
+                        @Override
+                        public void onSnapshot() {
+                            // 变更流从这里开始，之前放入的单词可能已经过期
+                            cache.invalidate(Collections.singleton("word_nodes"));
+                        }
+
+                        @Override
+                        public void onChanges(@NonNull List<WordChange> changes,
+                                              @NonNull Map<String, WordNode> rows) {
+                            cache.applyChanges(changes, rows);
+                        }
+                    });
+                    INSTANCE = cache;
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    WordCache(int maxWords, int maxRelations) {
+        this.words = new LruMap<>(maxWords);
+        this.relations = new LruMap<>(maxRelations);
+        this.maxPatchVersions = Math.max(16, maxWords * 2);
+    }
+
+    // ==================== 单词 ====================
+
+    /**
+     * 只查缓存（主线程可调用）
+     * @return 缓存中的单词；没有时返回 null，调用方应改用 {@link #loadWord(String, Function)}
+     */
+    @Nullable
+    public synchronized WordNode getWordIfPresent(String word) {
+        WordNode node = words.get(word);
+        if (node != null) {
+            stats.recordHits(1);
+        } else {
+            stats.recordMisses(1);
+        }
+        return node;
+    }
+
+    /**
+     * 读穿透获取单词（IO线程调用）
+     * @param loader 缓存未命中时同步读取数据库
+     * @return 单词；数据库中也没有时返回 null（不缓存不存在的单词）
+     */
+    @Nullable
+    public WordNode getWord(String word, Function<String, WordNode> loader) {
+        return getWord(word, loader, true);
+    }
+
+    /**
+     * 已经用 {@link #getWordIfPresent(String)} 统计过一次未命中后的读取（不重复统计）
+     */
+    @Nullable
+    public WordNode loadWord(String word, Function<String, WordNode> loader) {
+        return getWord(word, loader, false);
+    }
+
+    @Nullable
+    private WordNode getWord(String word, Function<String, WordNode> loader, boolean record) {
+        long startVersion;
+        synchronized (this) {
+            WordNode node = words.get(word);
+            if (node != null) {
+                if (record) stats.recordHits(1);
+                return node;
+            }
+            if (record) stats.recordMisses(1);
+            startVersion = version;
+        }
+        // 在锁外执行IO
+        WordNode loaded = loader.apply(word);
+        if (loaded != null) {
+            putWords(Collections.singletonList(loaded), startVersion);
+        }
+        return loaded;
+    }
+
+    /**
+     * 放入一批刚从数据库读到的单词（分页加载、复习取卡）
+     * @param startVersion 读取数据库之前的 {@link #version()}；期间被修补过的单词不放入，
+     *                     期间整体清空过时整批丢弃
+     */
+    public synchronized void putWords(List<WordNode> nodes, long startVersion) {
+        if (startVersion < wordsClearedAt) return;
+        for (WordNode node : nodes) {
+            Long patched = patchedAt.get(node.getWord());
+            if (patched != null && patched > startVersion) continue;
+            words.put(node.getWord(), node);
+        }
+    }
+
+    // ==================== 词根关系 ====================
+
+    /**
+     * 批量读穿透获取多个单词的词根关系（IO线程调用）
+     * 只有缓存中没有的单词才交给 loader，一次查询补齐；没有词根关系的单词缓存为空列表
+     * @param wordIds 单词列表
+     * @param loader 批量同步读取词根关系（结果需按单词、位置排序）
+     * @return 所有单词的词根关系，按 wordIds 的顺序、同一单词内按位置排序
+     */
+    public List<MorphemeRelation> getRelations(List<String> wordIds,
+                                               Function<List<String>, List<MorphemeRelation>> loader) {
+        Map<String, List<MorphemeRelation>> found = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        long startVersion;
+        synchronized (this) {
+            for (String wordId : wordIds) {
+                List<MorphemeRelation> cached = relations.get(wordId);
+                if (cached != null) {
+                    found.put(wordId, cached);
+                } else if (!found.containsKey(wordId) && !missing.contains(wordId)) {
+                    missing.add(wordId);
+                }
+            }
+            stats.recordHits(wordIds.size() - missing.size());
+            stats.recordMisses(missing.size());
+            startVersion = version;
+        }
+
+        if (!missing.isEmpty()) {
+            Map<String, List<MorphemeRelation>> loaded = new HashMap<>();
+            for (String wordId : missing) {
+                loaded.put(wordId, new ArrayList<>());
+            }
+            for (MorphemeRelation relation : loader.apply(missing)) {
+                List<MorphemeRelation> list = loaded.get(relation.getWordId());
+                if (list != null) {
+                    list.add(relation);
+                }
+            }
+            synchronized (this) {
+                for (Map.Entry<String, List<MorphemeRelation>> entry : loaded.entrySet()) {
+                    List<MorphemeRelation> list = Collections.unmodifiableList(entry.getValue());
+                    found.put(entry.getKey(), list);
+                    if (startVersion >= relationsClearedAt) {
+                        relations.put(entry.getKey(), list);
+                    }
+                }
+            }
+        }
+
+        List<MorphemeRelation> result = new ArrayList<>();
+        for (String wordId : wordIds) {
+            List<MorphemeRelation> list = found.remove(wordId);
+            if (list != null) {
+                result.addAll(list);
+            }
+        }
+        return result;
+    }
+
+    // ==================== 失效与回收 ====================
+
+    /**
+     * 当前版本，读取数据库之前记下，放入缓存时核对
+     */
+    public synchronized long version() {
+        return version;
+    }
+
+    /**
+     * 按单词变更日志修补缓存（变更流的读线程 Worker 调用），并通知监听者（如详情页的 LiveData 重新读取）
+     * 只处理缓存中已有的单词：换成当前行，已删除的移除；没有缓存的单词不会因此放入
+     * @param changes 一批变更日志
+     * @param rows 变化单词的当前行（已删除的单词不在其中）
+     */
+    public void applyChanges(List<WordChange> changes, Map<String, WordNode> rows) {
+        Set<String> changed = new LinkedHashSet<>();
+        for (WordChange change : changes) {
+            changed.add(change.getWord());
+        }
+        synchronized (this) {
+            // 修补之前开始的读取可能读到这些单词的旧行，放入时丢弃（只影响这些单词）
+            version++;
+            for (String word : changed) {
+                markPatched(word);
+            }
+            int patched = 0;
+            for (String word : changed) {
+                if (!words.containsKey(word)) continue;
+                WordNode row = rows.get(word);
+                if (row != null) {
+                    words.put(word, row);
+                } else {
+                    words.remove(word);
+                }
+                patched++;
+            }
+            stats.recordPatches(patched);
+        }
+        for (Listener listener : listeners) {
+            listener.onWordsChanged(changed);
+        }
+    }
+
+    /**
+     * 表变化后清空对应部分，通知只给出表名，无法知道是哪些行，所以整体清空
+     * 清空单词时通知监听者
+     * @param tables 发生变化的表
+     */
+    public void invalidate(Set<String> tables) {
+        boolean wordsChanged = tables.contains("word_nodes");
+        synchronized (this) {
+            version++;
+            if (wordsChanged) {
+                words.clear();
+                clearWordVersions();
+            }
+            if (tables.contains("morpheme_relations")) {
+                relations.clear();
+                relationsClearedAt = version;
+            }
+            stats.recordInvalidation();
+        }
+        if (wordsChanged) {
+            for (Listener listener : listeners) {
+                listener.onWordsChanged(null);
+            }
+        }
+    }
+
+    /**
+     * 系统内存紧张时回收（onTrimMemory）
+     * @param all true：全部清空（应用已进入后台）；false：只保留最近使用的一半
+     */
+    public synchronized void trim(boolean all) {
+        // 回收期间开始的读取不再放回缓存
+        version++;
+        clearWordVersions();
+        relationsClearedAt = version;
+        if (all) {
+            words.clear();
+            relations.clear();
+        } else {
+            words.trimTo(words.size() / 2);
+            relations.trimTo(relations.size() / 2);
+        }
+        stats.recordTrim();
+    }
+
+    /**
+     * 记下单词在当前版本被修补；记录超出上限时遗忘最旧的一条，
+     * 并把整体清空的版本推进到它（早于它开始的读取保守地整批丢弃）
+     */
+    private void markPatched(String word) {
+        patchedAt.remove(word);
+        patchedAt.put(word, version);
+        if (patchedAt.size() > maxPatchVersions) {
+            Iterator<Map.Entry<String, Long>> eldest = patchedAt.entrySet().iterator();
+            wordsClearedAt = Math.max(wordsClearedAt, eldest.next().getValue());
+            eldest.remove();
+        }
+    }
+
+    /**
+     * 单词整体失效：之前的修补记录都不再需要
+     */
+    private void clearWordVersions() {
+        wordsClearedAt = version;
+        patchedAt.clear();
+    }
+
+    /**
+     * 监听缓存中单词的变化（在数据库线程回调）
+     */
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    public WordCacheStats getStats() {
+        return stats;
+    }
+
+    synchronized int wordCount() {
+        return words.size();
+    }
+
+    synchronized int relationCount() {
+        return relations.size();
+    }
+
+    /**
+     * 按访问顺序排列的有界 Map，超出容量时淘汰最久未使用的项
+     */
+    private static final class LruMap<V> extends LinkedHashMap<String, V> {
+
+        private final int maxSize;
+
+        LruMap(int maxSize) {
+            super(16, 0.75f, true);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, V> eldest) {
+            return size() > maxSize;
+        }
+
+        /**
+         * 从最久未使用的一端淘汰，直到只剩 size 项
+         */
+        void trimTo(int size) {
+            Iterator<String> iterator = keySet().iterator();
+            while (size() > size && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+        }
+    }
+}
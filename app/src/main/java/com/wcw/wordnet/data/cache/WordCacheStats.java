@@ -0,0 +1,66 @@
+package com.wcw.wordnet.data.cache;
+
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 单词缓存统计
+ * 用于调整缓存容量：
+ * - 命中率：打开详情页、复习补货时直接来自内存的比例
+ * - 失效次数：Room 通知表变化后整体清空的次数
+ * - 修补数：按单词变更日志替换或移除的缓存单词数（只影响变化的单词，不影响命中率）
+ */
+public class WordCacheStats {
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+    private final AtomicLong trims = new AtomicLong();
+    private final AtomicLong patches = new AtomicLong();
+
+    void recordHits(int count) {
+        hits.addAndGet(count);
+    }
+
+    void recordMisses(int count) {
+        misses.addAndGet(count);
+    }
+
+    void recordInvalidation() {
+        invalidations.incrementAndGet();
+    }
+
+    void recordTrim() {
+        trims.incrementAndGet();
+    }
+
+    void recordPatches(int count) {
+        patches.addAndGet(count);
+    }
+
+    public long getHits() { return hits.get(); }
+
+    public long getMisses() { return misses.get(); }
+
+    public long getInvalidations() { return invalidations.get(); }
+
+    public long getTrims() { return trims.get(); }
+
+    public long getPatches() { return patches.get(); }
+
+    /**
+     * 命中率（0.0-1.0），尚未读取过时为 0
+     */
+    public float getHitRate() {
+        long total = hits.get() + misses.get();
+        return total == 0 ? 0f : (float) hits.get() / total;
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return String.format("命中 %d / 未命中 %d (命中率 %.0f%%), 修补 %d 个, 失效 %d 次, 内存回收 %d 次",
+                getHits(), getMisses(), getHitRate() * 100, getPatches(), getInvalidations(), getTrims());
+    }
+}
@@ -0,0 +1,261 @@
+package com.wcw.wordnet.data.change;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.room.InvalidationTracker;
+
+import com.wcw.wordnet.data.local.dao.WordDao;
+import com.wcw.wordnet.data.local.database.AppDatabase;
+import com.wcw.wordnet.data.local.database.DatabaseSchedulers;
+import com.wcw.wordnet.model.entity.WordChange;
+import com.wcw.wordnet.model.entity.WordNode;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import io.reactivex.Completable;
+import io.reactivex.Scheduler;
+import io.reactivex.Single;
+
+/**
+ * 单词行级变更流
+ * 触发器把 word_nodes 的每次变化追加到 word_changes；这里在 word_changes 失效时读取新日志，
+ * 连同变化单词的当前行（按主键批量读取）分发给订阅者，订阅者（单词缓存）据此修补自己的内存状态。
+ * 一次评分只读取 1 条日志 + 1 行单词，与词库大小无关。
+ *
+ * 线程：不另开线程，全部交给数据库线程
+ * - 读取日志和分发在读线程池的一个 Worker 上串行执行（同一 Worker 的任务不会并发），
+ *   订阅列表和进度只在这里访问
+ * - 订阅时的快照在写线程上的事务内建立并记下当时的最后序号，之后只收到序号更大的日志，不重不漏；
+ *   快照期间已经分发给其他订阅者的日志，加入订阅时补发
+ * - 日志分发后定期在写线程上删除，表中只保留尚未处理的少量行；有快照正在建立时暂不删除，保证补发时日志还在
+ */
+public class WordChangeFeed {
+
+    /**
+     * 变更订阅者
+     */
+    public interface Listener {
+
+        /**
+         * 读取初始状态（在写线程的事务内调用，与记下的序号一致）
+         */
+        void onSnapshot();
+
+        /**
+         * 一批新的变更（在变更流的读线程 Worker 上调用）
+         * @param changes 按序号排列的日志
+         * @param rows 变化单词的当前行（已删除的单词不在其中）
+         */
+        void onChanges(@NonNull List<WordChange> changes, @NonNull Map<String, WordNode> rows);
+    }
+
+    /**
+     * 每次最多读取的日志条数（批量读取单词时 IN 参数不超过 SQLite 的 999 个上限）
+     */
+    static final int BATCH_SIZE = 500;
+
+    /**
+     * 分发多少条日志后删除一次已处理的日志
+     */
+    static final int PRUNE_INTERVAL = 200;
+
+    private static final String TAG = "WordChangeFeed";
+
+    private static volatile WordChangeFeed INSTANCE;
+
+    private final AppDatabase db;
+    private final WordDao wordDao;
+    private final Scheduler.Worker worker = DatabaseSchedulers.reader().createWorker();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean(false);
+
+    // 以下字段只在变更流的 Worker 上访问
+    private final List<Subscription> subscriptions = new ArrayList<>();
+    private boolean started = false;
+    private long lastSeq;
+    private long prunedSeq;
+
+    /**
+     * 正在写线程上建立快照的订阅数（大于 0 时不删除日志）
+     */
+    private int pendingSnapshots = 0;
+
+    /**
+     * 获取进程内唯一的变更流，并注册 Room 失效监听
+     * @param db 数据库实例
+     */
+    public static WordChangeFeed getInstance(AppDatabase db) {
+        if (INSTANCE == null) {
+            synchronized (WordChangeFeed.class) {
+                if (INSTANCE == null) {
+                    WordChangeFeed feed = new WordChangeFeed(db);
+                    db.getInvalidationTracker().addObserver(
+                            new InvalidationTracker.Observer(WordChangeTriggers.TABLE) {
+                                @Override
+                                public void onInvalidated(@NonNull Set<String> tables) {
+                                    feed.scheduleDrain();
+                                }
+                            });
+                    INSTANCE = feed;
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    private WordChangeFeed(AppDatabase db) {
+        this.db = db;
+        this.wordDao = db.wordDao();
+    }
+
+    /**
+     * 订阅变更：先在写线程上建立快照，之后收到快照之后的全部变更
+     */
+    public void subscribe(@NonNull Listener listener) {
+        worker.schedule(() -> {
+            try {
+                start();
+            } catch (RuntimeException e) {
+                Log.e(TAG, "读取变更日志失败", e);
+                return;
+            }
+            pendingSnapshots++;
+            // 写线程上没有其他写入与快照交错；快照完成后回到 Worker 加入订阅
+            Single.fromCallable(() -> db.runInTransaction(() -> {
+                        listener.onSnapshot();
+                        return wordDao.getLastWordChangeSeqSync();
+                    }))
+                    .subscribeOn(DatabaseSchedulers.writer())
+                    .subscribe(
+                            seq -> worker.schedule(() -> {
+                                pendingSnapshots--;
+                                Subscription subscription = new Subscription(listener, seq);
+                                subscriptions.add(subscription);
+                                catchUp(subscription);
+                            }),
+                            throwable -> {
+                                worker.schedule(() -> pendingSnapshots--);
+                                Log.e(TAG, "建立快照失败", throwable);
+                            });
+        });
+    }
+
+    /**
+     * 补发快照之后、加入订阅之前已经分发给其他订阅者的日志
+     */
+    private void catchUp(Subscription subscription) {
+        try {
+            while (subscription.seq < lastSeq) {
+                List<WordChange> changes = wordDao.getWordChangesSync(subscription.seq, BATCH_SIZE);
+                if (changes.isEmpty()) break;
+                dispatch(changes, Collections.singletonList(subscription));
+            }
+        } catch (RuntimeException e) {
+            Log.e(TAG, "补发变更日志失败", e);
+        }
+    }
+
+    /**
+     * 有新日志时安排一次读取（已安排但尚未开始时合并）
+     */
+    private void scheduleDrain() {
+        if (drainScheduled.compareAndSet(false, true)) {
+            worker.schedule(this::drain);
+        }
+    }
+
+    /**
+     * 首次使用时跳过上次进程留下的日志（订阅者的快照已经包含了它们）
+     */
+    private void start() {
+        if (started) return;
+        lastSeq = wordDao.getLastWordChangeSeqSync();
+        prunedSeq = lastSeq;
+        started = true;
+        prune(lastSeq);
+    }
+
+    private void drain() {
+        drainScheduled.set(false);
+        try {
+            start();
+            while (true) {
+                List<WordChange> changes = wordDao.getWordChangesSync(lastSeq, BATCH_SIZE);
+                if (changes.isEmpty()) break;
+                dispatch(changes, subscriptions);
+                lastSeq = changes.get(changes.size() - 1).getSeq();
+                if (changes.size() < BATCH_SIZE) break;
+            }
+            if (lastSeq - prunedSeq >= PRUNE_INTERVAL && pendingSnapshots == 0) {
+                prune(lastSeq);
+            }
+        } catch (RuntimeException e) {
+            // 读取失败时保留进度，下次失效时重试
+            Log.e(TAG, "读取变更日志失败", e);
+        }
+    }
+
+    /**
+     * 在写线程上删除序号不大于 seq 的日志（已分发，失败时下次再删）
+     */
+    private void prune(long seq) {
+        prunedSeq = seq;
+        Completable.fromAction(() -> wordDao.pruneWordChanges(seq))
+                .subscribeOn(DatabaseSchedulers.writer())
+                .subscribe(() -> { }, throwable -> Log.e(TAG, "删除已分发的变更日志失败", throwable));
+    }
+
+    /**
+     * 把一批日志连同变化单词的当前行分发给 targets 中尚未见过它们的订阅者
+     */
+    private void dispatch(List<WordChange> changes, List<Subscription> targets) {
+        Set<String> words = new LinkedHashSet<>();
+        for (WordChange change : changes) {
+            words.add(change.getWord());
+        }
+        Map<String, WordNode> rows = new HashMap<>();
+        for (WordNode row : wordDao.getWordsByIdsSync(new ArrayList<>(words))) {
+            rows.put(row.getWord(), row);
+        }
+        for (Subscription subscription : targets) {
+            List<WordChange> unseen = subscription.unseen(changes);
+            if (unseen.isEmpty()) continue;
+            try {
+                subscription.listener.onChanges(unseen, rows);
+            } catch (RuntimeException e) {
+                Log.e(TAG, "分发变更失败", e);
+            }
+            subscription.seq = unseen.get(unseen.size() - 1).getSeq();
+        }
+    }
+
+    private static final class Subscription {
+        final Listener listener;
+
+        /**
+         * 该订阅者已经反映的最后序号
+         */
+        long seq;
+
+        Subscription(Listener listener, long seq) {
+            this.listener = listener;
+            this.seq = seq;
+        }
+
+        List<WordChange> unseen(List<WordChange> changes) {
+            if (changes.get(0).getSeq() > seq) return changes;
+            List<WordChange> unseen = new ArrayList<>();
+            for (WordChange change : changes) {
+                if (change.getSeq() > seq) unseen.add(change);
+            }
+            return unseen;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.wcw.wordnet.data.change;
+
+import androidx.annotation.NonNull;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+import com.wcw.wordnet.model.entity.WordChange;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 单词变更日志（word_changes）的触发器
+ * word_nodes 的每次插入、更新、删除都在同一事务内追加一行日志，记录变化前后的 isActive 和 memoryStrength：
+ * 不管写入来自仓库、评分批量提交还是词库导入，变更流都不会漏掉。
+ */
+public final class WordChangeTriggers {
+
+    public static final String TABLE = "word_changes";
+
+    /**
+     * 与 Room 为 {@link WordChange} 生成的建表语句一致
+     */
+    public static final String CREATE_TABLE_SQL = "CREATE TABLE IF NOT EXISTS `word_changes` (" +
+            "`seq` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, `word` TEXT NOT NULL, " +
+            "`kind` INTEGER NOT NULL, `oldActive` INTEGER NOT NULL, `oldStrength` REAL NOT NULL, " +
+            "`newActive` INTEGER NOT NULL, `newStrength` REAL NOT NULL)";
+
+    private WordChangeTriggers() {}
+
+    /**
+     * 日志触发器（可重复执行）
+     */
+    @NonNull
+    public static List<String> triggerStatements() {
+        return Arrays.asList(
+                "CREATE TRIGGER IF NOT EXISTS word_changes_after_insert AFTER INSERT ON word_nodes BEGIN " +
+                        log("new.word", WordChange.INSERTED, "0", "0", "new.isActive", "new.memoryStrength") +
+                        " END",
+                "CREATE TRIGGER IF NOT EXISTS word_changes_after_update AFTER UPDATE ON word_nodes BEGIN " +
+                        log("new.word", WordChange.UPDATED,
+                                "old.isActive", "old.memoryStrength", "new.isActive", "new.memoryStrength") +
+                        " END",
+                "CREATE TRIGGER IF NOT EXISTS word_changes_after_delete AFTER DELETE ON word_nodes BEGIN " +
+                        log("old.word", WordChange.DELETED, "old.isActive", "old.memoryStrength", "0", "0") +
+                        " END"
+        );
+    }
+
+    /**
+     * 安装触发器（数据库创建和每次打开时调用，已存在则跳过）
+     */
+    public static void install(@NonNull SupportSQLiteDatabase db) {
+        for (String sql : triggerStatements()) {
+            db.execSQL(sql);
+        }
+    }
+
+    private static String log(String word, int kind, String oldActive, String oldStrength,
+                              String newActive, String newStrength) {
+        return "INSERT INTO word_changes (word, kind, oldActive, oldStrength, newActive, newStrength) " +
+                "VALUES (" + word + ", " + kind + ", " + oldActive + ", " + oldStrength + ", " +
+                newActive + ", " + newStrength + ");";
+    }
+}
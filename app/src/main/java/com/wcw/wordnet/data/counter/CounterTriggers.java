@@ -0,0 +1,168 @@
+package com.wcw.wordnet.data.counter;
+
+import androidx.annotation.NonNull;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+import com.wcw.wordnet.model.entity.Counter;
+import com.wcw.wordnet.model.entity.DueDay;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 计数器表（counters）与到期直方图（due_histogram）的触发器与重建语句
+ * 进度条和红点角标读取这两张表，不再对 word_nodes / review_queue 做 COUNT(*)：
+ * - word_nodes 插入、isActive / memoryStrength 变化、删除（BEFORE）：调整活跃数、掌握数、强度和，
+ *   并把该单词复习项所在日期的到期数 ±1
+ * - review_queue 增删改：只在单词活跃时调整对应日期的到期数；单词删除时已先扣减，
+ *   随后级联删除的复习项找不到单词，不会重复扣减
+ * - review_queue 以 REPLACE 插入时，被替换的旧行不触发删除触发器（recursive_triggers 默认关闭），
+ *   由 BEFORE INSERT 先扣减旧行
+ * 直方图只统计活跃单词，计数归零的日期行随即删除。
+ *
+ * minSdk 24 的系统 SQLite 不支持 UPSERT，用"不存在才插入空行" + UPDATE 累加代替；
+ * 不用 INSERT OR IGNORE：外层语句的冲突策略会覆盖触发器内的策略，外层是 REPLACE 时会把已有的行清零。
+ */
+public final class CounterTriggers {
+
+    /**
+     * 已掌握的判定（数据看板的已掌握数 WordDao.getDashboardStats 以此为准）
+     */
+    private static final String MASTERED = " > 0.8";
+
+    private static final long DAY = DueDay.DAY_MILLIS;
+
+    private CounterTriggers() {}
+
+    /**
+     * 同步触发器（可重复执行）
+     */
+    @NonNull
+    public static List<String> triggerStatements() {
+        return Arrays.asList(
+                "CREATE TRIGGER IF NOT EXISTS counters_after_word_insert " +
+                        "AFTER INSERT ON word_nodes WHEN new.isActive = 1 BEGIN " +
+                        add(Counter.ACTIVE_WORDS, "1") +
+                        add(Counter.MASTERED_WORDS, "new.memoryStrength" + MASTERED) +
+                        add(Counter.STRENGTH_MICROS, micros("new")) +
+                        addDue(queuedDay("new"), queuedDay("new") + " IS NOT NULL") + " END",
+                "CREATE TRIGGER IF NOT EXISTS counters_after_word_update " +
+                        "AFTER UPDATE OF isActive, memoryStrength ON word_nodes " +
+                        "WHEN old.isActive <> new.isActive " +
+                        "OR (new.isActive = 1 AND old.memoryStrength <> new.memoryStrength) BEGIN " +
+                        add(Counter.ACTIVE_WORDS, "new.isActive - old.isActive") +
+                        add(Counter.MASTERED_WORDS, "(new.isActive = 1 AND new.memoryStrength" + MASTERED + ") - " +
+                                "(old.isActive = 1 AND old.memoryStrength" + MASTERED + ")") +
+                        add(Counter.STRENGTH_MICROS, "new.isActive * " + micros("new") +
+                                " - old.isActive * " + micros("old")) +
+                        addDue(queuedDay("new"), "old.isActive = 0 AND new.isActive = 1 AND " +
+                                queuedDay("new") + " IS NOT NULL") +
+                        removeDue(queuedDay("new"), "old.isActive = 1 AND new.isActive = 0") + " END",
+                "CREATE TRIGGER IF NOT EXISTS counters_before_word_delete " +
+                        "BEFORE DELETE ON word_nodes WHEN old.isActive = 1 BEGIN " +
+                        add(Counter.ACTIVE_WORDS, "-1") +
+                        add(Counter.MASTERED_WORDS, "-(old.memoryStrength" + MASTERED + ")") +
+                        add(Counter.STRENGTH_MICROS, "-" + micros("old")) +
+                        removeDue(queuedDay("old"), "1") + " END",
+                "CREATE TRIGGER IF NOT EXISTS due_histogram_before_queue_insert " +
+                        "BEFORE INSERT ON review_queue BEGIN " +
+                        removeDue("(SELECT next_review_time / " + DAY + " FROM review_queue " +
+                                "WHERE wordId = new.wordId)", activeWord("new")) + " END",
+                "CREATE TRIGGER IF NOT EXISTS due_histogram_after_queue_insert " +
+                        "AFTER INSERT ON review_queue BEGIN " +
+                        addDue(day("new"), activeWord("new")) + " END",
+                "CREATE TRIGGER IF NOT EXISTS due_histogram_after_queue_update " +
+                        "AFTER UPDATE OF wordId, next_review_time ON review_queue " +
+                        "WHEN old.wordId <> new.wordId OR " + day("old") + " <> " + day("new") + " BEGIN " +
+                        removeDue(day("old"), activeWord("old")) +
+                        addDue(day("new"), activeWord("new")) + " END",
+                "CREATE TRIGGER IF NOT EXISTS due_histogram_after_queue_delete " +
+                        "AFTER DELETE ON review_queue BEGIN " +
+                        removeDue(day("old"), activeWord("old")) + " END"
+        );
+    }
+
+    /**
+     * 用 word_nodes / review_queue 的现有数据重新计算计数器和直方图（空库上得到全部为 0 的计数器行）
+     */
+    @NonNull
+    public static List<String> backfillStatements() {
+        return Arrays.asList(
+                "INSERT INTO counters (name, value) " +
+                        "SELECT '" + Counter.ACTIVE_WORDS + "', COUNT(*) FROM word_nodes WHERE isActive = 1",
+                "INSERT INTO counters (name, value) " +
+                        "SELECT '" + Counter.MASTERED_WORDS + "', COUNT(*) FROM word_nodes " +
+                        "WHERE isActive = 1 AND memoryStrength" + MASTERED,
+                "INSERT INTO counters (name, value) " +
+                        "SELECT '" + Counter.STRENGTH_MICROS + "', COALESCE(SUM(" + micros("word_nodes") + "), 0) " +
+                        "FROM word_nodes WHERE isActive = 1",
+                "INSERT INTO due_histogram (epochDay, dueCount) " +
+                        "SELECT q.next_review_time / " + DAY + ", COUNT(*) FROM review_queue q " +
+                        "INNER JOIN word_nodes w ON w.word = q.wordId " +
+                        "WHERE w.isActive = 1 " +
+                        "GROUP BY q.next_review_time / " + DAY
+        );
+    }
+
+    /**
+     * 安装触发器（数据库创建和每次打开时调用，已存在则跳过）
+     */
+    public static void install(@NonNull SupportSQLiteDatabase db) {
+        for (String sql : triggerStatements()) {
+            db.execSQL(sql);
+        }
+    }
+
+    /**
+     * 清空并重建计数器和直方图
+     */
+    public static void rebuild(@NonNull SupportSQLiteDatabase db) {
+        db.execSQL("DELETE FROM counters");
+        db.execSQL("DELETE FROM due_histogram");
+        for (String sql : backfillStatements()) {
+            db.execSQL(sql);
+        }
+    }
+
+    private static String add(String counter, String delta) {
+        return "UPDATE counters SET value = value + (" + delta + ") WHERE name = '" + counter + "'; ";
+    }
+
+    private static String addDue(String day, String condition) {
+        return "INSERT INTO due_histogram (epochDay, dueCount) SELECT " + day + ", 0 " +
+                "WHERE " + condition + " AND NOT EXISTS (SELECT 1 FROM due_histogram WHERE epochDay = " + day + "); " +
+                "UPDATE due_histogram SET dueCount = dueCount + 1 " +
+                "WHERE epochDay = " + day + " AND " + condition + "; ";
+    }
+
+    private static String removeDue(String day, String condition) {
+        return "UPDATE due_histogram SET dueCount = dueCount - 1 " +
+                "WHERE epochDay = " + day + " AND " + condition + "; " +
+                "DELETE FROM due_histogram WHERE epochDay = " + day + " AND dueCount <= 0; ";
+    }
+
+    /**
+     * 复习项所在的日期
+     */
+    private static String day(String row) {
+        return "(" + row + ".next_review_time / " + DAY + ")";
+    }
+
+    /**
+     * 单词的复习项所在的日期（没有复习项时为 NULL）
+     */
+    private static String queuedDay(String row) {
+        return "(SELECT next_review_time / " + DAY + " FROM review_queue WHERE wordId = " + row + ".word)";
+    }
+
+    private static String activeWord(String row) {
+        return "EXISTS (SELECT 1 FROM word_nodes WHERE word = " + row + ".wordId AND isActive = 1)";
+    }
+
+    /**
+     * 记忆强度换算为百万分之一的整数（计数器只做整数加减，不会累积浮点误差）
+     */
+    private static String micros(String row) {
+        return "CAST(ROUND(" + row + ".memoryStrength * 1000000) AS INTEGER)";
+    }
+}
@@ -0,0 +1,615 @@
+package com.wcw.wordnet.data.graph;
+
+import androidx.annotation.NonNull;
+
+import java.util.Arrays;
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * 单词—词根二部图（内存，只读快照）
+ * 单词和词根分别编号为 0..W-1 / 0..M-1，邻接关系用 CSR（压缩稀疏行）存储：
+ * - wordOffsets[w] .. wordOffsets[w+1] 是单词 w 在 wordEdges 中的词根（升序、去重）
+ * - morphemeOffsets[m] .. morphemeOffsets[m+1] 是词根 m 在 morphemeEdges 中的单词（升序）
+ * 20 万条边只占两组 int 数组约 2 MB，没有一条边一个对象的开销；
+ * 邻域、共享词根等查询只在数组上顺序访问，结合按代递增的访问标记，不需要清空也不分配哈希表。
+ *
+ * 由 {@link Builder} 在读取 morpheme_relations 的一遍流式扫描中构建。
+ * 图本身不可变；连通分量和中心度在第一次使用时计算并缓存。
+ * 查询方法共用内部的访问标记数组，因此是 synchronized 的。
+ */
+public final class WordGraph {
+
+    /**
+     * 中心度幂迭代的最大轮数与收敛阈值
+     */
+    private static final int CENTRALITY_MAX_ITERATIONS = 100;
+    private static final double CENTRALITY_TOLERANCE = 1e-9;
+
+    private final Interner words;
+    private final Interner morphemes;
+
+    private final int[] wordOffsets;
+    private final int[] wordEdges;
+    private final int[] morphemeOffsets;
+    private final int[] morphemeEdges;
+
+    // 查询用的访问标记：stamp == generation 表示本次查询已访问
+    private final int[] wordStamp;
+    private final int[] morphemeStamp;
+    private final int[] wordScratch;
+    private final int[] queue;
+    private int generation;
+
+    // 延迟计算的结果
+    private int[] componentOfWord;
+    private int[] componentSizes;
+    private double[] centrality;
+
+    private WordGraph(Interner words, Interner morphemes,
+                      int[] wordOffsets, int[] wordEdges,
+                      int[] morphemeOffsets, int[] morphemeEdges) {
+        this.words = words;
+        this.morphemes = morphemes;
+        this.wordOffsets = wordOffsets;
+        this.wordEdges = wordEdges;
+        this.morphemeOffsets = morphemeOffsets;
+        this.morphemeEdges = morphemeEdges;
+        this.wordStamp = new int[words.size()];
+        this.morphemeStamp = new int[morphemes.size()];
+        this.wordScratch = new int[words.size()];
+        this.queue = new int[words.size()];
+    }
+
+    // ==================== 基本信息 ====================
+
+    public int wordCount() {
+        return words.size();
+    }
+
+    public int morphemeCount() {
+        return morphemes.size();
+    }
+
+    /**
+     * 边数（去重后的单词—词根关系数）
+     */
+    public int edgeCount() {
+        return wordEdges.length;
+    }
+
+    /**
+     * @return 单词编号，不在图中返回 -1
+     */
+    public int wordId(String word) {
+        return words.find(word);
+    }
+
+    /**
+     * @return 词根编号，不在图中返回 -1
+     */
+    public int morphemeId(String morpheme) {
+        return morphemes.find(morpheme);
+    }
+
+    @NonNull
+    public String word(int wordId) {
+        return words.name(wordId);
+    }
+
+    @NonNull
+    public String morpheme(int morphemeId) {
+        return morphemes.name(morphemeId);
+    }
+
+    public int wordDegree(int wordId) {
+        return wordOffsets[wordId + 1] - wordOffsets[wordId];
+    }
+
+    public int morphemeDegree(int morphemeId) {
+        return morphemeOffsets[morphemeId + 1] - morphemeOffsets[morphemeId];
+    }
+
+    /**
+     * 单词的全部词根编号（升序）
+     */
+    @NonNull
+    public int[] morphemesOf(int wordId) {
+        return Arrays.copyOfRange(wordEdges, wordOffsets[wordId], wordOffsets[wordId + 1]);
+    }
+
+    /**
+     * 使用该词根的全部单词编号（升序）
+     */
+    @NonNull
+    public int[] wordsOf(int morphemeId) {
+        return Arrays.copyOfRange(morphemeEdges, morphemeOffsets[morphemeId], morphemeOffsets[morphemeId + 1]);
+    }
+
+    /**
+     * 数组占用的字节数（不含单词和词根字符串本身）
+     */
+    public long memoryBytes() {
+        long ints = (long) wordOffsets.length + wordEdges.length
+                + morphemeOffsets.length + morphemeEdges.length
+                + wordStamp.length + morphemeStamp.length + wordScratch.length + queue.length
+                + words.tableLength() + morphemes.tableLength();
+        return ints * Integer.BYTES;
+    }
+
+    // ==================== 邻域与共享词根 ====================
+
+    /**
+     * k 跳邻域：通过共享词根可达的单词（单词→词根→单词 计一跳）
+     * 广度优先，结果按跳数由近到远，同一跳内按发现顺序；不含起点
+     * @param wordId 起点单词
+     * @param hops 跳数（≥ 1）
+     * @param limit 最多返回的单词数，达到后立即停止搜索
+     */
+    @NonNull
+    public synchronized int[] neighbourhood(int wordId, int hops, int limit) {
+        limit = Math.max(0, limit);
+        int stamp = nextGeneration();
+        wordStamp[wordId] = stamp;
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = wordId;
+        int found = 0;
+        int[] result = new int[Math.min(limit, wordCount())];
+
+        for (int hop = 0; hop < hops && head < tail && found < limit; hop++) {
+            int levelEnd = tail;
+            while (head < levelEnd && found < limit) {
+                int word = queue[head++];
+                for (int i = wordOffsets[word]; i < wordOffsets[word + 1] && found < limit; i++) {
+                    int morpheme = wordEdges[i];
+                    if (morphemeStamp[morpheme] == stamp) continue;
+                    morphemeStamp[morpheme] = stamp;
+                    for (int j = morphemeOffsets[morpheme]; j < morphemeOffsets[morpheme + 1]; j++) {
+                        int next = morphemeEdges[j];
+                        if (wordStamp[next] == stamp) continue;
+                        wordStamp[next] = stamp;
+                        queue[tail++] = next;
+                        result[found++] = next;
+                        if (found == limit) break;
+                    }
+                }
+            }
+        }
+        return found == result.length ? result : Arrays.copyOf(result, found);
+    }
+
+    /**
+     * 两个单词共享的词根数（两个有序数组求交，O(度数之和)）
+     */
+    public int sharedMorphemeCount(int wordA, int wordB) {
+        int i = wordOffsets[wordA];
+        int endA = wordOffsets[wordA + 1];
+        int j = wordOffsets[wordB];
+        int endB = wordOffsets[wordB + 1];
+        int shared = 0;
+        while (i < endA && j < endB) {
+            int a = wordEdges[i];
+            int b = wordEdges[j];
+            if (a == b) {
+                shared++;
+                i++;
+                j++;
+            } else if (a < b) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return shared;
+    }
+
+    /**
+     * 与给定单词共享词根最多的单词
+     * 对每个词根的单词列表累加计数，只触及一跳邻域
+     * @return 单词编号，按共享词根数从多到少（相同时按编号），不含自身
+     */
+    @NonNull
+    public synchronized int[] mostSimilar(int wordId, int limit) {
+        int stamp = nextGeneration();
+        wordStamp[wordId] = stamp;
+        int touched = 0;
+        for (int i = wordOffsets[wordId]; i < wordOffsets[wordId + 1]; i++) {
+            int morpheme = wordEdges[i];
+            for (int j = morphemeOffsets[morpheme]; j < morphemeOffsets[morpheme + 1]; j++) {
+                int other = morphemeEdges[j];
+                if (other == wordId) continue;
+                if (wordStamp[other] != stamp) {
+                    wordStamp[other] = stamp;
+                    wordScratch[other] = 0;
+                    queue[touched++] = other;
+                }
+                wordScratch[other]++;
+            }
+        }
+        int[] candidates = Arrays.copyOf(queue, touched);
+        int[] counts = wordScratch;
+        return top(candidates, id -> counts[id], limit);
+    }
+
+    // ==================== 连通分量 ====================
+
+    /**
+     * 连通分量数（只含单词的分量；没有词根的单词各自成为一个分量）
+     */
+    public synchronized int componentCount() {
+        computeComponents();
+        return componentSizes.length;
+    }
+
+    /**
+     * 单词所在的连通分量编号（0 开始，按发现顺序）
+     */
+    public synchronized int componentOf(int wordId) {
+        computeComponents();
+        return componentOfWord[wordId];
+    }
+
+    /**
+     * 连通分量中的单词数
+     */
+    public synchronized int componentSize(int component) {
+        computeComponents();
+        return componentSizes[component];
+    }
+
+    private void computeComponents() {
+        if (componentOfWord != null) return;
+        int[] labels = new int[wordCount()];
+        Arrays.fill(labels, -1);
+        int[] sizes = new int[Math.max(1, wordCount())];
+        int count = 0;
+        int stamp = nextGeneration();
+        for (int start = 0; start < wordCount(); start++) {
+            if (labels[start] >= 0) continue;
+            int component = count++;
+            int head = 0;
+            int tail = 0;
+            queue[tail++] = start;
+            labels[start] = component;
+            while (head < tail) {
+                int word = queue[head++];
+                for (int i = wordOffsets[word]; i < wordOffsets[word + 1]; i++) {
+                    int morpheme = wordEdges[i];
+                    if (morphemeStamp[morpheme] == stamp) continue;
+                    morphemeStamp[morpheme] = stamp;
+                    for (int j = morphemeOffsets[morpheme]; j < morphemeOffsets[morpheme + 1]; j++) {
+                        int next = morphemeEdges[j];
+                        if (labels[next] >= 0) continue;
+                        labels[next] = component;
+                        queue[tail++] = next;
+                    }
+                }
+            }
+            sizes[component] = tail;
+        }
+        componentOfWord = labels;
+        componentSizes = Arrays.copyOf(sizes, count);
+    }
+
+    // ==================== 排名 ====================
+
+    /**
+     * 词根最多的单词
+     */
+    @NonNull
+    public int[] topWordsByDegree(int limit) {
+        return top(identity(wordCount()), this::wordDegree, limit);
+    }
+
+    /**
+     * 使用单词最多的词根
+     */
+    @NonNull
+    public int[] topMorphemesByDegree(int limit) {
+        return top(identity(morphemeCount()), this::morphemeDegree, limit);
+    }
+
+    /**
+     * 单词的特征向量中心度（单词投影图 B·Bᵀ 的主特征向量，L2 归一化）
+     * 与大量“热门”单词共享词根的单词得分高；不在最大连通分量中的单词趋近于 0
+     */
+    public synchronized double centrality(int wordId) {
+        computeCentrality();
+        return centrality[wordId];
+    }
+
+    /**
+     * 中心度最高的单词
+     */
+    @NonNull
+    public synchronized int[] topWordsByCentrality(int limit) {
+        computeCentrality();
+        double[] scores = centrality;
+        return top(identity(wordCount()), id -> scores[id], limit);
+    }
+
+    private void computeCentrality() {
+        if (centrality != null) return;
+        int n = wordCount();
+        double[] x = new double[n];
+        double[] next = new double[n];
+        double[] morphemeScore = new double[morphemeCount()];
+        Arrays.fill(x, n == 0 ? 0 : 1.0 / Math.sqrt(n));
+        for (int iteration = 0; iteration < CENTRALITY_MAX_ITERATIONS; iteration++) {
+            for (int m = 0; m < morphemeScore.length; m++) {
+                double sum = 0;
+                for (int j = morphemeOffsets[m]; j < morphemeOffsets[m + 1]; j++) {
+                    sum += x[morphemeEdges[j]];
+                }
+                morphemeScore[m] = sum;
+            }
+            double norm = 0;
+            for (int w = 0; w < n; w++) {
+                double sum = 0;
+                for (int i = wordOffsets[w]; i < wordOffsets[w + 1]; i++) {
+                    sum += morphemeScore[wordEdges[i]];
+                }
+                next[w] = sum;
+                norm += sum * sum;
+            }
+            if (norm == 0) break;
+            norm = Math.sqrt(norm);
+            double delta = 0;
+            for (int w = 0; w < n; w++) {
+                next[w] /= norm;
+                delta += Math.abs(next[w] - x[w]);
+            }
+            double[] swap = x;
+            x = next;
+            next = swap;
+            if (delta < CENTRALITY_TOLERANCE) break;
+        }
+        centrality = x;
+    }
+
+    /**
+     * 前 limit 名（分数从高到低，相同时编号小的在前）
+     * 用大小为 limit 的小顶堆，O(n log limit)
+     */
+    private static int[] top(int[] candidates, IntToDoubleFunction score, int limit) {
+        int k = Math.min(limit, candidates.length);
+        if (k <= 0) return new int[0];
+        int[] heap = new int[k];
+        int size = 0;
+        for (int candidate : candidates) {
+            if (size < k) {
+                heap[size] = candidate;
+                siftUp(heap, size++, score);
+            } else if (better(candidate, heap[0], score)) {
+                heap[0] = candidate;
+                siftDown(heap, size, score);
+            }
+        }
+        int[] result = new int[size];
+        for (int i = size - 1; i >= 0; i--) {
+            result[i] = heap[0];
+            heap[0] = heap[--size];
+            siftDown(heap, size, score);
+        }
+        return result;
+    }
+
+    private static boolean better(int a, int b, IntToDoubleFunction score) {
+        double sa = score.applyAsDouble(a);
+        double sb = score.applyAsDouble(b);
+        return sa > sb || (sa == sb && a < b);
+    }
+
+    private static void siftUp(int[] heap, int index, IntToDoubleFunction score) {
+        int item = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!better(heap[parent], item, score)) break;
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = item;
+    }
+
+    private static void siftDown(int[] heap, int size, IntToDoubleFunction score) {
+        if (size == 0) return;
+        int item = heap[0];
+        int index = 0;
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) break;
+            if (child + 1 < size && better(heap[child], heap[child + 1], score)) child++;
+            if (!better(item, heap[child], score)) break;
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = item;
+    }
+
+    private static int[] identity(int n) {
+        int[] ids = new int[n];
+        for (int i = 0; i < n; i++) ids[i] = i;
+        return ids;
+    }
+
+    private int nextGeneration() {
+        if (++generation == Integer.MAX_VALUE) {
+            Arrays.fill(wordStamp, 0);
+            Arrays.fill(morphemeStamp, 0);
+            generation = 1;
+        }
+        return generation;
+    }
+
+    // ==================== 构建 ====================
+
+    /**
+     * 流式构建器：逐条 addEdge，最后 build() 一次性排成 CSR
+     * 边先按到达顺序存进两个可增长的 int 数组，build() 时计数排序到各单词名下，
+     * 行内排序去重后再反向生成词根→单词的邻接；总耗时 O(E log d)，d 为单词的词根数
+     */
+    public static final class Builder {
+
+        private final Interner words = new Interner();
+        private final Interner morphemes = new Interner();
+        private int[] edgeWord = new int[1024];
+        private int[] edgeMorpheme = new int[1024];
+        private int edgeCount;
+
+        /**
+         * 只登记单词（没有词根的单词也会出现在图中）
+         */
+        public Builder addWord(String word) {
+            if (word != null) words.intern(word);
+            return this;
+        }
+
+        /**
+         * 添加一条单词—词根关系；任一端为 null 时忽略，重复的关系在 build() 时去掉
+         */
+        public Builder addEdge(String word, String morpheme) {
+            if (word == null || morpheme == null) return this;
+            if (edgeCount == edgeWord.length) {
+                int capacity = edgeCount + (edgeCount >> 1);
+                edgeWord = Arrays.copyOf(edgeWord, capacity);
+                edgeMorpheme = Arrays.copyOf(edgeMorpheme, capacity);
+            }
+            edgeWord[edgeCount] = words.intern(word);
+            edgeMorpheme[edgeCount] = morphemes.intern(morpheme);
+            edgeCount++;
+            return this;
+        }
+
+        @NonNull
+        public WordGraph build() {
+            int wordCount = words.size();
+            int morphemeCount = morphemes.size();
+
+            // 单词 → 词根：计数排序
+            int[] wordOffsets = new int[wordCount + 1];
+            for (int e = 0; e < edgeCount; e++) {
+                wordOffsets[edgeWord[e] + 1]++;
+            }
+            for (int w = 0; w < wordCount; w++) {
+                wordOffsets[w + 1] += wordOffsets[w];
+            }
+            int[] fill = Arrays.copyOf(wordOffsets, wordCount);
+            int[] wordEdges = new int[edgeCount];
+            for (int e = 0; e < edgeCount; e++) {
+                wordEdges[fill[edgeWord[e]]++] = edgeMorpheme[e];
+            }
+
+            // 行内排序并去重，原地压缩
+            int write = 0;
+            for (int w = 0; w < wordCount; w++) {
+                int start = wordOffsets[w];
+                int end = wordOffsets[w + 1];
+                Arrays.sort(wordEdges, start, end);
+                wordOffsets[w] = write;
+                for (int i = start; i < end; i++) {
+                    if (i == start || wordEdges[i] != wordEdges[i - 1]) {
+                        wordEdges[write++] = wordEdges[i];
+                    }
+                }
+            }
+            wordOffsets[wordCount] = write;
+            if (write < wordEdges.length) {
+                wordEdges = Arrays.copyOf(wordEdges, write);
+            }
+
+            // 词根 → 单词：按单词编号顺序填入，行内自然有序
+            int[] morphemeOffsets = new int[morphemeCount + 1];
+            for (int morpheme : wordEdges) {
+                morphemeOffsets[morpheme + 1]++;
+            }
+            for (int m = 0; m < morphemeCount; m++) {
+                morphemeOffsets[m + 1] += morphemeOffsets[m];
+            }
+            fill = Arrays.copyOf(morphemeOffsets, morphemeCount);
+            int[] morphemeEdges = new int[write];
+            for (int w = 0; w < wordCount; w++) {
+                for (int i = wordOffsets[w]; i < wordOffsets[w + 1]; i++) {
+                    morphemeEdges[fill[wordEdges[i]]++] = w;
+                }
+            }
+
+            words.trim();
+            morphemes.trim();
+            return new WordGraph(words, morphemes, wordOffsets, wordEdges, morphemeOffsets, morphemeEdges);
+        }
+    }
+
+    /**
+     * 字符串 → 连续编号（开放寻址哈希表，表中存编号 + 1，0 表示空位）
+     * 比 HashMap<String, Integer> 少了每个条目的节点对象和装箱整数
+     */
+    static final class Interner {
+
+        private String[] names = new String[64];
+        private int[] table = new int[128];
+        private int size;
+
+        int intern(String name) {
+            int slot = slot(name);
+            if (table[slot] != 0) return table[slot] - 1;
+            if (size == names.length) {
+                names = Arrays.copyOf(names, size * 2);
+            }
+            names[size] = name;
+            table[slot] = ++size;
+            if (size * 2 > table.length) {
+                rehash(table.length * 2);
+            }
+            return size - 1;
+        }
+
+        int find(String name) {
+            if (name == null) return -1;
+            return table[slot(name)] - 1;
+        }
+
+        String name(int id) {
+            return names[id];
+        }
+
+        int size() {
+            return size;
+        }
+
+        int tableLength() {
+            return table.length;
+        }
+
+        void trim() {
+            names = Arrays.copyOf(names, size);
+        }
+
+        /**
+         * 名字所在的槽位，或者应该插入的空槽位
+         */
+        private int slot(String name) {
+            int mask = table.length - 1;
+            int slot = mix(name.hashCode()) & mask;
+            while (table[slot] != 0 && !names[table[slot] - 1].equals(name)) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private void rehash(int capacity) {
+            table = new int[capacity];
+            int mask = capacity - 1;
+            for (int id = 0; id < size; id++) {
+                int slot = mix(names[id].hashCode()) & mask;
+                while (table[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                table[slot] = id + 1;
+            }
+        }
+
+        private static int mix(int hash) {
+            return hash ^ (hash >>> 16);
+        }
+    }
+}
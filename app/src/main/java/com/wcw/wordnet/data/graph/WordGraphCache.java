@@ -0,0 +1,72 @@
+package com.wcw.wordnet.data.graph;
+
+import androidx.annotation.NonNull;
+import androidx.room.InvalidationTracker;
+
+import com.wcw.wordnet.data.local.database.AppDatabase;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * 单词—词根图的进程内缓存
+ * 图是只读快照，任何词根关系或单词（归档、删除）的变化都会让它过期，下次使用时整体重建；
+ * 重建只是一遍流式扫描加几次数组遍历，比维护可变的 CSR 简单可靠
+ */
+public class WordGraphCache {
+
+    private static volatile WordGraphCache INSTANCE;
+
+    /**
+     * 是否需要从数据库重新构建（初始为 true：尚未加载）
+     */
+    private final AtomicBoolean stale = new AtomicBoolean(true);
+
+    private WordGraph graph;
+
+    /**
+     * 获取进程内唯一的缓存，并注册 Room 失效监听
+     * @param db 数据库实例
+     */
+    public static WordGraphCache getInstance(AppDatabase db) {
+        if (INSTANCE == null) {
+            synchronized (WordGraphCache.class) {
+                if (INSTANCE == null) {
+                    WordGraphCache cache = new WordGraphCache();
+                    db.getInvalidationTracker().addObserver(
+                            new InvalidationTracker.Observer("morpheme_relations", "word_nodes") {
+                                @Override
+                                public void onInvalidated(@NonNull Set<String> tables) {
+                                    cache.stale.set(true);
+                                }
+                            });
+                    INSTANCE = cache;
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    /**
+     * 获取当前的图，过期时先用 loader 重建
+     * @param loader 同步读取词根关系并构建图（IO线程调用）
+     */
+    @NonNull
+    public synchronized WordGraph get(Supplier<WordGraph> loader) {
+        if (stale.getAndSet(false) || graph == null) {
+            try {
+                graph = loader.get();
+            } catch (RuntimeException e) {
+                // 读取失败时保持过期状态，下次重试
+                stale.set(true);
+                throw e;
+            }
+        }
+        return graph;
+    }
+
+    public boolean isStale() {
+        return stale.get();
+    }
+}
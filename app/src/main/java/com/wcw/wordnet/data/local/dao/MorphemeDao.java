@@ -1,16 +1,24 @@
 package com.wcw.wordnet.data.local.dao;
 
+import android.database.Cursor;
+
 import androidx.lifecycle.LiveData;
 import androidx.room.Dao;
 import androidx.room.Insert;
 import androidx.room.OnConflictStrategy;
 import androidx.room.Query;
+import androidx.room.Transaction;
 
+import com.wcw.wordnet.model.MorphemeCount;
+import com.wcw.wordnet.model.MorphemeNeighbour;
+import com.wcw.wordnet.model.MorphemeUsage;
 import com.wcw.wordnet.model.entity.MorphemeRelation;
 import com.wcw.wordnet.model.entity.WordNode;
 
 import java.util.List;
 
+import io.reactivex.Single;
+
 /**
  * 词根关系数据访问对象
  */
@@ -35,6 +43,13 @@ public interface MorphemeDao {
     @Query("SELECT * FROM morpheme_relations WHERE wordId = :wordId ORDER BY position ASC")
     LiveData<List<MorphemeRelation>> getRelationsByWord(String wordId);
 
+    /**
+     * 同步批量获取多个单词的词根关系（复习会话预取使用）
+     * @param wordIds 单词列表
+     */
+    @Query("SELECT * FROM morpheme_relations WHERE wordId IN (:wordIds) ORDER BY wordId, position ASC")
+    List<MorphemeRelation> getRelationsByWordsSync(List<String> wordIds);
+
     /**
      * 获取词根的所有相关单词
      */
@@ -43,15 +58,106 @@ public interface MorphemeDao {
             "WHERE mr.morpheme = :morpheme AND w.isActive = 1")
     LiveData<List<WordNode>> getWordsByMorpheme(String morpheme);
 
+    /**
+     * 单词的两跳邻域：单词 → 它的词根 → 共用这些词根的其他活跃单词
+     * 一条语句完成，不再对每个词根分别调用 getWordsByMorpheme（N+1 次查询）
+     * - own：单词自己的词根（wordId 索引）
+     * - siblings：沿 morpheme 索引找出共用词根的单词，按共用词根数从多到少、记忆强度从低到高取前 :limit 个；
+     *   "re" 这类有上千个兄弟单词的词根只在这里聚合一次，返回的行数由 :limit 封顶
+     * - 最后按 wordId 索引取回入选单词与共用词根之间的边
+     * @param word 中心单词
+     * @param limit 最多返回的邻居单词数
+     * @return 每行一条边（邻居单词, 共用词根），按邻居排名排序
+     */
+    @Query("WITH own(morpheme) AS (" +
+            "SELECT DISTINCT morpheme FROM morpheme_relations " +
+            "WHERE wordId = :word AND morpheme IS NOT NULL), " +
+            "siblings(wordId, sharedCount, strength) AS (" +
+            "SELECT mr.wordId, COUNT(DISTINCT mr.morpheme), MIN(w.memoryStrength) " +
+            "FROM own " +
+            "CROSS JOIN morpheme_relations mr ON mr.morpheme = own.morpheme " +
+            "CROSS JOIN word_nodes w ON w.word = mr.wordId " +
+            "WHERE mr.wordId <> :word AND w.isActive = 1 " +
+            "GROUP BY mr.wordId " +
+            "ORDER BY 2 DESC, 3 ASC, 1 ASC " +
+            "LIMIT :limit) " +
+            "SELECT s.wordId AS wordId, mr.morpheme AS morpheme, mr.position AS position, " +
+            "s.sharedCount AS sharedCount " +
+            "FROM siblings s " +
+            "CROSS JOIN morpheme_relations mr ON mr.wordId = s.wordId " +
+            "WHERE mr.morpheme IN (SELECT morpheme FROM own) " +
+            "ORDER BY s.sharedCount DESC, s.strength ASC, s.wordId ASC, mr.position ASC")
+    Single<List<MorphemeNeighbour>> getMorphemeNeighbourhood(String word, int limit);
+
+    /**
+     * 按词根前缀搜索相关单词（精确匹配包含在内）
+     * 在 morpheme 索引上做范围查找 [prefix, upperBound)，不扫描单词表
+     * 排序：精确命中的在前 → 词根位置靠前（前缀→词根→后缀）→ 记忆强度低的在前
+     * @param prefix 词根前缀，如 "struct"
+     * @param upperBound prefix 的上界（最后一个字符加一），如 "strucu"
+     * @return 去重后的单词列表LiveData
+     */
+    @Query("SELECT w.* FROM morpheme_relations mr " +
+            "CROSS JOIN word_nodes w ON w.word = mr.wordId " +
+            "WHERE mr.morpheme >= :prefix AND mr.morpheme < :upperBound " +
+            "AND w.isActive = 1 " +
+            "GROUP BY w.word " +
+            "ORDER BY MAX(mr.morpheme = :prefix) DESC, MIN(mr.position) ASC, " +
+            "w.memoryStrength ASC, w.word ASC")
+    LiveData<List<WordNode>> searchWordsByMorphemePrefix(String prefix, String upperBound);
+
     /**
      * 获取所有词根（去重）
      */
     @Query("SELECT DISTINCT morpheme FROM morpheme_relations ORDER BY morpheme ASC")
     LiveData<List<String>> getAllMorphemes();
 
+    /**
+     * 同步获取每个词根关联的活跃单词数（构建词根联想前缀树使用）
+     * 与 getAllMorphemes() 相同的词根集合，只计入未归档的单词
+     */
+    @Query("SELECT mr.morpheme AS morpheme, COUNT(DISTINCT mr.wordId) AS wordCount " +
+            "FROM morpheme_relations mr " +
+            "CROSS JOIN word_nodes w ON w.word = mr.wordId " +
+            "WHERE w.isActive = 1 " +
+            "GROUP BY mr.morpheme")
+    List<MorphemeCount> getMorphemeWordCountsSync();
+
+    /**
+     * 同步获取每个词根在各位置（前缀/词根/后缀）上的使用次数（构建词根拆分器使用）
+     * 整个单词作为词根的关系（没有拆分过的单词）不提供拆分信息，排除在外
+     */
+    @Query("SELECT morpheme, position, COUNT(*) AS wordCount " +
+            "FROM morpheme_relations " +
+            "WHERE lower(morpheme) <> lower(wordId) " +
+            "GROUP BY morpheme, position")
+    List<MorphemeUsage> getMorphemeUsageSync();
+
+    /**
+     * 活跃单词的全部词根关系，以游标逐行读取（构建单词—词根图使用）
+     * 不把整张表映射成实体列表，构建器边读边写入 int 数组
+     * 列顺序：0 = wordId，1 = morpheme
+     */
+    @Query("SELECT mr.wordId AS wordId, mr.morpheme AS morpheme " +
+            "FROM morpheme_relations mr " +
+            "CROSS JOIN word_nodes w ON w.word = mr.wordId " +
+            "WHERE w.isActive = 1 AND mr.morpheme IS NOT NULL")
+    Cursor getActiveRelationsCursor();
+
     /**
      * 删除单词的所有词根关系（当单词被删除时）
      */
     @Query("DELETE FROM morpheme_relations WHERE wordId = :wordId")
     void deleteByWordId(String wordId);
+
+    /**
+     * 用新的拆分结果替换单词的全部词根关系
+     * @param wordId 单词
+     * @param relations 新的词根关系
+     */
+    @Transaction
+    default void replaceRelations(String wordId, List<MorphemeRelation> relations) {
+        deleteByWordId(wordId);
+        insertAll(relations);
+    }
 }
\ No newline at end of file
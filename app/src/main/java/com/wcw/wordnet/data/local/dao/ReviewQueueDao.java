@@ -5,8 +5,10 @@ import androidx.room.Dao;
 import androidx.room.Insert;
 import androidx.room.OnConflictStrategy;
 import androidx.room.Query;
+import androidx.room.Transaction;
 import androidx.room.Update;
 
+import com.wcw.wordnet.model.DueCard;
 import com.wcw.wordnet.model.entity.ReviewQueue;
 import com.wcw.wordnet.model.entity.WordNode;
 
@@ -40,6 +42,25 @@ public interface ReviewQueueDao {
     @Update
     void updateReviewQueue(ReviewQueue item);
 
+    /**
+     * 列级更新复习计划：只写 SM-2 调度列，并重置为待复习状态
+     * @param wordId 单词ID
+     * @param nextReviewTime 下次复习时间
+     * @param intervalDays 复习间隔天数
+     * @param easinessFactor 难度因子
+     * @param repetitionCount 连续正确次数
+     * @return 受影响的行数
+     */
+    @Query("UPDATE review_queue " +
+            "SET next_review_time = :nextReviewTime, " +
+            "interval_days = :intervalDays, " +
+            "easiness_factor = :easinessFactor, " +
+            "repetition_count = :repetitionCount, " +
+            "review_state = 0 " +
+            "WHERE wordId = :wordId")
+    int updateSchedule(String wordId, long nextReviewTime, int intervalDays,
+                       float easinessFactor, int repetitionCount);
+
     /**
      * 删除单个复习项（当单词被归档或删除时）
      */
@@ -52,6 +73,42 @@ public interface ReviewQueueDao {
     @Query("DELETE FROM review_queue")
     void deleteAllReviewQueues();
 
+    /**
+     * 为还没有复习项的活跃单词补建初始复习项（立即到期）
+     * 单条 INSERT … SELECT 反连接，已有的复习项（SM-2 进度）保持不变
+     * @param now 初始的下次复习时间
+     * @param easinessFactor 初始难度因子
+     */
+    @Query("INSERT INTO review_queue " +
+            "(wordId, next_review_time, interval_days, easiness_factor, repetition_count, review_state) " +
+            "SELECT w.word, :now, 1, :easinessFactor, 0, 0 " +
+            "FROM word_nodes w " +
+            "WHERE w.isActive = 1 " +
+            "AND NOT EXISTS (SELECT 1 FROM review_queue q WHERE q.wordId = w.word)")
+    void insertMissingReviewQueues(long now, float easinessFactor);
+
+    /**
+     * 删除单词已不存在的复习项
+     * @return 删除的行数
+     */
+    @Query("DELETE FROM review_queue " +
+            "WHERE NOT EXISTS (SELECT 1 FROM word_nodes w WHERE w.word = review_queue.wordId)")
+    int deleteOrphanedReviewQueues();
+
+    /**
+     * 增量对齐复习队列与单词表（一个事务内完成）
+     * 只补缺失的行、只删孤立的行，单词数再多也只是两条语句
+     * @param now 新复习项的下次复习时间
+     * @param easinessFactor 新复习项的难度因子
+     * @return 删除的孤立复习项数量
+     */
+    @Transaction
+    default int reconcileReviewQueues(long now, float easinessFactor) {
+        int removed = deleteOrphanedReviewQueues();
+        insertMissingReviewQueues(now, easinessFactor);
+        return removed;
+    }
+
     /**
      * 根据wordId同步查询复习项（Repository内部使用）
      */
@@ -62,20 +119,33 @@ public interface ReviewQueueDao {
      * 获取下一个到期的复习单词（只取1个）
      * 联合查询：review_queue + word_nodes
      * ✅ 修改：返回 Single<WordNode> 而不是 LiveData<WordNode>
+     * CROSS JOIN 固定以 review_queue 为外表：沿 next_review_time 索引做范围查找，
+     * 否则 SQLite 会优先选择 isActive = 1 的等值条件，遍历全部活跃单词后再排序
      */
-    @Query("SELECT w.* FROM word_nodes w " +
-            "INNER JOIN review_queue q ON w.word = q.wordId " +
+    @Query("SELECT w.* FROM review_queue q " +
+            "CROSS JOIN word_nodes w ON w.word = q.wordId " +
             "WHERE q.next_review_time <= :currentTime " +
             "AND w.isActive = 1 " +
             "ORDER BY q.next_review_time ASC LIMIT 1")
     Maybe<WordNode> getNextDueWord(long currentTime);
 
+    /**
+     * 同步加载所有到期的复习卡片（复习计划 + 单词）
+     * 供内存复习队列一次性建堆使用，无需排序
+     * CROSS JOIN 的原因同 {@link #getNextDueWord(long)}
+     */
+    @Query("SELECT q.*, w.* FROM review_queue q " +
+            "CROSS JOIN word_nodes w ON w.word = q.wordId " +
+            "WHERE q.next_review_time <= :currentTime " +
+            "AND w.isActive = 1")
+    List<DueCard> getDueCardsSync(long currentTime);
+
     /**
      * 获取多个到期的复习单词（用于批量加载，提高性能）
      * @param limit 限制数量，如10个
      */
-    @Query("SELECT w.* FROM word_nodes w " +
-            "INNER JOIN review_queue q ON w.word = q.wordId " +
+    @Query("SELECT w.* FROM review_queue q " +
+            "CROSS JOIN word_nodes w ON w.word = q.wordId " +
             "WHERE q.next_review_time <= :currentTime " +
             "AND w.isActive = 1 " +
             "ORDER BY q.next_review_time ASC LIMIT :limit")
@@ -84,8 +154,14 @@ public interface ReviewQueueDao {
     /**
      * 统计当前到期的复习数量（用于显示小红点或进度）
      * ✅ 修改：返回 Single<Integer> 而不是 LiveData<Integer>
+     * 只统计活跃单词（已归档单词的复习项不计入）；今天零点（UTC）之前的部分读取到期直方图，
+     * 只有今天的复习项走 next_review_time 索引逐行计数，与词库大小无关
      */
-    @Query("SELECT COUNT(*) FROM review_queue WHERE next_review_time <= :currentTime")
+    @Query("SELECT " +
+            "(SELECT COUNT(*) FROM review_queue q CROSS JOIN word_nodes w ON w.word = q.wordId " +
+            "WHERE q.next_review_time >= :currentTime / 86400000 * 86400000 " +
+            "AND q.next_review_time <= :currentTime AND w.isActive = 1) + " +
+            "(SELECT COALESCE(SUM(dueCount), 0) FROM due_histogram WHERE epochDay < :currentTime / 86400000)")
     Single<Integer> getDueReviewCount(long currentTime);
 
     /**
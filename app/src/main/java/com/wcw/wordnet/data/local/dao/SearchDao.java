@@ -0,0 +1,54 @@
+package com.wcw.wordnet.data.local.dao;
+
+import androidx.room.Dao;
+import androidx.room.Query;
+
+import com.wcw.wordnet.model.entity.WordNode;
+
+import java.util.List;
+
+import io.reactivex.Single;
+
+/**
+ * 全文检索数据访问对象
+ * 查询 word_search（FTS4），按 rowid 回表取单词
+ */
+@Dao
+public interface SearchDao {
+
+    /**
+     * 全文搜索活跃单词
+     * 排序：单词完全相同 → 单词前缀命中 → 词根前缀命中 → 其余（释义命中），
+     * 同级按记忆强度从低到高、单词从短到长
+     * @param match FTS4 MATCH 表达式（由 SearchQuery 生成）
+     * @param term 用于排序的英文词，没有时传空字符串
+     * @param termUpperBound term 的前缀范围上界
+     * @param limit 最多返回的数量
+     */
+    @Query("SELECT w.* FROM word_search s " +
+            "CROSS JOIN word_nodes w ON w.rowid = s.rowid " +
+            "WHERE word_search MATCH :match AND w.isActive = 1 " +
+            "ORDER BY CASE " +
+            "WHEN w.word = :term THEN 0 " +
+            "WHEN w.word >= :term AND w.word < :termUpperBound THEN 1 " +
+            "WHEN (' ' || s.morphemes) LIKE ('% ' || :term || '%') THEN 2 " +
+            "ELSE 3 END, " +
+            "w.memoryStrength ASC, length(w.word) ASC, w.word ASC " +
+            "LIMIT :limit")
+    Single<List<WordNode>> search(String match, String term, String termUpperBound, int limit);
+
+    /**
+     * 单词前缀搜索（只输入了一个字母时代替全文搜索）
+     * 一个字母的前缀词项命中大半个词库，全文搜索要先取出全部命中再排序；
+     * 这里沿主键范围按字典序读取，读满 limit 个即停止，完全相同的单词自然排在最前
+     * （+isActive 让 isActive 不参与选索引，否则会按 isActive 索引取出全部活跃单词再排序）
+     * @param term 英文前缀
+     * @param termUpperBound term 的前缀范围上界
+     * @param limit 最多返回的数量
+     */
+    @Query("SELECT * FROM word_nodes " +
+            "WHERE word >= :term AND word < :termUpperBound AND +isActive = 1 " +
+            "ORDER BY word ASC " +
+            "LIMIT :limit")
+    Single<List<WordNode>> searchWordPrefix(String term, String termUpperBound, int limit);
+}
@@ -4,14 +4,21 @@ import androidx.lifecycle.LiveData;
 import androidx.room.Dao;
 import androidx.room.Delete;
 import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
 import androidx.room.Query;
+import androidx.room.Transaction;
 import androidx.room.Update;
 
+import com.wcw.wordnet.data.algorithm.Sm2Algorithm;
+import com.wcw.wordnet.model.DashboardStats;
 import com.wcw.wordnet.model.RootStatistic;
+import com.wcw.wordnet.model.WordReviewStats;
+import com.wcw.wordnet.model.entity.WordChange;
 import com.wcw.wordnet.model.entity.WordNode;
 
 import java.util.List;
 
+import io.reactivex.Flowable;
 import io.reactivex.Single;
 
 /**
@@ -29,6 +36,15 @@ public interface WordDao {
     @Insert
     void insert(WordNode word);
 
+    /**
+     * 批量插入单词（导入词库使用）
+     * 已存在的单词保持不变
+     * @param words 要插入的单词
+     * @return 每个单词的 rowId；已存在而被忽略的单词为 -1
+     */
+    @Insert(onConflict = OnConflictStrategy.IGNORE)
+    long[] insertAllIgnoringExisting(List<WordNode> words);
+
     /**
      * 更新单词信息
      * @param word 要更新的单词实体
@@ -53,6 +69,55 @@ public interface WordDao {
             "ORDER BY memoryStrength ASC")
     LiveData<List<WordNode>> getAllActiveWords();
 
+    // ==================== 单词列表分页（键集分页） ====================
+    // 按 (memoryStrength, word) 排序，用上一页最后一个单词作为游标继续读取，
+    // 而不是 LIMIT/OFFSET：每页都是 (isActive, memoryStrength, word) 索引上的一次范围查找，
+    // 翻到第几页耗时都一样。minSdk 24 的 SQLite 不支持行值比较 (a, b) > (?, ?)，展开成 OR 的形式，
+    // 前面再加一个 memoryStrength 的范围条件，保证走索引范围查找。
+
+    /**
+     * 第一页
+     * @param limit 页大小
+     */
+    @Query("SELECT * FROM word_nodes " +
+            "WHERE isActive = 1 " +
+            "ORDER BY memoryStrength ASC, word ASC " +
+            "LIMIT :limit")
+    Single<List<WordNode>> getActiveWordsFirstPage(int limit);
+
+    /**
+     * 从某个单词开始（包含该单词）向后一页，刷新时使用
+     * @param strength 游标单词的记忆强度
+     * @param word 游标单词
+     */
+    @Query("SELECT * FROM word_nodes " +
+            "WHERE isActive = 1 AND memoryStrength >= :strength " +
+            "AND (memoryStrength > :strength OR word >= :word) " +
+            "ORDER BY memoryStrength ASC, word ASC " +
+            "LIMIT :limit")
+    Single<List<WordNode>> getActiveWordsFrom(float strength, String word, int limit);
+
+    /**
+     * 某个单词之后（不含）的一页，向下滚动时使用
+     */
+    @Query("SELECT * FROM word_nodes " +
+            "WHERE isActive = 1 AND memoryStrength >= :strength " +
+            "AND (memoryStrength > :strength OR word > :word) " +
+            "ORDER BY memoryStrength ASC, word ASC " +
+            "LIMIT :limit")
+    Single<List<WordNode>> getActiveWordsAfter(float strength, String word, int limit);
+
+    /**
+     * 某个单词之前（不含）的一页，向上滚动时使用
+     * 倒序读取，调用方需要把结果反转回正序
+     */
+    @Query("SELECT * FROM word_nodes " +
+            "WHERE isActive = 1 AND memoryStrength <= :strength " +
+            "AND (memoryStrength < :strength OR word < :word) " +
+            "ORDER BY memoryStrength DESC, word DESC " +
+            "LIMIT :limit")
+    Single<List<WordNode>> getActiveWordsBefore(float strength, String word, int limit);
+
     /**
      * 获取记忆强度最弱的N个单词，用于复习列表，优先复习最薄弱的单词
      * @param limit 返回的最大数量
@@ -61,7 +126,7 @@ public interface WordDao {
     @Query("SELECT * " +
             "FROM word_nodes " +
             "WHERE isActive = 1 " +
-            "ORDER BY memoryStrength ASC " +
+            "ORDER BY memoryStrength ASC, word ASC " +
             "LIMIT :limit")
     LiveData<List<WordNode>> getWeakWords(int limit);
 
@@ -76,52 +141,48 @@ public interface WordDao {
             "LIMIT 1")
     Single<WordNode> getWordById(String word);
 
-    /**
-     * 根据词根查询相关单词
-     * 在morphemeList(JSON字符串)中模糊匹配词根
-     * 示例: 输入"struct"会匹配 ["re","struct","tion"] 和 ["struct","ure"]
-     * @param root 词根字符串，如"struct"、"re"
-     * @return 包含该词根的单词列表LiveData
-     */
-    @Query("SELECT * " +
-            "FROM word_nodes " +
-            "WHERE morphemeList " +
-            "LIKE '%' || :root || '%' AND isActive=1")  // ‘||’ 是SQLite的字符串连接符
-    LiveData<List<WordNode>> getWordsByRoot(String root);
-
     /**
      * 统计词根学习情况
-     * 返回每个词根对应的单词数量和平均记忆强度
+     * 返回每个词根对应的单词数量、已掌握数和平均记忆强度
      * 用于数据看板的“词根掌握雷达图”
+     * 读取触发器维护的 morpheme_stats（按 wordCount 索引倒序），不再对 word_nodes 全表聚合
      * @return 词根统计信息
      */
     @Query("SELECT " +
-            "morphemeList, " +
-            "COUNT(*) as wordCount, " +
-            "AVG(memoryStrength) as avgStrength " +
-            "FROM word_nodes " +
-            "WHERE isActive=1 " +
-            "GROUP BY morphemeList " +
+            "morpheme, " +
+            "wordCount, " +
+            "masteredCount, " +
+            "strengthSum / wordCount as avgStrength " +
+            "FROM morpheme_stats " +
             "ORDER BY wordCount DESC")
     LiveData<List<RootStatistic>> getRootStatistics();
 
     /**
-     * 获取单词总数
-     * return 单词数量
-     */
-    @Query("SELECT COUNT(*) " +
-            "FROM word_nodes " +
-            "WHERE isActive = 1")
-    LiveData<Integer> getWordCount();
-
-    /**
-     * 获取已掌握的单词数（memoryStrength >= 0.8）
-     * @return 已掌握单词数量
+     * 数据看板统计：总数、已掌握数、现在到期数、今日到期数、平均强度
+     * 一条语句完成，全部数字来自同一个读快照；计数器或复习队列变化时重新执行一次
+     * - 总数、已掌握数、平均强度：读取触发器维护的计数器（强度和以百万分之一为单位）
+     * - 到期数：到期直方图中截止日之前的整天求和，再加上截止日当天零点（UTC）到截止时间的
+     *   复习项（走 next_review_time 索引，最多一天的量）；只统计活跃单词，
+     *   CROSS JOIN 的原因同 ReviewQueueDao.getNextDueWord
+     * 与词库大小无关
+     * @param now 当前时间
+     * @param endOfDay 今天结束的时间（不含）
      */
-    @Query("SELECT COUNT(*) " +
-            "FROM word_nodes " +
-            "WHERE isActive=1 AND memoryStrength>0.8")
-    LiveData<Integer> getMasteredWordCount();
+    @Query("SELECT " +
+            "(SELECT value FROM counters WHERE name = 'active_words') AS totalWords, " +
+            "(SELECT value FROM counters WHERE name = 'mastered_words') AS masteredWords, " +
+            "(SELECT COUNT(*) FROM review_queue q CROSS JOIN word_nodes w ON w.word = q.wordId " +
+            "WHERE q.next_review_time >= :now / 86400000 * 86400000 AND q.next_review_time <= :now " +
+            "AND w.isActive = 1) + " +
+            "(SELECT COALESCE(SUM(dueCount), 0) FROM due_histogram WHERE epochDay < :now / 86400000) AS dueNow, " +
+            "(SELECT COUNT(*) FROM review_queue q CROSS JOIN word_nodes w ON w.word = q.wordId " +
+            "WHERE q.next_review_time >= :endOfDay / 86400000 * 86400000 AND q.next_review_time < :endOfDay " +
+            "AND w.isActive = 1) + " +
+            "(SELECT COALESCE(SUM(dueCount), 0) FROM due_histogram WHERE epochDay < :endOfDay / 86400000) AS dueToday, " +
+            "(SELECT COALESCE(s.value / 1000000.0 / NULLIF(a.value, 0), 0) " +
+            "FROM counters a CROSS JOIN counters s " +
+            "WHERE a.name = 'active_words' AND s.name = 'strength_micros') AS avgStrength")
+    Flowable<DashboardStats> getDashboardStats(long now, long endOfDay);
 
     /**
      * 软删除，将单词标记为不可见
@@ -155,4 +216,93 @@ public interface WordDao {
 
     @Query("SELECT COUNT(*) FROM word_nodes")
     int getWordCountSync();  // ✅ 同步方法，直接返回 int
+
+    /**
+     * 同步批量获取单词（变更流读取发生变化的行）
+     * @param words 单词列表
+     */
+    @Query("SELECT * FROM word_nodes WHERE word IN (:words)")
+    List<WordNode> getWordsByIdsSync(List<String> words);
+
+    /**
+     * 读取某个序号之后的单词变更日志
+     * @param afterSeq 已处理的最后一个序号
+     * @param limit 一次最多读取的条数
+     */
+    @Query("SELECT * FROM word_changes WHERE seq > :afterSeq ORDER BY seq ASC LIMIT :limit")
+    List<WordChange> getWordChangesSync(long afterSeq, int limit);
+
+    /**
+     * 变更日志的最后一个序号（没有日志时为 0）
+     */
+    @Query("SELECT COALESCE(MAX(seq), 0) FROM word_changes")
+    long getLastWordChangeSeqSync();
+
+    /**
+     * 删除已分发的变更日志
+     * @param seq 删除该序号及之前的日志
+     * @return 删除的条数
+     */
+    @Query("DELETE FROM word_changes WHERE seq <= :seq")
+    int pruneWordChanges(long seq);
+
+    /**
+     * 同步获取尚未拆分词根的单词：词根列表为空，或只有单词本身
+     * 用于批量自动拆分（每个进程一次）
+     */
+    @Query("SELECT * FROM word_nodes " +
+            "WHERE morphemeList = '[]' " +
+            "OR lower(morphemeList) = lower('[\"' || word || '\"]')")
+    List<WordNode> getUnsplitWordsSync();
+
+    /**
+     * 列级更新词根列表（自动拆分后写回）
+     * @param word 单词字符串
+     * @param morphemeList JSON 格式的词根列表
+     */
+    @Query("UPDATE word_nodes SET morphemeList = :morphemeList WHERE word = :word")
+    void updateMorphemeList(String word, String morphemeList);
+
+    /**
+     * 只读取复习相关的列（列级更新使用）
+     * @param word 单词字符串
+     * @return 复习统计；单词不存在时返回 null
+     */
+    @Query("SELECT word, memoryStrength, reviewCount, lastReviewed " +
+            "FROM word_nodes " +
+            "WHERE word = :word " +
+            "LIMIT 1")
+    WordReviewStats getReviewStatsSync(String word);
+
+    /**
+     * 列级更新复习结果：只写 memoryStrength / reviewCount / lastReviewed
+     * 复习次数用 SQL 表达式自增，不覆盖 morphemeList、chineseMeaning 等其他列
+     * @param word 单词字符串
+     * @param memoryStrength 新的记忆强度（由 Sm2Algorithm 计算）
+     * @param reviewedAt 复习时间戳
+     * @return 受影响的行数
+     */
+    @Query("UPDATE word_nodes " +
+            "SET memoryStrength = MAX(0.0, MIN(1.0, :memoryStrength)), " +
+            "reviewCount = reviewCount + 1, " +
+            "lastReviewed = :reviewedAt " +
+            "WHERE word = :word")
+    int updateReviewStats(String word, float memoryStrength, long reviewedAt);
+
+    /**
+     * 原子地记录一次复习：读取当前强度 → 计算 → 列级写回，在同一事务内完成
+     * 并发点击时后一次复习一定基于前一次的结果，不会丢失更新
+     * @param word 单词字符串
+     * @param isCorrect 是否答对
+     * @param reviewedAt 复习时间戳
+     * @return 单词不存在时返回 false
+     */
+    @Transaction
+    default boolean applyReview(String word, boolean isCorrect, long reviewedAt) {
+        WordReviewStats stats = getReviewStatsSync(word);
+        if (stats == null) return false;
+        float newStrength = Sm2Algorithm.calculateMemoryStrength(
+                stats.getMemoryStrength(), stats.getReviewCount(), isCorrect);
+        return updateReviewStats(word, newStrength, reviewedAt) > 0;
+    }
 }
@@ -10,16 +10,30 @@ import androidx.room.RoomDatabase;
 import androidx.room.migration.Migration;
 import androidx.sqlite.db.SupportSQLiteDatabase;
 
+import com.wcw.wordnet.data.change.WordChangeTriggers;
+import com.wcw.wordnet.data.counter.CounterTriggers;
 import com.wcw.wordnet.data.local.dao.MorphemeDao;
 import com.wcw.wordnet.data.local.dao.ReviewQueueDao;
+import com.wcw.wordnet.data.local.dao.SearchDao;
 import com.wcw.wordnet.data.local.dao.WordDao;
+import com.wcw.wordnet.data.morpheme.MorphemeStatsTriggers;
+import com.wcw.wordnet.data.morpheme.MorphemeWriteCounter;
+import com.wcw.wordnet.data.review.ReviewJournalMark;
+import com.wcw.wordnet.data.review.ReviewWriteCounter;
+import com.wcw.wordnet.data.search.SearchIndex;
+import com.wcw.wordnet.model.entity.Counter;
+import com.wcw.wordnet.model.entity.DueDay;
 import com.wcw.wordnet.model.entity.MorphemeRelation;
+import com.wcw.wordnet.model.entity.MorphemeStats;
 import com.wcw.wordnet.model.entity.ReviewQueue;
+import com.wcw.wordnet.model.entity.WordChange;
 import com.wcw.wordnet.model.entity.WordNode;
+import com.wcw.wordnet.model.entity.WordSearchEntry;
 
+import java.io.IOException;
+import java.util.Arrays;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.Executor;
 
 /**
  * Room数据库主类（AppDatabase）
@@ -32,10 +46,15 @@ import java.util.concurrent.Executors;
         entities = {
                 WordNode.class,
                 ReviewQueue.class,
-                MorphemeRelation.class
+                MorphemeRelation.class,
+                WordSearchEntry.class,
+                MorphemeStats.class,
+                WordChange.class,
+                Counter.class,
+                DueDay.class
         },
-        version = 4,
-        exportSchema = false)
+        version = 10,
+        exportSchema = true)
 public abstract class AppDatabase extends RoomDatabase {
 
     /**
@@ -45,16 +64,17 @@ public abstract class AppDatabase extends RoomDatabase {
     private static final String DATABASE_NAME = "wordnet_db";
 
     /**
-     * 单利模式
-     * volatile 确保线程安全，禁止指令重排序
+     * 构建时生成的预置数据库（见 app/build.gradle.kts 中的 PrebuiltDatabaseTask）
+     * 结构取自 Room 在编译时导出的当前版本，复制后不需要迁移
      */
-    private static volatile AppDatabase INSTANCE;   // INSTANCE 是 AppDatabase 类自身的静态成员变量
+    private static final String PREBUILT_ASSET_DIR = "databases";
+    private static final String PREBUILT_ASSET_NAME = "wordnet_prebuilt.db";
 
     /**
-     * 线程池：用于数据库的异步操作（初始化、IO）
-     * 固定4个线程，避免创建过多线程
+     * 单利模式
+     * volatile 确保线程安全，禁止指令重排序
      */
-    private static final ExecutorService databaseWriteExecutor = Executors.newFixedThreadPool(4);
+    private static volatile AppDatabase INSTANCE;   // INSTANCE 是 AppDatabase 类自身的静态成员变量
 
     private static Context appContext; // 新增静态Context字段
 
@@ -66,6 +86,7 @@ public abstract class AppDatabase extends RoomDatabase {
 
     public abstract ReviewQueueDao reviewQueueDao();  // 新增DAO
     public abstract MorphemeDao morphemeDao();
+    public abstract SearchDao searchDao();
 
     private static final Migration MIGRATION_3_4 = new Migration(3, 4) {
         @Override
@@ -75,6 +96,117 @@ public abstract class AppDatabase extends RoomDatabase {
         }
     };
 
+    /**
+     * 版本5：为热点查询补充索引
+     * 索引名与 Room 根据 @Index 生成的名称保持一致，否则打开数据库时校验失败
+     */
+    private static final Migration MIGRATION_4_5 = new Migration(4, 5) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_review_queue_next_review_time` " +
+                    "ON `review_queue` (`next_review_time`)");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_word_nodes_isActive_memoryStrength` " +
+                    "ON `word_nodes` (`isActive`, `memoryStrength`)");
+            // (wordId, position) 覆盖原来的 wordId 单列索引
+            database.execSQL("DROP INDEX IF EXISTS `index_morpheme_relations_wordId`");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_morpheme_relations_wordId_position` " +
+                    "ON `morpheme_relations` (`wordId`, `position`)");
+        }
+    };
+
+    /**
+     * 版本6：全文检索表 word_search（FTS4），由触发器与 word_nodes 保持同步
+     */
+    private static final Migration MIGRATION_5_6 = new Migration(5, 6) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            database.execSQL(SearchIndex.CREATE_TABLE_SQL);
+            SearchIndex.install(database);
+            SearchIndex.rebuild(database);
+        }
+    };
+
+    /**
+     * 版本7：词根统计聚合表 morpheme_stats，由触发器增量维护，迁移时按现有数据回填
+     */
+    private static final Migration MIGRATION_6_7 = new Migration(6, 7) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            database.execSQL("CREATE TABLE IF NOT EXISTS `morpheme_stats` (`morpheme` TEXT NOT NULL, " +
+                    "`wordCount` INTEGER NOT NULL, `masteredCount` INTEGER NOT NULL, " +
+                    "`strengthSum` REAL NOT NULL, PRIMARY KEY(`morpheme`))");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_morpheme_stats_wordCount` " +
+                    "ON `morpheme_stats` (`wordCount`)");
+            MorphemeStatsTriggers.install(database);
+            MorphemeStatsTriggers.rebuild(database);
+        }
+    };
+
+    /**
+     * 版本8：单词列表键集分页，(isActive, memoryStrength) 索引末尾加上 word
+     */
+    private static final Migration MIGRATION_7_8 = new Migration(7, 8) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            database.execSQL("DROP INDEX IF EXISTS `index_word_nodes_isActive_memoryStrength`");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_word_nodes_isActive_memoryStrength_word` " +
+                    "ON `word_nodes` (`isActive`, `memoryStrength`, `word`)");
+        }
+    };
+
+    /**
+     * 版本9：单词变更日志 word_changes，由触发器在每次写入 word_nodes 时追加
+     */
+    private static final Migration MIGRATION_8_9 = new Migration(8, 9) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            database.execSQL(WordChangeTriggers.CREATE_TABLE_SQL);
+            WordChangeTriggers.install(database);
+        }
+    };
+
+    /**
+     * 版本10：计数器表 counters 与到期直方图 due_histogram，由触发器增量维护，迁移时按现有数据回填；
+     * 同时替换词根统计的旧触发器（REPLACE 插入关系时会清零统计行）并重建统计
+     */
+    private static final Migration MIGRATION_9_10 = new Migration(9, 10) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            database.execSQL("CREATE TABLE IF NOT EXISTS `counters` (`name` TEXT NOT NULL, " +
+                    "`value` INTEGER NOT NULL, PRIMARY KEY(`name`))");
+            database.execSQL("CREATE TABLE IF NOT EXISTS `due_histogram` (`epochDay` INTEGER NOT NULL, " +
+                    "`dueCount` INTEGER NOT NULL, PRIMARY KEY(`epochDay`))");
+            CounterTriggers.install(database);
+            CounterTriggers.rebuild(database);
+            MorphemeStatsTriggers.reinstall(database);
+            MorphemeStatsTriggers.rebuild(database);
+        }
+    };
+
+    /**
+     * 预置数据库复制后、Room 打开之前调用（只在首次安装时调用一次）
+     * 预置数据库只包含单词、词根关系和复习项；触发器和由它们维护的派生表与迁移时一样在这里安装并回填
+     */
+    private static final RoomDatabase.PrepackagedDatabaseCallback PREBUILT_CALLBACK =
+            new RoomDatabase.PrepackagedDatabaseCallback() {
+                @Override
+                public void onOpenPrepackagedDatabase(@NonNull SupportSQLiteDatabase db) {
+                    db.beginTransaction();
+                    try {
+                        SearchIndex.install(db);
+                        SearchIndex.rebuild(db);
+                        MorphemeStatsTriggers.install(db);
+                        MorphemeStatsTriggers.rebuild(db);
+                        CounterTriggers.install(db);
+                        CounterTriggers.rebuild(db);
+                        WordChangeTriggers.install(db);
+                        db.setTransactionSuccessful();
+                    } finally {
+                        db.endTransaction();
+                    }
+                }
+            };
+
     /**
      * 获取数据库单例
      * 双重检查锁定（Double-Checked Locking）模式，兼顾性能和线程安全
@@ -95,33 +227,62 @@ public abstract class AppDatabase extends RoomDatabase {
                 // 第二次检查（有锁，确保只创建一次）
                 if (INSTANCE == null){
                     // 创建数据库实例
-                    INSTANCE = Room.databaseBuilder(
+                    RoomDatabase.Builder<AppDatabase> builder = Room.databaseBuilder(
                             context.getApplicationContext(),
                             AppDatabase.class, DATABASE_NAME)
                             // 数据库创建回调
                             .addCallback(roomCallback)
-                            .addMigrations(MIGRATION_3_4)
-                            .build();
+                            // 查询和事务使用固定的读线程池和单写线程，而不是 Room 默认的线程池
+                            .setQueryExecutor(DatabaseSchedulers.readerExecutor())
+                            .setTransactionExecutor(DatabaseSchedulers.writerExecutor())
+                            .addMigrations(MIGRATION_3_4, MIGRATION_4_5, MIGRATION_5_6, MIGRATION_6_7, MIGRATION_7_8,
+                                    MIGRATION_8_9, MIGRATION_9_10);
+                    // 首次安装直接复制预置数据库；缺少资源时回退到 onCreate 中的JSON导入
+                    if (hasPrebuiltAsset(context)) {
+                        builder.createFromAsset(PREBUILT_ASSET_DIR + "/" + PREBUILT_ASSET_NAME, PREBUILT_CALLBACK);
+                    }
+                    INSTANCE = builder.build();
                 }
             }
         }
         return INSTANCE;
     }
 
+    /**
+     * 检查APK中是否打包了预置数据库
+     */
+    private static boolean hasPrebuiltAsset(Context context) {
+        try {
+            String[] files = context.getAssets().list(PREBUILT_ASSET_DIR);
+            return files != null && Arrays.asList(files).contains(PREBUILT_ASSET_NAME);
+        } catch (IOException e) {
+            Log.w("AppDatabase", "无法读取预置数据库资源", e);
+            return false;
+        }
+    }
+
     /**
      * 数据库创建回调
-     * 只会在App第一次安装时调用，可用于预填充初始词根数据
+     * 只会在App第一次安装、且没有预置数据库时调用（从资源复制的数据库不会触发 onCreate），
+     * 此时回退为运行时导入JSON词库
      */
     private static RoomDatabase.Callback roomCallback = new RoomDatabase.Callback() {
         @Override
         public void onCreate(@NonNull SupportSQLiteDatabase db) {
             super.onCreate(db);
-            databaseWriteExecutor.execute(() -> {
+            // Room 只创建表，同步触发器需要自己安装（须在导入数据之前）
+            SearchIndex.install(db);
+            MorphemeStatsTriggers.install(db);
+            WordChangeTriggers.install(db);
+            CounterTriggers.install(db);
+            // 空库上写入全部为 0 的计数器行，之后由触发器累加
+            CounterTriggers.rebuild(db);
+            DatabaseSchedulers.writerExecutor().execute(() -> {
                 WordDao wordDao = INSTANCE.wordDao();
-                MorphemeDao morphemeDao = INSTANCE.morphemeDao();
                 // ✅ 使用静态存储的appContext，不再从db获取
                 if (!DataInitializer.isAlreadyInitialized(wordDao)) {
-                    DataInitializer.initialize(appContext, wordDao, morphemeDao).subscribe();
+                    // 失败已在 DataInitializer 中记录日志
+                    DataInitializer.initialize(appContext, INSTANCE).onErrorComplete().subscribe();
                 }
             });
         }
@@ -129,18 +290,26 @@ public abstract class AppDatabase extends RoomDatabase {
         @Override
         public void onOpen(@NonNull SupportSQLiteDatabase db) {
             super.onOpen(db);
+            // 触发器和计数表不属于 Room 管理的结构，每次打开时确认存在
+            ReviewWriteCounter.install(db);
+            ReviewJournalMark.install(db);
+            MorphemeWriteCounter.install(db);
+            SearchIndex.install(db);
+            MorphemeStatsTriggers.install(db);
+            WordChangeTriggers.install(db);
+            CounterTriggers.install(db);
             // 数据库每次打开时调用
             android.util.Log.d("AppDatabase", "Database opened successfully");
         }
     };
 
     /**
-     * 获取数据库IO线程池
-     * 供 Repository 层使用，执行异步操作
-     * @return ExecutorService
+     * 获取数据库写线程
+     * 供 Repository 层使用，执行异步写入（读取使用 DatabaseSchedulers.reader()）
+     * @return 单线程串行执行器
      */
-    public static ExecutorService getDatabaseExecutor(){
-        return databaseWriteExecutor;
+    public static Executor getDatabaseExecutor(){
+        return DatabaseSchedulers.writerExecutor();
     }
 
     /**
@@ -156,8 +325,7 @@ public abstract class AppDatabase extends RoomDatabase {
                 }
             }
         }
-        // 关闭线程池
-        databaseWriteExecutor.shutdown();
+        // 数据库线程随进程存在，重新打开数据库后继续使用
     }
 
 }
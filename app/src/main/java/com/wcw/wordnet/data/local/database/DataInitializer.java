@@ -1,94 +1,234 @@
 package com.wcw.wordnet.data.local.database;
 
 import android.content.Context;
+import android.util.JsonReader;
 import android.util.Log;
 
+import androidx.annotation.Nullable;
+
 import com.wcw.wordnet.R;
+import com.wcw.wordnet.data.algorithm.Sm2Algorithm;
 import com.wcw.wordnet.data.local.dao.MorphemeDao;
+import com.wcw.wordnet.data.local.dao.ReviewQueueDao;
 import com.wcw.wordnet.data.local.dao.WordDao;
+import com.wcw.wordnet.data.morpheme.MorphemeSegmenter;
+import com.wcw.wordnet.data.morpheme.MorphemeWriteCounter;
 import com.wcw.wordnet.model.entity.MorphemeRelation;
+import com.wcw.wordnet.model.entity.ReviewQueue;
 import com.wcw.wordnet.model.entity.WordNode;
 
-import org.json.JSONArray;
-import org.json.JSONObject;
-
 import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
 
 import io.reactivex.Completable;
+import io.reactivex.Emitter;
+import io.reactivex.Flowable;
 import io.reactivex.schedulers.Schedulers;
 
 /**
  * 默认数据初始化器
  * 职责：从JSON资源文件加载示范单词，支持热更新
+ *
+ * 流式导入：用 JsonReader 逐个读取单词，每 CHUNK_SIZE 个单词在一个事务内批量写入，
+ * 内存中最多只保留一批数据，十万级词库也不会整体读入内存。
+ * 词库中没有给出词根的单词在写入前自动拆分（MorphemeSegmenter），与导入在同一遍内完成。
+ *
+ * 线程：解析在单独的导入线程上进行，数据库读写交给 DatabaseSchedulers 的读线程池和写线程，
+ * 各线程之间不同步等待，导入期间不会占住任何一个数据库线程。
  */
 public class DataInitializer {
 
     private static final String TAG = "DataInitializer";
     private static final int DEFAULT_RESOURCE_ID = R.raw.default_words; // JSON文件名
 
-    public static Completable initialize(Context context, WordDao wordDao, MorphemeDao morphemeDao) {
-        return Completable.fromAction(() -> {
-            try {
-                // 1. 读取JSON文件
-                String jsonString = readJsonFromResource(context, DEFAULT_RESOURCE_ID);
-                JSONObject jsonObject = new JSONObject(jsonString);
-                JSONArray wordsArray = jsonObject.getJSONArray("words");
-
-                // 2. 解析并插入
-                for (int i = 0; i < wordsArray.length(); i++) {
-                    JSONObject wordObj = wordsArray.getJSONObject(i);
-
-                    // 创建单词实体
-                    WordNode wordNode = new WordNode(wordObj.getString("word"));
-                    wordNode.setChineseMeaning(wordObj.getString("chinese")); // ✅ 设置中文
-
-                    // 解析词根数组
-                    JSONArray morphemeArray = wordObj.getJSONArray("morphemes");
-                    List<String> morphemes = new ArrayList<>();
-                    for (int j = 0; j < morphemeArray.length(); j++) {
-                        morphemes.add(morphemeArray.getString(j));
+    /**
+     * 每个事务写入的单词数
+     */
+    public static final int CHUNK_SIZE = 500;
+
+    private static final Sm2Algorithm sm2Algorithm = new Sm2Algorithm();
+
+    /**
+     * 导入内置词库（首次创建数据库时调用）
+     */
+    public static Completable initialize(Context context, AppDatabase db) {
+        return importWords(db, () -> context.getResources().openRawResource(DEFAULT_RESOURCE_ID))
+                .doOnComplete(() -> Log.d(TAG, "✅ 默认数据初始化完成"))
+                .doOnError(e -> Log.e(TAG, "❌ 数据初始化失败", e));
+    }
+
+    /**
+     * 流式导入词库文件
+     * 格式：{"words": [{"word": "...", "chinese": "...", "morphemes": ["..."]}, ...]}
+     * 已存在的单词会被跳过（不覆盖学习进度），新单词同时加入复习队列
+     * 解析在新建的导入线程上进行（导入很少发生，结束后线程即退出），每批交给写线程作为一个独立任务写入：
+     * 导入期间用户的写入可以插在两批之间，不必等整个词库导入完。
+     * 整条链不同步等待任何数据库线程；写线程写完一批才向导入线程请求下一批，内存中最多只有两批数据。
+     * @param db 数据库实例
+     * @param source 打开词库输入流（在导入线程调用）
+     */
+    public static Completable importWords(AppDatabase db, Callable<InputStream> source) {
+        WordDao wordDao = db.wordDao();
+        MorphemeDao morphemeDao = db.morphemeDao();
+        ReviewQueueDao reviewQueueDao = db.reviewQueueDao();
+        MorphemeSegmenter segmenter = MorphemeSegmenter.getInstance(db);
+        int[] total = {0};  // 只在写线程上累加
+
+        Flowable<List<WordNode>> chunks = Flowable.generate(
+                () -> new ChunkReader(source.call()),
+                (ChunkReader reader, Emitter<List<WordNode>> emitter) -> {
+                    List<WordNode> chunk = reader.next();
+                    if (chunk == null) {
+                        emitter.onComplete();
+                    } else {
+                        emitter.onNext(chunk);
                     }
+                },
+                ChunkReader::close)
+                .subscribeOn(Schedulers.newThread());
+
+        return Completable.fromAction(() -> segmenter.refreshIfStale(morphemeDao::getMorphemeUsageSync))
+                .subscribeOn(DatabaseSchedulers.reader())
+                .andThen(chunks.concatMapCompletable(chunk -> Completable.fromAction(() -> {
+                    total[0] += writeChunk(db, wordDao, morphemeDao, reviewQueueDao, segmenter, chunk);
+                    Log.d(TAG, "已导入 " + total[0] + " 个单词");
+                }).subscribeOn(DatabaseSchedulers.writer()), 1));
+    }
 
-                    // 转换为JSON字符串存储
-                    wordNode.setMorphemeList(morphemes.toString()
-                            .replace("[", "[\"")
-                            .replace("]", "\"]")
-                            .replace(", ", "\",\""));
+    /**
+     * 逐批读取词库文件中的单词，每批最多 CHUNK_SIZE 个
+     */
+    private static final class ChunkReader implements Closeable {
 
-                    // 插入单词
-                    wordDao.insert(wordNode);
+        private final JsonReader reader;
+        private boolean inWords;
+        private boolean finished;
+
+        ChunkReader(InputStream input) throws IOException {
+            reader = new JsonReader(new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8)));
+            try {
+                reader.beginObject();
+            } catch (IOException e) {
+                reader.close();
+                throw e;
+            }
+        }
 
-                    // 插入词根关系
-                    List<MorphemeRelation> relations = wordNode.parseMorphemeRelations();
-                    morphemeDao.insertAll(relations);
+        /**
+         * 下一批单词；读完时返回 null
+         */
+        @Nullable
+        List<WordNode> next() throws IOException {
+            List<WordNode> chunk = new ArrayList<>(CHUNK_SIZE);
+            while (!finished && chunk.size() < CHUNK_SIZE) {
+                if (inWords) {
+                    if (reader.hasNext()) {
+                        chunk.add(readWord(reader));
+                    } else {
+                        reader.endArray();
+                        inWords = false;
+                    }
+                } else if (!reader.hasNext()) {
+                    reader.endObject();
+                    finished = true;
+                } else if ("words".equals(reader.nextName())) {
+                    reader.beginArray();
+                    inWords = true;
+                } else {
+                    reader.skipValue();
                 }
+            }
+            return chunk.isEmpty() ? null : chunk;
+        }
 
-                Log.d(TAG, "✅ 默认数据初始化完成，共 " + wordsArray.length() + " 个单词");
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
 
-            } catch (Exception e) {
-                Log.e(TAG, "❌ 数据初始化失败", e);
-                throw new RuntimeException(e);
+    /**
+     * 读取一个单词对象
+     */
+    private static WordNode readWord(JsonReader reader) throws IOException {
+        String word = null;
+        String chinese = "";
+        List<String> morphemes = new ArrayList<>();
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "word":
+                    word = reader.nextString();
+                    break;
+                case "chinese":
+                    chinese = reader.nextString();
+                    break;
+                case "morphemes":
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        morphemes.add(reader.nextString());
+                    }
+                    reader.endArray();
+                    break;
+                default:
+                    reader.skipValue();
             }
-        }).subscribeOn(Schedulers.io());
+        }
+        reader.endObject();
+
+        if (word == null) {
+            throw new IOException("词库条目缺少 word 字段: " + reader);
+        }
+        // 创建单词实体
+        WordNode wordNode = new WordNode(word);
+        wordNode.setChineseMeaning(chinese); // ✅ 设置中文
+        wordNode.setMorphemeList(WordNode.toMorphemeList(morphemes));
+        return wordNode;
     }
 
     /**
-     * 从资源文件读取JSON字符串
+     * 在一个事务内写入一批单词、词根关系和初始复习项（写线程调用）
+     * 没有词根的单词先用拆分器拆分（词库包含数据库中已有的和之前各批导入的词根）
+     * @return 本批处理的单词数
      */
-    private static String readJsonFromResource(Context context, int resourceId) throws Exception {
-        InputStream inputStream = context.getResources().openRawResource(resourceId);
-        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream));
-        StringBuilder stringBuilder = new StringBuilder();
-        String line;
-        while ((line = reader.readLine()) != null) {
-            stringBuilder.append(line).append("\n");
-        }
-        reader.close();
-        return stringBuilder.toString();
+    private static int writeChunk(AppDatabase db, WordDao wordDao, MorphemeDao morphemeDao,
+                                  ReviewQueueDao reviewQueueDao, MorphemeSegmenter segmenter,
+                                  List<WordNode> chunk) {
+        db.runInTransaction(() -> {
+            List<List<MorphemeRelation>> parsed = new ArrayList<>(chunk.size());
+            for (WordNode word : chunk) {
+                List<MorphemeRelation> wordRelations = word.parseMorphemeRelations();
+                if (wordRelations.isEmpty()) {
+                    wordRelations = segmenter.segment(word.getWord());
+                    word.setMorphemeList(WordNode.toMorphemeList(MorphemeRelation.morphemesOf(wordRelations)));
+                }
+                parsed.add(wordRelations);
+            }
+
+            long[] rowIds = wordDao.insertAllIgnoringExisting(chunk);
+            List<MorphemeRelation> relations = new ArrayList<>();
+            List<ReviewQueue> reviewItems = new ArrayList<>();
+            for (int i = 0; i < chunk.size(); i++) {
+                if (rowIds[i] == -1) continue;  // 单词已存在，保留原有数据
+                WordNode word = chunk.get(i);
+                relations.addAll(parsed.get(i));
+                reviewItems.add(sm2Algorithm.createInitialItem(word.getWord()));
+            }
+            long before = MorphemeWriteCounter.read(db.getOpenHelper().getWritableDatabase());
+            morphemeDao.insertAll(relations);
+            segmenter.learn(relations);
+            segmenter.acceptLocalWrite(before, MorphemeWriteCounter.read(db.getOpenHelper().getWritableDatabase()));
+            reviewQueueDao.insertReviewQueues(reviewItems);
+        });
+        return chunk.size();
     }
 
     /**
@@ -97,4 +237,4 @@ public class DataInitializer {
     public static boolean isAlreadyInitialized(WordDao wordDao) {
         return wordDao.getWordCountSync() > 0;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,80 @@
+package com.wcw.wordnet.data.local.database;
+
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 数据库线程池统计
+ * 用于判断线程数是否合适：
+ * - 排队深度：已提交但还没开始执行的任务数（当前值和历史最大值）
+ * - 等待时间：任务从提交到开始执行的时间；写线程等待长说明有批量任务占着写线程
+ */
+public class DatabaseExecutorStats {
+
+    private final String name;
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong started = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicInteger maxQueueDepth = new AtomicInteger();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    DatabaseExecutorStats(String name) {
+        this.name = name;
+    }
+
+    void recordSubmitted() {
+        long submittedCount = submitted.incrementAndGet();
+        int depth = (int) (submittedCount - started.get());
+        maxQueueDepth.accumulateAndGet(depth, Math::max);
+    }
+
+    void recordStarted(long waitNanos) {
+        started.incrementAndGet();
+        totalWaitNanos.addAndGet(waitNanos);
+        maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+    }
+
+    void recordCompleted() {
+        completed.incrementAndGet();
+    }
+
+    @NonNull
+    public String getName() { return name; }
+
+    public long getSubmitted() { return submitted.get(); }
+
+    public long getCompleted() { return completed.get(); }
+
+    /**
+     * 当前排队（尚未开始执行）的任务数
+     */
+    public int getQueueDepth() {
+        return (int) Math.max(0, submitted.get() - started.get());
+    }
+
+    public int getMaxQueueDepth() { return maxQueueDepth.get(); }
+
+    /**
+     * 平均等待时间（毫秒），尚未执行过任务时为 0
+     */
+    public double getAverageWaitMillis() {
+        long count = started.get();
+        return count == 0 ? 0 : (double) totalWaitNanos.get() / count / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    public double getMaxWaitMillis() {
+        return (double) maxWaitNanos.get() / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return String.format("%s: 提交 %d / 完成 %d, 排队 %d (最多 %d), 平均等待 %.1fms (最长 %.1fms)",
+                name, getSubmitted(), getCompleted(), getQueueDepth(), getMaxQueueDepth(),
+                getAverageWaitMillis(), getMaxWaitMillis());
+    }
+}
@@ -0,0 +1,74 @@
+package com.wcw.wordnet.data.local.database;
+
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.Executor;
+
+import io.reactivex.Scheduler;
+import io.reactivex.schedulers.Schedulers;
+
+/**
+ * 数据库线程
+ * - 写线程：单线程串行执行所有写入，写入之间不再争抢 SQLite 唯一的写连接，
+ *   不会有一批线程阻塞在连接池里等写锁
+ * - 读线程池：固定 READER_THREADS 个线程，与 WAL 模式下框架连接池的只读连接数一致
+ * 两者同时交给 Room（查询执行器、事务执行器）和仓库（RxJava Scheduler），
+ * 批量任务再多也只是排队，不会像 Schedulers.io() 那样创建几十个线程。
+ *
+ * 不要在写线程上同步等待另一个写任务（blockingGet / blockingAwait），否则会死锁。
+ */
+public final class DatabaseSchedulers {
+
+    /**
+     * 读线程数
+     */
+    static final int READER_THREADS = 3;
+
+    private static final MeteredExecutor WRITER = new MeteredExecutor("wordnet-db-writer", 1);
+    private static final MeteredExecutor READERS = new MeteredExecutor("wordnet-db-reader", READER_THREADS);
+
+    private static final Scheduler WRITER_SCHEDULER = Schedulers.from(WRITER);
+    private static final Scheduler READER_SCHEDULER = Schedulers.from(READERS);
+
+    private DatabaseSchedulers() {}
+
+    /**
+     * 写入（以及先读后写的操作）使用的 Scheduler
+     */
+    @NonNull
+    public static Scheduler writer() {
+        return WRITER_SCHEDULER;
+    }
+
+    /**
+     * 只读查询使用的 Scheduler
+     */
+    @NonNull
+    public static Scheduler reader() {
+        return READER_SCHEDULER;
+    }
+
+    /**
+     * 写线程（Room 的事务执行器）
+     */
+    @NonNull
+    public static Executor writerExecutor() {
+        return WRITER;
+    }
+
+    /**
+     * 读线程池（Room 的查询执行器：LiveData / Flowable 查询和失效通知在这里执行）
+     */
+    @NonNull
+    public static Executor readerExecutor() {
+        return READERS;
+    }
+
+    public static DatabaseExecutorStats getWriterStats() {
+        return WRITER.getStats();
+    }
+
+    public static DatabaseExecutorStats getReaderStats() {
+        return READERS.getStats();
+    }
+}
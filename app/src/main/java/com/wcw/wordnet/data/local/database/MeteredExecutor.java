@@ -0,0 +1,52 @@
+package com.wcw.wordnet.data.local.database;
+
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 固定线程数、记录排队深度和等待时间的线程池
+ * 线程数固定，任务再多也只是排队，不会像 Schedulers.io() 那样按需创建新线程
+ */
+final class MeteredExecutor implements Executor {
+
+    private final ThreadPoolExecutor pool;
+    private final DatabaseExecutorStats stats;
+
+    /**
+     * @param name 线程名前缀（同时作为统计名称）
+     * @param threads 线程数
+     */
+    MeteredExecutor(String name, int threads) {
+        AtomicInteger index = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, name + "-" + index.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.stats = new DatabaseExecutorStats(name);
+    }
+
+    @Override
+    public void execute(@NonNull Runnable command) {
+        long submittedAt = System.nanoTime();
+        stats.recordSubmitted();
+        pool.execute(() -> {
+            stats.recordStarted(System.nanoTime() - submittedAt);
+            try {
+                command.run();
+            } finally {
+                stats.recordCompleted();
+            }
+        });
+    }
+
+    DatabaseExecutorStats getStats() {
+        return stats;
+    }
+}
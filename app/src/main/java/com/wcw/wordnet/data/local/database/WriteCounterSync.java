@@ -0,0 +1,74 @@
+package com.wcw.wordnet.data.local.database;
+
+import java.util.function.LongSupplier;
+
+/**
+ * 内存结构已反映的写入计数区间（触发器维护的只增计数，如 morpheme_writes）
+ * 与 ReviewDueQueue 相同的核对规则：区间 [syncedFrom, syncedTo] 内的每一次写入都是已同步到内存的本地写入。
+ * - 从数据库重建：重建前读一次计数，重建后 reset(计数)
+ * - 本地写入：在写事务内读写入前后的计数，accept(前, 后)；写入前的计数必须正好接在区间末尾
+ * - 收到失效通知：当前计数落在区间内，说明合并的通知全部来自本地写入；否则内存结构过期
+ */
+public final class WriteCounterSync {
+
+    /**
+     * 尚未与写入计数对应（任何通知都会让内存结构过期）
+     */
+    public static final long UNSYNCED = -1;
+
+    private final LongSupplier counter;
+    private long syncedFrom = UNSYNCED;
+    private long syncedTo = UNSYNCED;
+
+    /**
+     * @param counter 读取当前计数；返回 UNSYNCED 表示没有计数（测试），每次通知都视为外部写入
+     */
+    public WriteCounterSync(LongSupplier counter) {
+        this.counter = counter;
+    }
+
+    /**
+     * 当前计数（写事务内读到的是本事务已写入后的值）
+     */
+    public long read() {
+        return counter.getAsLong();
+    }
+
+    /**
+     * 内存结构已按 writes 时刻的数据库重建（传 UNSYNCED 表示不知道对应哪个计数）
+     */
+    public synchronized void reset(long writes) {
+        syncedFrom = writes;
+        syncedTo = writes;
+    }
+
+    /**
+     * 计入一次已同步到内存的本地写入（写事务内调用）
+     * before 不是区间末尾时，之前有未计入的写入，区间保持不变，由随后的通知让内存结构过期
+     */
+    public synchronized void accept(long before, long after) {
+        if (syncedTo != UNSYNCED && before == syncedTo) {
+            syncedTo = after;
+        }
+    }
+
+    /**
+     * Room 失效回调时调用
+     * @return 通知合并的写入是否都已同步到内存；读取计数失败时返回 false
+     */
+    public boolean onInvalidated() {
+        long current;
+        try {
+            current = counter.getAsLong();
+        } catch (RuntimeException e) {
+            return false;
+        }
+        synchronized (this) {
+            if (syncedFrom != UNSYNCED && current >= syncedFrom && current <= syncedTo) {
+                syncedFrom = current;
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,332 @@
+package com.wcw.wordnet.data.morpheme;
+
+import androidx.annotation.NonNull;
+import androidx.room.InvalidationTracker;
+
+import com.wcw.wordnet.data.local.database.AppDatabase;
+import com.wcw.wordnet.data.local.database.WriteCounterSync;
+import com.wcw.wordnet.model.MorphemeUsage;
+import com.wcw.wordnet.model.entity.MorphemeRelation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * 词根自动拆分器
+ * 用 morpheme_relations 中已有的词根（含前缀/词根/后缀的使用次数）建一棵字符前缀树，
+ * 对新单词做动态规划，选出代价最小的拆分：
+ * - 从每个位置沿前缀树向后走，走到的每个词根结尾都是一种候选切分，O(n · 最长词根)
+ * - 结构约束：前缀* 词根+ 后缀*，前缀不能在词尾，后缀必须在某个词根之后
+ * - 已知词根每段代价约 1，按该位置的使用次数略打折；用在没见过的位置上加罚分
+ * - 词库中没有的部分作为一个“未知词根”，代价随长度增长，所以能用已知词根时总会优先使用
+ * 整个单词都不认识时，结果就是单词本身一个词根（与旧的默认行为相同）
+ *
+ * 一致性：与 MorphemeTrie 相同——监听 morpheme_relations 的失效通知，外部写入后下次拆分前重建；
+ * 仓库自己写入的拆分结果通过 learn() 原地加入，并在写事务内用 acceptLocalWrite() 计入写入计数
+ * （{@link MorphemeWriteCounter}），合并的通知全部来自这些写入时不重建。
+ */
+public class MorphemeSegmenter {
+
+    private static volatile MorphemeSegmenter INSTANCE;
+
+    public static final int PREFIX = 0;
+    public static final int ROOT = 1;
+    public static final int SUFFIX = 2;
+
+    /**
+     * 参与匹配的最短词根（单个字母的“词根”会把单词切得过碎）
+     */
+    static final int MIN_MORPHEME_LENGTH = 2;
+
+    /**
+     * 超过该长度的输入不拆分，直接作为一个词根
+     */
+    static final int MAX_WORD_LENGTH = 64;
+
+    private static final double KNOWN_COST = 1.0;
+    private static final double FREQUENCY_BONUS = 0.2;
+    private static final double POSITION_PENALTY = 0.6;
+    private static final double UNKNOWN_COST = 1.5;
+    private static final double UNKNOWN_COST_PER_CHAR = 0.6;
+
+    private static final int TRIE_ROOT = 0;
+    private static final int NONE = -1;
+
+    private char[] label;
+    private int[] firstChild;
+    private int[] nextSibling;
+    private int[] prefixCount;
+    private int[] rootCount;
+    private int[] suffixCount;
+    private int size;
+
+    /**
+     * 是否需要从数据库重新构建（初始为 true：尚未加载）
+     */
+    private final AtomicBoolean stale = new AtomicBoolean(true);
+
+    /**
+     * 已反映的 morpheme_relations 写入计数区间（{@link MorphemeWriteCounter}）
+     */
+    private final WriteCounterSync writes;
+
+    /**
+     * 没有写入计数时使用（测试）：每次通知都视为外部写入
+     */
+    public MorphemeSegmenter() {
+        this(() -> WriteCounterSync.UNSYNCED);
+    }
+
+    MorphemeSegmenter(LongSupplier writeCounter) {
+        this.writes = new WriteCounterSync(writeCounter);
+        allocate(16);
+    }
+
+    /**
+     * 获取进程内唯一的拆分器，并注册 Room 失效监听
+     * @param db 数据库实例
+     */
+    public static MorphemeSegmenter getInstance(AppDatabase db) {
+        if (INSTANCE == null) {
+            synchronized (MorphemeSegmenter.class) {
+                if (INSTANCE == null) {
+                    MorphemeSegmenter segmenter = new MorphemeSegmenter(
+                            () -> MorphemeWriteCounter.read(db.getOpenHelper().getWritableDatabase()));
+                    db.getInvalidationTracker().addObserver(
+                            new InvalidationTracker.Observer("morpheme_relations") {
+                                @Override
+                                public void onInvalidated(@NonNull Set<String> tables) {
+                                    segmenter.onTablesInvalidated();
+                                }
+                            });
+                    INSTANCE = segmenter;
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    /**
+     * 如果词库已过期，则用 loader 的结果重建
+     * @param loader 同步查询词根使用次数（IO线程调用）
+     * @return 是否发生了重新构建
+     */
+    public boolean refreshIfStale(Supplier<List<MorphemeUsage>> loader) {
+        if (stale.compareAndSet(true, false)) {
+            // 先读计数再读数据：两次读取之间的写入会让计数对不上，下次通知时再重建一次
+            long counted = writes.read();
+            load(loader.get());
+            writes.reset(counted);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 用给定的词根使用次数重建前缀树
+     */
+    public synchronized void load(List<MorphemeUsage> usages) {
+        writes.reset(WriteCounterSync.UNSYNCED);
+        allocate(Math.max(16, usages.size() * 3));
+        for (MorphemeUsage usage : usages) {
+            add(usage.getMorpheme(), usage.getPosition(), usage.getWordCount());
+        }
+    }
+
+    public boolean isStale() {
+        return stale.get();
+    }
+
+    /**
+     * 把新写入的拆分结果加入词库（与数据库中的新行保持一致）
+     * 词库过期时忽略，重新构建时会从数据库读到
+     */
+    public synchronized void learn(List<MorphemeRelation> relations) {
+        if (stale.get()) return;
+        for (MorphemeRelation relation : relations) {
+            // 整个单词作为词根的关系不提供拆分信息（与数据库查询的过滤条件一致）
+            if (!relation.getMorpheme().equals(relation.getWordId())) {
+                add(relation.getMorpheme(), relation.getPosition(), 1);
+            }
+        }
+    }
+
+    /**
+     * 拆分单词
+     * @param word 单词（大小写不敏感，结果中的词根为小写）
+     * @return 按顺序排列的词根关系，position 为拆分出的前缀/词根/后缀；空输入返回空列表
+     */
+    @NonNull
+    public synchronized List<MorphemeRelation> segment(String word) {
+        String text = word == null ? "" : word.trim().toLowerCase(Locale.ROOT);
+        int n = text.length();
+        List<MorphemeRelation> result = new ArrayList<>();
+        if (n == 0) return result;
+        if (n > MAX_WORD_LENGTH) {
+            result.add(new MorphemeRelation(text, word, ROOT));
+            return result;
+        }
+
+        // 状态 (i, phase)：已拆完前 i 个字符，phase = 最后一段的角色（0 也表示还没有词根）
+        int states = (n + 1) * 3;
+        double[] cost = new double[states];
+        int[] from = new int[states];
+        int[] role = new int[states];
+        Arrays.fill(cost, Double.POSITIVE_INFINITY);
+        cost[0] = 0;
+
+        for (int i = 0; i < n; i++) {
+            for (int phase = PREFIX; phase <= SUFFIX; phase++) {
+                double base = cost[i * 3 + phase];
+                if (base == Double.POSITIVE_INFINITY) continue;
+                boolean hasRoot = phase != PREFIX;
+
+                // 已知词根：从 i 开始沿前缀树走
+                int node = TRIE_ROOT;
+                for (int j = i; j < n; j++) {
+                    node = child(node, text.charAt(j));
+                    if (node == NONE) break;
+                    int end = j + 1;
+                    if (end - i < MIN_MORPHEME_LENGTH || total(node) == 0) continue;
+                    if (phase == PREFIX && end < n) {
+                        relax(cost, from, role, i * 3 + phase, end, PREFIX, base + knownCost(node, PREFIX));
+                    }
+                    if (phase != SUFFIX) {
+                        relax(cost, from, role, i * 3 + phase, end, ROOT, base + knownCost(node, ROOT));
+                    }
+                    if (hasRoot) {
+                        relax(cost, from, role, i * 3 + phase, end, SUFFIX, base + knownCost(node, SUFFIX));
+                    }
+                }
+
+                // 未知部分：只能作为词根
+                if (phase != SUFFIX) {
+                    for (int end = i + 1; end <= n; end++) {
+                        relax(cost, from, role, i * 3 + phase, end, ROOT,
+                                base + UNKNOWN_COST + UNKNOWN_COST_PER_CHAR * (end - i));
+                    }
+                }
+            }
+        }
+
+        int last = cost[n * 3 + ROOT] <= cost[n * 3 + SUFFIX] ? n * 3 + ROOT : n * 3 + SUFFIX;
+        for (int state = last; state != 0; state = from[state]) {
+            int end = state / 3;
+            int start = from[state] / 3;
+            result.add(new MorphemeRelation(text.substring(start, end), word, role[state]));
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    /**
+     * 计入仓库自身对 morpheme_relations 的一次写入（写事务内、词库已原地同步后调用）
+     * @param before 写入前的计数（{@link MorphemeWriteCounter#read}）
+     * @param after 写入后的计数
+     */
+    public void acceptLocalWrite(long before, long after) {
+        writes.accept(before, after);
+    }
+
+    /**
+     * Room 失效回调：数据库的计数落在已同步的区间内时不需要重建，否则（包括读取计数失败）标记为过期
+     */
+    void onTablesInvalidated() {
+        if (writes.onInvalidated()) {
+            return;
+        }
+        stale.set(true);
+    }
+
+    // ==================== 代价与前缀树 ====================
+
+    private static void relax(double[] cost, int[] from, int[] role, int source, int end, int pieceRole, double value) {
+        int target = end * 3 + pieceRole;
+        if (value < cost[target]) {
+            cost[target] = value;
+            from[target] = source;
+            role[target] = pieceRole;
+        }
+    }
+
+    private double knownCost(int node, int position) {
+        int count = count(node, position);
+        if (count == 0) {
+            return KNOWN_COST + POSITION_PENALTY;
+        }
+        return KNOWN_COST - FREQUENCY_BONUS * count / (count + 1.0);
+    }
+
+    private int count(int node, int position) {
+        switch (position) {
+            case PREFIX: return prefixCount[node];
+            case SUFFIX: return suffixCount[node];
+            default: return rootCount[node];
+        }
+    }
+
+    private int total(int node) {
+        return prefixCount[node] + rootCount[node] + suffixCount[node];
+    }
+
+    private void add(String morpheme, int position, int count) {
+        if (morpheme == null) return;
+        String key = morpheme.trim().toLowerCase(Locale.ROOT);
+        if (key.length() < MIN_MORPHEME_LENGTH || count <= 0) return;
+        int node = TRIE_ROOT;
+        for (int i = 0; i < key.length(); i++) {
+            int next = child(node, key.charAt(i));
+            node = next != NONE ? next : newNode(node, key.charAt(i));
+        }
+        switch (position) {
+            case PREFIX: prefixCount[node] += count; break;
+            case SUFFIX: suffixCount[node] += count; break;
+            default: rootCount[node] += count; break;
+        }
+    }
+
+    private int child(int node, char c) {
+        int child = firstChild[node];
+        while (child != NONE && label[child] != c) {
+            child = nextSibling[child];
+        }
+        return child;
+    }
+
+    private int newNode(int parentNode, char c) {
+        if (size == label.length) {
+            int capacity = size + (size >> 1);
+            label = Arrays.copyOf(label, capacity);
+            firstChild = Arrays.copyOf(firstChild, capacity);
+            nextSibling = Arrays.copyOf(nextSibling, capacity);
+            prefixCount = Arrays.copyOf(prefixCount, capacity);
+            rootCount = Arrays.copyOf(rootCount, capacity);
+            suffixCount = Arrays.copyOf(suffixCount, capacity);
+        }
+        int node = size++;
+        label[node] = c;
+        firstChild[node] = NONE;
+        nextSibling[node] = firstChild[parentNode];
+        firstChild[parentNode] = node;
+        return node;
+    }
+
+    private void allocate(int capacity) {
+        label = new char[capacity];
+        firstChild = new int[capacity];
+        nextSibling = new int[capacity];
+        prefixCount = new int[capacity];
+        rootCount = new int[capacity];
+        suffixCount = new int[capacity];
+        firstChild[TRIE_ROOT] = NONE;
+        nextSibling[TRIE_ROOT] = NONE;
+        size = 1;
+    }
+}
@@ -0,0 +1,161 @@
+package com.wcw.wordnet.data.morpheme;
+
+import androidx.annotation.NonNull;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 词根统计表（morpheme_stats）的触发器与重建语句
+ * 数据看板读取聚合表，不再每次对全部活跃单词 GROUP BY：
+ * - morpheme_relations 增删改：对应词根的计数 ±1（只在单词活跃时）
+ * - word_nodes 的 isActive / memoryStrength 变化：按该单词的每个词根调整计数、掌握数和强度和
+ * - word_nodes 删除（BEFORE）：先减掉该单词的贡献；随后级联删除的关系找不到单词，不会重复扣减
+ * 计数归零的词根行随即删除。
+ *
+ * minSdk 24 的系统 SQLite 不支持 UPSERT，用"不存在才插入空行" + UPDATE 累加代替；
+ * 触发器内不用 INSERT OR IGNORE：外层语句的冲突策略会覆盖触发器内的策略，
+ * MorphemeDao 以 REPLACE 插入关系时会把已有的统计行清零。
+ */
+public final class MorphemeStatsTriggers {
+
+    public static final String TABLE = "morpheme_stats";
+
+    /**
+     * 已掌握的判定（与 CounterTriggers 一致）
+     */
+    private static final String MASTERED = " > 0.8";
+
+    private MorphemeStatsTriggers() {}
+
+    /**
+     * 同步触发器（可重复执行）
+     */
+    @NonNull
+    public static List<String> triggerStatements() {
+        return Arrays.asList(
+                "CREATE TRIGGER IF NOT EXISTS morpheme_stats_after_relation_insert " +
+                        "AFTER INSERT ON morpheme_relations BEGIN " +
+                        addRelation("new") + " END",
+                "CREATE TRIGGER IF NOT EXISTS morpheme_stats_after_relation_delete " +
+                        "AFTER DELETE ON morpheme_relations BEGIN " +
+                        removeRelation("old") + " END",
+                "CREATE TRIGGER IF NOT EXISTS morpheme_stats_after_relation_update " +
+                        "AFTER UPDATE OF morpheme, wordId ON morpheme_relations BEGIN " +
+                        removeRelation("old") + " " + addRelation("new") + " END",
+                "CREATE TRIGGER IF NOT EXISTS morpheme_stats_before_word_delete " +
+                        "BEFORE DELETE ON word_nodes WHEN old.isActive = 1 BEGIN " +
+                        "UPDATE morpheme_stats SET " +
+                        "wordCount = wordCount - " + relationCount("old") + ", " +
+                        "masteredCount = masteredCount - (old.memoryStrength" + MASTERED + ") * " + relationCount("old") + ", " +
+                        "strengthSum = strengthSum - old.memoryStrength * " + relationCount("old") + " " +
+                        "WHERE morpheme IN " + morphemesOf("old") + "; " +
+                        deleteEmpty(morphemesOf("old")) + " END",
+                "CREATE TRIGGER IF NOT EXISTS morpheme_stats_after_word_update " +
+                        "AFTER UPDATE OF isActive, memoryStrength ON word_nodes " +
+                        "WHEN old.isActive <> new.isActive " +
+                        "OR (new.isActive = 1 AND old.memoryStrength <> new.memoryStrength) BEGIN " +
+                        "INSERT INTO morpheme_stats (morpheme, wordCount, masteredCount, strengthSum) " +
+                        "SELECT DISTINCT morpheme, 0, 0, 0 FROM morpheme_relations " +
+                        "WHERE wordId = new.word AND new.isActive = 1 AND morpheme IS NOT NULL " +
+                        "AND morpheme NOT IN (SELECT morpheme FROM morpheme_stats); " +
+                        "UPDATE morpheme_stats SET " +
+                        "wordCount = wordCount + " + relationCount("new") + " * (new.isActive - old.isActive), " +
+                        "masteredCount = masteredCount + " + relationCount("new") + " * (" +
+                        "(new.isActive = 1 AND new.memoryStrength" + MASTERED + ") - " +
+                        "(old.isActive = 1 AND old.memoryStrength" + MASTERED + ")), " +
+                        "strengthSum = strengthSum + " + relationCount("new") + " * (" +
+                        "new.isActive * new.memoryStrength - old.isActive * old.memoryStrength) " +
+                        "WHERE morpheme IN " + morphemesOf("new") + "; " +
+                        deleteEmpty(morphemesOf("new")) + " END"
+        );
+    }
+
+    /**
+     * 用 word_nodes / morpheme_relations 的现有数据重新计算全部统计（迁移时使用）
+     */
+    @NonNull
+    public static String backfillStatement() {
+        return "INSERT INTO morpheme_stats (morpheme, wordCount, masteredCount, strengthSum) " +
+                "SELECT mr.morpheme, COUNT(*), SUM(w.memoryStrength" + MASTERED + "), SUM(w.memoryStrength) " +
+                "FROM morpheme_relations mr " +
+                "INNER JOIN word_nodes w ON w.word = mr.wordId " +
+                "WHERE w.isActive = 1 AND mr.morpheme IS NOT NULL " +
+                "GROUP BY mr.morpheme";
+    }
+
+    /**
+     * 安装触发器（数据库创建和每次打开时调用，已存在则跳过）
+     */
+    public static void install(@NonNull SupportSQLiteDatabase db) {
+        for (String sql : triggerStatements()) {
+            db.execSQL(sql);
+        }
+    }
+
+    /**
+     * 删除旧版本的触发器后重新安装（触发器内容变化时由迁移调用；install 对已存在的触发器不做任何事）
+     */
+    public static void reinstall(@NonNull SupportSQLiteDatabase db) {
+        for (String name : new String[]{"morpheme_stats_after_relation_insert", "morpheme_stats_after_relation_delete",
+                "morpheme_stats_after_relation_update", "morpheme_stats_before_word_delete",
+                "morpheme_stats_after_word_update"}) {
+            db.execSQL("DROP TRIGGER IF EXISTS " + name);
+        }
+        install(db);
+    }
+
+    /**
+     * 清空并重建统计
+     */
+    public static void rebuild(@NonNull SupportSQLiteDatabase db) {
+        db.execSQL("DELETE FROM morpheme_stats");
+        db.execSQL(backfillStatement());
+    }
+
+    private static String addRelation(String row) {
+        return "INSERT INTO morpheme_stats (morpheme, wordCount, masteredCount, strengthSum) " +
+                "SELECT " + row + ".morpheme, 0, 0, 0 FROM word_nodes " +
+                "WHERE word = " + row + ".wordId AND isActive = 1 AND " + row + ".morpheme IS NOT NULL " +
+                "AND NOT EXISTS (SELECT 1 FROM morpheme_stats WHERE morpheme = " + row + ".morpheme); " +
+                "UPDATE morpheme_stats SET " +
+                "wordCount = wordCount + 1, " +
+                "masteredCount = masteredCount + " +
+                "(SELECT memoryStrength" + MASTERED + " FROM word_nodes WHERE word = " + row + ".wordId), " +
+                "strengthSum = strengthSum + " +
+                "(SELECT memoryStrength FROM word_nodes WHERE word = " + row + ".wordId) " +
+                "WHERE morpheme = " + row + ".morpheme AND " + activeWord(row) + ";";
+    }
+
+    private static String removeRelation(String row) {
+        return "UPDATE morpheme_stats SET " +
+                "wordCount = wordCount - 1, " +
+                "masteredCount = masteredCount - " +
+                "(SELECT memoryStrength" + MASTERED + " FROM word_nodes WHERE word = " + row + ".wordId), " +
+                "strengthSum = strengthSum - " +
+                "(SELECT memoryStrength FROM word_nodes WHERE word = " + row + ".wordId) " +
+                "WHERE morpheme = " + row + ".morpheme AND " + activeWord(row) + "; " +
+                "DELETE FROM morpheme_stats WHERE morpheme = " + row + ".morpheme AND wordCount <= 0;";
+    }
+
+    private static String activeWord(String row) {
+        return "EXISTS (SELECT 1 FROM word_nodes WHERE word = " + row + ".wordId AND isActive = 1)";
+    }
+
+    /**
+     * 单词在当前词根上的关系条数（通常为 1）
+     */
+    private static String relationCount(String row) {
+        return "(SELECT COUNT(*) FROM morpheme_relations " +
+                "WHERE wordId = " + row + ".word AND morpheme = morpheme_stats.morpheme)";
+    }
+
+    private static String morphemesOf(String row) {
+        return "(SELECT morpheme FROM morpheme_relations WHERE wordId = " + row + ".word)";
+    }
+
+    private static String deleteEmpty(String morphemes) {
+        return "DELETE FROM morpheme_stats WHERE wordCount <= 0 AND morpheme IN " + morphemes + ";";
+    }
+}
@@ -0,0 +1,67 @@
+package com.wcw.wordnet.data.morpheme;
+
+import android.database.Cursor;
+
+import androidx.annotation.NonNull;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * morpheme_relations 的写入计数（单行表 morpheme_writes）
+ * 每插入、更新、删除一行（包括随单词级联删除），触发器在同一事务内把计数加一，只增不减；
+ * 联想前缀树和词根拆分器据此核对失效通知是否全部来自已同步的本地写入。
+ * 不属于 Room 管理的结构，数据库每次打开时确认存在，不需要迁移。
+ */
+public final class MorphemeWriteCounter {
+
+    public static final String TABLE = "morpheme_writes";
+
+    public static final String CREATE_TABLE_SQL = "CREATE TABLE IF NOT EXISTS `morpheme_writes` (" +
+            "`id` INTEGER PRIMARY KEY NOT NULL, `value` INTEGER NOT NULL)";
+
+    /**
+     * 计数从 0 开始（已存在时不变）
+     */
+    public static final String SEED_SQL = "INSERT OR IGNORE INTO morpheme_writes (id, value) VALUES (0, 0)";
+
+    private MorphemeWriteCounter() {}
+
+    /**
+     * 计数触发器（可重复执行）
+     */
+    @NonNull
+    public static List<String> triggerStatements() {
+        return Arrays.asList(
+                countWrites("insert", "INSERT"),
+                countWrites("update", "UPDATE"),
+                countWrites("delete", "DELETE")
+        );
+    }
+
+    /**
+     * 建表、补上计数行并安装触发器（数据库每次打开时调用，已存在则跳过）
+     */
+    public static void install(@NonNull SupportSQLiteDatabase db) {
+        db.execSQL(CREATE_TABLE_SQL);
+        db.execSQL(SEED_SQL);
+        for (String sql : triggerStatements()) {
+            db.execSQL(sql);
+        }
+    }
+
+    /**
+     * 当前计数
+     */
+    public static long read(@NonNull SupportSQLiteDatabase db) {
+        try (Cursor cursor = db.query("SELECT value FROM morpheme_writes WHERE id = 0")) {
+            return cursor.moveToFirst() ? cursor.getLong(0) : 0;
+        }
+    }
+
+    private static String countWrites(String name, String event) {
+        return "CREATE TRIGGER IF NOT EXISTS morpheme_writes_after_" + name + " AFTER " + event +
+                " ON morpheme_relations BEGIN UPDATE morpheme_writes SET value = value + 1 WHERE id = 0; END";
+    }
+}
@@ -0,0 +1,150 @@
+package com.wcw.wordnet.data.paging;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.paging.PagingState;
+import androidx.paging.rxjava2.RxPagingSource;
+import androidx.room.InvalidationTracker;
+
+import com.wcw.wordnet.data.cache.WordCache;
+import com.wcw.wordnet.data.local.dao.WordDao;
+import com.wcw.wordnet.data.local.database.AppDatabase;
+import com.wcw.wordnet.data.local.database.DatabaseSchedulers;
+import com.wcw.wordnet.model.entity.WordNode;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import io.reactivex.Single;
+import kotlin.Unit;
+
+/**
+ * 活跃单词的分页数据源（键集分页）
+ * 按 (memoryStrength, word) 排序，游标是一页首尾单词的 (memoryStrength, word)：
+ * - 向下翻页：读取游标之后的一页
+ * - 向上翻页：读取游标之前的一页（倒序读取后反转）
+ * - 刷新：从锚点附近的单词开始（包含该单词）
+ * 每页都是索引上的一次范围查找，不用 OFFSET，也不统计总数（不显示占位符）；
+ * 配合 PagingConfig.maxSize，列表在内存中只保留有限的几页，与词库大小无关。
+ *
+ * word_nodes 变化（复习、添加、归档）时通过 InvalidationTracker 使数据源失效，由 Pager 重新创建。
+ * 读到的每一页同时放入单词缓存，点开列表中的单词时详情页直接从缓存取。
+ */
+public class WordPagingSource extends RxPagingSource<WordPagingSource.Key, WordNode> {
+
+    /**
+     * 分页游标：一个单词在排序中的位置
+     */
+    public static final class Key {
+        final float strength;
+        @NonNull
+        final String word;
+
+        Key(float strength, @NonNull String word) {
+            this.strength = strength;
+            this.word = word;
+        }
+
+        static Key of(@NonNull WordNode node) {
+            return new Key(node.getMemoryStrength(), node.getWord());
+        }
+    }
+
+    private final WordDao wordDao;
+    private final WordCache wordCache;
+    private final InvalidationTracker invalidationTracker;
+    private final InvalidationTracker.Observer observer;
+
+    public WordPagingSource(@NonNull AppDatabase db, @NonNull WordCache wordCache) {
+        this.wordDao = db.wordDao();
+        this.wordCache = wordCache;
+        this.invalidationTracker = db.getInvalidationTracker();
+        this.observer = new InvalidationTracker.Observer("word_nodes") {
+            @Override
+            public void onInvalidated(@NonNull Set<String> tables) {
+                invalidate();
+            }
+        };
+        invalidationTracker.addObserver(observer);
+        registerInvalidatedCallback(() -> {
+            invalidationTracker.removeObserver(observer);
+            return Unit.INSTANCE;
+        });
+    }
+
+    @NonNull
+    @Override
+    public Single<LoadResult<Key, WordNode>> loadSingle(@NonNull LoadParams<Key> params) {
+        return Single.defer(() -> {
+                    // 查询之前记下缓存版本，期间被修补的单词不放入缓存
+                    long version = wordCache.version();
+                    return query(params)
+                            .doOnSuccess(page -> wordCache.putWords(page, version));
+                })
+                .map(page -> toResult(params, page))
+                .subscribeOn(DatabaseSchedulers.reader())
+                .onErrorReturn(LoadResult.Error::new);
+    }
+
+    /**
+     * 按加载方向选择查询（向上翻页的结果是倒序）
+     */
+    private Single<List<WordNode>> query(LoadParams<Key> params) {
+        Key key = params.getKey();
+        int loadSize = params.getLoadSize();
+        if (params instanceof LoadParams.Prepend) {
+            return wordDao.getActiveWordsBefore(key.strength, key.word, loadSize);
+        } else if (params instanceof LoadParams.Append) {
+            return wordDao.getActiveWordsAfter(key.strength, key.word, loadSize);
+        } else if (key == null) {
+            return wordDao.getActiveWordsFirstPage(loadSize);
+        } else {
+            return wordDao.getActiveWordsFrom(key.strength, key.word, loadSize);
+        }
+    }
+
+    private LoadResult<Key, WordNode> toResult(LoadParams<Key> params, List<WordNode> page) {
+        Key key = params.getKey();
+        int loadSize = params.getLoadSize();
+        if (params instanceof LoadParams.Prepend) {
+            List<WordNode> ascending = new ArrayList<>(page);
+            Collections.reverse(ascending);
+            // 不满一页说明已经到顶
+            return toPage(ascending, ascending.size() == loadSize, true);
+        } else if (params instanceof LoadParams.Append) {
+            return toPage(page, true, page.size() == loadSize);
+        } else if (key == null) {
+            return toPage(page, false, page.size() == loadSize);
+        } else {
+            return toPage(page, true, page.size() == loadSize);
+        }
+    }
+
+    /**
+     * @param hasBefore 前面可能还有单词（为 false 时不再向上翻页）
+     * @param hasAfter 后面可能还有单词
+     */
+    private LoadResult<Key, WordNode> toPage(List<WordNode> page, boolean hasBefore, boolean hasAfter) {
+        if (page.isEmpty()) {
+            return new LoadResult.Page<>(page, null, null);
+        }
+        Key prevKey = hasBefore ? Key.of(page.get(0)) : null;
+        Key nextKey = hasAfter ? Key.of(page.get(page.size() - 1)) : null;
+        return new LoadResult.Page<>(page, prevKey, nextKey);
+    }
+
+    /**
+     * 失效后重新加载的起点：锚点（当前可见位置）往前半页处的单词
+     * 新数据源从这个单词开始加载，列表停留在原来的位置附近
+     */
+    @Nullable
+    @Override
+    public Key getRefreshKey(@NonNull PagingState<Key, WordNode> state) {
+        Integer anchor = state.getAnchorPosition();
+        if (anchor == null) return null;
+        WordNode item = state.closestItemToPosition(Math.max(0, anchor - state.getConfig().pageSize / 2));
+        return item == null ? null : Key.of(item);
+    }
+}
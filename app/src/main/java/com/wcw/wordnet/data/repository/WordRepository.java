@@ -1,68 +1,229 @@
 package com.wcw.wordnet.data.repository;
 
 import android.app.Application;
+import android.content.ComponentCallbacks2;
+import android.content.res.Configuration;
+import android.database.Cursor;
 import android.util.Log;
 
+import androidx.annotation.NonNull;
 import androidx.lifecycle.LiveData;
+import androidx.paging.Pager;
+import androidx.paging.PagingConfig;
+import androidx.paging.PagingData;
+import androidx.paging.PagingLiveData;
 
 import com.wcw.wordnet.data.algorithm.Sm2Algorithm;
+import com.wcw.wordnet.data.cache.CachedWordLiveData;
+import com.wcw.wordnet.data.cache.WordCache;
+import com.wcw.wordnet.data.cache.WordCacheStats;
+import com.wcw.wordnet.data.graph.WordGraph;
+import com.wcw.wordnet.data.graph.WordGraphCache;
+import com.wcw.wordnet.data.local.dao.MorphemeDao;
 import com.wcw.wordnet.data.local.dao.ReviewQueueDao;
+import com.wcw.wordnet.data.local.dao.SearchDao;
 import com.wcw.wordnet.data.local.dao.WordDao;
 import com.wcw.wordnet.data.local.database.AppDatabase;
+import com.wcw.wordnet.data.local.database.DataInitializer;
+import com.wcw.wordnet.data.local.database.DatabaseExecutorStats;
+import com.wcw.wordnet.data.local.database.DatabaseSchedulers;
+import com.wcw.wordnet.data.morpheme.MorphemeSegmenter;
+import com.wcw.wordnet.data.morpheme.MorphemeWriteCounter;
+import com.wcw.wordnet.data.paging.WordPagingSource;
+import com.wcw.wordnet.data.review.ReviewCommitter;
+import com.wcw.wordnet.data.review.ReviewDueQueue;
+import com.wcw.wordnet.data.review.ReviewSession;
+import com.wcw.wordnet.data.review.ReviewSessionStats;
+import com.wcw.wordnet.data.search.MorphemeTrie;
+import com.wcw.wordnet.data.search.SearchQuery;
+import com.wcw.wordnet.model.DashboardStats;
+import com.wcw.wordnet.model.DueCard;
+import com.wcw.wordnet.model.MorphemeCount;
+import com.wcw.wordnet.model.MorphemeNeighbour;
+import com.wcw.wordnet.model.ReviewCard;
 import com.wcw.wordnet.model.RootStatistic;
+import com.wcw.wordnet.model.entity.MorphemeRelation;
 import com.wcw.wordnet.model.entity.ReviewQueue;
 import com.wcw.wordnet.model.entity.WordNode;
 
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import io.reactivex.Completable;    // 异步操作完成状态
+import io.reactivex.Flowable;
 import io.reactivex.Maybe;
+import io.reactivex.Observable;
 import io.reactivex.Single;
 import io.reactivex.disposables.Disposable;
-import io.reactivex.schedulers.Schedulers;
 
 /**
  * 单词仓库类
  * 作为单一数据源，封装所有数据操作
  * 提供线程安全的异步接口，供ViewModel使用
+ * 进程内只有一个实例，所有 ViewModel（包括详情页单独创建的）共享同一个复习会话和单词缓存
  */
 
 public class WordRepository {
 
+    private static volatile WordRepository INSTANCE;
+
+    private final AppDatabase db;
     private final WordDao wordDao;
+    private final MorphemeDao morphemeDao;
+    private final SearchDao searchDao;
 
     private final ReviewQueueDao reviewQueueDao;  // 复习队列DAO
     private final Sm2Algorithm sm2Algorithm = new Sm2Algorithm();  // SM-2算法实例
+    private final ReviewDueQueue dueQueue;  // 内存中的到期卡片堆（进程内共享）
+    private final ReviewSession reviewSession;  // 复习会话预取管线
+    private final ReviewCommitter reviewCommitter;  // 评分延迟批量写入（进程内共享）
+    private final MorphemeTrie morphemeTrie;  // 词根联想前缀树（进程内共享）
+    private final MorphemeSegmenter morphemeSegmenter;  // 词根自动拆分器（进程内共享）
+    private final WordGraphCache wordGraphCache;  // 单词—词根图（进程内共享）
+    private final WordCache wordCache;  // 单词与词根关系的 LRU 缓存（进程内共享）
 
     private final Application application;
 
+    /**
+     * 全文搜索最多返回的结果数
+     */
+    private static final int SEARCH_LIMIT = 50;
+
+    /**
+     * 词根联想最多返回的数量
+     */
+    private static final int SUGGESTION_LIMIT = 8;
+
+    /**
+     * 数据看板按时间刷新的间隔（分钟）：没有写入时到期数也会随时间变化
+     */
+    private static final long DASHBOARD_REFRESH_MINUTES = 1;
+
+    /**
+     * 单词列表每页的单词数，以及内存中最多保留的单词数（超出后丢弃离可见区域最远的页）
+     */
+    private static final int WORD_PAGE_SIZE = 50;
+    private static final int WORD_PAGE_MAX_SIZE = 300;
+
+    /**
+     * 单词详情页邻域中最多显示的兄弟单词数（"re" 这类词根有上千个兄弟单词）
+     */
+    private static final int NEIGHBOUR_LIMIT = 40;
+
+    /**
+     * 复习队列是否已在本进程中对齐过（对齐只需一次，失败后下次获取仓库时重试）
+     */
+    private static final AtomicBoolean reviewQueueReconciled = new AtomicBoolean(false);
+
+    /**
+     * 未拆分的单词是否已在本进程中批量拆分过
+     */
+    private static final AtomicBoolean unsplitWordsSegmented = new AtomicBoolean(false);
+
+    /**
+     * 获取进程内唯一的仓库
+     * 每次获取时检查一次性任务（复习队列对齐、批量拆分）是否需要重试
+     * @param application 用于获取数据库实例
+     */
+    public static WordRepository getInstance(Application application) {
+        if (INSTANCE == null) {
+            synchronized (WordRepository.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new WordRepository(application);
+                }
+            }
+        }
+        // 对齐复习队列（为缺少复习计划的单词补建，进程内只执行一次）
+        INSTANCE.initializeReviewQueue();
+        // 为旧版本添加的、尚未拆分词根的单词补做拆分（进程内只执行一次）
+        INSTANCE.segmentUnsplitWords();
+        return INSTANCE;
+    }
+
     /**
      * 构造函数
      * @param application 用于获取数据库实例
      */
-    public WordRepository(Application application) {
+    private WordRepository(Application application) {
         this.application = application;
-        AppDatabase db = AppDatabase.getDatabase(application);
+        this.db = AppDatabase.getDatabase(application);
         this.wordDao = db.wordDao();
+        this.morphemeDao = db.morphemeDao();
+        this.searchDao = db.searchDao();
         this.reviewQueueDao = db.reviewQueueDao();  // 新增：初始化DAO
-        // 新增：初始化复习队列（自动为所有单词创建复习计划）
-        initializeReviewQueue();
+        this.dueQueue = ReviewDueQueue.getInstance(db);
+        this.wordCache = WordCache.getInstance(db);
+        // 补货时只查询缓存中没有的单词的词根关系
+        this.reviewSession = new ReviewSession(dueQueue,
+                reviewQueueDao::getDueCardsSync,
+                wordIds -> wordCache.getRelations(wordIds, morphemeDao::getRelationsByWordsSync),
+                ReviewSession.DEFAULT_PREFETCH_SIZE);
+        this.reviewCommitter = ReviewCommitter.getInstance(application, db, dueQueue);
+        this.morphemeTrie = MorphemeTrie.getInstance(db);
+        this.morphemeSegmenter = MorphemeSegmenter.getInstance(db);
+        this.wordGraphCache = WordGraphCache.getInstance(db);
+        // 系统内存紧张时回收单词缓存
+        application.registerComponentCallbacks(new ComponentCallbacks2() {
+            @Override
+            public void onTrimMemory(int level) {
+                if (level >= TRIM_MEMORY_UI_HIDDEN) {
+                    wordCache.trim(true);
+                } else if (level >= TRIM_MEMORY_RUNNING_LOW) {
+                    wordCache.trim(false);
+                }
+            }
+
+            @Override
+            public void onLowMemory() {
+                wordCache.trim(true);
+            }
+
+            @Override
+            public void onConfigurationChanged(@NonNull Configuration newConfig) { }
+        });
     }
 
     /**
      * 插入单词（异步）（并自动加入复习队列）
+     * 没有给出词根的单词先自动拆分，拆分结果写入 morphemeList 和 morpheme_relations
      * 在后台线程执行，避免阻塞主线程
      * @param word 要插入的单词
      * @return Completable, 用于链式调用和错误处理
      */
     public Completable insertWord(WordNode word){
         return Completable.fromAction(() -> {
-                    wordDao.insert(word);  // 先插入单词
-                    // ✅ 新增：立即创建复习项
-                    ReviewQueue item = sm2Algorithm.createInitialItem(word.getWord());
-                    reviewQueueDao.insertReviewQueue(item);
+                    List<MorphemeRelation> relations = word.parseMorphemeRelations();
+                    if (relations.isEmpty()) {
+                        morphemeSegmenter.refreshIfStale(morphemeDao::getMorphemeUsageSync);
+                        relations = morphemeSegmenter.segment(word.getWord());
+                        word.setMorphemeList(WordNode.toMorphemeList(MorphemeRelation.morphemesOf(relations)));
+                    }
+                    List<MorphemeRelation> segmented = relations;
+                    dueQueue.runLocalWrite(() -> {
+                        wordDao.insert(word);  // 先插入单词
+                        // 写入词根关系（与导入词库一致），并同步到联想前缀树和拆分器
+                        if (!segmented.isEmpty()) {
+                            long before = morphemeWriteCount();
+                            morphemeDao.insertAll(segmented);
+                            morphemeTrie.addWord(MorphemeRelation.morphemesOf(segmented));
+                            morphemeSegmenter.learn(segmented);
+                            long after = morphemeWriteCount();
+                            morphemeTrie.acceptLocalWrite(before, after);
+                            morphemeSegmenter.acceptLocalWrite(before, after);
+                        }
+                        // ✅ 新增：立即创建复习项
+                        ReviewQueue item = sm2Algorithm.createInitialItem(word.getWord());
+                        reviewQueueDao.insertReviewQueue(item);
+                        // 新单词立即到期，直接放入内存队列
+                        dueQueue.upsert(new DueCard(item, word));
+                    });
                 })
-                .subscribeOn(Schedulers.io());
+                .subscribeOn(DatabaseSchedulers.writer());
     }
 
     /**
@@ -71,9 +232,29 @@ public class WordRepository {
      * @return Completable
      */
     public Completable updateWord(WordNode word) {
-        return Completable.fromAction(() ->
-                wordDao.update(word))
-                .subscribeOn(Schedulers.io());
+        return Completable.fromAction(() -> {
+                    dueQueue.runLocalWrite(() -> {
+                        wordDao.update(word);
+                        dueQueue.replaceWord(word);
+                    });
+                })
+                .subscribeOn(DatabaseSchedulers.writer());
+    }
+
+    /**
+     * 记录一次简单复习（答对/答错），只更新记忆强度相关的列
+     * 读取和写回在同一个事务内完成，避免并发点击时丢失更新
+     * @param word 单词字符串
+     * @param isCorrect 是否答对
+     * @return Completable
+     */
+    public Completable reviewWord(String word, boolean isCorrect) {
+        return Completable.fromAction(() -> {
+                    if (!wordDao.applyReview(word, isCorrect, System.currentTimeMillis())) {
+                        throw new RuntimeException("未找到单词: " + word);
+                    }
+                })
+                .subscribeOn(DatabaseSchedulers.writer());
     }
 
     /**
@@ -82,9 +263,22 @@ public class WordRepository {
      * @return Completable
      */
     public Completable deleteWord(WordNode word){
-        return Completable.fromAction(() ->
-                wordDao.delete(word))
-                .subscribeOn(Schedulers.io());
+        return Completable.fromAction(() -> {
+                    WordNode existing = wordDao.getWordByIdSync(word.getWord());
+                    List<String> morphemes = MorphemeRelation.morphemesOf(
+                            morphemeDao.getRelationsByWordsSync(Collections.singletonList(word.getWord())));
+                    dueQueue.runLocalWrite(() -> {
+                        // 词根关系随单词级联删除，前缀树只统计可见单词；拆分器不随删除更新，由通知让它重建
+                        long before = morphemeWriteCount();
+                        wordDao.delete(word);
+                        dueQueue.remove(word.getWord());
+                        if (existing != null && existing.isActive()) {
+                            morphemeTrie.removeWord(morphemes);
+                        }
+                        morphemeTrie.acceptLocalWrite(before, morphemeWriteCount());
+                    });
+                })
+                .subscribeOn(DatabaseSchedulers.writer());
     }
 
     /**
@@ -96,11 +290,25 @@ public class WordRepository {
     }
 
     /**
-     * 获取单个单词
+     * 分页读取所有可见单词（按记忆强度从低到高，键集分页）
+     * 内存中最多保留 WORD_PAGE_MAX_SIZE 个单词，与词库大小无关；数据变化时自动重新加载
+     * @return 分页数据流，ViewModel 中需要 cachedIn 以便配置变更后复用
+     */
+    public LiveData<PagingData<WordNode>> getActiveWordPages() {
+        Pager<WordPagingSource.Key, WordNode> pager = new Pager<>(
+                new PagingConfig(WORD_PAGE_SIZE, WORD_PAGE_SIZE, false,
+                        WORD_PAGE_SIZE * 2, WORD_PAGE_MAX_SIZE),
+                () -> new WordPagingSource(db, wordCache));
+        return PagingLiveData.getLiveData(pager);
+    }
+
+    /**
+     * 获取单个单词（先查单词缓存）
      */
     public Single<WordNode> getWordById(String word){
-        return wordDao.getWordById(word)
-                .subscribeOn(Schedulers.io());
+        return Maybe.fromCallable(() -> wordCache.getWord(word, wordDao::getWordByIdSync))
+                .toSingle()
+                .subscribeOn(DatabaseSchedulers.reader());
     }
 
     /**
@@ -111,13 +319,91 @@ public class WordRepository {
         return wordDao.getWeakWords(10);    // 默认获取10个
     }
 
+    /**
+     * 使用某个词根的全部活跃单词（精确匹配，词根网络图中点击词根时使用）
+     * @param morpheme 词根
+     */
+    public LiveData<List<WordNode>> getWordsByMorpheme(String morpheme) {
+        return morphemeDao.getWordsByMorpheme(morpheme);
+    }
+
+    /**
+     * 单词的两跳邻域：共用词根的其他活跃单词，按共用词根数排名并封顶
+     * 一条 SQL 完成，不再对每个词根分别查询
+     * @param word 中心单词
+     * @return 邻居单词与共用词根之间的边（最多 NEIGHBOUR_LIMIT 个邻居）
+     */
+    public Single<List<MorphemeNeighbour>> getMorphemeNeighbourhood(String word) {
+        return morphemeDao.getMorphemeNeighbourhood(word, NEIGHBOUR_LIMIT)
+                .subscribeOn(DatabaseSchedulers.reader());
+    }
+
     /**
      * 根据词根搜索相关单词
+     * 走 morpheme_relations 的词根索引做精确 + 前缀匹配，只匹配完整词根的开头，
+     * 不会像子串匹配那样跨词根边界（"re" 不再命中 "structure"）
      * @param root 词根，如"struct"、"re"
-     * @return 包含该词根的单词列表LiveData
+     * @return 包含该词根的单词列表LiveData（精确命中、词根位置、记忆强度排序）
      */
     public LiveData<List<WordNode>> getWordsByRoot(String root) {
-        return wordDao.getWordsByRoot(root);
+        String prefix = root.trim().toLowerCase(Locale.ROOT);
+        return morphemeDao.searchWordsByMorphemePrefix(prefix, SearchQuery.prefixUpperBound(prefix));
+    }
+
+    /**
+     * 全文搜索：英文前缀、中文释义、词根
+     * 排序：单词完全相同 → 单词前缀命中 → 词根命中 → 释义命中，同级按记忆强度从低到高
+     * 只输入了一个字母时只按单词前缀取字典序的前 SEARCH_LIMIT 个，不走全文索引
+     * @param input 用户输入（可中英混合）
+     * @return 排好序的单词列表（最多 SEARCH_LIMIT 个）；输入为空时返回空列表
+     */
+    public Single<List<WordNode>> searchWords(String input) {
+        SearchQuery query = SearchQuery.parse(input);
+        if (query == null) {
+            return Single.just(Collections.emptyList());
+        }
+        if (query.isShortPrefix()) {
+            return searchDao.searchWordPrefix(query.getTerm(), query.getTermUpperBound(), SEARCH_LIMIT)
+                    .subscribeOn(DatabaseSchedulers.reader());
+        }
+        return searchDao.search(query.getMatch(), query.getTerm(), query.getTermUpperBound(), SEARCH_LIMIT)
+                .subscribeOn(DatabaseSchedulers.reader());
+    }
+
+    /**
+     * 词根联想（边输入边提示）
+     * 查的是内存前缀树，只有首次使用或词根关系被外部修改后才从数据库重建一次
+     * @param prefix 已输入的词根前缀
+     * @return 按关联单词数从多到少排序的词根（最多 SUGGESTION_LIMIT 个）
+     */
+    public Single<List<MorphemeCount>> suggestMorphemes(String prefix) {
+        return Single.fromCallable(() -> {
+                    morphemeTrie.refreshIfStale(morphemeDao::getMorphemeWordCountsSync);
+                    return morphemeTrie.suggest(prefix, SUGGESTION_LIMIT);
+                })
+                .subscribeOn(DatabaseSchedulers.reader());
+    }
+
+    /**
+     * 获取单词—词根图（用于网络分析：邻域、连通分量、中心度等）
+     * 图缓存在内存中，词根关系或单词变化后的第一次调用才重新构建
+     */
+    public Single<WordGraph> getWordGraph() {
+        return Single.fromCallable(() -> wordGraphCache.get(this::loadWordGraph))
+                .subscribeOn(DatabaseSchedulers.reader());
+    }
+
+    /**
+     * 一遍流式读取活跃单词的词根关系并构建图（读线程）
+     */
+    private WordGraph loadWordGraph() {
+        WordGraph.Builder builder = new WordGraph.Builder();
+        try (Cursor cursor = morphemeDao.getActiveRelationsCursor()) {
+            while (cursor.moveToNext()) {
+                builder.addEdge(cursor.getString(0), cursor.getString(1));
+            }
+        }
+        return builder.build();
     }
 
     /**
@@ -134,54 +420,75 @@ public class WordRepository {
      * @return Completable
      */
     public Completable archiveWord(String word){
-        return Completable.fromAction(() ->
-                wordDao.softDelete(word))
-                .subscribeOn(Schedulers.io());
+        return Completable.fromAction(() -> {
+                    WordNode existing = wordDao.getWordByIdSync(word);
+                    dueQueue.runLocalWrite(() -> {
+                        wordDao.softDelete(word);
+                        dueQueue.remove(word);
+                    });
+                    // 归档不改 morpheme_relations，只是不再计入联想的单词数
+                    if (existing != null && existing.isActive()) {
+                        morphemeTrie.removeWord(MorphemeRelation.morphemesOf(
+                                morphemeDao.getRelationsByWordsSync(Collections.singletonList(word))));
+                    }
+                })
+                .subscribeOn(DatabaseSchedulers.writer());
     }
 
     /**
-     * 获取单词总数（用于UI显示）
-     * @return 单词数量LiveData
+     * 数据看板统计（单词列表顶部的掌握进度等）
+     * 一条 SQL、一个读快照算出全部数字；word_nodes 或 review_queue 变化时由 Room 重新执行一次，
+     * 另外每分钟按新的当前时间重新执行（到期数随时间变化）；数值不变的结果不再下发
+     * @return 统计数据流
      */
-    public LiveData<Integer> getWordCount() {
-        return wordDao.getWordCount();
+    public Flowable<DashboardStats> getDashboardStats() {
+        return Flowable.interval(0, DASHBOARD_REFRESH_MINUTES, TimeUnit.MINUTES, DatabaseSchedulers.reader())
+                .switchMap(tick -> {
+                    long now = System.currentTimeMillis();
+                    return wordDao.getDashboardStats(now, endOfDay(now));
+                })
+                .distinctUntilChanged();
     }
 
     /**
-     * 获取已掌握单词数
-     * @return 已掌握数量LiveData
+     * 当天结束的时间（次日零点，本地时区）
      */
-    public LiveData<Integer> getMasteredWordCount() {
-        return wordDao.getMasteredWordCount();
+    private static long endOfDay(long now) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.setTimeInMillis(now);
+        calendar.set(Calendar.HOUR_OF_DAY, 0);
+        calendar.set(Calendar.MINUTE, 0);
+        calendar.set(Calendar.SECOND, 0);
+        calendar.set(Calendar.MILLISECOND, 0);
+        calendar.add(Calendar.DAY_OF_MONTH, 1);
+        return calendar.getTimeInMillis();
     }
 
     /**
      * 初始化复习队列
-     * 作用：将所有活跃单词加入复习计划，仅首次运行时执行
-     * 线程：在IO线程异步执行，不阻塞主线程
+     * 作用：增量对齐复习队列——为缺少复习项的活跃单词补建初始复习项（立即复习），
+     *      删除单词已不存在的复习项；已有的 SM-2 进度保持不变
+     * 时机：每个进程只执行一次，失败时允许下次获取仓库时重试
+     * 线程：在写线程异步执行，不阻塞主线程
      */
     private void initializeReviewQueue() {
+        if (!reviewQueueReconciled.compareAndSet(false, true)) {
+            return;
+        }
         // ✅ 将 Disposable 赋值给局部变量，消除"未使用"警告
         Disposable initializationTask = Completable.fromAction(() -> {
-                    // 1. 先清空旧队列（防止重复插入）
-                    reviewQueueDao.deleteAllReviewQueues();
-
-                    // 2. 获取所有活跃单词（需要同步方法）
-                    List<WordNode> allWords = wordDao.getAllActiveWordsSync();
+                    int removed = reviewQueueDao.reconcileReviewQueues(
+                            System.currentTimeMillis(), Sm2Algorithm.DEFAULT_EASINESS);
 
-                    // 3. 为每个单词创建初始复习项
-                    for (WordNode word : allWords) {
-                        // 创建初始复习项：立即复习
-                        ReviewQueue item = sm2Algorithm.createInitialItem(word.getWord());
-                        reviewQueueDao.insertReviewQueue(item);
-                    }
-
-                    android.util.Log.d("WordRepository", "✅ 复习队列初始化完成，共添加 " + allWords.size() + " 个单词");
+                    android.util.Log.d("WordRepository", "✅ 复习队列对齐完成，删除孤立复习项 " + removed + " 个");
                 })
-                .subscribeOn(Schedulers.io())  // 在IO线程执行
+                .subscribeOn(DatabaseSchedulers.writer())  // 在写线程执行
                 .subscribe(
                         () -> android.util.Log.d("WordRepository", "初始化成功"),
-                        throwable -> android.util.Log.e("WordRepository", "初始化失败", throwable)
+                        throwable -> {
+                            reviewQueueReconciled.set(false);
+                            android.util.Log.e("WordRepository", "初始化失败", throwable);
+                        }
                 );
 
         // 变量 initializationTask 未被使用，但赋值操作消除了 warning
@@ -189,17 +496,153 @@ public class WordRepository {
     }
 
     /**
-     * 获取下一个需要复习的单词（自动推送最紧急的）
-     * @return LiveData包装的WordNode，自动响应数据变化
+     * 批量拆分尚未拆分词根的单词（旧版本添加的单词词根列表为空或只有单词本身）
+     * 拆分器只建一次（读线程），每 CHUNK_SIZE 个单词一个事务，每个事务是写线程上的一个独立任务：
+     * 拆分期间用户的写入可以插在两批之间；联想前缀树随失效通知重建
+     * 时机：每个进程只执行一次，失败时允许下次获取仓库时重试
      */
-    public Maybe<WordNode> getNextReviewWord() {
-        return reviewQueueDao.getNextDueWord(System.currentTimeMillis());
+    private void segmentUnsplitWords() {
+        // 读线程只执行一次查询；各批拆分以独立任务排到写线程，读线程不等待它们完成
+        if (!unsplitWordsSegmented.compareAndSet(false, true)) {
+            return;
+        }
+        Disposable segmentationTask = Single.fromCallable(() -> {
+                    List<WordNode> words = wordDao.getUnsplitWordsSync();
+                    if (!words.isEmpty()) {
+                        morphemeSegmenter.refreshIfStale(morphemeDao::getMorphemeUsageSync);
+                    }
+                    return words;
+                })
+                .subscribeOn(DatabaseSchedulers.reader())
+                .flatMapCompletable(words -> Observable.range(0,
+                                (words.size() + DataInitializer.CHUNK_SIZE - 1) / DataInitializer.CHUNK_SIZE)
+                        .concatMapCompletable(index -> segmentChunk(words.subList(
+                                index * DataInitializer.CHUNK_SIZE,
+                                Math.min(words.size(), (index + 1) * DataInitializer.CHUNK_SIZE))))
+                        .doOnComplete(() -> {
+                            if (!words.isEmpty()) {
+                                Log.d("WordRepository", "✅ 自动拆分词根完成，共 " + words.size() + " 个单词");
+                            }
+                        }))
+                .subscribe(
+                        () -> { },
+                        throwable -> {
+                            unsplitWordsSegmented.set(false);
+                            Log.e("WordRepository", "自动拆分词根失败", throwable);
+                        }
+                );
     }
 
     /**
-     * 处理复习评分（双向更新）
-     * 1. 更新 review_queue 表（计算下次复习时间）
-     * 2. 更新 word_nodes 表（更新记忆强度、复习次数）
+     * 在写线程上用一个事务拆分一批单词
+     */
+    private Completable segmentChunk(List<WordNode> chunk) {
+        return Completable.fromAction(() -> db.runInTransaction(() -> {
+                    long before = morphemeWriteCount();
+                    for (WordNode word : chunk) {
+                        List<MorphemeRelation> relations = morphemeSegmenter.segment(word.getWord());
+                        String morphemeList = WordNode.toMorphemeList(MorphemeRelation.morphemesOf(relations));
+                        // 仍然整个单词都不认识：结果不变，不重写
+                        if (morphemeList.equals(word.getMorphemeList())) continue;
+                        morphemeDao.replaceRelations(word.getWord(), relations);
+                        wordDao.updateMorphemeList(word.getWord(), morphemeList);
+                        morphemeSegmenter.learn(relations);
+                    }
+                    // 联想前缀树没有原地同步，由通知让它重建
+                    morphemeSegmenter.acceptLocalWrite(before, morphemeWriteCount());
+                }))
+                .subscribeOn(DatabaseSchedulers.writer());
+    }
+
+    /**
+     * morpheme_relations 的写入计数（在写事务内调用，读到本事务已写入后的值）
+     */
+    private long morphemeWriteCount() {
+        return MorphemeWriteCounter.read(db.getOpenHelper().getWritableDatabase());
+    }
+
+    /**
+     * 开始新的复习会话
+     * 让内存队列在下次取卡时重新加载一次到期卡片（期间可能有新单词到期），
+     * 并清空上一轮的预取缓冲区
+     */
+    public void startReviewSession() {
+        dueQueue.invalidate();
+        reviewSession.reset();
+    }
+
+    /**
+     * 从预取缓冲区取下一张复习卡（主线程调用，不做IO）
+     * 缓冲区降到低水位时在后台补货
+     * @return 缓冲区中的卡片；缓冲区为空时返回 null，应改用 loadNextReviewCard()
+     */
+    public ReviewCard pollPrefetchedReviewCard() {
+        long version = wordCache.version();
+        ReviewCard card = reviewSession.poll();
+        if (card != null) {
+            // 复习中点开当前单词的详情时直接从缓存取
+            wordCache.putWords(Collections.singletonList(card.getWord()), version);
+            if (reviewSession.needsRefill()) {
+                prefetchReviewCards();
+            }
+        }
+        return card;
+    }
+
+    /**
+     * 获取下一张需要复习的卡片（缓冲区未命中时使用）
+     * 从内存小顶堆的堆顶取卡，只有队列过期时才查询一次数据库
+     * @return Maybe包装的ReviewCard，没有到期单词时直接完成
+     */
+    public Maybe<ReviewCard> loadNextReviewCard() {
+        return Maybe.defer(() -> {
+                    long version = wordCache.version();
+                    return Maybe.fromCallable(() -> reviewSession.loadNext(System.currentTimeMillis()))
+                            .doOnSuccess(card -> wordCache.putWords(
+                                    Collections.singletonList(card.getWord()), version));
+                })
+                .doOnSuccess(card -> prefetchReviewCards())
+                .subscribeOn(DatabaseSchedulers.reader());
+    }
+
+    /**
+     * 后台补充预取缓冲区（fire-and-forget）
+     */
+    private void prefetchReviewCards() {
+        Disposable prefetchTask = Completable.fromAction(() ->
+                        reviewSession.refill(System.currentTimeMillis()))
+                .subscribeOn(DatabaseSchedulers.reader())
+                .subscribe(
+                        () -> { },
+                        throwable -> Log.e("WordRepository", "预取复习卡片失败", throwable)
+                );
+    }
+
+    /**
+     * 获取本轮复习会话的预取统计（命中率、补货耗时）
+     */
+    public ReviewSessionStats getReviewSessionStats() {
+        return reviewSession.getStats();
+    }
+
+    /**
+     * 获取单词缓存的统计（命中、未命中、失效次数）
+     */
+    public WordCacheStats getWordCacheStats() {
+        return wordCache.getStats();
+    }
+
+    /**
+     * 获取数据库写线程和读线程池的统计（排队深度、等待时间）
+     */
+    public List<DatabaseExecutorStats> getDatabaseExecutorStats() {
+        return Arrays.asList(DatabaseSchedulers.getWriterStats(), DatabaseSchedulers.getReaderStats());
+    }
+
+    /**
+     * 处理复习评分（双向更新，延迟批量落库）
+     * 1. 评分追加到日志，稍后与其他评分在同一事务内更新 review_queue 和 word_nodes
+     * 2. 立即更新内存队列中的复习计划和记忆强度
      *
      * @param wordId 单词ID
      * @param quality 评分（0=忘记, 3=困难, 4=良好, 5=完美）
@@ -207,33 +650,25 @@ public class WordRepository {
      */
     public Completable processReview(String wordId, int quality) {
         return Completable.fromAction(() -> {
-            // 1. 获取当前复习项
-            ReviewQueue item = reviewQueueDao.getReviewItemSync(wordId);
-            if (item == null) {
-                throw new RuntimeException("未找到复习项: " + wordId);
+            long reviewedAt = System.currentTimeMillis();
+
+            // ✅ 追加到评分日志（返回即已持久化），由后台批量写入两张表；
+            // 同时原地调整内存队列，计算方式与落库时完全相同（更新的是单词副本，不跨线程修改原对象）
+            DueCard card = reviewCommitter.append(wordId, quality, reviewedAt);
+            if (card != null) {
+                Log.d("WordRepository",
+                        String.format("✅ 评分已记录：单词='%s', 评分=%d, 新强度=%.2f, 复习次数=%d, 下次复习=%s",
+                                wordId, quality, card.getWord().getMemoryStrength(), card.getWord().getReviewCount(),
+                                new java.util.Date(card.getNextReviewTime())));
             }
+        }).subscribeOn(DatabaseSchedulers.writer());
+    }
 
-            // 2. 用SM-2算法计算新的复习计划
-            ReviewQueue updatedItem = sm2Algorithm.calculateNextReview(item, quality);
-
-            // 3. ✅ 更新 review_queue 表
-            reviewQueueDao.updateReviewQueue(updatedItem);
-
-            // 4. ✅ 获取原始单词数据
-            WordNode word = wordDao.getWordByIdSync(wordId);
-            if (word == null) {
-                throw new RuntimeException("未找到单词: " + wordId);
-            }
-
-            // 5. ✅ 更新 word_nodes 表（关键！双向同步）
-            word.updateMemoryStrengthByQuality(quality);
-            wordDao.update(word);  // 同步更新数据库
-
-            Log.d("WordRepository",
-                    String.format("✅ 双向更新完成：单词='%s', 评分=%d, 新强度=%.2f, 复习次数=%d, 下次复习=%s",
-                            wordId, quality, word.getMemoryStrength(), word.getReviewCount(),
-                            new java.util.Date(updatedItem.getNextReviewTime())));
-        }).subscribeOn(Schedulers.io());
+    /**
+     * 立即提交评分日志中尚未落库的评分（后台执行）
+     */
+    public void flushPendingReviews() {
+        reviewCommitter.flushAsync();
     }
 
     /**
@@ -241,7 +676,8 @@ public class WordRepository {
      * ✅ 修改：返回 Single<Integer> 而不是 LiveData<Integer>
      */
     public Single<Integer> getDueReviewCount() {
-        return reviewQueueDao.getDueReviewCount(System.currentTimeMillis());
+        return Single.defer(() -> reviewQueueDao.getDueReviewCount(System.currentTimeMillis()))
+                .subscribeOn(DatabaseSchedulers.reader());
     }
 
     /**
@@ -252,13 +688,14 @@ public class WordRepository {
         return Completable.fromAction(() -> {
             ReviewQueue item = sm2Algorithm.createInitialItem(wordId);
             reviewQueueDao.insertReviewQueue(item);
-        }).subscribeOn(Schedulers.io());
+        }).subscribeOn(DatabaseSchedulers.writer());
     }
 
     /**
      * 获取单个单词的 LiveData
+     * 单词已在列表或复习会话中读过时直接从缓存取，不访问数据库；单词变化后自动重新读取
      */
     public LiveData<WordNode> getWordByIdLiveData(String word) {
-        return wordDao.getWordByIdLiveData(word);
+        return new CachedWordLiveData(wordCache, word, wordDao::getWordByIdSync);
     }
 }
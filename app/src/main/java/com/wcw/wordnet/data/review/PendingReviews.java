@@ -0,0 +1,62 @@
+package com.wcw.wordnet.data.review;
+
+import androidx.annotation.NonNull;
+
+import com.wcw.wordnet.data.algorithm.Sm2Algorithm;
+import com.wcw.wordnet.model.DueCard;
+import com.wcw.wordnet.model.entity.ReviewQueue;
+import com.wcw.wordnet.model.entity.WordNode;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 在内存中的到期卡片上应用评分，计算方式与 {@link ReviewCommitter} 落库时完全相同
+ * 评分时原地更新堆、重新加载时叠加日志中尚未落库的评分，都经过这里
+ */
+final class PendingReviews {
+
+    private static final Sm2Algorithm SM2 = new Sm2Algorithm();
+
+    private PendingReviews() {}
+
+    /**
+     * 在卡片上应用一次评分，返回新的卡片
+     * 不修改原卡片和单词：它们可能正在界面上显示、也可能在单词缓存中
+     */
+    @NonNull
+    static DueCard review(@NonNull DueCard card, int quality, long reviewedAt) {
+        ReviewQueue schedule = SM2.calculateNextReview(card.getSchedule(), quality, reviewedAt);
+        WordNode word = card.getWord().copy();
+        word.updateMemoryStrengthByQuality(quality, reviewedAt);
+        return new DueCard(schedule, word);
+    }
+
+    /**
+     * 把日志中序号大于 committedSeq 的评分按追加顺序叠加到卡片上
+     * 单词不在 cards 中（已删除或已归档）的条目跳过
+     * @param cards 从数据库读出的到期卡片
+     * @param entries 日志中尚未确认的条目
+     * @param committedSeq 数据库中已落库的最大序号（{@link ReviewJournalMark}）
+     */
+    @NonNull
+    static List<DueCard> overlay(@NonNull List<DueCard> cards,
+                                 @NonNull List<ReviewJournal.Entry> entries,
+                                 long committedSeq) {
+        if (entries.isEmpty()) return cards;
+        List<DueCard> result = new ArrayList<>(cards);
+        Map<String, Integer> indexByWord = new HashMap<>();
+        for (int i = 0; i < result.size(); i++) {
+            indexByWord.put(result.get(i).getWordId(), i);
+        }
+        for (ReviewJournal.Entry entry : entries) {
+            if (entry.seq <= committedSeq) continue;  // 已落库，数据库读出的卡片已经反映
+            Integer index = indexByWord.get(entry.wordId);
+            if (index == null) continue;
+            result.set(index, review(result.get(index), entry.quality, entry.reviewedAt));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,210 @@
+package com.wcw.wordnet.data.review;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+import com.wcw.wordnet.data.algorithm.Sm2Algorithm;
+import com.wcw.wordnet.data.local.dao.ReviewQueueDao;
+import com.wcw.wordnet.data.local.dao.WordDao;
+import com.wcw.wordnet.data.local.database.AppDatabase;
+import com.wcw.wordnet.data.local.database.DatabaseSchedulers;
+import com.wcw.wordnet.model.DueCard;
+import com.wcw.wordnet.model.WordReviewStats;
+import com.wcw.wordnet.model.entity.ReviewQueue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.disposables.Disposable;
+
+/**
+ * 复习评分延迟写入器（write-behind）
+ * 评分先追加到 {@link ReviewJournal}，再按批落库：
+ * - 攒够 BATCH_SIZE 条立即提交，否则最迟 FLUSH_DELAY_MS 后提交
+ * - 每批在一个事务内更新 review_queue 和 word_nodes，一批只同步一次磁盘
+ * - 启动时重放日志中未落库的评分，进程被杀也不会丢失
+ * - 内存到期队列重新加载时叠加日志中尚未落库的评分（包括等待重放的），不会把评过的卡片再发出去
+ * - 某条评分落库时抛出异常（如数据不合法），记录日志后丢弃这一条，不让整批反复失败
+ *
+ * 幂等：每批落库时在同一事务内记录已提交的最大日志序号（{@link ReviewJournalMark}），
+ * 重放时跳过序号不大于该值的条目（已落库但日志未来得及清理）；
+ * 不按 lastReviewed 判断，其他写入（如编辑单词）也会改动复习时间。
+ */
+public class ReviewCommitter {
+
+    private static final String TAG = "ReviewCommitter";
+    private static final String JOURNAL_FILE = "review_journal.log";
+
+    /**
+     * 每批最多提交的评分数
+     */
+    public static final int BATCH_SIZE = 20;
+
+    /**
+     * 评分最长在日志中停留的时间（毫秒）
+     */
+    public static final long FLUSH_DELAY_MS = 3000;
+
+    private static volatile ReviewCommitter INSTANCE;
+
+    private final AppDatabase db;
+    private final WordDao wordDao;
+    private final ReviewQueueDao reviewQueueDao;
+    private final ReviewDueQueue dueQueue;
+    private final ReviewJournal journal;
+    private final Sm2Algorithm sm2Algorithm = new Sm2Algorithm();
+
+    /**
+     * 已安排但尚未开始的提交；提交直接排在数据库写线程上，批与批之间、与其他写入之间天然串行
+     */
+    @Nullable
+    private Disposable scheduledFlush;
+
+    /**
+     * 获取进程内唯一的写入器，首次创建时在后台重放未落库的评分
+     */
+    public static ReviewCommitter getInstance(Context context, AppDatabase db, ReviewDueQueue dueQueue) {
+        if (INSTANCE == null) {
+            synchronized (ReviewCommitter.class) {
+                if (INSTANCE == null) {
+                    File file = new File(context.getApplicationContext().getFilesDir(), JOURNAL_FILE);
+                    // 日志文件丢失时序号从数据库的已落库序号接着分配，新评分不会被当成已落库跳过
+                    ReviewJournal journal = new ReviewJournal(file,
+                            () -> ReviewJournalMark.read(db.getOpenHelper().getWritableDatabase()));
+                    INSTANCE = new ReviewCommitter(db, dueQueue, journal);
+                    INSTANCE.flushAsync();
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    private ReviewCommitter(AppDatabase db, ReviewDueQueue dueQueue, ReviewJournal journal) {
+        this.db = db;
+        this.wordDao = db.wordDao();
+        this.reviewQueueDao = db.reviewQueueDao();
+        this.dueQueue = dueQueue;
+        this.journal = journal;
+        dueQueue.setPendingReviews(this::overlayPending);
+    }
+
+    /**
+     * 记录一条评分并原地更新内存队列（数据库写线程调用）
+     * 返回时评分已写入日志，落库由后台批量完成
+     * 与内存队列的重新加载互斥：加载时叠加的日志快照要么已包含这条评分，要么这次更新落在重建后的堆上
+     * @return 应用评分后的卡片；单词不在内存队列中时返回 null
+     */
+    @Nullable
+    public DueCard append(String wordId, int quality, long reviewedAt) throws IOException {
+        int pending;
+        DueCard reviewed = null;
+        synchronized (dueQueue.reloadLock) {
+            pending = journal.append(wordId, quality, reviewedAt);
+            DueCard card = dueQueue.get(wordId);
+            if (card != null) {
+                reviewed = PendingReviews.review(card, quality, reviewedAt);
+                dueQueue.applyReview(reviewed.getSchedule(), reviewed.getWord());
+            }
+        }
+        if (pending >= BATCH_SIZE) {
+            flushAsync();
+        } else {
+            scheduleFlush();
+        }
+        return reviewed;
+    }
+
+    /**
+     * 立即在后台提交所有未落库的评分（会话结束、页面销毁时调用）
+     */
+    public synchronized void flushAsync() {
+        if (scheduledFlush != null) {
+            scheduledFlush.dispose();
+        }
+        scheduledFlush = DatabaseSchedulers.writer().scheduleDirect(this::flush);
+    }
+
+    private synchronized void scheduleFlush() {
+        if (scheduledFlush == null) {
+            scheduledFlush = DatabaseSchedulers.writer().scheduleDirect(this::flush, FLUSH_DELAY_MS,
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 在一个事务内提交日志中的全部评分（写线程）
+     * 开始时清掉已安排的提交：之后的评分由 scheduleFlush 重新计时
+     */
+    private void flush() {
+        synchronized (this) {
+            scheduledFlush = null;
+        }
+        try {
+            List<ReviewJournal.Entry> batch = journal.snapshot();
+            if (batch.isEmpty()) return;
+
+            // 内存队列已在评分时原地更新，作为本地写入提交，不因这次写入重新加载
+            SupportSQLiteDatabase database = db.getOpenHelper().getWritableDatabase();
+            dueQueue.runLocalWrite(() -> {
+                long mark = ReviewJournalMark.read(database);
+                for (ReviewJournal.Entry entry : batch) {
+                    if (entry.seq <= mark) continue;  // 已落库（重放）
+                    try {
+                        apply(entry);
+                    } catch (RuntimeException e) {
+                        // 同一条评分每次都会失败，留在日志里只会让整批永远提交不了；记下完整内容后丢弃
+                        Log.e(TAG, "❌ 丢弃无法落库的评分: seq=" + entry.seq + ", 单词=" + entry.wordId
+                                + ", 评分=" + entry.quality + ", 时间=" + entry.reviewedAt, e);
+                    }
+                }
+                ReviewJournalMark.write(database, Math.max(mark, batch.get(batch.size() - 1).seq));
+            });
+            journal.acknowledge(batch.size());
+            Log.d(TAG, "✅ 批量提交 " + batch.size() + " 条评分");
+        } catch (Exception e) {
+            // 日志保留，下次提交或下次启动时重试
+            Log.e(TAG, "❌ 批量提交评分失败", e);
+        }
+    }
+
+    /**
+     * 在数据库读出的到期卡片上叠加日志中尚未落库的评分（内存队列重新加载时调用）
+     * 读取日志失败时原样返回：卡片会比实际早到期，但不会丢失评分
+     */
+    private List<DueCard> overlayPending(List<DueCard> cards) {
+        try {
+            long committed = ReviewJournalMark.read(db.getOpenHelper().getWritableDatabase());
+            return PendingReviews.overlay(cards, journal.snapshot(), committed);
+        } catch (IOException e) {
+            Log.e(TAG, "❌ 读取复习日志失败，加载的到期卡片未包含待提交的评分", e);
+            return cards;
+        }
+    }
+
+    /**
+     * 把一条评分应用到 review_queue 和 word_nodes（事务内调用）
+     * 只读取、只更新调度列和强度列，不重写单词的其他字段
+     */
+    private void apply(ReviewJournal.Entry entry) {
+        ReviewQueue item = reviewQueueDao.getReviewItemSync(entry.wordId);
+        WordReviewStats stats = wordDao.getReviewStatsSync(entry.wordId);
+        if (item == null || stats == null) {
+            Log.w(TAG, "跳过已删除单词的评分: " + entry.wordId);
+            return;
+        }
+
+        ReviewQueue updatedItem = sm2Algorithm.calculateNextReview(item, entry.quality, entry.reviewedAt);
+        reviewQueueDao.updateSchedule(entry.wordId, updatedItem.getNextReviewTime(),
+                updatedItem.getIntervalDays(), updatedItem.getEasinessFactor(),
+                updatedItem.getRepetitionCount());
+
+        float newStrength = Sm2Algorithm.calculateMemoryStrength(
+                stats.getMemoryStrength(), stats.getReviewCount(), entry.quality >= 3);
+        wordDao.updateReviewStats(entry.wordId, newStrength, entry.reviewedAt);
+    }
+}
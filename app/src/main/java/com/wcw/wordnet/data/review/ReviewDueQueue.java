@@ -0,0 +1,392 @@
+package com.wcw.wordnet.data.review;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.room.InvalidationTracker;
+
+import com.wcw.wordnet.data.local.database.AppDatabase;
+import com.wcw.wordnet.model.DueCard;
+import com.wcw.wordnet.model.entity.ReviewQueue;
+import com.wcw.wordnet.model.entity.WordNode;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * 到期复习卡片的内存优先队列（镜像 review_queue 表）
+ * 以 next_review_time 为键的二叉小顶堆 + wordId→堆下标索引：
+ * - 会话开始时从数据库加载一次到期卡片，O(n) 建堆
+ * - 每次评分结果原地调整堆，O(log n)
+ * - 取下一张卡只看堆顶，O(1)，不再访问 SQLite
+ *
+ * 一致性：监听 Room 对 review_queue / word_nodes 的失效通知，
+ * 外部写入（初始化、调试重置、导入等）会把队列标记为过期，下次取卡前重新加载；
+ * 仓库自身的写入已原地同步到堆中，通过 runLocalWrite() 执行，不因由它引起的通知重新加载。
+ *
+ * Room 会把短时间内的多次通知合并成一次，只给出表名，无法区分本地写入和同时发生的外部写入，
+ * 所以用触发器维护的写入计数（{@link ReviewWriteCounter}，两张表每写一行加一）核对：
+ * 本地写入在事务内记下前后的计数，收到通知时数据库的计数必须正好落在本地写入首尾相接的区间内，
+ * 否则说明有未计入的写入，队列过期。
+ *
+ * 评分先写日志、稍后才落库（{@link ReviewCommitter}），重新加载时数据库里还没有这些评分：
+ * 加载结果要叠加日志中尚未落库的条目（{@link #setPendingReviews}），否则刚评过的卡片会重新到期。
+ */
+public class ReviewDueQueue {
+
+    private static volatile ReviewDueQueue INSTANCE;
+
+    /**
+     * 尚未与数据库的写入计数对应（任何通知都会让队列过期）
+     */
+    static final long UNSYNCED = -1;
+
+    private DueCard[] heap = new DueCard[16];
+    private int size = 0;
+    private final Map<String, Integer> indexByWord = new HashMap<>();
+
+    /**
+     * 是否需要从数据库重新加载（初始为 true：尚未加载）
+     */
+    private final AtomicBoolean stale = new AtomicBoolean(true);
+
+    /**
+     * 读取写入计数（{@link ReviewWriteCounter}）
+     */
+    private final LongSupplier writeCounter;
+
+    /**
+     * 在一个写事务内执行（db.runInTransaction）
+     */
+    private final Consumer<Runnable> transaction;
+
+    /**
+     * 堆已经反映的写入计数区间（由 this 保护）：
+     * syncedFrom 之后到 syncedTo 的每一次写入都是已提交、已同步到堆的本地写入
+     */
+    private long syncedFrom = UNSYNCED;
+    private long syncedTo = UNSYNCED;
+
+    /**
+     * 把评分日志中尚未落库的条目叠加到数据库读出的卡片上（默认没有日志，原样返回）
+     */
+    private volatile UnaryOperator<List<DueCard>> pendingReviews = UnaryOperator.identity();
+
+    /**
+     * 重新加载与记录评分互斥：追加日志并更新堆是一步，
+     * 不会落在加载时读取日志快照和替换堆之间（否则这条评分要么丢失、要么应用两次）
+     */
+    final Object reloadLock = new Object();
+
+    /**
+     * 获取进程内唯一的队列，并注册 Room 失效监听
+     * @param db 数据库实例
+     */
+    public static ReviewDueQueue getInstance(AppDatabase db) {
+        if (INSTANCE == null) {
+            synchronized (ReviewDueQueue.class) {
+                if (INSTANCE == null) {
+                    ReviewDueQueue queue = new ReviewDueQueue(
+                            () -> ReviewWriteCounter.read(db.getOpenHelper().getWritableDatabase()),
+                            db::runInTransaction);
+                    db.getInvalidationTracker().addObserver(
+                            new InvalidationTracker.Observer("review_queue", "word_nodes") {
+                                @Override
+                                public void onInvalidated(@NonNull Set<String> tables) {
+                                    queue.onTablesInvalidated();
+                                }
+                            });
+                    INSTANCE = queue;
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    /**
+     * 没有写入计数时使用（测试）：每次通知都视为外部写入
+     */
+    ReviewDueQueue() {
+        this(() -> UNSYNCED, Runnable::run);
+    }
+
+    ReviewDueQueue(LongSupplier writeCounter, Consumer<Runnable> transaction) {
+        this.writeCounter = writeCounter;
+        this.transaction = transaction;
+    }
+
+    /**
+     * 如果队列已过期，则用 loader 的结果（叠加尚未落库的评分）重建堆
+     * 先清除过期标记再加载：加载期间若再次失效，下次取卡时会再加载一次
+     * 先读写入计数再读卡片：两次读取之间的写入会让计数对不上，下次通知时再加载一次
+     * 读完后计数变了：期间有提交，卡片、已落库序号和日志快照可能不是同一时刻的，保持过期，下次取卡再加载
+     * @param loader 同步查询到期卡片（数据库读线程调用）
+     * @return 是否发生了重新加载
+     */
+    public boolean refreshIfStale(Supplier<List<DueCard>> loader) {
+        if (stale.compareAndSet(true, false)) {
+            synchronized (reloadLock) {
+                long writes = writeCounter.getAsLong();
+                List<DueCard> cards = pendingReviews.apply(loader.get());
+                boolean consistent = writeCounter.getAsLong() == writes;
+                synchronized (this) {
+                    load(cards);
+                    if (consistent) {
+                        syncedFrom = writes;
+                        syncedTo = writes;
+                    }
+                }
+                if (!consistent) {
+                    stale.set(true);
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 设置重新加载时叠加的尚未落库的评分（{@link ReviewCommitter} 创建时调用）
+     */
+    void setPendingReviews(UnaryOperator<List<DueCard>> pendingReviews) {
+        this.pendingReviews = pendingReviews;
+    }
+
+    /**
+     * 用给定卡片重建堆（Floyd 建堆，O(n)）
+     * 不知道卡片对应的写入计数，之后的任何通知都会让队列过期
+     */
+    public synchronized void load(List<DueCard> cards) {
+        syncedFrom = UNSYNCED;
+        syncedTo = UNSYNCED;
+        heap = new DueCard[Math.max(16, cards.size() + 1)];
+        size = 0;
+        indexByWord.clear();
+        for (DueCard card : cards) {
+            heap[size] = card;
+            indexByWord.put(card.getWordId(), size);
+            size++;
+        }
+        for (int i = (size >>> 1) - 1; i >= 0; i--) {
+            siftDown(i);
+        }
+    }
+
+    /**
+     * 强制下次取卡时重新加载（新复习会话开始时调用）
+     */
+    public void invalidate() {
+        stale.set(true);
+    }
+
+    public boolean isStale() {
+        return stale.get();
+    }
+
+    /**
+     * 查看最紧急且已到期的卡片，不移除
+     * @param now 当前时间戳
+     * @return 到期卡片；没有到期卡片时返回 null
+     */
+    @Nullable
+    public synchronized DueCard peekDue(long now) {
+        if (size == 0 || heap[0].getNextReviewTime() > now) {
+            return null;
+        }
+        return heap[0];
+    }
+
+    /**
+     * 按紧急程度查看前 limit 张已到期的卡片，不移除
+     * 用辅助小顶堆沿堆结构向下展开，O(limit · log limit)，与队列总长度无关
+     * @param now 当前时间戳
+     * @param limit 最多返回的数量
+     * @param exclude 需要跳过的单词（已发出或已在缓冲区中）
+     */
+    public synchronized List<DueCard> peekDue(long now, int limit, Collection<String> exclude) {
+        List<DueCard> result = new ArrayList<>(Math.max(0, limit));
+        if (size == 0 || limit <= 0) return result;
+        PriorityQueue<Integer> frontier = new PriorityQueue<>(
+                (a, b) -> Long.compare(heap[a].getNextReviewTime(), heap[b].getNextReviewTime()));
+        frontier.add(0);
+        while (!frontier.isEmpty() && result.size() < limit) {
+            int index = frontier.poll();
+            DueCard card = heap[index];
+            if (card.getNextReviewTime() > now) break;
+            if (!exclude.contains(card.getWordId())) {
+                result.add(card);
+            }
+            int child = 2 * index + 1;
+            if (child < size) frontier.add(child);
+            if (child + 1 < size) frontier.add(child + 1);
+        }
+        return result;
+    }
+
+    @Nullable
+    public synchronized DueCard get(String wordId) {
+        Integer index = indexByWord.get(wordId);
+        return index == null ? null : heap[index];
+    }
+
+    /**
+     * 插入或替换卡片（新单词加入复习计划时使用）
+     */
+    public synchronized void upsert(DueCard card) {
+        Integer index = indexByWord.get(card.getWordId());
+        if (index != null) {
+            heap[index] = card;
+            reposition(index);
+            return;
+        }
+        if (size == heap.length) {
+            DueCard[] grown = new DueCard[size * 2];
+            System.arraycopy(heap, 0, grown, 0, size);
+            heap = grown;
+        }
+        heap[size] = card;
+        indexByWord.put(card.getWordId(), size);
+        siftUp(size++);
+    }
+
+    /**
+     * 评分完成后更新复习计划和单词，原地调整堆
+     * 换成新的卡片对象，不修改已经交给预取缓冲区和界面的卡片
+     * 卡片不在队列中（未到期或队列已过期）时忽略
+     */
+    public synchronized void applyReview(ReviewQueue schedule, WordNode word) {
+        Integer index = indexByWord.get(schedule.getWordId());
+        if (index == null) return;
+        heap[index] = new DueCard(schedule, word);
+        reposition(index);
+    }
+
+    /**
+     * 只替换卡片携带的单词（排序键不变，同样换成新的卡片对象）
+     */
+    public synchronized void replaceWord(WordNode word) {
+        Integer index = indexByWord.get(word.getWord());
+        if (index != null) {
+            heap[index] = new DueCard(heap[index].getSchedule(), word);
+        }
+    }
+
+    /**
+     * 移除卡片（单词被归档或删除时使用）
+     */
+    public synchronized void remove(String wordId) {
+        Integer index = indexByWord.remove(wordId);
+        if (index == null) return;
+        int last = --size;
+        if (index != last) {
+            heap[index] = heap[last];
+            indexByWord.put(heap[index].getWordId(), index);
+            heap[last] = null;
+            reposition(index);
+        } else {
+            heap[last] = null;
+        }
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * 在一个写事务内执行仓库自身对 review_queue / word_nodes 的写入（写线程调用），
+     * write 中须同时原地更新堆
+     * 事务提交后，写入前的计数正好是堆已反映的最新计数时，把这次写入计入；
+     * 否则之前有未计入的写入，区间保持不变，由随后的通知让队列过期
+     * 失败时事务回滚，异常照常抛出
+     */
+    public void runLocalWrite(Runnable write) {
+        long[] writes = new long[2];
+        transaction.accept(() -> {
+            writes[0] = writeCounter.getAsLong();
+            write.run();
+            writes[1] = writeCounter.getAsLong();
+        });
+        synchronized (this) {
+            if (syncedTo != UNSYNCED && writes[0] == syncedTo) {
+                syncedTo = writes[1];
+            }
+        }
+    }
+
+    /**
+     * Room 失效回调（在数据库读线程上）
+     * 数据库当前的计数落在本地写入的区间内：通知合并的全部写入都已同步到堆，不需要重新加载；
+     * 否则（包括读取计数失败）标记为过期。本地写入刚提交、还没计入时收到通知也会过期，
+     * 只多加载一次，不会让堆与数据库不一致
+     */
+    void onTablesInvalidated() {
+        long current;
+        try {
+            current = writeCounter.getAsLong();
+        } catch (RuntimeException e) {
+            stale.set(true);
+            return;
+        }
+        synchronized (this) {
+            if (syncedFrom != UNSYNCED && current >= syncedFrom && current <= syncedTo) {
+                syncedFrom = current;
+                return;
+            }
+        }
+        stale.set(true);
+    }
+
+    // ==================== 堆操作 ====================
+
+    private void reposition(int index) {
+        if (index > 0 && heap[index].getNextReviewTime() < heap[(index - 1) >>> 1].getNextReviewTime()) {
+            siftUp(index);
+        } else {
+            siftDown(index);
+        }
+    }
+
+    private void siftUp(int index) {
+        DueCard card = heap[index];
+        long key = card.getNextReviewTime();
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            DueCard p = heap[parent];
+            if (key >= p.getNextReviewTime()) break;
+            heap[index] = p;
+            indexByWord.put(p.getWordId(), index);
+            index = parent;
+        }
+        heap[index] = card;
+        indexByWord.put(card.getWordId(), index);
+    }
+
+    private void siftDown(int index) {
+        DueCard card = heap[index];
+        long key = card.getNextReviewTime();
+        int half = size >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            int right = child + 1;
+            if (right < size && heap[right].getNextReviewTime() < heap[child].getNextReviewTime()) {
+                child = right;
+            }
+            DueCard c = heap[child];
+            if (key <= c.getNextReviewTime()) break;
+            heap[index] = c;
+            indexByWord.put(c.getWordId(), index);
+            index = child;
+        }
+        heap[index] = card;
+        indexByWord.put(card.getWordId(), index);
+    }
+}
@@ -0,0 +1,203 @@
+package com.wcw.wordnet.data.review;
+
+import android.os.Build;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * 复习评分日志（追加写文件）
+ * 每条评分一行：seq \t wordId \t quality \t reviewedAt
+ * seq 是日志内单调递增的序号，落库时在同一事务内记录已提交的最大序号（{@link ReviewJournalMark}），重放时据此跳过已落库的条目；
+ * 文件首行 "#seq" 记录已分配的最大序号，日志清空后序号也不会倒退；
+ * 首次访问时还会与数据库中已落库的最大序号取较大值，日志文件丢失或回退时序号也不会重复。
+ *
+ * 每次追加写入后同步一次磁盘（fsync），返回时评分已落盘，进程被杀或断电都不会丢失；
+ * 落库成功后由 acknowledge() 删除已提交的条目，剩余条目先写入临时文件并同步，再重命名替换，
+ * 最后同步所在目录，让重命名本身也落盘。
+ * 首次访问时读取文件中残留的条目（上次进程退出前未落库的评分），供启动时重放。
+ */
+public class ReviewJournal {
+
+    /**
+     * 一条评分事件
+     */
+    public static final class Entry {
+        public final long seq;
+        public final String wordId;
+        public final int quality;
+        public final long reviewedAt;
+
+        public Entry(long seq, String wordId, int quality, long reviewedAt) {
+            this.seq = seq;
+            this.wordId = wordId;
+            this.quality = quality;
+            this.reviewedAt = reviewedAt;
+        }
+
+        String encode() {
+            return String.valueOf(seq) + '\t' + wordId + '\t' + quality + '\t' + reviewedAt + '\n';
+        }
+
+        static Entry decode(String line) {
+            String[] parts = line.split("\t");
+            if (parts.length != 4) return null;
+            try {
+                return new Entry(Long.parseLong(parts[0]), parts[1],
+                        Integer.parseInt(parts[2]), Long.parseLong(parts[3]));
+            } catch (NumberFormatException e) {
+                return null;  // 写到一半被中断的行
+            }
+        }
+    }
+
+    private static final String TAG = "ReviewJournal";
+    private static final String SEQ_HEADER = "#";
+
+    private final File file;
+    private final LongSupplier committedSeq;
+    private final List<Entry> pending = new ArrayList<>();
+    private boolean loaded = false;
+    private long lastSeq = 0;
+    private FileOutputStream stream;
+    private Writer writer;
+
+    public ReviewJournal(File file) {
+        this(file, () -> 0);
+    }
+
+    /**
+     * @param committedSeq 读取数据库中已落库的最大序号（{@link ReviewJournalMark}），首次访问时调用一次
+     */
+    public ReviewJournal(File file, LongSupplier committedSeq) {
+        this.file = file;
+        this.committedSeq = committedSeq;
+    }
+
+    /**
+     * 追加一条评分（分配下一个序号），写入后同步一次磁盘
+     * @return 追加后尚未落库的条目数
+     */
+    public synchronized int append(String wordId, int quality, long reviewedAt) throws IOException {
+        ensureLoaded();
+        Entry entry = new Entry(lastSeq + 1, wordId, quality, reviewedAt);
+        if (writer == null) {
+            stream = new FileOutputStream(file, true);
+            writer = new OutputStreamWriter(stream, StandardCharsets.UTF_8);
+        }
+        writer.write(entry.encode());
+        writer.flush();
+        stream.getFD().sync();
+        lastSeq = entry.seq;
+        pending.add(entry);
+        return pending.size();
+    }
+
+    /**
+     * 获取所有尚未落库的条目（按追加顺序）
+     */
+    @NonNull
+    public synchronized List<Entry> snapshot() throws IOException {
+        ensureLoaded();
+        return new ArrayList<>(pending);
+    }
+
+    /**
+     * 确认前 count 条已落库，从日志中删除
+     * 剩余条目连同序号首行通过临时文件 + 重命名原子地写回
+     */
+    public synchronized void acknowledge(int count) throws IOException {
+        ensureLoaded();
+        closeWriter();
+        pending.subList(0, Math.min(count, pending.size())).clear();
+        rewrite();
+    }
+
+    public synchronized int size() throws IOException {
+        ensureLoaded();
+        return pending.size();
+    }
+
+    private void rewrite() throws IOException {
+        File temp = new File(file.getPath() + ".tmp");
+        try (FileOutputStream out = new FileOutputStream(temp, false)) {
+            Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+            writer.write(SEQ_HEADER + lastSeq + '\n');
+            for (Entry entry : pending) {
+                writer.write(entry.encode());
+            }
+            writer.flush();
+            // 临时文件内容落盘后再重命名，断电后不会出现指向空文件的日志
+            out.getFD().sync();
+        }
+        if (!temp.renameTo(file)) {
+            throw new IOException("无法替换复习日志: " + file);
+        }
+        syncDirectory(file.getParentFile());
+    }
+
+    /**
+     * 同步目录，让重命名落盘（打开目录需要 java.nio.file，API 26 起可用）
+     * 更早的系统上跳过：断电后可能读到重命名前的旧日志，其中已落库的条目按序号跳过，不会重复应用
+     */
+    private static void syncDirectory(File dir) {
+        if (dir == null || Build.VERSION.SDK_INT < Build.VERSION_CODES.O) return;
+        try (FileChannel channel = FileChannel.open(dir.toPath(), StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            Log.w(TAG, "同步日志目录失败: " + dir, e);
+        }
+    }
+
+    private void ensureLoaded() throws IOException {
+        if (loaded) return;
+        lastSeq = committedSeq.getAsLong();
+        loaded = true;
+        if (!file.exists()) return;
+        boolean torn = false;
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith(SEQ_HEADER)) {
+                    lastSeq = Math.max(lastSeq, Long.parseLong(line.substring(SEQ_HEADER.length())));
+                    continue;
+                }
+                Entry entry = Entry.decode(line);
+                if (entry != null) {
+                    pending.add(entry);
+                    lastSeq = Math.max(lastSeq, entry.seq);
+                } else {
+                    torn = true;
+                }
+            }
+        }
+        if (torn) {
+            // 去掉残缺行，避免后续追加的内容接在半行后面
+            rewrite();
+        }
+    }
+
+    private void closeWriter() throws IOException {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+            stream = null;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.wcw.wordnet.data.review;
+
+import android.database.Cursor;
+
+import androidx.annotation.NonNull;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+/**
+ * 复习日志已落库的最大序号（单行表 review_journal_mark）
+ * 与评分在同一事务内写入：重放时序号不大于它的条目已经落库（只是日志没来得及清理），直接跳过。
+ * 不属于 Room 管理的结构，数据库每次打开时确认存在，不需要迁移。
+ */
+public final class ReviewJournalMark {
+
+    public static final String TABLE = "review_journal_mark";
+
+    public static final String CREATE_TABLE_SQL = "CREATE TABLE IF NOT EXISTS `review_journal_mark` (" +
+            "`id` INTEGER PRIMARY KEY NOT NULL, `seq` INTEGER NOT NULL)";
+
+    private ReviewJournalMark() {}
+
+    /**
+     * 建表（数据库每次打开时调用，已存在则跳过）
+     */
+    public static void install(@NonNull SupportSQLiteDatabase db) {
+        db.execSQL(CREATE_TABLE_SQL);
+    }
+
+    /**
+     * 已落库的最大序号，从未提交过时为 0
+     */
+    public static long read(@NonNull SupportSQLiteDatabase db) {
+        try (Cursor cursor = db.query("SELECT seq FROM review_journal_mark WHERE id = 0")) {
+            return cursor.moveToFirst() ? cursor.getLong(0) : 0;
+        }
+    }
+
+    /**
+     * 记录已落库的最大序号（在提交评分的事务内调用）
+     */
+    public static void write(@NonNull SupportSQLiteDatabase db, long seq) {
+        db.execSQL("INSERT OR REPLACE INTO review_journal_mark (id, seq) VALUES (0, ?)", new Object[]{seq});
+    }
+}
@@ -0,0 +1,187 @@
+package com.wcw.wordnet.data.review;
+
+import androidx.annotation.Nullable;
+
+import com.wcw.wordnet.model.DueCard;
+import com.wcw.wordnet.model.ReviewCard;
+import com.wcw.wordnet.model.entity.MorphemeRelation;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+
+/**
+ * 复习会话预取管线
+ * 在用户回忆当前单词时，后台把接下来 N 张到期卡片（单词 + 词根关系）装进缓冲区：
+ * - 评分后直接从缓冲区取下一张（主线程、无IO），评分写库并行进行
+ * - 缓冲区低于一半时触发后台补货：从内存到期队列取前 N 张，一次查询补齐词根关系
+ * - 缓冲区为空时（未命中）在IO线程同步补货
+ *
+ * 本会话已发出的单词会被排除，避免写库完成前同一张卡被再次取出。
+ */
+public class ReviewSession {
+
+    /**
+     * 默认预取数量
+     */
+    public static final int DEFAULT_PREFETCH_SIZE = 5;
+
+    private final ReviewDueQueue dueQueue;
+    private final LongFunction<List<DueCard>> dueCardLoader;
+    private final Function<List<String>, List<MorphemeRelation>> relationLoader;
+    private final int prefetchSize;
+
+    private final ArrayDeque<ReviewCard> buffer = new ArrayDeque<>();
+    private final Set<String> handedOut = new HashSet<>();
+    private final ReentrantLock refillLock = new ReentrantLock();
+    private final ReviewSessionStats stats = new ReviewSessionStats();
+
+    /**
+     * 会话代数：reset() 后丢弃旧会话仍在进行中的补货结果
+     */
+    private int generation = 0;
+
+    /**
+     * @param dueQueue 内存到期队列
+     * @param dueCardLoader 队列过期时按当前时间同步加载到期卡片
+     * @param relationLoader 批量同步加载多个单词的词根关系
+     * @param prefetchSize 预取数量 N
+     */
+    public ReviewSession(ReviewDueQueue dueQueue,
+                         LongFunction<List<DueCard>> dueCardLoader,
+                         Function<List<String>, List<MorphemeRelation>> relationLoader,
+                         int prefetchSize) {
+        this.dueQueue = dueQueue;
+        this.dueCardLoader = dueCardLoader;
+        this.relationLoader = relationLoader;
+        this.prefetchSize = Math.max(1, prefetchSize);
+    }
+
+    /**
+     * 开始新会话：清空缓冲区、已发出记录和统计
+     */
+    public synchronized void reset() {
+        generation++;
+        buffer.clear();
+        handedOut.clear();
+        stats.reset();
+    }
+
+    /**
+     * 从缓冲区取下一张卡（主线程可调用，不做IO）
+     * @return 缓冲区中的卡片；缓冲区为空时返回 null，调用方应改用 {@link #loadNext(long)}
+     */
+    @Nullable
+    public synchronized ReviewCard poll() {
+        ReviewCard card = buffer.pollFirst();
+        if (card != null) {
+            handedOut.add(card.getWordId());
+            stats.recordHit();
+        }
+        return card;
+    }
+
+    /**
+     * 缓冲区未命中时同步补货并取卡（IO线程调用）
+     * @return 下一张卡；没有更多到期卡片时返回 null
+     */
+    @Nullable
+    public ReviewCard loadNext(long now) {
+        synchronized (this) {
+            stats.recordMiss();
+        }
+        refillLock.lock();
+        try {
+            doRefill(now);
+        } finally {
+            refillLock.unlock();
+        }
+        synchronized (this) {
+            ReviewCard card = buffer.pollFirst();
+            if (card != null) {
+                handedOut.add(card.getWordId());
+            }
+            return card;
+        }
+    }
+
+    /**
+     * 后台补货（IO线程调用）
+     * 已有补货在进行时直接返回，不排队
+     */
+    public void refill(long now) {
+        if (!refillLock.tryLock()) return;
+        try {
+            doRefill(now);
+        } finally {
+            refillLock.unlock();
+        }
+    }
+
+    /**
+     * 缓冲区是否已降到低水位（一半）以下
+     */
+    public synchronized boolean needsRefill() {
+        return buffer.size() <= prefetchSize / 2;
+    }
+
+    public ReviewSessionStats getStats() {
+        return stats;
+    }
+
+    private void doRefill(long now) {
+        long start = System.nanoTime();
+        boolean reloaded = dueQueue.refreshIfStale(() -> dueCardLoader.apply(now));
+
+        List<DueCard> candidates;
+        int startGeneration;
+        synchronized (this) {
+            if (reloaded) {
+                // 外部写入导致队列重建，缓冲区里的卡可能已被归档，丢弃重取
+                buffer.clear();
+            }
+            int need = prefetchSize - buffer.size();
+            if (need <= 0) return;
+            Set<String> exclude = new HashSet<>(handedOut);
+            for (ReviewCard card : buffer) {
+                exclude.add(card.getWordId());
+            }
+            candidates = dueQueue.peekDue(now, need, exclude);
+            startGeneration = generation;
+        }
+        if (candidates.isEmpty()) return;
+
+        // 一次查询补齐所有候选单词的词根关系（在锁外执行IO）
+        List<String> wordIds = new ArrayList<>(candidates.size());
+        for (DueCard card : candidates) {
+            wordIds.add(card.getWordId());
+        }
+        Map<String, List<MorphemeRelation>> relationsByWord = new HashMap<>();
+        for (MorphemeRelation relation : relationLoader.apply(wordIds)) {
+            List<MorphemeRelation> list = relationsByWord.get(relation.getWordId());
+            if (list == null) {
+                list = new ArrayList<>();
+                relationsByWord.put(relation.getWordId(), list);
+            }
+            list.add(relation);
+        }
+
+        synchronized (this) {
+            if (startGeneration != generation) return;
+            for (DueCard card : candidates) {
+                List<MorphemeRelation> relations = relationsByWord.get(card.getWordId());
+                buffer.addLast(new ReviewCard(card.getWord(),
+                        relations != null ? relations : Collections.emptyList()));
+            }
+        }
+        stats.recordRefill(System.nanoTime() - start);
+    }
+}
@@ -0,0 +1,83 @@
+package com.wcw.wordnet.data.review;
+
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 复习会话预取统计
+ * 用于调整预取数量 N：
+ * - 命中率：评分后下一张卡直接来自缓冲区的比例
+ * - 补货耗时：每次后台补充缓冲区（查询词根关系）所花的时间
+ */
+public class ReviewSessionStats {
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong refills = new AtomicLong();
+    private final AtomicLong totalRefillNanos = new AtomicLong();
+    private final AtomicLong maxRefillNanos = new AtomicLong();
+
+    void recordHit() {
+        hits.incrementAndGet();
+    }
+
+    void recordMiss() {
+        misses.incrementAndGet();
+    }
+
+    void recordRefill(long nanos) {
+        refills.incrementAndGet();
+        totalRefillNanos.addAndGet(nanos);
+        long max;
+        do {
+            max = maxRefillNanos.get();
+        } while (nanos > max && !maxRefillNanos.compareAndSet(max, nanos));
+    }
+
+    void reset() {
+        hits.set(0);
+        misses.set(0);
+        refills.set(0);
+        totalRefillNanos.set(0);
+        maxRefillNanos.set(0);
+    }
+
+    public long getHits() { return hits.get(); }
+
+    public long getMisses() { return misses.get(); }
+
+    public long getRefills() { return refills.get(); }
+
+    /**
+     * 缓冲区命中率（0.0-1.0），尚未取过卡时为 0
+     */
+    public float getHitRate() {
+        long total = hits.get() + misses.get();
+        return total == 0 ? 0f : (float) hits.get() / total;
+    }
+
+    /**
+     * 平均补货耗时（毫秒）
+     */
+    public float getAverageRefillMillis() {
+        long count = refills.get();
+        return count == 0 ? 0f : (float) totalRefillNanos.get() / count / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * 最长补货耗时（毫秒）
+     */
+    public float getMaxRefillMillis() {
+        return (float) maxRefillNanos.get() / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return String.format("命中 %d / 未命中 %d (命中率 %.0f%%), 补货 %d 次, 平均 %.2fms, 最长 %.2fms",
+                getHits(), getMisses(), getHitRate() * 100, getRefills(),
+                getAverageRefillMillis(), getMaxRefillMillis());
+    }
+}
@@ -0,0 +1,70 @@
+package com.wcw.wordnet.data.review;
+
+import android.database.Cursor;
+
+import androidx.annotation.NonNull;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * review_queue / word_nodes 的写入计数（单行表 review_writes）
+ * 两张表每插入、更新、删除一行，触发器在同一事务内把计数加一，不带任何条件、只增不减；
+ * 内存到期队列据此核对 Room 的失效通知是否全部来自自己的写入。
+ * 不属于 Room 管理的结构，数据库每次打开时确认存在，不需要迁移。
+ */
+public final class ReviewWriteCounter {
+
+    public static final String TABLE = "review_writes";
+
+    public static final String CREATE_TABLE_SQL = "CREATE TABLE IF NOT EXISTS `review_writes` (" +
+            "`id` INTEGER PRIMARY KEY NOT NULL, `value` INTEGER NOT NULL)";
+
+    /**
+     * 计数从 0 开始（已存在时不变）
+     */
+    public static final String SEED_SQL = "INSERT OR IGNORE INTO review_writes (id, value) VALUES (0, 0)";
+
+    private ReviewWriteCounter() {}
+
+    /**
+     * 计数触发器（可重复执行）
+     */
+    @NonNull
+    public static List<String> triggerStatements() {
+        return Arrays.asList(
+                countWrites("word_insert", "INSERT ON word_nodes"),
+                countWrites("word_update", "UPDATE ON word_nodes"),
+                countWrites("word_delete", "DELETE ON word_nodes"),
+                countWrites("queue_insert", "INSERT ON review_queue"),
+                countWrites("queue_update", "UPDATE ON review_queue"),
+                countWrites("queue_delete", "DELETE ON review_queue")
+        );
+    }
+
+    /**
+     * 建表、补上计数行并安装触发器（数据库每次打开时调用，已存在则跳过）
+     */
+    public static void install(@NonNull SupportSQLiteDatabase db) {
+        db.execSQL(CREATE_TABLE_SQL);
+        db.execSQL(SEED_SQL);
+        for (String sql : triggerStatements()) {
+            db.execSQL(sql);
+        }
+    }
+
+    /**
+     * 当前计数
+     */
+    public static long read(@NonNull SupportSQLiteDatabase db) {
+        try (Cursor cursor = db.query("SELECT value FROM review_writes WHERE id = 0")) {
+            return cursor.moveToFirst() ? cursor.getLong(0) : 0;
+        }
+    }
+
+    private static String countWrites(String name, String event) {
+        return "CREATE TRIGGER IF NOT EXISTS review_writes_after_" + name + " AFTER " + event + " BEGIN " +
+                "UPDATE review_writes SET value = value + 1 WHERE id = 0; END";
+    }
+}
@@ -0,0 +1,374 @@
+package com.wcw.wordnet.data.search;
+
+import androidx.annotation.NonNull;
+import androidx.room.InvalidationTracker;
+
+import com.wcw.wordnet.data.local.database.AppDatabase;
+import com.wcw.wordnet.data.local.database.WriteCounterSync;
+import com.wcw.wordnet.data.morpheme.MorphemeWriteCounter;
+import com.wcw.wordnet.model.MorphemeCount;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * 词根联想前缀树（内存，进程内共享）
+ * 每个字符一个节点，节点数据放在平行数组里而不是一个节点一个对象：
+ * 5 万个词根约十几万个节点，每个节点 22 字节，总共几 MB 以内，没有对象头和 HashMap 开销
+ * - wordCount：以该节点结尾的词根关联的活跃单词数
+ * - best：子树中最大的 wordCount，联想时按它做最优优先搜索，只展开可能进入前 N 名的分支
+ * 每次按键只是沿前缀走几步再展开少量节点，耗时在微秒级，不访问 SQLite
+ *
+ * 一致性：监听 morpheme_relations 的失效通知，外部写入（导入词库等）会把前缀树标记为过期，
+ * 下次联想时从数据库重建。仓库自身的增删已原地同步，并在写事务内把写入前后的计数交给
+ * acceptLocalWrite()；收到通知时用触发器维护的写入计数（{@link MorphemeWriteCounter}）核对
+ * 合并的通知是否全部来自这些写入，与 ReviewDueQueue 核对 review_writes 的规则相同。
+ */
+public class MorphemeTrie {
+
+    private static volatile MorphemeTrie INSTANCE;
+
+    private static final int ROOT = 0;
+    private static final int NONE = -1;
+
+    private char[] label;
+    private int[] parent;
+    private int[] firstChild;
+    private int[] nextSibling;
+    private int[] wordCount;
+    private int[] best;
+    private int size;
+
+    /**
+     * 是否需要从数据库重新构建（初始为 true：尚未加载）
+     */
+    private final AtomicBoolean stale = new AtomicBoolean(true);
+
+    /**
+     * 已反映的 morpheme_relations 写入计数区间（{@link MorphemeWriteCounter}）
+     */
+    private final WriteCounterSync writes;
+
+    /**
+     * 没有写入计数时使用（测试）：每次通知都视为外部写入
+     */
+    public MorphemeTrie() {
+        this(() -> WriteCounterSync.UNSYNCED);
+    }
+
+    MorphemeTrie(LongSupplier writeCounter) {
+        this.writes = new WriteCounterSync(writeCounter);
+        allocate(16);
+    }
+
+    /**
+     * 获取进程内唯一的前缀树，并注册 Room 失效监听
+     * @param db 数据库实例
+     */
+    public static MorphemeTrie getInstance(AppDatabase db) {
+        if (INSTANCE == null) {
+            synchronized (MorphemeTrie.class) {
+                if (INSTANCE == null) {
+                    MorphemeTrie trie = new MorphemeTrie(
+                            () -> MorphemeWriteCounter.read(db.getOpenHelper().getWritableDatabase()));
+                    db.getInvalidationTracker().addObserver(
+                            new InvalidationTracker.Observer("morpheme_relations") {
+                                @Override
+                                public void onInvalidated(@NonNull Set<String> tables) {
+                                    trie.onTablesInvalidated();
+                                }
+                            });
+                    INSTANCE = trie;
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    /**
+     * 如果前缀树已过期，则用 loader 的结果重建
+     * @param loader 同步查询词根及单词数（IO线程调用）
+     * @return 是否发生了重新构建
+     */
+    public boolean refreshIfStale(Supplier<List<MorphemeCount>> loader) {
+        if (stale.compareAndSet(true, false)) {
+            // 先读计数再读数据：两次读取之间的写入会让计数对不上，下次通知时再重建一次
+            long counted = writes.read();
+            load(loader.get());
+            writes.reset(counted);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 用给定的词根重建前缀树
+     * 先只写 wordCount，最后按节点下标倒序一次性回填 best（子节点下标总是大于父节点）
+     */
+    public synchronized void load(List<MorphemeCount> morphemes) {
+        writes.reset(WriteCounterSync.UNSYNCED);
+        allocate(Math.max(16, morphemes.size() * 3));
+        for (MorphemeCount morpheme : morphemes) {
+            int node = walk(normalize(morpheme.getMorpheme()), true);
+            if (node != ROOT) {
+                wordCount[node] += morpheme.getWordCount();
+            }
+        }
+        for (int node = size - 1; node >= 0; node--) {
+            best[node] = Math.max(best[node], wordCount[node]);
+            if (node != ROOT) {
+                best[parent[node]] = Math.max(best[parent[node]], best[node]);
+            }
+        }
+    }
+
+    public boolean isStale() {
+        return stale.get();
+    }
+
+    /**
+     * 单词加入（或恢复为活跃）时调用：每个词根的单词数加一
+     * 前缀树过期时忽略，重新构建时会从数据库读到
+     * @param morphemes 单词的词根（同一个词根只计一次）
+     */
+    public synchronized void addWord(Collection<String> morphemes) {
+        if (stale.get()) return;
+        for (String morpheme : distinct(morphemes)) {
+            adjust(morpheme, 1);
+        }
+    }
+
+    /**
+     * 单词归档或删除时调用：每个词根的单词数减一
+     */
+    public synchronized void removeWord(Collection<String> morphemes) {
+        if (stale.get()) return;
+        for (String morpheme : distinct(morphemes)) {
+            adjust(morpheme, -1);
+        }
+    }
+
+    /**
+     * 按前缀联想词根
+     * 排序：单词数从多到少，相同时按字母顺序（前缀本身排在它的延伸词根之前）
+     * @param prefix 用户输入的前缀，大小写不敏感
+     * @param limit 最多返回的数量
+     * @return 联想结果；前缀为空或没有匹配时返回空列表
+     */
+    @NonNull
+    public synchronized List<MorphemeCount> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty() || limit <= 0) return Collections.emptyList();
+        int start = walk(key, false);
+        if (start == NONE || best[start] == 0) return Collections.emptyList();
+
+        // 队列元素：node << 1 | 1 表示“输出该词根”，node << 1 表示“展开该子树”
+        // 展开项的键是子树上界 best，所以一个词根出队时，不可能还有排在它前面的词根没出队
+        PriorityQueue<Integer> frontier = new PriorityQueue<>(this::compareEntries);
+        frontier.add(start << 1);
+        List<MorphemeCount> result = new ArrayList<>(limit);
+        while (!frontier.isEmpty() && result.size() < limit) {
+            int entry = frontier.poll();
+            int node = entry >>> 1;
+            if ((entry & 1) == 1) {
+                result.add(new MorphemeCount(pathOf(node), wordCount[node]));
+                continue;
+            }
+            if (wordCount[node] > 0) {
+                frontier.add(node << 1 | 1);
+            }
+            for (int child = firstChild[node]; child != NONE; child = nextSibling[child]) {
+                if (best[child] > 0) {
+                    frontier.add(child << 1);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 某个词根当前关联的单词数
+     */
+    public synchronized int getWordCount(String morpheme) {
+        int node = walk(normalize(morpheme), false);
+        return node == NONE || node == ROOT ? 0 : wordCount[node];
+    }
+
+    /**
+     * 节点数（不含根节点），用于估算内存占用
+     */
+    public synchronized int nodeCount() {
+        return size - 1;
+    }
+
+    /**
+     * 计入仓库自身对 morpheme_relations 的一次写入（写事务内、前缀树已原地同步后调用）
+     * @param before 写入前的计数（{@link MorphemeWriteCounter#read}）
+     * @param after 写入后的计数
+     */
+    public void acceptLocalWrite(long before, long after) {
+        writes.accept(before, after);
+    }
+
+    /**
+     * Room 失效回调：数据库的计数落在已同步的区间内时不需要重建，否则（包括读取计数失败）标记为过期
+     */
+    void onTablesInvalidated() {
+        if (writes.onInvalidated()) {
+            return;
+        }
+        stale.set(true);
+    }
+
+    // ==================== 节点操作 ====================
+
+    private void adjust(String morpheme, int delta) {
+        String key = normalize(morpheme);
+        if (key.isEmpty()) return;
+        int node = walk(key, delta > 0);
+        if (node == NONE) return;
+        wordCount[node] = Math.max(0, wordCount[node] + delta);
+        // 沿父链向上重新计算 best，某一层不变时上面各层也不会变
+        for (int n = node; n != NONE; n = parent[n]) {
+            int value = wordCount[n];
+            for (int child = firstChild[n]; child != NONE; child = nextSibling[child]) {
+                value = Math.max(value, best[child]);
+            }
+            if (value == best[n] && n != node) break;
+            best[n] = value;
+        }
+    }
+
+    /**
+     * 沿前缀走到对应节点
+     * @param create 缺少的节点是否创建
+     * @return 节点下标；不创建且路径不存在时返回 NONE
+     */
+    private int walk(String key, boolean create) {
+        int node = ROOT;
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            int child = firstChild[node];
+            while (child != NONE && label[child] != c) {
+                child = nextSibling[child];
+            }
+            if (child == NONE) {
+                if (!create) return NONE;
+                child = newNode(node, c);
+            }
+            node = child;
+        }
+        return node;
+    }
+
+    private int newNode(int parentNode, char c) {
+        if (size == label.length) {
+            grow(size + (size >> 1));
+        }
+        int node = size++;
+        label[node] = c;
+        parent[node] = parentNode;
+        firstChild[node] = NONE;
+        nextSibling[node] = firstChild[parentNode];
+        firstChild[parentNode] = node;
+        return node;
+    }
+
+    private void allocate(int capacity) {
+        label = new char[capacity];
+        parent = new int[capacity];
+        firstChild = new int[capacity];
+        nextSibling = new int[capacity];
+        wordCount = new int[capacity];
+        best = new int[capacity];
+        parent[ROOT] = NONE;
+        firstChild[ROOT] = NONE;
+        nextSibling[ROOT] = NONE;
+        size = 1;
+    }
+
+    private void grow(int capacity) {
+        label = Arrays.copyOf(label, capacity);
+        parent = Arrays.copyOf(parent, capacity);
+        firstChild = Arrays.copyOf(firstChild, capacity);
+        nextSibling = Arrays.copyOf(nextSibling, capacity);
+        wordCount = Arrays.copyOf(wordCount, capacity);
+        best = Arrays.copyOf(best, capacity);
+    }
+
+    private String pathOf(int node) {
+        int depth = depthOf(node);
+        char[] chars = new char[depth];
+        for (int n = node; n != ROOT; n = parent[n]) {
+            chars[--depth] = label[n];
+        }
+        return new String(chars);
+    }
+
+    private int depthOf(int node) {
+        int depth = 0;
+        for (int n = node; n != ROOT; n = parent[n]) {
+            depth++;
+        }
+        return depth;
+    }
+
+    /**
+     * 队列排序：键从大到小 → 路径字典序 → 同一节点先输出后展开
+     */
+    private int compareEntries(int a, int b) {
+        int nodeA = a >>> 1;
+        int nodeB = b >>> 1;
+        int keyA = (a & 1) == 1 ? wordCount[nodeA] : best[nodeA];
+        int keyB = (b & 1) == 1 ? wordCount[nodeB] : best[nodeB];
+        if (keyA != keyB) return Integer.compare(keyB, keyA);
+        int byPath = comparePaths(nodeA, nodeB);
+        return byPath != 0 ? byPath : Integer.compare(b & 1, a & 1);
+    }
+
+    /**
+     * 不拼字符串比较两个节点路径的字典序：先把较深的节点上提到同一深度，再一起上提到公共祖先之下
+     */
+    private int comparePaths(int a, int b) {
+        if (a == b) return 0;
+        int depthA = depthOf(a);
+        int depthB = depthOf(b);
+        int x = a;
+        int y = b;
+        for (int i = depthA; i > depthB; i--) x = parent[x];
+        for (int i = depthB; i > depthA; i--) y = parent[y];
+        if (x == y) {
+            // 一个是另一个的前缀，短的在前
+            return Integer.compare(depthA, depthB);
+        }
+        while (parent[x] != parent[y]) {
+            x = parent[x];
+            y = parent[y];
+        }
+        return Character.compare(label[x], label[y]);
+    }
+
+    private static Collection<String> distinct(Collection<String> morphemes) {
+        List<String> result = new ArrayList<>(morphemes.size());
+        for (String morpheme : morphemes) {
+            String key = normalize(morpheme);
+            if (!key.isEmpty() && !result.contains(key)) {
+                result.add(key);
+            }
+        }
+        return result;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,106 @@
+package com.wcw.wordnet.data.search;
+
+import androidx.annotation.NonNull;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 全文检索索引（word_search）的触发器与重建语句
+ * word_nodes 的每次增删改都由触发器同步到 FTS 表，应用代码无需关心：
+ * - word：原样写入，英文前缀查询 word* 直接命中 FTS 词项索引
+ * - chinese：释义逐字插入空格，默认分词器把每个汉字当作一个词（一元分词）
+ * - morphemes：去掉 JSON 的括号、引号和逗号，每个词根一个词
+ *
+ * 触发器中不能使用循环或 WITH 子句，汉字拆分用固定长度的 substr 拼接完成，
+ * 超过 MAX_MEANING_CHARS 的释义只索引前面部分。
+ */
+public final class SearchIndex {
+
+    public static final String TABLE = "word_search";
+
+    /**
+     * 参与索引的释义最大字数
+     */
+    static final int MAX_MEANING_CHARS = 48;
+
+    /**
+     * 与 Room 为 {@link com.wcw.wordnet.model.entity.WordSearchEntry} 生成的建表语句一致
+     */
+    public static final String CREATE_TABLE_SQL = "CREATE VIRTUAL TABLE IF NOT EXISTS `word_search` " +
+            "USING FTS4(`word` TEXT, `chinese` TEXT, `morphemes` TEXT, prefix=`1,2`)";
+
+    private SearchIndex() {}
+
+    /**
+     * 同步触发器（可重复执行）
+     */
+    @NonNull
+    public static List<String> triggerStatements() {
+        return Arrays.asList(
+                "CREATE TRIGGER IF NOT EXISTS word_search_after_insert AFTER INSERT ON word_nodes BEGIN " +
+                        insertRow("new") + "; END",
+                "CREATE TRIGGER IF NOT EXISTS word_search_after_delete AFTER DELETE ON word_nodes BEGIN " +
+                        "DELETE FROM word_search WHERE rowid = old.rowid; END",
+                "CREATE TRIGGER IF NOT EXISTS word_search_after_update " +
+                        "AFTER UPDATE OF word, chineseMeaning, morphemeList ON word_nodes BEGIN " +
+                        "DELETE FROM word_search WHERE rowid = old.rowid; " +
+                        insertRow("new") + "; END"
+        );
+    }
+
+    /**
+     * 用 word_nodes 的现有数据重新填充索引（迁移时使用）
+     */
+    @NonNull
+    public static String backfillStatement() {
+        return "INSERT INTO word_search (rowid, word, chinese, morphemes) " +
+                "SELECT rowid, word, " + unigrams("chineseMeaning") + ", " + morphemes("morphemeList") +
+                " FROM word_nodes";
+    }
+
+    /**
+     * 安装触发器（数据库创建和每次打开时调用，已存在则跳过）
+     */
+    public static void install(@NonNull SupportSQLiteDatabase db) {
+        for (String sql : triggerStatements()) {
+            db.execSQL(sql);
+        }
+    }
+
+    /**
+     * 清空并重建索引
+     */
+    public static void rebuild(@NonNull SupportSQLiteDatabase db) {
+        db.execSQL("DELETE FROM word_search");
+        db.execSQL(backfillStatement());
+    }
+
+    private static String insertRow(String row) {
+        return "INSERT INTO word_search (rowid, word, chinese, morphemes) VALUES (" +
+                row + ".rowid, " + row + ".word, " +
+                unigrams(row + ".chineseMeaning") + ", " +
+                morphemes(row + ".morphemeList") + ")";
+    }
+
+    /**
+     * 生成逐字插入空格的表达式：trim(substr(x,1,1) || ' ' || substr(x,2,1) || ...)
+     */
+    private static String unigrams(String column) {
+        StringBuilder sql = new StringBuilder("trim(");
+        for (int i = 1; i <= MAX_MEANING_CHARS; i++) {
+            if (i > 1) sql.append(" || ' ' || ");
+            sql.append("substr(ifnull(").append(column).append(", ''), ").append(i).append(", 1)");
+        }
+        return sql.append(')').toString();
+    }
+
+    /**
+     * 把 ["re","struct","tion"] 转换为 re struct tion
+     */
+    private static String morphemes(String column) {
+        return "trim(replace(replace(replace(replace(ifnull(" + column + ", ''), " +
+                "'[', ' '), ']', ' '), '\"', ' '), ',', ' '))";
+    }
+}
@@ -0,0 +1,127 @@
+package com.wcw.wordnet.data.search;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 把用户输入转换为 FTS4 MATCH 表达式
+ * - 英文/数字片段 → 前缀词项 word*（边输入边搜索）
+ * - 连续汉字 → 一元分词短语 "重 建"（要求汉字相邻出现）
+ * - 其余字符（标点、FTS 运算符）一律视为分隔符，用户输入不会破坏查询语法
+ * 多个片段之间为 AND 关系。
+ */
+public final class SearchQuery {
+
+    /**
+     * 最多使用的片段数
+     */
+    static final int MAX_TERMS = 8;
+
+    /**
+     * 不超过这个长度的单个英文片段只做单词前缀搜索（见 {@link #isShortPrefix()}）
+     */
+    static final int SHORT_PREFIX_LENGTH = 1;
+
+    private final String match;
+    private final String term;
+
+    private SearchQuery(String match, String term) {
+        this.match = match;
+        this.term = term;
+    }
+
+    /**
+     * 解析用户输入
+     * @return 查询；输入中没有可检索的字符时返回 null
+     */
+    @Nullable
+    public static SearchQuery parse(@Nullable String input) {
+        if (input == null) return null;
+        String text = input.toLowerCase(Locale.ROOT);
+        List<String> terms = new ArrayList<>();
+        String firstLatin = "";
+
+        int i = 0;
+        while (i < text.length() && terms.size() < MAX_TERMS) {
+            int cp = text.codePointAt(i);
+            if (isLatin(cp)) {
+                int end = i;
+                while (end < text.length() && isLatin(text.codePointAt(end))) end++;
+                String latin = text.substring(i, end);
+                if (firstLatin.isEmpty()) firstLatin = latin;
+                terms.add(latin + "*");
+                i = end;
+            } else if (isHan(cp)) {
+                StringBuilder phrase = new StringBuilder();
+                int end = i;
+                while (end < text.length() && isHan(text.codePointAt(end))) {
+                    int c = text.codePointAt(end);
+                    if (phrase.length() > 0) phrase.append(' ');
+                    phrase.appendCodePoint(c);
+                    end += Character.charCount(c);
+                }
+                terms.add('"' + phrase.toString() + '"');
+                i = end;
+            } else {
+                i += Character.charCount(cp);
+            }
+        }
+        if (terms.isEmpty()) return null;
+        return new SearchQuery(String.join(" ", terms), firstLatin);
+    }
+
+    /**
+     * FTS4 MATCH 表达式
+     */
+    @NonNull
+    public String getMatch() {
+        return match;
+    }
+
+    /**
+     * 用于排序的英文词（第一个英文片段，没有时为空字符串）
+     */
+    @NonNull
+    public String getTerm() {
+        return term;
+    }
+
+    /**
+     * 输入只有一个很短的英文片段（边输入边搜索时的第一个字母）
+     * 这样的前缀在全文索引中命中太多，改用 SearchDao.searchWordPrefix 按单词前缀读取前几个
+     */
+    public boolean isShortPrefix() {
+        return !term.isEmpty() && term.length() <= SHORT_PREFIX_LENGTH && match.equals(term + "*");
+    }
+
+    /**
+     * {@link #getTerm()} 的前缀范围上界
+     */
+    @NonNull
+    public String getTermUpperBound() {
+        return term.isEmpty() ? "" : prefixUpperBound(term);
+    }
+
+    /**
+     * 计算前缀范围查询的上界：最后一个字符加一
+     * 例如 "re" → "rf"，满足 "re" <= x < "rf" 的字符串恰好是以 "re" 开头的字符串
+     */
+    @NonNull
+    public static String prefixUpperBound(@NonNull String prefix) {
+        if (prefix.isEmpty()) return "\uffff";
+        int last = prefix.length() - 1;
+        return prefix.substring(0, last) + (char) (prefix.charAt(last) + 1);
+    }
+
+    private static boolean isLatin(int cp) {
+        return (cp >= 'a' && cp <= 'z') || (cp >= '0' && cp <= '9');
+    }
+
+    private static boolean isHan(int cp) {
+        return Character.UnicodeScript.of(cp) == Character.UnicodeScript.HAN;
+    }
+}
@@ -0,0 +1,97 @@
+package com.wcw.wordnet.model;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+
+/**
+ * 数据看板统计
+ * 作为数据库查询结果的映射：一条 SQL 在同一个读快照中算出全部数字，
+ * 总数和已掌握数不会来自两次不同时刻的查询
+ * 实现 equals，供数据流 distinctUntilChanged 过滤数值不变的重复结果
+ */
+public class DashboardStats {
+
+    /**
+     * 活跃单词数
+     */
+    @ColumnInfo(name = "totalWords")
+    private final int totalWords;
+
+    /**
+     * 已掌握单词数（memoryStrength > 0.8）
+     */
+    @ColumnInfo(name = "masteredWords")
+    private final int masteredWords;
+
+    /**
+     * 现在已到期的复习数
+     */
+    @ColumnInfo(name = "dueNow")
+    private final int dueNow;
+
+    /**
+     * 今天结束前到期的复习数（包含已到期的）
+     */
+    @ColumnInfo(name = "dueToday")
+    private final int dueToday;
+
+    /**
+     * 活跃单词的平均记忆强度（没有单词时为 0）
+     */
+    @ColumnInfo(name = "avgStrength")
+    private final float avgStrength;
+
+    public DashboardStats(int totalWords, int masteredWords, int dueNow, int dueToday, float avgStrength) {
+        this.totalWords = totalWords;
+        this.masteredWords = masteredWords;
+        this.dueNow = dueNow;
+        this.dueToday = dueToday;
+        this.avgStrength = avgStrength;
+    }
+
+    public int getTotalWords() { return totalWords; }
+
+    public int getMasteredWords() { return masteredWords; }
+
+    public int getDueNow() { return dueNow; }
+
+    public int getDueToday() { return dueToday; }
+
+    public float getAvgStrength() { return avgStrength; }
+
+    /**
+     * 掌握百分比（0-100），没有单词时为 0
+     */
+    public int getMasteredPercentage() {
+        return totalWords == 0 ? 0 : (int) ((masteredWords * 100.0f) / totalWords);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) return true;
+        if (!(other instanceof DashboardStats)) return false;
+        DashboardStats that = (DashboardStats) other;
+        return totalWords == that.totalWords
+                && masteredWords == that.masteredWords
+                && dueNow == that.dueNow
+                && dueToday == that.dueToday
+                && Float.compare(avgStrength, that.avgStrength) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = totalWords;
+        result = 31 * result + masteredWords;
+        result = 31 * result + dueNow;
+        result = 31 * result + dueToday;
+        result = 31 * result + Float.floatToIntBits(avgStrength);
+        return result;
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return String.format("已掌握 %d/%d, 待复习 %d (今日 %d), 平均强度 %.2f",
+                masteredWords, totalWords, dueNow, dueToday, avgStrength);
+    }
+}
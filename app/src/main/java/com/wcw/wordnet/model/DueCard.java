@@ -0,0 +1,47 @@
+package com.wcw.wordnet.model;
+
+import androidx.annotation.NonNull;
+import androidx.room.Embedded;
+
+import com.wcw.wordnet.model.entity.ReviewQueue;
+import com.wcw.wordnet.model.entity.WordNode;
+
+/**
+ * 到期复习卡片
+ * review_queue 与 word_nodes 联合查询结果的映射，
+ * 同时携带复习计划（SM-2参数）和单词本身，供内存复习队列使用
+ */
+public class DueCard {
+
+    @Embedded
+    @NonNull
+    private ReviewQueue schedule;
+
+    @Embedded
+    @NonNull
+    private WordNode word;
+
+    public DueCard(@NonNull ReviewQueue schedule, @NonNull WordNode word) {
+        this.schedule = schedule;
+        this.word = word;
+    }
+
+    @NonNull
+    public ReviewQueue getSchedule() { return schedule; }
+    public void setSchedule(@NonNull ReviewQueue schedule) { this.schedule = schedule; }
+
+    @NonNull
+    public WordNode getWord() { return word; }
+    public void setWord(@NonNull WordNode word) { this.word = word; }
+
+    /**
+     * 堆排序键：下次复习时间
+     */
+    public long getNextReviewTime() {
+        return schedule.getNextReviewTime();
+    }
+
+    public String getWordId() {
+        return schedule.getWordId();
+    }
+}
@@ -0,0 +1,37 @@
+package com.wcw.wordnet.model;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+
+/**
+ * 词根及其关联的活跃单词数
+ * 既是数据库查询结果的映射，也是词根联想的返回项
+ */
+
+public class MorphemeCount {
+
+    @ColumnInfo(name = "morpheme")
+    private String morpheme;
+
+    @ColumnInfo(name = "wordCount")
+    private int wordCount;
+
+    public MorphemeCount(String morpheme, int wordCount) {
+        this.morpheme = morpheme;
+        this.wordCount = wordCount;
+    }
+
+    public String getMorpheme() {
+        return morpheme;
+    }
+
+    public int getWordCount() {
+        return wordCount;
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return morpheme + " (" + wordCount + ")";
+    }
+}
@@ -0,0 +1,61 @@
+package com.wcw.wordnet.model;
+
+import androidx.room.ColumnInfo;
+
+import com.wcw.wordnet.model.entity.MorphemeRelation;
+
+/**
+ * 单词的两跳邻居：与中心单词共用某个词根的另一个单词
+ * 作为数据库查询结果的映射，每行是邻居单词与一个共用词根之间的一条边
+ */
+
+public class MorphemeNeighbour {
+
+    @ColumnInfo(name = "wordId")
+    private String wordId;
+
+    @ColumnInfo(name = "morpheme")
+    private String morpheme;
+
+    /**
+     * 0=前缀, 1=词根, 2=后缀（邻居单词中该词根的位置）
+     */
+    @ColumnInfo(name = "position")
+    private int position;
+
+    /**
+     * 邻居单词与中心单词共用的词根数（排序依据）
+     */
+    @ColumnInfo(name = "sharedCount")
+    private int sharedCount;
+
+    public MorphemeNeighbour(String wordId, String morpheme, int position, int sharedCount) {
+        this.wordId = wordId;
+        this.morpheme = morpheme;
+        this.position = position;
+        this.sharedCount = sharedCount;
+    }
+
+    public String getWordId() {
+        return wordId;
+    }
+
+    public String getMorpheme() {
+        return morpheme;
+    }
+
+    public int getPosition() {
+        return position;
+    }
+
+    public int getSharedCount() {
+        return sharedCount;
+    }
+
+    /**
+     * 转换为词根关系（交给词根网络图绘制）
+     */
+    public MorphemeRelation toRelation() {
+        return new MorphemeRelation(morpheme, wordId, position);
+    }
+}
@@ -0,0 +1,41 @@
+package com.wcw.wordnet.model;
+
+import androidx.room.ColumnInfo;
+
+/**
+ * 词根在某个位置（前缀/词根/后缀）上的使用次数
+ * 作为数据库查询结果的映射，用于构建词根拆分器
+ */
+
+public class MorphemeUsage {
+
+    @ColumnInfo(name = "morpheme")
+    private String morpheme;
+
+    /**
+     * 0=前缀, 1=词根, 2=后缀（与 MorphemeRelation.position 相同）
+     */
+    @ColumnInfo(name = "position")
+    private int position;
+
+    @ColumnInfo(name = "wordCount")
+    private int wordCount;
+
+    public MorphemeUsage(String morpheme, int position, int wordCount) {
+        this.morpheme = morpheme;
+        this.position = position;
+        this.wordCount = wordCount;
+    }
+
+    public String getMorpheme() {
+        return morpheme;
+    }
+
+    public int getPosition() {
+        return position;
+    }
+
+    public int getWordCount() {
+        return wordCount;
+    }
+}
@@ -0,0 +1,37 @@
+package com.wcw.wordnet.model;
+
+import androidx.annotation.NonNull;
+
+import com.wcw.wordnet.model.entity.MorphemeRelation;
+import com.wcw.wordnet.model.entity.WordNode;
+
+import java.util.List;
+
+/**
+ * 复习卡片
+ * 复习界面展示一个单词所需的全部数据：单词本身 + 按位置排序的词根关系
+ * 由复习会话预取，显示时无需再访问数据库
+ */
+public class ReviewCard {
+
+    @NonNull
+    private final WordNode word;
+
+    @NonNull
+    private final List<MorphemeRelation> relations;
+
+    public ReviewCard(@NonNull WordNode word, @NonNull List<MorphemeRelation> relations) {
+        this.word = word;
+        this.relations = relations;
+    }
+
+    @NonNull
+    public WordNode getWord() { return word; }
+
+    @NonNull
+    public List<MorphemeRelation> getRelations() { return relations; }
+
+    public String getWordId() {
+        return word.getWord();
+    }
+}
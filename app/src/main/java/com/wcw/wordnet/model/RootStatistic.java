@@ -5,53 +5,61 @@ import androidx.room.ColumnInfo;
 
 /**
  * 词根统计信息
- * 作为数据库查询结果的映射
+ * 作为数据库查询结果的映射（来自 morpheme_stats 聚合表）
  */
 
 public class RootStatistic {
 
-    @ColumnInfo(name = "morphemeList")
-    private String morphemeList;
+    @ColumnInfo(name = "morpheme")
+    private String morpheme;
 
     @ColumnInfo(name = "wordCount")
     private int wordCount;
 
+    @ColumnInfo(name = "masteredCount")
+    private int masteredCount;
+
     @ColumnInfo(name = "avgStrength")
     private float avgStrength;
 
-    public RootStatistic(String morphemeList, int wordCount, float avgStrength) {
-        this.morphemeList = morphemeList;
+    public RootStatistic(String morpheme, int wordCount, int masteredCount, float avgStrength) {
+        this.morpheme = morpheme;
         this.wordCount = wordCount;
+        this.masteredCount = masteredCount;
         this.avgStrength = avgStrength;
     }
 
-    public String getMorphemeList() {
-        return morphemeList;
+    public String getMorpheme() {
+        return morpheme;
     }
 
     public int getWordCount() {
         return wordCount;
     }
 
+    public int getMasteredCount() {
+        return masteredCount;
+    }
+
     public float getAvgStrength() {
         return avgStrength;
     }
 
     /**
-     * 获取主词根（第一个词根）
-     * 示例: ["re","struct","tion"] → "["re"" → "re"
+     * 获取词根（统计已按单个词根分组）
      */
     public String getPrimaryRoot() {
-        if (morphemeList == null || morphemeList.isEmpty()) {
+        if (morpheme == null || morpheme.isEmpty()) {
             return "unknown";
         }
-        return morphemeList.split(",")[0].replaceAll("[\"\\[\\]]", "");
+        return morpheme;
     }
 
     @NonNull
     @Override
     public String toString(){
-        return String.format("词根: %s, 单词数: %d, 平均掌握度: %.2f", getPrimaryRoot(), wordCount, avgStrength);
+        return String.format("词根: %s, 单词数: %d, 已掌握: %d, 平均掌握度: %.2f",
+                getPrimaryRoot(), wordCount, masteredCount, avgStrength);
     }
 
 }
@@ -0,0 +1,41 @@
+package com.wcw.wordnet.model;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+
+/**
+ * 单词的复习统计列
+ * word_nodes 中与复习相关的列的投影，列级更新时只读取这几列，
+ * 不加载 morphemeList、chineseMeaning 等大字段
+ */
+public class WordReviewStats {
+
+    @NonNull
+    @ColumnInfo(name = "word")
+    private final String word;
+
+    @ColumnInfo(name = "memoryStrength")
+    private final float memoryStrength;
+
+    @ColumnInfo(name = "reviewCount")
+    private final int reviewCount;
+
+    @ColumnInfo(name = "lastReviewed")
+    private final long lastReviewed;
+
+    public WordReviewStats(@NonNull String word, float memoryStrength, int reviewCount, long lastReviewed) {
+        this.word = word;
+        this.memoryStrength = memoryStrength;
+        this.reviewCount = reviewCount;
+        this.lastReviewed = lastReviewed;
+    }
+
+    @NonNull
+    public String getWord() { return word; }
+
+    public float getMemoryStrength() { return memoryStrength; }
+
+    public int getReviewCount() { return reviewCount; }
+
+    public long getLastReviewed() { return lastReviewed; }
+}
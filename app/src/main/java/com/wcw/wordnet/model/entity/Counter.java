@@ -0,0 +1,47 @@
+package com.wcw.wordnet.model.entity;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+/**
+ * 计数器表：每个全局计数一行（活跃单词数、已掌握数、记忆强度和）
+ * 内容由 {@link com.wcw.wordnet.data.counter.CounterTriggers} 中的触发器随 word_nodes 的变化增量维护，
+ * 应用代码不直接写入；读取一个计数只是一次主键查找，与词库大小无关
+ */
+@Entity(tableName = "counters")
+public class Counter {
+
+    /**
+     * 活跃单词数（与 COUNT(*) … WHERE isActive = 1 一致）
+     */
+    public static final String ACTIVE_WORDS = "active_words";
+
+    /**
+     * 已掌握的活跃单词数（memoryStrength > 0.8）
+     */
+    public static final String MASTERED_WORDS = "mastered_words";
+
+    /**
+     * 活跃单词的记忆强度之和（百万分之一为单位的整数，增减没有浮点误差累积）
+     */
+    public static final String STRENGTH_MICROS = "strength_micros";
+
+    @PrimaryKey
+    @NonNull
+    private String name;
+
+    private long value;
+
+    public Counter(@NonNull String name, long value) {
+        this.name = name;
+        this.value = value;
+    }
+
+    @NonNull
+    public String getName() { return name; }
+    public void setName(@NonNull String name) { this.name = name; }
+
+    public long getValue() { return value; }
+    public void setValue(long value) { this.value = value; }
+}
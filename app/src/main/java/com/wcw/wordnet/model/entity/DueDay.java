@@ -0,0 +1,40 @@
+package com.wcw.wordnet.model.entity;
+
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+/**
+ * 到期直方图：每个 UTC 自然日一行，记录 next_review_time 落在这一天的活跃单词复习项数
+ * 内容由 {@link com.wcw.wordnet.data.counter.CounterTriggers} 中的触发器随 review_queue / word_nodes
+ * 的变化增量维护，计数归零的日期行随即删除
+ */
+@Entity(tableName = "due_histogram")
+public class DueDay {
+
+    /**
+     * 一天的毫秒数，epochDay = next_review_time / DAY_MILLIS
+     */
+    public static final long DAY_MILLIS = 86_400_000L;
+
+    /**
+     * 自 1970-01-01（UTC）起的天数
+     */
+    @PrimaryKey
+    private long epochDay;
+
+    /**
+     * 当天到期的活跃单词复习项数
+     */
+    private int dueCount;
+
+    public DueDay(long epochDay, int dueCount) {
+        this.epochDay = epochDay;
+        this.dueCount = dueCount;
+    }
+
+    public long getEpochDay() { return epochDay; }
+    public void setEpochDay(long epochDay) { this.epochDay = epochDay; }
+
+    public int getDueCount() { return dueCount; }
+    public void setDueCount(int dueCount) { this.dueCount = dueCount; }
+}
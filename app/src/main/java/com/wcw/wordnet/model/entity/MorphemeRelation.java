@@ -5,6 +5,9 @@ import androidx.room.ForeignKey;
 import androidx.room.Index;
 import androidx.room.PrimaryKey;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * 词根关系表
  * 存储单词与词根的关联关系，用于构建词根网络
@@ -20,7 +23,8 @@ import androidx.room.PrimaryKey;
                 )
         },
         indices = {
-                @Index(value = "wordId"),
+                // 按单词取词根并按位置排序，无需临时排序
+                @Index(value = {"wordId", "position"}),
                 @Index(value = "morpheme")
         }
 )
@@ -49,6 +53,17 @@ public class MorphemeRelation {
         this.position = position;
     }
 
+    /**
+     * 取出词根字符串（保持顺序）
+     */
+    public static List<String> morphemesOf(List<MorphemeRelation> relations) {
+        List<String> morphemes = new ArrayList<>(relations.size());
+        for (MorphemeRelation relation : relations) {
+            morphemes.add(relation.getMorpheme());
+        }
+        return morphemes;
+    }
+
     // Getter and Setter
     public long getId() { return id; }
     public void setId(long id) { this.id = id; }
@@ -0,0 +1,60 @@
+package com.wcw.wordnet.model.entity;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+/**
+ * 词根统计表（聚合表）
+ * 每个词根一行，只统计活跃单词；内容由 {@link com.wcw.wordnet.data.morpheme.MorphemeStatsTriggers}
+ * 中的触发器随 word_nodes / morpheme_relations 的变化增量维护，应用代码不直接写入
+ */
+@Entity(
+        tableName = "morpheme_stats",
+        indices = {
+                // 数据看板按单词数从多到少读取，无需临时排序
+                @Index(value = "wordCount")
+        }
+)
+public class MorphemeStats {
+
+    @PrimaryKey
+    @NonNull
+    private String morpheme;
+
+    /**
+     * 使用该词根的活跃单词数（每条词根关系计一次）
+     */
+    private int wordCount;
+
+    /**
+     * 其中已掌握的单词数（memoryStrength > 0.8，与数据看板的已掌握数一致）
+     */
+    private int masteredCount;
+
+    /**
+     * 记忆强度之和，平均值 = strengthSum / wordCount
+     */
+    private double strengthSum;
+
+    public MorphemeStats(@NonNull String morpheme, int wordCount, int masteredCount, double strengthSum) {
+        this.morpheme = morpheme;
+        this.wordCount = wordCount;
+        this.masteredCount = masteredCount;
+        this.strengthSum = strengthSum;
+    }
+
+    @NonNull
+    public String getMorpheme() { return morpheme; }
+    public void setMorpheme(@NonNull String morpheme) { this.morpheme = morpheme; }
+
+    public int getWordCount() { return wordCount; }
+    public void setWordCount(int wordCount) { this.wordCount = wordCount; }
+
+    public int getMasteredCount() { return masteredCount; }
+    public void setMasteredCount(int masteredCount) { this.masteredCount = masteredCount; }
+
+    public double getStrengthSum() { return strengthSum; }
+    public void setStrengthSum(double strengthSum) { this.strengthSum = strengthSum; }
+}
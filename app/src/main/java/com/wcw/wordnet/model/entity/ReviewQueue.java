@@ -5,6 +5,7 @@ import androidx.room.ColumnInfo;
 import androidx.room.Entity;
 import androidx.room.ForeignKey;
 import androidx.room.Ignore;
+import androidx.room.Index;
 import androidx.room.PrimaryKey;
 
 /**
@@ -18,7 +19,11 @@ import androidx.room.PrimaryKey;
                 parentColumns = "word",
                 childColumns = "wordId",
                 onDelete = ForeignKey.CASCADE
-        )
+        ),
+        indices = {
+                // 到期查询按 next_review_time 范围过滤并排序
+                @Index(value = "next_review_time")
+        }
 )
 public class ReviewQueue {
 
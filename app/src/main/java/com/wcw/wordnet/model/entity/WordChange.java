@@ -0,0 +1,99 @@
+package com.wcw.wordnet.model.entity;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+/**
+ * 单词变更日志（行级变化）
+ * 每次插入、更新、删除 word_nodes 的一行，由 {@link com.wcw.wordnet.data.change.WordChangeTriggers}
+ * 中的触发器在同一事务内追加一条，记录变化前后的活跃状态和记忆强度；应用代码不直接写入。
+ * 派生视图（单词数、已掌握数、薄弱词）按日志增量修补，不必每次重新统计全表。
+ */
+@Entity(tableName = "word_changes")
+public class WordChange {
+
+    public static final int INSERTED = 1;
+    public static final int UPDATED = 2;
+    public static final int DELETED = 3;
+
+    /**
+     * 日志序号（单调递增）
+     */
+    @PrimaryKey(autoGenerate = true)
+    private long seq;
+
+    @NonNull
+    private String word;
+
+    /**
+     * INSERTED / UPDATED / DELETED
+     */
+    private int kind;
+
+    /**
+     * 变化前的状态（插入时为 false / 0）
+     */
+    private boolean oldActive;
+    private float oldStrength;
+
+    /**
+     * 变化后的状态（删除时为 false / 0）
+     */
+    private boolean newActive;
+    private float newStrength;
+
+    public WordChange(long seq, @NonNull String word, int kind,
+                      boolean oldActive, float oldStrength, boolean newActive, float newStrength) {
+        this.seq = seq;
+        this.word = word;
+        this.kind = kind;
+        this.oldActive = oldActive;
+        this.oldStrength = oldStrength;
+        this.newActive = newActive;
+        this.newStrength = newStrength;
+    }
+
+    public long getSeq() { return seq; }
+    public void setSeq(long seq) { this.seq = seq; }
+
+    @NonNull
+    public String getWord() { return word; }
+    public void setWord(@NonNull String word) { this.word = word; }
+
+    public int getKind() { return kind; }
+    public void setKind(int kind) { this.kind = kind; }
+
+    public boolean isOldActive() { return oldActive; }
+    public void setOldActive(boolean oldActive) { this.oldActive = oldActive; }
+
+    public float getOldStrength() { return oldStrength; }
+    public void setOldStrength(float oldStrength) { this.oldStrength = oldStrength; }
+
+    public boolean isNewActive() { return newActive; }
+    public void setNewActive(boolean newActive) { this.newActive = newActive; }
+
+    public float getNewStrength() { return newStrength; }
+    public void setNewStrength(float newStrength) { this.newStrength = newStrength; }
+
+    /**
+     * 单词从列表中消失（归档或删除）
+     */
+    public boolean isRemoved() {
+        return oldActive && !newActive;
+    }
+
+    /**
+     * 单词出现在列表中（新增或取消归档）
+     */
+    public boolean isAdded() {
+        return !oldActive && newActive;
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return "WordChange{" + seq + " " + word + " kind=" + kind +
+                " " + oldActive + "/" + oldStrength + " -> " + newActive + "/" + newStrength + "}";
+    }
+}
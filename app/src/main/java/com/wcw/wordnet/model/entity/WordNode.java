@@ -6,8 +6,11 @@ import android.util.Log;
 import androidx.annotation.NonNull;
 import androidx.room.Entity;
 import androidx.room.Ignore;
+import androidx.room.Index;
 import androidx.room.PrimaryKey;
 
+import com.wcw.wordnet.data.algorithm.Sm2Algorithm;
+
 import java.util.ArrayList;
 import java.util.List;
 
@@ -15,7 +18,14 @@ import java.util.List;
  * 单词节点实体类
  */
 
-@Entity(tableName = "word_nodes")   // 指定数据库表名为 word_nodes
+@Entity(
+        tableName = "word_nodes",   // 指定数据库表名为 word_nodes
+        indices = {
+                // 活跃单词按记忆强度排序/过滤（薄弱单词、掌握数统计）；
+                // 末尾加上 word，单词列表按 (memoryStrength, word) 键集分页时无需临时排序
+                @Index(value = {"isActive", "memoryStrength", "word"})
+        }
+)
 public class WordNode {
 
     /**
@@ -108,6 +118,16 @@ public class WordNode {
         this.morphemeList = morphemes.toString();
     }
 
+    /**
+     * 复制一份（写线程更新复习结果时使用，不修改界面和单词缓存正在读取的对象）
+     */
+    @NonNull
+    public WordNode copy() {
+        WordNode copy = new WordNode(word, memoryStrength, lastReviewed, reviewCount, isActive, morphemeList);
+        copy.chineseMeaning = chineseMeaning;
+        return copy;
+    }
+
     @NonNull
     public String getWord() {
         return word;
@@ -190,30 +210,27 @@ public class WordNode {
      * 更新记忆强度
      */
     public void updateMemoryStrength(boolean isCorrect){
-        int newCount = this.reviewCount + 1;
-
-        // 1. 基础得分：答对+0.3，答错-0.1
-        float baseFain = isCorrect ? 0.3f : -0.1f;
-
-        // 2. 复习次数增益：前3次复习得分翻倍（快速度过短期记忆）
-        float constMultiplier= newCount <= 3 ? 1.5f : 1.0f;
-
-        // 3. 难度系数：强度越高，得分衰减（后期更难提升）
-        float difficulty = 1.0f - (this.memoryStrength * 0.5f);
+        updateMemoryStrength(isCorrect, System.currentTimeMillis());
+    }
 
-        // 4. 综合计算
-        float finalGain = baseFain * constMultiplier * difficulty;
+    /**
+     * 更新记忆强度（指定复习时间）
+     * @param isCorrect 用户是否答对
+     * @param reviewedAt 复习发生的时间戳
+     */
+    public void updateMemoryStrength(boolean isCorrect, long reviewedAt){
+        float oldStrength = this.memoryStrength;
 
-        // 5. 边界保护
-        this.memoryStrength = Math.max(0.0f, Math.min(1.0f, this.memoryStrength + finalGain));
+        // 1. 计算新强度（算法统一在 Sm2Algorithm 中）
+        this.memoryStrength = Sm2Algorithm.calculateMemoryStrength(oldStrength, this.reviewCount, isCorrect);
 
-        // 6. 更新元数据
-        this.reviewCount = newCount;
-        this.lastReviewed = System.currentTimeMillis();
+        // 2. 更新元数据
+        this.reviewCount = this.reviewCount + 1;
+        this.lastReviewed = reviewedAt;
 
-        // 7. 日志
+        // 3. 日志
         Log.d("DebugStrength", "单词:" + this.word + ", 结果:" + isCorrect +
-                ", 旧强度:" + (this.memoryStrength - finalGain) +
+                ", 旧强度:" + oldStrength +
                 ", 新强度:" + this.memoryStrength);
     }
 
@@ -222,11 +239,32 @@ public class WordNode {
      * @param quality 0-5分（0=忘记, 3=困难, 4=良好, 5=完美）
      */
     public void updateMemoryStrengthByQuality(int quality) {
+        updateMemoryStrengthByQuality(quality, System.currentTimeMillis());
+    }
+
+    /**
+     * 根据SM-2质量评分更新记忆强度（指定复习时间）
+     * @param quality 0-5分
+     * @param reviewedAt 复习发生的时间戳
+     */
+    public void updateMemoryStrengthByQuality(int quality, long reviewedAt) {
         // 将SM-2的5分制转换为boolean（>=3算正确）
         boolean isCorrect = quality >= 3;
 
         // 使用原有算法更新（保持兼容性）
-        updateMemoryStrength(isCorrect);
+        updateMemoryStrength(isCorrect, reviewedAt);
+    }
+
+    /**
+     * 词根列表转换为JSON字符串存储，如 ["re","struct","tion"]
+     */
+    public static String toMorphemeList(List<String> morphemes) {
+        StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < morphemes.size(); i++) {
+            if (i > 0) builder.append(',');
+            builder.append('"').append(morphemes.get(i)).append('"');
+        }
+        return builder.append(']').toString();
     }
 
     /**
@@ -0,0 +1,48 @@
+package com.wcw.wordnet.model.entity;
+
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Fts4;
+import androidx.room.PrimaryKey;
+
+/**
+ * 全文检索表（FTS4）
+ * 每个单词一行，rowid 与 word_nodes 的 rowid 相同；
+ * 内容由 {@link com.wcw.wordnet.data.search.SearchIndex} 中的触发器维护，应用代码不直接写入
+ * prefix 索引让 1~2 个字母的前缀查询（刚开始输入时）不必合并大量词项
+ */
+@Fts4(prefix = {1, 2})
+@Entity(tableName = "word_search")
+public class WordSearchEntry {
+
+    @PrimaryKey
+    @ColumnInfo(name = "rowid")
+    private long rowId;
+
+    /**
+     * 英文单词（支持前缀匹配 word*）
+     */
+    private String word;
+
+    /**
+     * 中文释义，逐字以空格分隔（一元分词）
+     */
+    private String chinese;
+
+    /**
+     * 词根列表，以空格分隔
+     */
+    private String morphemes;
+
+    public long getRowId() { return rowId; }
+    public void setRowId(long rowId) { this.rowId = rowId; }
+
+    public String getWord() { return word; }
+    public void setWord(String word) { this.word = word; }
+
+    public String getChinese() { return chinese; }
+    public void setChinese(String chinese) { this.chinese = chinese; }
+
+    public String getMorphemes() { return morphemes; }
+    public void setMorphemes(String morphemes) { this.morphemes = morphemes; }
+}
@@ -6,22 +6,37 @@ import android.util.Log;
 import androidx.annotation.NonNull;
 import androidx.lifecycle.AndroidViewModel;
 import androidx.lifecycle.LiveData;
+import androidx.lifecycle.LiveDataReactiveStreams;
 import androidx.lifecycle.MutableLiveData;
 import androidx.lifecycle.Transformations;
+import androidx.lifecycle.ViewModelKt;
+import androidx.paging.PagingData;
+import androidx.paging.PagingLiveData;
 
+import com.wcw.wordnet.data.cache.WordCacheStats;
 import com.wcw.wordnet.data.local.dao.ReviewQueueDao;
 import com.wcw.wordnet.data.local.dao.WordDao;
 import com.wcw.wordnet.data.repository.WordRepository;
+import com.wcw.wordnet.data.review.ReviewSessionStats;
+import com.wcw.wordnet.model.DashboardStats;
+import com.wcw.wordnet.model.MorphemeCount;
+import com.wcw.wordnet.model.MorphemeNeighbour;
+import com.wcw.wordnet.model.ReviewCard;
+import com.wcw.wordnet.model.entity.MorphemeRelation;
 import com.wcw.wordnet.model.entity.ReviewQueue;
 import com.wcw.wordnet.model.entity.WordNode;
 import com.wcw.wordnet.ui.review.ReviewState;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import io.reactivex.Completable;
+import io.reactivex.Flowable;
 import io.reactivex.android.schedulers.AndroidSchedulers;
 import io.reactivex.disposables.CompositeDisposable;
-import io.reactivex.schedulers.Schedulers;
+import io.reactivex.subjects.PublishSubject;
 
 /**
  * 单词图谱ViewModel
@@ -39,6 +54,12 @@ public class WordGraphViewModel extends AndroidViewModel {
     // ✅ 新增：当前复习单词
     private final MutableLiveData<WordNode> currentReviewWord = new MutableLiveData<>();
 
+    // 当前复习单词的词根关系（随卡片一起预取）
+    private final MutableLiveData<List<MorphemeRelation>> currentReviewRelations = new MutableLiveData<>();
+
+    // 详情页中心单词的两跳邻域（邻居单词与共用词根之间的边）
+    private final MutableLiveData<List<MorphemeRelation>> neighbourRelations = new MutableLiveData<>();
+
     // ✅ 新增：待复习数量（用于显示小红点）
     private final MutableLiveData<Integer> dueReviewCount = new MutableLiveData<>(0);
 
@@ -49,22 +70,50 @@ public class WordGraphViewModel extends AndroidViewModel {
     private final LiveData<List<WordNode>> weakWords;
 
     /**
-     * 单词总数（可见的）
-     * 用于在标题栏显示“已学习X个单词”
+     * 数据看板统计（总数、已掌握数、到期数、平均强度，来自同一个读快照）
+     * 有观察者时才订阅数据库，数值不变时不会下发
      */
-    private final LiveData<Integer> wordCount;
+    private final LiveData<DashboardStats> dashboardStats;
 
     /**
-     * 已掌握单词数
-     * 用于进度条显示
+     * 单词列表的搜索条件：全文搜索（点击搜索按钮）或词根搜索（选中联想的词根）
      */
-    private final LiveData<Integer> masteredWordCount;
+    private static final class WordQuery {
+        final String text;
+        final boolean byRoot;
+
+        WordQuery(String text, boolean byRoot) {
+            this.text = text == null ? "" : text.trim();
+            this.byRoot = byRoot;
+        }
+    }
 
     // 搜索条件
-    private final MutableLiveData<String> rootQuery;
+    private final MutableLiveData<WordQuery> wordQuery;
 
-    // 搜索结果（先声明，后初始化）
-    public final LiveData<List<WordNode>> wordsByRoot;
+    /**
+     * 全部可见单词的分页数据（缓存在 ViewModel 范围内，配置变更后复用已加载的页）
+     */
+    private final LiveData<PagingData<WordNode>> activeWordPages;
+
+    // 搜索结果（先声明，后初始化）：搜索条件为空时是全部单词的分页数据
+    public final LiveData<PagingData<WordNode>> wordsByRoot;
+
+    /**
+     * 词根输入框的每次按键
+     */
+    private final PublishSubject<String> rootInput = PublishSubject.create();
+
+    /**
+     * 词根联想结果（输入停顿 SUGGESTION_DEBOUNCE_MS 后刷新）
+     */
+    private final MutableLiveData<List<MorphemeCount>> morphemeSuggestions =
+            new MutableLiveData<>(Collections.emptyList());
+
+    /**
+     * 联想防抖时间：连续输入时只对最后一次按键查询
+     */
+    private static final long SUGGESTION_DEBOUNCE_MS = 150;
 
     // 一次性事件
     /**
@@ -92,8 +141,8 @@ public class WordGraphViewModel extends AndroidViewModel {
     public WordGraphViewModel(@NonNull Application application){
         super(application);
 
-        // 创建 Repository 实例（单例模式，不会重复创建）
-        this.repository = new WordRepository(application);
+        // 获取 Repository 实例（单例模式，不会重复创建）
+        this.repository = WordRepository.getInstance(application);
 
         // 初始化 RxJava 订阅池（用于管理所有异步任务）
         this.disposable = new CompositeDisposable();
@@ -104,27 +153,60 @@ public class WordGraphViewModel extends AndroidViewModel {
         /**
          * 搜索条件（可变）
          */
-        this.rootQuery = new MutableLiveData<>();
+        this.wordQuery = new MutableLiveData<>();
 
         /**
-         * 搜索结果（只读），自动跟对 rootQuery 变化
+         * 搜索结果（只读），自动跟对 wordQuery 变化
          */
         // switchMap：当入口数据（搜索条件）变化时，它会自动关闭旧的数据流，并开启新的数据流。
+        this.activeWordPages = PagingLiveData.cachedIn(
+                repository.getActiveWordPages(), ViewModelKt.getViewModelScope(this));
         this.wordsByRoot =
-                Transformations.switchMap(rootQuery, root -> {
-                    if (root == null || root.trim().isEmpty()) {
-                        return repository.getAllActiveWords();
+                Transformations.switchMap(wordQuery, query -> {
+                    if (query == null || query.text.isEmpty()) {
+                        return activeWordPages;
                     }
-                    return repository.getWordsByRoot(root.trim());
+                    // 搜索只返回命中的单词，一次性装进 PagingData 交给同一个分页适配器
+                    if (query.byRoot) {
+                        return Transformations.map(repository.getWordsByRoot(query.text),
+                                words -> PagingData.from(words));
+                    }
+                    return LiveDataReactiveStreams.fromPublisher(
+                            repository.searchWords(query.text)
+                                    .onErrorReturn(throwable -> {
+                                        Log.e("ViewModel", "全文搜索失败", throwable);
+                                        return Collections.emptyList();
+                                    })
+                                    .map(words -> PagingData.from(words))
+                                    .toFlowable());
                 });
 
         // 从 Repository 获取 LiveData（连接数据源）
         this.weakWords = repository.getWeakWords();
-        this.wordCount = repository.getWordCount();
-        this.masteredWordCount = repository.getMasteredWordCount();
+        this.dashboardStats = LiveDataReactiveStreams.fromPublisher(
+                repository.getDashboardStats()
+                        .onErrorResumeNext(throwable -> {
+                            Log.e("ViewModel", "加载看板统计失败", throwable);
+                            return Flowable.empty();
+                        }));
+
+        // 设置 wordQuery 初始值为 null，触发 wordsByRoot 返回全部单词（分页）
+        this.wordQuery.setValue(null);
 
-        // 设置 rootQuery 初始值为 null，触发 wordsByRoot 返回空数据
-        this.rootQuery.setValue(null);
+        // 词根联想：防抖 → 去重 → switchMap 取消上一次尚未返回的联想
+        disposable.add(
+                rootInput
+                        .debounce(SUGGESTION_DEBOUNCE_MS, TimeUnit.MILLISECONDS)
+                        .map(String::trim)
+                        .distinctUntilChanged()
+                        .switchMapSingle(prefix -> repository.suggestMorphemes(prefix)
+                                .onErrorReturnItem(Collections.emptyList()))
+                        .observeOn(AndroidSchedulers.mainThread())
+                        .subscribe(
+                                morphemeSuggestions::setValue,
+                                throwable -> Log.e("ViewModel", "词根联想失败", throwable)
+                        )
+        );
     }
 
     // 公开方法（供Activity调用）
@@ -149,15 +231,13 @@ public class WordGraphViewModel extends AndroidViewModel {
         }
 
         // 2. 创建 WordNode 对象（内存操作，无IO）
+        // 词根列表留空，由 Repository 在写入前自动拆分
         WordNode newWord = new WordNode(word.trim().toLowerCase());
-        // 默认使用单词本身作为词根（后续可自动拆解）
-        newWord.setMorphemeList("[\"" + word + "\"]");
         newWord.setChineseMeaning(chineseMeaning != null ? chineseMeaning.trim() : "");
 
-        // 3. 调用 Repository 异步插入（后台线程）
+        // 3. 调用 Repository 异步插入（数据库写线程，由 Repository 指定）
         disposable.add(
                 repository.insertWord(newWord)
-                        .subscribeOn(Schedulers.io())   // IO线程执行
                         // observeOn：指定下游操作在哪里执行
                         .observeOn(AndroidSchedulers.mainThread())  // 结果回主线程
                         .subscribe(
@@ -177,23 +257,13 @@ public class WordGraphViewModel extends AndroidViewModel {
 
     /**
      * 复习单词
-     * 流程：更新记忆强度→重新计算复习时间→通知UI
+     * 流程：在IO线程的单个事务内读取强度→计算→列级写回→通知UI
      * @param word 要复习的单词
      * @param isCorrect 用户是否答对
      */
     public void reviewWord(String word, boolean isCorrect) {
-        // 1. 先查询单词（异步）
         disposable.add(
-                repository.getWordById(word)
-                        .subscribeOn(Schedulers.io())
-                        .observeOn(AndroidSchedulers.mainThread())
-                        .doOnSuccess(wordNode -> {
-                            // 在主线程更新内存状态
-                            wordNode.updateMemoryStrength(isCorrect);
-                        })
-                        .observeOn(Schedulers.io()) // 切换回IO线程
-                        // 扁平化：将 Completable 融入主键
-                        .flatMapCompletable(wordNode -> repository.updateWord(wordNode))
+                repository.reviewWord(word, isCorrect)
                         .observeOn(AndroidSchedulers.mainThread())
                         .subscribe(
                                 ()->wordReviewedEvent.call(),
@@ -224,18 +294,41 @@ public class WordGraphViewModel extends AndroidViewModel {
 
 
     /**
-     * 触发搜索：设置搜索条件
+     * 触发词根搜索：设置搜索条件
      * @param root 词根字符串
      */
     public void searchByRoot(String root) {
-        rootQuery.setValue(root);   // 触发 swtichMap 自动查询
+        wordQuery.setValue(new WordQuery(root, true));   // 触发 swtichMap 自动查询
+    }
+
+    /**
+     * 触发全文搜索（单词前缀、中文释义、词根）
+     * @param text 用户输入（可中英混合），为空时回到全部单词
+     */
+    public void searchWords(String text) {
+        wordQuery.setValue(new WordQuery(text, false));
+    }
+
+    /**
+     * 词根输入框内容变化（每次按键调用，主线程）
+     * @param text 当前输入
+     */
+    public void onRootInputChanged(String text) {
+        rootInput.onNext(text == null ? "" : text);
+    }
+
+    /**
+     * 获取词根联想结果：供 Fragment 观察
+     */
+    public LiveData<List<MorphemeCount>> getMorphemeSuggestions() {
+        return morphemeSuggestions;
     }
 
     /**
      * 获取搜索结果：供 Activity 观察
-     * @return LiveData<List<WordNode> 搜索结果（无需参数）
+     * @return 搜索结果的分页数据（无需参数）；搜索条件为空时为全部单词
      */
-    public LiveData<List<WordNode>> getWordsByRoot() {
+    public LiveData<PagingData<WordNode>> getWordsByRoot() {
         return wordsByRoot; // 返回 switchMap 生成的 LiveData
     }
 
@@ -246,7 +339,6 @@ public class WordGraphViewModel extends AndroidViewModel {
     public void updateWord(WordNode word) {
         disposable.add(
                 repository.updateWord(word)
-                        .subscribeOn(Schedulers.io())
                         .observeOn(AndroidSchedulers.mainThread())
                         .subscribe(
                                 () -> Log.d("ViewModel", "单词更新成功: " + word.getWord()),
@@ -263,16 +355,12 @@ public class WordGraphViewModel extends AndroidViewModel {
         return repository.getAllActiveWords();  // 直接转发 Repository 的数据
     }
 
-    public LiveData<Integer> getWordCount() {
-        return wordCount;
-    }
-
     public LiveData<List<WordNode>> getWeakWords() {
         return weakWords;
     }
 
-    public LiveData<Integer> getMasteredWordCount() {
-        return masteredWordCount;
+    public LiveData<DashboardStats> getDashboardStats() {
+        return dashboardStats;
     }
 
     public SingleLiveEvent<String> getErrorMessage() {
@@ -292,26 +380,30 @@ public class WordGraphViewModel extends AndroidViewModel {
      * 调用后自动加载第一个待复习单词
      */
     public void startReviewSession() {
+        repository.startReviewSession();
         reviewState.setValue(ReviewState.RECALLING);
         loadNextReviewWord();
     }
 
     /**
      * 加载下一个复习单词
-     * 自动从Repository获取最紧急的到期单词
+     * 优先从预取缓冲区直接取（无IO）；缓冲区为空时再异步加载最紧急的到期单词
      */
     private void loadNextReviewWord() {
+        ReviewCard prefetched = repository.pollPrefetchedReviewCard();
+        if (prefetched != null) {
+            showReviewCard(prefetched);
+            return;
+        }
+
         disposable.add(
-                repository.getNextReviewWord()
-                        .subscribeOn(Schedulers.io())
+                repository.loadNextReviewCard()
                         .observeOn(AndroidSchedulers.mainThread())
                         .subscribe(
-                                word -> {
+                                card -> {
                                     // ✅ onSuccess：成功拿到单词
-                                    if (word != null) {
-                                        currentReviewWord.setValue(word);
-                                        // 状态保持 RECALLING（由调用者设置）
-                                    }
+                                    // 状态保持 RECALLING（由调用者设置）
+                                    showReviewCard(card);
                                 },
                                 throwable -> {
                                     // ✅ onError：发生错误
@@ -323,14 +415,25 @@ public class WordGraphViewModel extends AndroidViewModel {
                                     // 没有更多到期单词，进入完成状态
                                     reviewState.setValue(ReviewState.COMPLETED);
                                     currentReviewWord.setValue(null);
+                                    currentReviewRelations.setValue(null);
+                                    repository.flushPendingReviews();
+                                    Log.d("ViewModel", "复习会话预取统计：" + repository.getReviewSessionStats());
+                                    Log.d("ViewModel", "单词缓存统计：" + repository.getWordCacheStats());
+                                    Log.d("ViewModel", "数据库线程统计：" + repository.getDatabaseExecutorStats());
                                 }
                         )
         );
     }
 
+    private void showReviewCard(ReviewCard card) {
+        currentReviewWord.setValue(card.getWord());
+        currentReviewRelations.setValue(card.getRelations());
+    }
+
 
     /**
      * 用户提交复习评分
+     * 写库与加载下一张卡并行：下一张卡通常已在预取缓冲区中，立即显示
      * @param quality 评分：0=忘记, 3=困难, 4=良好, 5=完美
      */
     public void submitReview(int quality) {
@@ -342,7 +445,6 @@ public class WordGraphViewModel extends AndroidViewModel {
 
         disposable.add(
                 repository.processReview(word.getWord(), quality)
-                        .subscribeOn(Schedulers.io())
                         .observeOn(AndroidSchedulers.mainThread())
                         .subscribe(
                                 () -> {
@@ -351,16 +453,16 @@ public class WordGraphViewModel extends AndroidViewModel {
 
                                     // ✅ 触发单词已复习事件（供其他Fragment刷新）
                                     wordReviewedEvent.call();
-
-                                    // ✅ 加载下一个单词
-                                    reviewState.setValue(ReviewState.RECALLING);  // 重置为回忆状态
-                                    loadNextReviewWord();
                                 },
                                 throwable -> {
                                     errorMessage.setValue("提交复习失败：" + throwable.getMessage());
                                 }
                         )
         );
+
+        // ✅ 不等写库完成，直接加载下一个单词
+        reviewState.setValue(ReviewState.RECALLING);  // 重置为回忆状态
+        loadNextReviewWord();
     }
 
     /**
@@ -376,7 +478,6 @@ public class WordGraphViewModel extends AndroidViewModel {
     private void loadDueReviewCount() {
         disposable.add(
                 repository.getDueReviewCount()
-                        .subscribeOn(Schedulers.io())
                         .observeOn(AndroidSchedulers.mainThread())
                         .subscribe(
                                 count -> dueReviewCount.setValue(count),
@@ -402,6 +503,61 @@ public class WordGraphViewModel extends AndroidViewModel {
         return currentReviewWord;
     }
 
+    public LiveData<List<MorphemeRelation>> getCurrentReviewRelations() {
+        return currentReviewRelations;
+    }
+
+    /**
+     * 获取本轮复习会话的预取统计（用于调整预取数量）
+     */
+    public ReviewSessionStats getReviewSessionStats() {
+        return repository.getReviewSessionStats();
+    }
+
+    /**
+     * 获取单词缓存的命中统计（用于调整缓存容量）
+     */
+    public WordCacheStats getWordCacheStats() {
+        return repository.getWordCacheStats();
+    }
+
+
+    /**
+     * 使用某个词根的全部单词（供详情页的词根网络图使用）
+     * @param morpheme 词根
+     */
+    public LiveData<List<WordNode>> getWordsByMorpheme(String morpheme) {
+        return repository.getWordsByMorpheme(morpheme);
+    }
+
+    /**
+     * 加载单词的两跳邻域，结果通过 getNeighbourRelations() 推送
+     * @param word 中心单词
+     */
+    public void loadMorphemeNeighbourhood(String word) {
+        disposable.add(
+                repository.getMorphemeNeighbourhood(word)
+                        .map(neighbours -> {
+                            List<MorphemeRelation> relations = new ArrayList<>(neighbours.size());
+                            for (MorphemeNeighbour neighbour : neighbours) {
+                                relations.add(neighbour.toRelation());
+                            }
+                            return relations;
+                        })
+                        .observeOn(AndroidSchedulers.mainThread())
+                        .subscribe(
+                                neighbourRelations::setValue,
+                                throwable -> Log.e("ViewModel", "加载词根邻域失败", throwable)
+                        )
+        );
+    }
+
+    /**
+     * 两跳邻域（供详情页的词根网络图追加显示）
+     */
+    public LiveData<List<MorphemeRelation>> getNeighbourRelations() {
+        return neighbourRelations;
+    }
 
     /**
      * 获取单个单词的 LiveData（供详情页使用）
@@ -419,6 +575,8 @@ public class WordGraphViewModel extends AndroidViewModel {
     @Override
     protected void onCleared(){
         super.onCleared();
+        // 提交尚未落库的评分
+        repository.flushPendingReviews();
         // 释放搜游异步任务
         if (!disposable.isDisposed()) {
             disposable.clear();
@@ -0,0 +1,221 @@
+package com.wcw.wordnet.ui.graph;
+
+import java.util.Arrays;
+
+/**
+ * Barnes–Hut 四叉树（力导向布局的斥力近似）
+ * 每轮迭代用全部节点的当前位置重建一次，O(n log n)；
+ * 计算某个节点受到的斥力时，离得足够远的整块区域（边长 / 距离 < θ）按其质心一次计算，
+ * 不必逐个节点两两求和（O(n²)）。
+ *
+ * 树节点放在平行数组中并在多轮之间复用，重建时不分配对象。
+ */
+final class BarnesHutTree {
+
+    /**
+     * 空叶子
+     */
+    private static final int EMPTY = -1;
+
+    /**
+     * 内部节点（有四个子节点）
+     */
+    private static final int INTERNAL = -2;
+
+    /**
+     * 最大深度：多个节点几乎重合时不再细分，作为一个整体参与计算
+     */
+    private static final int MAX_DEPTH = 24;
+
+    // 每个树节点：质心、质量、正方形区域（左上角与边长）、叶子中的节点编号或 EMPTY / INTERNAL
+    private float[] centerX;
+    private float[] centerY;
+    private float[] mass;
+    private float[] cellX;
+    private float[] cellY;
+    private float[] cellSize;
+    private int[] body;
+    private int[] firstChild;
+    private int size;
+
+    private int[] stack = new int[64];
+
+    BarnesHutTree() {
+        allocate(64);
+    }
+
+    /**
+     * 用节点当前位置重建树
+     */
+    void build(float[] x, float[] y, int n) {
+        float minX = Float.POSITIVE_INFINITY;
+        float minY = Float.POSITIVE_INFINITY;
+        float maxX = Float.NEGATIVE_INFINITY;
+        float maxY = Float.NEGATIVE_INFINITY;
+        for (int i = 0; i < n; i++) {
+            minX = Math.min(minX, x[i]);
+            minY = Math.min(minY, y[i]);
+            maxX = Math.max(maxX, x[i]);
+            maxY = Math.max(maxY, y[i]);
+        }
+        size = 0;
+        if (n == 0) return;
+        if (body.length < 4 * n + 1) {
+            allocate(4 * n + 1);
+        }
+        float extent = Math.max(Math.max(maxX - minX, maxY - minY), 1f) * 1.001f;
+        newCell(minX, minY, extent);
+        for (int i = 0; i < n; i++) {
+            insert(i, x[i], y[i]);
+        }
+    }
+
+    /**
+     * 累加节点 i 受到的斥力（大小 strength · m / d，方向远离对方）
+     * @param out out[0] += fx，out[1] += fy
+     */
+    void repulsion(int i, float x, float y, float theta, float strength, float[] out) {
+        if (size == 0) return;
+        float fx = 0;
+        float fy = 0;
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int cell = stack[--top];
+            if (mass[cell] == 0 || body[cell] == i) continue;
+            float dx = x - centerX[cell];
+            float dy = y - centerY[cell];
+            float distanceSq = dx * dx + dy * dy;
+            boolean leaf = body[cell] != INTERNAL;
+            if (leaf || cellSize[cell] * cellSize[cell] < theta * theta * distanceSq) {
+                if (distanceSq < 1e-4f) {
+                    // 与自己重合的整体（或完全重合的节点）：按编号错开一个固定方向
+                    if (leaf && body[cell] >= 0) {
+                        double angle = i * 2.399963;
+                        fx += (float) Math.cos(angle) * strength * mass[cell];
+                        fy += (float) Math.sin(angle) * strength * mass[cell];
+                    }
+                    continue;
+                }
+                // 方向 (dx, dy)/d，大小 strength·m/d → 分量 strength·m·dx/d²
+                float scale = strength * mass[cell] / distanceSq;
+                fx += dx * scale;
+                fy += dy * scale;
+            } else {
+                if (top + 4 > stack.length) {
+                    stack = Arrays.copyOf(stack, stack.length * 2);
+                }
+                int child = firstChild[cell];
+                stack[top++] = child;
+                stack[top++] = child + 1;
+                stack[top++] = child + 2;
+                stack[top++] = child + 3;
+            }
+        }
+        out[0] += fx;
+        out[1] += fy;
+    }
+
+    int cellCount() {
+        return size;
+    }
+
+    private void insert(int i, float x, float y) {
+        int cell = 0;
+        int depth = 0;
+        while (true) {
+            if (body[cell] == INTERNAL) {
+                addMass(cell, x, y, 1);
+                cell = quadrant(cell, x, y);
+                depth++;
+                continue;
+            }
+            if (mass[cell] == 0) {
+                body[cell] = i;
+                centerX[cell] = x;
+                centerY[cell] = y;
+                mass[cell] = 1;
+                return;
+            }
+            if (depth >= MAX_DEPTH) {
+                // 几乎重合：合并进同一个叶子
+                addMass(cell, x, y, 1);
+                return;
+            }
+            // 已有一个节点的叶子：细分，把原来的节点下移，再继续插入
+            int existing = body[cell];
+            float existingX = centerX[cell];
+            float existingY = centerY[cell];
+            float existingMass = mass[cell];
+            split(cell);
+            int target = quadrant(cell, existingX, existingY);
+            body[target] = existing;
+            centerX[target] = existingX;
+            centerY[target] = existingY;
+            mass[target] = existingMass;
+            body[cell] = INTERNAL;
+            centerX[cell] = existingX;
+            centerY[cell] = existingY;
+            mass[cell] = existingMass;
+        }
+    }
+
+    private void addMass(int cell, float x, float y, float m) {
+        float total = mass[cell] + m;
+        centerX[cell] = (centerX[cell] * mass[cell] + x * m) / total;
+        centerY[cell] = (centerY[cell] * mass[cell] + y * m) / total;
+        mass[cell] = total;
+    }
+
+    private void split(int cell) {
+        if (size + 4 > body.length) {
+            grow(body.length * 2);
+        }
+        float half = cellSize[cell] / 2;
+        firstChild[cell] = size;
+        newCell(cellX[cell], cellY[cell], half);
+        newCell(cellX[cell] + half, cellY[cell], half);
+        newCell(cellX[cell], cellY[cell] + half, half);
+        newCell(cellX[cell] + half, cellY[cell] + half, half);
+    }
+
+    private int quadrant(int cell, float x, float y) {
+        float half = cellSize[cell] / 2;
+        int index = (x >= cellX[cell] + half ? 1 : 0) + (y >= cellY[cell] + half ? 2 : 0);
+        return firstChild[cell] + index;
+    }
+
+    private void newCell(float x, float y, float extent) {
+        int cell = size++;
+        cellX[cell] = x;
+        cellY[cell] = y;
+        cellSize[cell] = extent;
+        centerX[cell] = 0;
+        centerY[cell] = 0;
+        mass[cell] = 0;
+        body[cell] = EMPTY;
+        firstChild[cell] = EMPTY;
+    }
+
+    private void allocate(int capacity) {
+        centerX = new float[capacity];
+        centerY = new float[capacity];
+        mass = new float[capacity];
+        cellX = new float[capacity];
+        cellY = new float[capacity];
+        cellSize = new float[capacity];
+        body = new int[capacity];
+        firstChild = new int[capacity];
+    }
+
+    private void grow(int capacity) {
+        centerX = Arrays.copyOf(centerX, capacity);
+        centerY = Arrays.copyOf(centerY, capacity);
+        mass = Arrays.copyOf(mass, capacity);
+        cellX = Arrays.copyOf(cellX, capacity);
+        cellY = Arrays.copyOf(cellY, capacity);
+        cellSize = Arrays.copyOf(cellSize, capacity);
+        body = Arrays.copyOf(body, capacity);
+        firstChild = Arrays.copyOf(firstChild, capacity);
+    }
+}
@@ -0,0 +1,186 @@
+package com.wcw.wordnet.ui.graph;
+
+import androidx.annotation.NonNull;
+
+import java.util.Arrays;
+
+/**
+ * 力导向布局（Fruchterman–Reingold + Barnes–Hut 近似）
+ * - 斥力：任意两点之间 k² / d，用 {@link BarnesHutTree} 近似，每轮 O(n log n)
+ * - 引力：每条边 d² / k，把相连的单词和词根拉近
+ * - 向心力：把各个连通分量拉向原点，避免互相漂远
+ * 每轮位移不超过当前“温度”，温度逐轮衰减，系统逐渐稳定；位移足够小时认为布局完成。
+ *
+ * 坐标是抽象的世界坐标，原点为中心，理想边长为 {@link #IDEAL_EDGE_LENGTH}；
+ * 映射到屏幕由 View 负责。本类不是线程安全的，只在布局线程上调用 step()。
+ */
+public final class ForceLayout {
+
+    /**
+     * 理想边长（世界坐标）
+     */
+    public static final float IDEAL_EDGE_LENGTH = 200f;
+
+    /**
+     * Barnes–Hut 近似阈值：区域边长 / 距离小于该值时整体计算
+     */
+    static final float THETA = 0.6f;
+
+    private static final float GRAVITY = 0.05f;
+    private static final float COOLING = 0.96f;
+    private static final int MAX_ITERATIONS = 600;
+
+    /**
+     * 所有节点的最大位移小于该值（世界坐标）时认为已经稳定
+     */
+    private static final float SETTLED_DISPLACEMENT = 0.5f;
+
+    private final int nodeCount;
+    private final int[] edgeFrom;
+    private final int[] edgeTo;
+    private final float[] x;
+    private final float[] y;
+    private final float[] forceX;
+    private final float[] forceY;
+    private final boolean[] pinned;
+    private final BarnesHutTree tree = new BarnesHutTree();
+    private final float[] force = new float[2];
+
+    private float temperature;
+    private int iteration;
+    private boolean settled;
+
+    /**
+     * @param nodeCount 节点数
+     * @param edgeFrom 边的一端（节点编号）
+     * @param edgeTo 边的另一端，与 edgeFrom 一一对应
+     */
+    public ForceLayout(int nodeCount, @NonNull int[] edgeFrom, @NonNull int[] edgeTo) {
+        if (edgeFrom.length != edgeTo.length) {
+            throw new IllegalArgumentException("edgeFrom 和 edgeTo 长度不一致");
+        }
+        this.nodeCount = nodeCount;
+        this.edgeFrom = edgeFrom;
+        this.edgeTo = edgeTo;
+        this.x = new float[nodeCount];
+        this.y = new float[nodeCount];
+        this.forceX = new float[nodeCount];
+        this.forceY = new float[nodeCount];
+        this.pinned = new boolean[nodeCount];
+        this.temperature = IDEAL_EDGE_LENGTH * Math.max(1f, (float) Math.sqrt(nodeCount) / 4f);
+
+        // 初始位置：黄金角螺旋，节点均匀铺开且结果确定
+        for (int i = 0; i < nodeCount; i++) {
+            double radius = IDEAL_EDGE_LENGTH * 0.5 * Math.sqrt(i + 0.5);
+            double angle = i * 2.399963229728653;
+            x[i] = (float) (radius * Math.cos(angle));
+            y[i] = (float) (radius * Math.sin(angle));
+        }
+    }
+
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * 设置节点的起始位置（例如沿用上一次布局的结果）
+     */
+    public void setPosition(int node, float px, float py) {
+        x[node] = px;
+        y[node] = py;
+    }
+
+    /**
+     * 固定节点（例如中心单词固定在原点），布局过程中不再移动
+     */
+    public void pin(int node, float px, float py) {
+        setPosition(node, px, py);
+        pinned[node] = true;
+    }
+
+    /**
+     * 设置起始温度（单轮最大位移）
+     * 在上一次布局结果的基础上追加节点时调低温度，已有节点只做小幅调整，不会被重新打乱
+     */
+    public void setTemperature(float temperature) {
+        this.temperature = temperature;
+    }
+
+    public boolean isSettled() {
+        return settled;
+    }
+
+    public int getIteration() {
+        return iteration;
+    }
+
+    /**
+     * 执行一轮迭代
+     * @return 是否还需要继续迭代
+     */
+    public boolean step() {
+        if (settled) return false;
+        Arrays.fill(forceX, 0);
+        Arrays.fill(forceY, 0);
+        float k = IDEAL_EDGE_LENGTH;
+
+        // 斥力（Barnes–Hut）+ 向心力
+        tree.build(x, y, nodeCount);
+        for (int i = 0; i < nodeCount; i++) {
+            force[0] = 0;
+            force[1] = 0;
+            tree.repulsion(i, x[i], y[i], THETA, k * k, force);
+            forceX[i] += force[0] - GRAVITY * x[i];
+            forceY[i] += force[1] - GRAVITY * y[i];
+        }
+
+        // 引力
+        for (int e = 0; e < edgeFrom.length; e++) {
+            int a = edgeFrom[e];
+            int b = edgeTo[e];
+            float dx = x[b] - x[a];
+            float dy = y[b] - y[a];
+            float distance = (float) Math.sqrt(dx * dx + dy * dy);
+            if (distance < 1e-3f) continue;
+            // 大小 d²/k，分量 d·dx/k
+            float scale = distance / k;
+            forceX[a] += dx * scale;
+            forceY[a] += dy * scale;
+            forceX[b] -= dx * scale;
+            forceY[b] -= dy * scale;
+        }
+
+        // 按温度限制位移
+        float maxDisplacement = 0;
+        for (int i = 0; i < nodeCount; i++) {
+            if (pinned[i]) continue;
+            float length = (float) Math.sqrt(forceX[i] * forceX[i] + forceY[i] * forceY[i]);
+            if (length < 1e-6f) continue;
+            float displacement = Math.min(length, temperature);
+            x[i] += forceX[i] / length * displacement;
+            y[i] += forceY[i] / length * displacement;
+            maxDisplacement = Math.max(maxDisplacement, displacement);
+        }
+
+        temperature *= COOLING;
+        iteration++;
+        settled = maxDisplacement < SETTLED_DISPLACEMENT || iteration >= MAX_ITERATIONS;
+        return !settled;
+    }
+
+    /**
+     * 复制当前位置
+     */
+    public void copyPositions(@NonNull float[] outX, @NonNull float[] outY) {
+        System.arraycopy(x, 0, outX, 0, nodeCount);
+        System.arraycopy(y, 0, outY, 0, nodeCount);
+    }
+
+    public float getX(int node) {
+        return x[node];
+    }
+
+    public float getY(int node) {
+        return y[node];
+    }
+}
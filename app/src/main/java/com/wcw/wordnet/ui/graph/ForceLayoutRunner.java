@@ -0,0 +1,116 @@
+package com.wcw.wordnet.ui.graph;
+
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 在后台线程上运行力导向布局，并把中间结果按帧推送给界面
+ * - 迭代在单独的低优先级线程上连续执行，UI 线程只接收位置快照
+ * - 每隔一帧左右（FRAME_INTERVAL_NANOS）发布一次当前位置，节点逐渐移动到稳定位置
+ * - 重新 start() 或 cancel() 会中断上一次布局；已经投递但尚未执行的旧结果按代号丢弃
+ */
+public class ForceLayoutRunner {
+
+    /**
+     * 发布间隔：约 60 帧/秒
+     */
+    static final long FRAME_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(16);
+
+    /**
+     * 所有图共用一个布局线程
+     */
+    private static final ExecutorService layoutExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "graph-layout");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+
+    /**
+     * 位置回调（在 callbackExecutor 上执行，通常是 UI 线程）
+     */
+    public interface Listener {
+        /**
+         * @param x 节点横坐标快照（世界坐标，接收方可以持有）
+         * @param y 节点纵坐标快照
+         * @param settled 布局是否已经稳定（最后一次回调）
+         */
+        void onLayout(@NonNull float[] x, @NonNull float[] y, boolean settled);
+    }
+
+    private final Executor workExecutor;
+    private final Executor callbackExecutor;
+    private final AtomicInteger generation = new AtomicInteger();
+    private Future<?> running;
+
+    /**
+     * @param callbackExecutor 回调线程（View 中传入 view::post）
+     */
+    public ForceLayoutRunner(@NonNull Executor callbackExecutor) {
+        this(layoutExecutor, callbackExecutor);
+    }
+
+    ForceLayoutRunner(@NonNull Executor workExecutor, @NonNull Executor callbackExecutor) {
+        this.workExecutor = workExecutor;
+        this.callbackExecutor = callbackExecutor;
+    }
+
+    /**
+     * 开始布局（取消上一次尚未完成的布局）
+     */
+    public synchronized void start(@NonNull ForceLayout layout, @NonNull Listener listener) {
+        cancel();
+        int token = generation.get();
+        Runnable task = () -> run(layout, listener, token);
+        if (workExecutor instanceof ExecutorService) {
+            running = ((ExecutorService) workExecutor).submit(task);
+        } else {
+            workExecutor.execute(task);
+        }
+    }
+
+    /**
+     * 取消当前布局，之后不会再收到它的回调
+     */
+    public synchronized void cancel() {
+        generation.incrementAndGet();
+        if (running != null) {
+            running.cancel(true);
+            running = null;
+        }
+    }
+
+    private void run(ForceLayout layout, Listener listener, int token) {
+        long lastPublish = System.nanoTime();
+        publish(layout, listener, token, false);
+        boolean moving = true;
+        while (moving) {
+            if (Thread.currentThread().isInterrupted() || generation.get() != token) return;
+            moving = layout.step();
+            long now = System.nanoTime();
+            if (moving && now - lastPublish >= FRAME_INTERVAL_NANOS) {
+                publish(layout, listener, token, false);
+                lastPublish = now;
+            }
+        }
+        publish(layout, listener, token, true);
+    }
+
+    private void publish(ForceLayout layout, Listener listener, int token, boolean settled) {
+        int n = layout.getNodeCount();
+        float[] x = new float[n];
+        float[] y = new float[n];
+        layout.copyPositions(x, y);
+        callbackExecutor.execute(() -> {
+            if (generation.get() == token) {
+                listener.onLayout(x, y, settled);
+            }
+        });
+    }
+}
@@ -0,0 +1,108 @@
+package com.wcw.wordnet.ui.graph;
+
+/**
+ * 世界坐标 → 屏幕坐标的变换：screen = world · scale + offset
+ * 默认自动缩放到能放下全部节点；用户缩放或拖动后保持用户的视角，直到 reset()
+ */
+public final class GraphCamera {
+
+    static final float MIN_SCALE = 0.02f;
+    static final float MAX_SCALE = 4f;
+
+    private float scale = 1f;
+    private float offsetX;
+    private float offsetY;
+    private boolean userControlled;
+
+    public float getScale() {
+        return scale;
+    }
+
+    public float getOffsetX() {
+        return offsetX;
+    }
+
+    public float getOffsetY() {
+        return offsetY;
+    }
+
+    /**
+     * 用户是否手动缩放或拖动过（此时不再自动适配）
+     */
+    public boolean isUserControlled() {
+        return userControlled;
+    }
+
+    /**
+     * 缩放并平移到能放下前 n 个节点
+     * @param padding 四周留白（像素）
+     * @param maxScale 最大放大倍数（节点很少时不会被放得过大）
+     */
+    public void fit(float[] x, float[] y, int n, int width, int height, float padding, float maxScale) {
+        if (n == 0 || width <= 0 || height <= 0) return;
+        float minX = Float.POSITIVE_INFINITY;
+        float minY = Float.POSITIVE_INFINITY;
+        float maxX = Float.NEGATIVE_INFINITY;
+        float maxY = Float.NEGATIVE_INFINITY;
+        for (int i = 0; i < n; i++) {
+            minX = Math.min(minX, x[i]);
+            minY = Math.min(minY, y[i]);
+            maxX = Math.max(maxX, x[i]);
+            maxY = Math.max(maxY, y[i]);
+        }
+        float fitted = Math.min(maxScale, Math.min(
+                (width - 2 * padding) / Math.max(1f, maxX - minX),
+                (height - 2 * padding) / Math.max(1f, maxY - minY)));
+        scale = clamp(fitted);
+        offsetX = width / 2f - (minX + maxX) / 2f * scale;
+        offsetY = height / 2f - (minY + maxY) / 2f * scale;
+    }
+
+    /**
+     * 以屏幕上的 (focusX, focusY) 为中心缩放，该点下的世界坐标保持不动
+     */
+    public void zoomBy(float factor, float focusX, float focusY) {
+        float next = clamp(scale * factor);
+        float applied = next / scale;
+        offsetX = focusX - (focusX - offsetX) * applied;
+        offsetY = focusY - (focusY - offsetY) * applied;
+        scale = next;
+        userControlled = true;
+    }
+
+    /**
+     * 平移（屏幕像素）
+     */
+    public void panBy(float dx, float dy) {
+        offsetX += dx;
+        offsetY += dy;
+        userControlled = true;
+    }
+
+    /**
+     * 恢复自动适配
+     */
+    public void reset() {
+        userControlled = false;
+    }
+
+    public float toScreenX(float worldX) {
+        return worldX * scale + offsetX;
+    }
+
+    public float toScreenY(float worldY) {
+        return worldY * scale + offsetY;
+    }
+
+    public float toWorldX(float screenX) {
+        return (screenX - offsetX) / scale;
+    }
+
+    public float toWorldY(float screenY) {
+        return (screenY - offsetY) / scale;
+    }
+
+    private static float clamp(float value) {
+        return Math.max(MIN_SCALE, Math.min(MAX_SCALE, value));
+    }
+}
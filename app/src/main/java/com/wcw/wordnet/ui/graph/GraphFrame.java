@@ -0,0 +1,145 @@
+package com.wcw.wordnet.ui.graph;
+
+import androidx.annotation.NonNull;
+
+/**
+ * 一帧要画的内容（与 Canvas 无关，可在 JVM 上测试）
+ * - 所有节点换算成屏幕坐标
+ * - 视口裁剪：只保留与屏幕相交的节点，以及包围盒与屏幕相交的边
+ * - 细节层次：缩小到一定程度后不画文字和位置标签
+ * 所有缓冲区在 setGraph() 时按图的大小一次分配，prepare() 不分配任何对象，
+ * 因此 onDraw 中每帧调用不会产生垃圾回收压力。
+ */
+public final class GraphFrame {
+
+    /**
+     * 缩放低于该值时不画节点文字
+     */
+    static final float LABEL_MIN_SCALE = 0.45f;
+
+    /**
+     * 缩放低于该值时不画前缀/词根/后缀标签
+     */
+    static final float TAG_MIN_SCALE = 0.75f;
+
+    private int nodeCount;
+    private int[] edgeFrom = new int[0];
+    private int[] edgeTo = new int[0];
+    private float[] halfWidth = new float[0];
+    private float[] halfHeight = new float[0];
+
+    private float[] screenX = new float[0];
+    private float[] screenY = new float[0];
+    private int[] visible = new int[0];
+    private int visibleCount;
+    private float[] lines = new float[0];
+    private int lineFloats;
+    private float scale;
+
+    /**
+     * 设置图结构并分配缓冲区
+     * @param halfWidth 每个节点的半宽（世界坐标，用于裁剪）
+     * @param halfHeight 每个节点的半高
+     */
+    public void setGraph(int nodeCount, @NonNull int[] edgeFrom, @NonNull int[] edgeTo,
+                         @NonNull float[] halfWidth, @NonNull float[] halfHeight) {
+        this.nodeCount = nodeCount;
+        this.edgeFrom = edgeFrom;
+        this.edgeTo = edgeTo;
+        this.halfWidth = halfWidth;
+        this.halfHeight = halfHeight;
+        this.screenX = new float[nodeCount];
+        this.screenY = new float[nodeCount];
+        this.visible = new int[nodeCount];
+        this.lines = new float[edgeFrom.length * 4];
+        this.visibleCount = 0;
+        this.lineFloats = 0;
+    }
+
+    /**
+     * 计算一帧（不分配内存）
+     * @param x 节点横坐标（世界坐标，长度不少于节点数）
+     * @param y 节点纵坐标
+     * @param width 视口宽度（像素）
+     * @param height 视口高度
+     */
+    public void prepare(@NonNull float[] x, @NonNull float[] y, @NonNull GraphCamera camera, int width, int height) {
+        scale = camera.getScale();
+        float offsetX = camera.getOffsetX();
+        float offsetY = camera.getOffsetY();
+
+        visibleCount = 0;
+        for (int i = 0; i < nodeCount; i++) {
+            float sx = x[i] * scale + offsetX;
+            float sy = y[i] * scale + offsetY;
+            screenX[i] = sx;
+            screenY[i] = sy;
+            float hw = halfWidth[i] * scale;
+            float hh = halfHeight[i] * scale;
+            if (sx + hw >= 0 && sx - hw <= width && sy + hh >= 0 && sy - hh <= height) {
+                visible[visibleCount++] = i;
+            }
+        }
+
+        lineFloats = 0;
+        for (int e = 0; e < edgeFrom.length; e++) {
+            float ax = screenX[edgeFrom[e]];
+            float ay = screenY[edgeFrom[e]];
+            float bx = screenX[edgeTo[e]];
+            float by = screenY[edgeTo[e]];
+            // 线段包围盒与屏幕不相交时跳过
+            if (Math.max(ax, bx) < 0 || Math.min(ax, bx) > width
+                    || Math.max(ay, by) < 0 || Math.min(ay, by) > height) {
+                continue;
+            }
+            lines[lineFloats++] = ax;
+            lines[lineFloats++] = ay;
+            lines[lineFloats++] = bx;
+            lines[lineFloats++] = by;
+        }
+    }
+
+    public float getScale() {
+        return scale;
+    }
+
+    public float getScreenX(int node) {
+        return screenX[node];
+    }
+
+    public float getScreenY(int node) {
+        return screenY[node];
+    }
+
+    /**
+     * 可见节点编号（升序），有效长度为 getVisibleCount()
+     */
+    @NonNull
+    public int[] getVisible() {
+        return visible;
+    }
+
+    public int getVisibleCount() {
+        return visibleCount;
+    }
+
+    /**
+     * 可见边的端点，每 4 个数一条线（可直接传给 Canvas.drawLines）
+     */
+    @NonNull
+    public float[] getLines() {
+        return lines;
+    }
+
+    public int getLineFloats() {
+        return lineFloats;
+    }
+
+    public boolean showLabels() {
+        return scale >= LABEL_MIN_SCALE;
+    }
+
+    public boolean showTags() {
+        return scale >= TAG_MIN_SCALE;
+    }
+}
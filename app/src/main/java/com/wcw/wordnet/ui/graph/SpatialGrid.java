@@ -0,0 +1,137 @@
+package com.wcw.wordnet.ui.graph;
+
+import java.util.Arrays;
+
+/**
+ * 节点的均匀网格索引（世界坐标），用于点击命中测试
+ * 每个节点按中心点放进一个格子，格子边长不小于最大节点尺寸，
+ * 因此一次点击只需检查所在格子及周围 3×3 个格子里的节点，平均 O(1)，不必遍历全部节点。
+ * 格子数按节点数封顶（节点分布很散时加大格子），内存 O(n)。
+ *
+ * 格子内容用 CSR 方式存储（cellStart + items），重建时复用数组。
+ */
+public final class SpatialGrid {
+
+    private float originX;
+    private float originY;
+    private float cellSize = 1f;
+    private int columns;
+    private int rows;
+    private int[] cellStart = new int[1];
+    private int[] items = new int[0];
+    private int[] cellOf = new int[0];
+
+    private float[] x;
+    private float[] y;
+    private float[] halfWidth;
+    private float[] halfHeight;
+    private int nodeCount;
+
+    /**
+     * 用当前位置重建索引
+     * @param halfWidth 每个节点可点击区域的半宽（世界坐标）
+     * @param halfHeight 每个节点可点击区域的半高
+     */
+    public void build(float[] x, float[] y, float[] halfWidth, float[] halfHeight, int n) {
+        this.x = x;
+        this.y = y;
+        this.halfWidth = halfWidth;
+        this.halfHeight = halfHeight;
+        this.nodeCount = n;
+        if (n == 0) {
+            columns = 0;
+            rows = 0;
+            return;
+        }
+
+        float minX = Float.POSITIVE_INFINITY;
+        float minY = Float.POSITIVE_INFINITY;
+        float maxX = Float.NEGATIVE_INFINITY;
+        float maxY = Float.NEGATIVE_INFINITY;
+        float maxExtent = 1f;
+        for (int i = 0; i < n; i++) {
+            minX = Math.min(minX, x[i]);
+            minY = Math.min(minY, y[i]);
+            maxX = Math.max(maxX, x[i]);
+            maxY = Math.max(maxY, y[i]);
+            maxExtent = Math.max(maxExtent, 2 * Math.max(halfWidth[i], halfHeight[i]));
+        }
+        float width = Math.max(1f, maxX - minX);
+        float height = Math.max(1f, maxY - minY);
+        // 格子不小于最大节点；格子总数不超过约 2n
+        cellSize = Math.max(maxExtent, (float) Math.sqrt(width * height / (2.0 * n)));
+        columns = (int) (width / cellSize) + 1;
+        rows = (int) (height / cellSize) + 1;
+        originX = minX;
+        originY = minY;
+
+        int cells = columns * rows;
+        if (cellStart.length < cells + 1) {
+            cellStart = new int[cells + 1];
+        } else {
+            Arrays.fill(cellStart, 0, cells + 1, 0);
+        }
+        if (items.length < n) {
+            items = new int[n];
+            cellOf = new int[n];
+        }
+        // 计数排序：先数每个格子的节点数，再按前缀和放置
+        for (int i = 0; i < n; i++) {
+            int cell = cell(column(x[i]), row(y[i]));
+            cellOf[i] = cell;
+            cellStart[cell + 1]++;
+        }
+        for (int c = 0; c < cells; c++) {
+            cellStart[c + 1] += cellStart[c];
+        }
+        for (int i = 0; i < n; i++) {
+            int cell = cellOf[i];
+            // 从格子末尾往前填
+            items[--cellStart[cell + 1]] = i;
+        }
+        // 上面的填充把 cellStart[c + 1] 退回到了格子 c 的起点，整体后移一位恢复
+        System.arraycopy(cellStart, 1, cellStart, 0, cells);
+        cellStart[cells] = n;
+    }
+
+    /**
+     * 命中测试：点落在哪个节点的区域内
+     * @return 区域包含该点的节点中，中心离该点最近的一个；没有命中返回 -1
+     */
+    public int hit(float px, float py) {
+        if (nodeCount == 0) return -1;
+        int column = column(px);
+        int row = row(py);
+        int best = -1;
+        float bestDistance = Float.POSITIVE_INFINITY;
+        for (int r = Math.max(0, row - 1); r <= Math.min(rows - 1, row + 1); r++) {
+            for (int c = Math.max(0, column - 1); c <= Math.min(columns - 1, column + 1); c++) {
+                int cell = cell(c, r);
+                for (int k = cellStart[cell]; k < cellStart[cell + 1]; k++) {
+                    int i = items[k];
+                    float dx = px - x[i];
+                    float dy = py - y[i];
+                    if (Math.abs(dx) > halfWidth[i] || Math.abs(dy) > halfHeight[i]) continue;
+                    float distance = dx * dx + dy * dy;
+                    if (distance < bestDistance) {
+                        bestDistance = distance;
+                        best = i;
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    private int column(float px) {
+        return (int) Math.max(-1, Math.min(columns, Math.floor((px - originX) / cellSize)));
+    }
+
+    private int row(float py) {
+        return (int) Math.max(-1, Math.min(rows, Math.floor((py - originY) / cellSize)));
+    }
+
+    private int cell(int column, int row) {
+        return Math.max(0, Math.min(rows - 1, row)) * columns + Math.max(0, Math.min(columns - 1, column));
+    }
+}
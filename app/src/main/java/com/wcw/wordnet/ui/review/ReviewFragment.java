@@ -15,7 +15,9 @@ import androidx.lifecycle.ViewModelProvider;
 import com.wcw.wordnet.BuildConfig;
 import com.wcw.wordnet.data.local.dao.ReviewQueueDao;
 import com.wcw.wordnet.data.local.database.AppDatabase;
+import com.wcw.wordnet.data.local.database.DatabaseSchedulers;
 import com.wcw.wordnet.databinding.FragmentReviewBinding;
+import com.wcw.wordnet.model.entity.MorphemeRelation;
 import com.wcw.wordnet.model.entity.ReviewQueue;
 import com.wcw.wordnet.model.entity.WordNode;
 import com.wcw.wordnet.ui.WordGraphViewModel;
@@ -26,7 +28,6 @@ import java.util.List;
 import io.reactivex.Completable;
 import io.reactivex.android.schedulers.AndroidSchedulers;
 import io.reactivex.disposables.CompositeDisposable;
-import io.reactivex.schedulers.Schedulers;
 
 /**
  * 复习Fragment（重构后）
@@ -166,6 +167,13 @@ public class ReviewFragment extends Fragment {
             }
         });
 
+        // 2.1 观察预取的词根关系（有则按位置顺序显示，覆盖 morphemeList 字符串）
+        viewModel.getCurrentReviewRelations().observe(getViewLifecycleOwner(), relations -> {
+            if (relations != null && !relations.isEmpty()) {
+                binding.tvMorphemes.setText(formatRelations(relations));
+            }
+        });
+
         // 3. 观察错误消息
         viewModel.getErrorMessage().observe(getViewLifecycleOwner(), message -> {
             if (message != null) {
@@ -252,6 +260,18 @@ public class ReviewFragment extends Fragment {
                 .replace(",", " + ");
     }
 
+    /**
+     * 格式化预取的词根关系，如 re + struct + tion
+     */
+    private String formatRelations(List<MorphemeRelation> relations) {
+        StringBuilder builder = new StringBuilder();
+        for (MorphemeRelation relation : relations) {
+            if (builder.length() > 0) builder.append(" + ");
+            builder.append(relation.getMorpheme());
+        }
+        return builder.toString();
+    }
+
     /**
      * ✅ 测试专用：重置所有单词的复习时间为"现在"
      */
@@ -276,7 +296,7 @@ public class ReviewFragment extends Fragment {
 
                             Log.d("ReviewFragment", "✅ 重置完成，共 " + allItems.size() + " 个单词");
                         })
-                        .subscribeOn(Schedulers.io())
+                        .subscribeOn(DatabaseSchedulers.writer())
                         .observeOn(AndroidSchedulers.mainThread())
                         .subscribe(
                                 () -> {
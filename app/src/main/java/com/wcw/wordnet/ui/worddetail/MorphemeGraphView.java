@@ -3,21 +3,45 @@ package com.wcw.wordnet.ui.worddetail;
 import android.content.Context;
 import android.graphics.Canvas;
 import android.graphics.Paint;
-import android.graphics.PointF;
 import android.util.AttributeSet;
+import android.view.GestureDetector;
+import android.view.HapticFeedbackConstants;
+import android.view.MotionEvent;
+import android.view.ScaleGestureDetector;
 import android.view.View;
 
+import androidx.annotation.NonNull;
+
 import com.wcw.wordnet.model.entity.MorphemeRelation;
-import com.wcw.wordnet.model.entity.WordNode;
+import com.wcw.wordnet.ui.graph.ForceLayout;
+import com.wcw.wordnet.ui.graph.ForceLayoutRunner;
+import com.wcw.wordnet.ui.graph.GraphCamera;
+import com.wcw.wordnet.ui.graph.GraphFrame;
+import com.wcw.wordnet.ui.graph.SpatialGrid;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * 词根网络可视化自定义 View
  * 绘制词根节点和单词节点的连接关系
+ * 节点位置由后台线程上的力导向布局（ForceLayout，Barnes–Hut 近似）计算，
+ * 布局过程中每帧收到一次位置快照并重绘，几百上千个节点也不会阻塞 UI 线程
+ *
+ * 绘制路径面向大图：onDraw 不分配任何对象
+ * - 节点位置、尺寸、文字宽度都在 setData() 时算好存进基本类型数组
+ * - 每帧由 GraphFrame 换算屏幕坐标并按视口裁剪，边一次 drawLines 画完
+ * - 细节层次：缩小后不画文字和位置标签
+ * - 双指缩放、单指拖动，双击恢复自动适配
+ * - 点击 / 长按节点：用网格索引（SpatialGrid）做命中测试，回调 OnNodeClickListener
+ *
+ * 渐进显示：setData() 先画出中心单词和它的词根，邻域（共用词根的其他单词）查询返回后
+ * 由 addRelations() 追加，已有节点保持当前位置，布局从当前状态低温继续
  */
 public class MorphemeGraphView extends View {
     private Paint morphemePaint;
@@ -33,9 +57,79 @@ public class MorphemeGraphView extends View {
     private Paint positionPaint;
     private Paint positionTextPaint;
 
-    private List<MorphemeRelation> relations = new ArrayList<>();
-    private Map<String, PointF> nodePositions = new HashMap<>();
+    // 图结构：节点 0..wordCount-1 为单词，之后为词根
+    private String[] labels = new String[0];
+    private int[] morphemePositions = new int[0];  // 词根节点的位置类型（前缀/词根/后缀）
+    private int wordCount;
+    private int[] edgeFrom = new int[0];
+    private int[] edgeTo = new int[0];
     private String centerWord;
+    private final List<MorphemeRelation> relations = new ArrayList<>();
+    private Map<String, Integer> wordIndex = new HashMap<>();
+    private Map<String, Integer> morphemeIndex = new HashMap<>();  // 值为词根序号（节点编号减 wordCount）
+
+    // 布局线程推送的最新位置（世界坐标），尚未收到时为 null
+    private float[] nodeX;
+    private float[] nodeY;
+    private boolean layoutSettled;
+
+    /**
+     * 力导向布局在后台线程上运行，中间结果通过 post 回到 UI 线程
+     */
+    private final ForceLayoutRunner layoutRunner = new ForceLayoutRunner(this::post);
+
+    /**
+     * 边距与最大放大倍数（节点很少时不会被放得过大）
+     */
+    private static final float PADDING = 100f;
+    private static final float MAX_SCALE = 1.5f;
+
+    /**
+     * 追加节点后继续布局的起始温度：新节点能移动到位，已有节点只做小幅调整
+     */
+    private static final float WARM_START_TEMPERATURE = ForceLayout.IDEAL_EDGE_LENGTH / 4;
+
+    /**
+     * 节点尺寸（世界坐标，随缩放变化）
+     */
+    private static final float TEXT_SIZE = 40f;
+    private static final float MORPHEME_RADIUS = 60f;
+    private static final float WORD_HALF_WIDTH = 100f;
+    private static final float WORD_HALF_HEIGHT = 50f;
+    private static final float TAG_OFFSET = 80f;
+
+    private static final String[] POSITION_LABELS = {"前缀", "词根", "后缀", "未知"};
+    private final float[] positionLabelWidths = new float[POSITION_LABELS.length];
+
+    private final GraphCamera camera = new GraphCamera();
+    private final GraphFrame frame = new GraphFrame();
+    private float[] halfWidths = new float[0];  // 单词矩形按文字宽度加宽
+    private float[] halfHeights = new float[0];
+
+    /**
+     * 点击命中测试用的网格索引；布局位置变化后标记为过期，下次点击时重建
+     */
+    private final SpatialGrid hitGrid = new SpatialGrid();
+    private boolean hitGridDirty = true;
+    private OnNodeClickListener nodeClickListener;
+
+    /**
+     * 节点点击回调（UI 线程）
+     */
+    public interface OnNodeClickListener {
+        void onWordClick(String word);
+
+        void onMorphemeClick(String morpheme);
+
+        /**
+         * 长按节点（缩小后文字被隐藏时，用来确认是哪个节点）
+         * @param label 单词或词根
+         * @param isWord 是否为单词节点
+         */
+        default void onNodeLongClick(String label, boolean isWord) {}
+    }
+    private ScaleGestureDetector scaleDetector;
+    private GestureDetector gestureDetector;
 
     public MorphemeGraphView(Context context) {
         super(context);
@@ -94,86 +188,341 @@ public class MorphemeGraphView extends View {
         positionTextPaint.setColor(0xFFFFFFFF);  // 白色
         positionTextPaint.setTextSize(24f);
         positionTextPaint.setTextAlign(Paint.Align.CENTER);
+        for (int i = 0; i < POSITION_LABELS.length; i++) {
+            positionLabelWidths[i] = positionTextPaint.measureText(POSITION_LABELS[i]);
+        }
+
+        // 双指缩放（以手指中点为中心）
+        scaleDetector = new ScaleGestureDetector(getContext(),
+                new ScaleGestureDetector.SimpleOnScaleGestureListener() {
+                    @Override
+                    public boolean onScale(@NonNull ScaleGestureDetector detector) {
+                        camera.zoomBy(detector.getScaleFactor(), detector.getFocusX(), detector.getFocusY());
+                        invalidate();
+                        return true;
+                    }
+                });
+        // 单指拖动；双击恢复自动适配
+        gestureDetector = new GestureDetector(getContext(), new GestureDetector.SimpleOnGestureListener() {
+            @Override
+            public boolean onDown(@NonNull MotionEvent e) {
+                return true;
+            }
+
+            @Override
+            public boolean onScroll(MotionEvent e1, @NonNull MotionEvent e2, float distanceX, float distanceY) {
+                camera.panBy(-distanceX, -distanceY);
+                invalidate();
+                return true;
+            }
+
+            @Override
+            public boolean onSingleTapConfirmed(@NonNull MotionEvent e) {
+                int node = hitTest(e.getX(), e.getY());
+                if (node < 0 || nodeClickListener == null) return false;
+                performClick();
+                if (node < wordCount) {
+                    nodeClickListener.onWordClick(labels[node]);
+                } else {
+                    nodeClickListener.onMorphemeClick(labels[node]);
+                }
+                return true;
+            }
+
+            @Override
+            public void onLongPress(@NonNull MotionEvent e) {
+                int node = hitTest(e.getX(), e.getY());
+                if (node < 0 || nodeClickListener == null) return;
+                performHapticFeedback(HapticFeedbackConstants.LONG_PRESS);
+                nodeClickListener.onNodeLongClick(labels[node], node < wordCount);
+            }
+
+            @Override
+            public boolean onDoubleTap(@NonNull MotionEvent e) {
+                camera.reset();
+                invalidate();
+                return true;
+            }
+        });
     }
 
     /**
-     * 设置数据并刷新视图
+     * 设置数据并开始布局
+     * relations 可以只包含中心单词自己的词根，也可以包含其邻域中其他单词的词根关系：
+     * 每个不同的单词、每个不同的词根各是一个节点，每条关系是一条边，中心单词固定在中央
      */
     public void setData(String centerWord, List<MorphemeRelation> relations) {
         this.centerWord = centerWord;
-        this.relations = relations;
-        calculatePositions();
+        this.relations.clear();
+        this.relations.addAll(relations);
+        buildGraph(centerWord, this.relations);
+        nodeX = null;
+        nodeY = null;
+        layoutSettled = false;
+        camera.reset();
+        startLayout(null, null);
         invalidate();  // 重绘
     }
 
     /**
-     * 计算节点位置（简单环形布局）
+     * 追加关系（例如中心单词的两跳邻域），渐进显示
+     * 已有节点沿用当前位置；新节点放在与它相连的已有节点旁边，布局以较低温度继续，
+     * 图不会被整体打乱。已经存在的单词—词根边会被忽略。
      */
-    private void calculatePositions() {
-        nodePositions.clear();
+    public void addRelations(List<MorphemeRelation> more) {
+        if (more == null || more.isEmpty()) return;
+        String[] oldLabels = labels;
+        int oldWordCount = wordCount;
+        Map<String, Integer> oldWordIndex = wordIndex;
+        Map<String, Integer> oldMorphemeIndex = morphemeIndex;
+        float[] oldX = nodeX;
+        float[] oldY = nodeY;
+
+        relations.addAll(more);
+        buildGraph(centerWord, relations);
+        if (labels.length == oldLabels.length) return;  // 没有新节点
+        layoutSettled = false;
+        if (oldX == null || oldX.length != oldLabels.length) {
+            // 第一次布局还没有推送过位置，直接重新开始
+            nodeX = null;
+            nodeY = null;
+            startLayout(null, null);
+            return;
+        }
 
-        int width = getWidth();
-        int height = getHeight();
-        if (width == 0 || height == 0) return;
+        // 已有节点：按名字找到旧编号，沿用位置
+        int n = labels.length;
+        float[] seedX = new float[n];
+        float[] seedY = new float[n];
+        boolean[] placed = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            Integer old = i < wordCount
+                    ? oldWordIndex.get(labels[i])
+                    : offset(oldMorphemeIndex.get(labels[i]), oldWordCount);
+            if (old != null) {
+                seedX[i] = oldX[old];
+                seedY[i] = oldY[old];
+                placed[i] = true;
+            }
+        }
+        // 新节点：放在第一个已有邻居周围一个理想边长处，按黄金角错开；只连到新节点的再放一轮
+        boolean progress = true;
+        while (progress) {
+            progress = false;
+            for (int e = 0; e < edgeFrom.length; e++) {
+                int a = edgeFrom[e];
+                int b = edgeTo[e];
+                if (placed[a] == placed[b]) continue;
+                int fresh = placed[a] ? b : a;
+                int anchor = placed[a] ? a : b;
+                double angle = fresh * 2.399963229728653;
+                seedX[fresh] = seedX[anchor] + (float) (ForceLayout.IDEAL_EDGE_LENGTH * Math.cos(angle));
+                seedY[fresh] = seedY[anchor] + (float) (ForceLayout.IDEAL_EDGE_LENGTH * Math.sin(angle));
+                placed[fresh] = true;
+                progress = true;
+            }
+        }
+        // 新位置先显示出来，不必等布局线程的第一帧（布局只读取这两个数组，不会修改）
+        nodeX = seedX;
+        nodeY = seedY;
+        hitGridDirty = true;
+        startLayout(seedX, seedY);
+        invalidate();
+    }
 
-        // 中心单词在中心
-        PointF center = new PointF(width / 2f, height / 2f);
-        nodePositions.put(centerWord, center);
+    private static Integer offset(Integer index, int by) {
+        return index == null ? null : index + by;
+    }
 
-        // 词根围绕中心单词
-        int count = relations.size();
-        float radius = Math.min(width, height) * 0.4f;
+    /**
+     * 把词根关系转换成节点和边
+     */
+    private void buildGraph(String centerWord, List<MorphemeRelation> relations) {
+        wordIndex = new HashMap<>();
+        morphemeIndex = new HashMap<>();
+        Set<Long> seenEdges = new HashSet<>();
+        List<String> words = new ArrayList<>();
+        List<String> morphemes = new ArrayList<>();
+        List<Integer> positions = new ArrayList<>();
+        if (centerWord != null) {
+            wordIndex.put(centerWord, 0);
+            words.add(centerWord);
+        }
+        int[] from = new int[relations.size()];
+        int[] to = new int[relations.size()];
+        int edges = 0;
+        for (MorphemeRelation relation : relations) {
+            String word = relation.getWordId() != null ? relation.getWordId() : centerWord;
+            String morpheme = relation.getMorpheme();
+            if (word == null || morpheme == null) continue;
+            Integer w = wordIndex.get(word);
+            if (w == null) {
+                w = words.size();
+                wordIndex.put(word, w);
+                words.add(word);
+            }
+            Integer m = morphemeIndex.get(morpheme);
+            if (m == null) {
+                m = morphemes.size();
+                morphemeIndex.put(morpheme, m);
+                morphemes.add(morpheme);
+                positions.add(relation.getPosition());
+            }
+            if (!seenEdges.add(((long) w << 32) | m)) continue;  // 重复的边
+            from[edges] = w;
+            to[edges] = m;
+            edges++;
+        }
+
+        wordCount = words.size();
+        labels = new String[wordCount + morphemes.size()];
+        morphemePositions = new int[labels.length];
+        for (int i = 0; i < wordCount; i++) {
+            labels[i] = words.get(i);
+        }
+        for (int i = 0; i < morphemes.size(); i++) {
+            labels[wordCount + i] = morphemes.get(i);
+            morphemePositions[wordCount + i] = positions.get(i);
+        }
+        edgeFrom = Arrays.copyOf(from, edges);
+        edgeTo = Arrays.copyOf(to, edges);
+        for (int e = 0; e < edges; e++) {
+            edgeTo[e] += wordCount;
+        }
+
+        // 文字宽度只在这里测量一次；尺寸用于绘制和视口裁剪
+        textPaint.setTextSize(TEXT_SIZE);
+        halfWidths = new float[labels.length];
+        halfHeights = new float[labels.length];
+        for (int i = 0; i < labels.length; i++) {
+            if (i < wordCount) {
+                halfWidths[i] = Math.max(WORD_HALF_WIDTH, textPaint.measureText(labels[i]) / 2 + 20f);
+                halfHeights[i] = WORD_HALF_HEIGHT;
+            } else {
+                halfWidths[i] = MORPHEME_RADIUS;
+                // 上方的位置标签也算在内
+                halfHeights[i] = TAG_OFFSET + 15f;
+            }
+        }
+        frame.setGraph(labels.length, edgeFrom, edgeTo, halfWidths, halfHeights);
+        hitGridDirty = true;
+    }
 
-        for (int i = 0; i < count; i++) {
-            MorphemeRelation relation = relations.get(i);
-            float angle = (float) (i * 2 * Math.PI / count - Math.PI / 2);
-            float x = center.x + (float) (radius * Math.cos(angle));
-            float y = center.y + (float) (radius * Math.sin(angle));
-            nodePositions.put(relation.getMorpheme(), new PointF(x, y));
+    /**
+     * 在后台线程上运行力导向布局，每帧推送一次位置
+     * @param seedX 起始位置（在上一次布局的基础上继续），为 null 时从头布局
+     * @param seedY 起始位置纵坐标
+     */
+    private void startLayout(float[] seedX, float[] seedY) {
+        ForceLayout layout = new ForceLayout(labels.length, edgeFrom, edgeTo);
+        if (seedX != null) {
+            for (int i = 0; i < labels.length; i++) {
+                layout.setPosition(i, seedX[i], seedY[i]);
+            }
+            layout.setTemperature(WARM_START_TEMPERATURE);
+        }
+        if (centerWord != null && labels.length > 0) {
+            layout.pin(0, 0f, 0f);
         }
+        layoutRunner.start(layout, (x, y, settled) -> {
+            nodeX = x;
+            nodeY = y;
+            layoutSettled = settled;
+            hitGridDirty = true;
+            invalidate();
+        });
     }
 
     @Override
     protected void onDraw(Canvas canvas) {
         super.onDraw(canvas);
 
-        if (nodePositions.isEmpty()) return;
+        float[] x = nodeX;
+        float[] y = nodeY;
+        if (x == null || x.length != labels.length || labels.length == 0) return;
 
-        // 1. 绘制连接线
-        for (MorphemeRelation relation : relations) {
-            PointF wordPos = nodePositions.get(centerWord);
-            PointF morphemePos = nodePositions.get(relation.getMorpheme());
-            if (wordPos != null && morphemePos != null) {
-                canvas.drawLine(wordPos.x, wordPos.y, morphemePos.x, morphemePos.y, linePaint);
-            }
+        // 世界坐标 → 屏幕坐标；用户没有手动缩放拖动时自动放下全部节点
+        if (!camera.isUserControlled()) {
+            camera.fit(x, y, x.length, getWidth(), getHeight(), PADDING, MAX_SCALE);
         }
+        frame.prepare(x, y, camera, getWidth(), getHeight());
+        float scale = frame.getScale();
+        boolean showLabels = frame.showLabels();
+        boolean showTags = frame.showTags();
+        textPaint.setTextSize(TEXT_SIZE * scale);
+        int[] visible = frame.getVisible();
+        int visibleCount = frame.getVisibleCount();
+
+        // 1. 绘制连接线（已裁剪，一次画完）
+        canvas.drawLines(frame.getLines(), 0, frame.getLineFloats(), linePaint);
 
         // 2. 绘制词根节点（圆形）
-        for (MorphemeRelation relation : relations) {
-            PointF pos = nodePositions.get(relation.getMorpheme());
-            if (pos != null) {
-                // 根据 position 选择画笔
-                Paint nodePaint = getPaintByPosition(relation.getPosition());
-                canvas.drawCircle(pos.x, pos.y, 60f, nodePaint);
+        for (int k = 0; k < visibleCount; k++) {
+            int i = visible[k];
+            if (i < wordCount) continue;
+            float px = frame.getScreenX(i);
+            float py = frame.getScreenY(i);
+            // 根据 position 选择画笔
+            canvas.drawCircle(px, py, MORPHEME_RADIUS * scale, getPaintByPosition(morphemePositions[i]));
+
+            // 绘制词根文字
+            if (showLabels) {
+                canvas.drawText(labels[i], px, py + 15f * scale, textPaint);
+            }
 
-                // 绘制词根文字
-                canvas.drawText(relation.getMorpheme(), pos.x, pos.y + 15f, textPaint);
+            // ✅ 绘制位置标签（前缀/词根/后缀）
+            if (showTags) {
+                drawPositionLabel(canvas, morphemePositions[i], px, py - TAG_OFFSET * scale);
+            }
+        }
 
-                // ✅ 绘制位置标签（前缀/词根/后缀）
-                drawPositionLabel(canvas, relation.getPosition(), pos.x, pos.y - 80f);
+        // 3. 绘制单词（矩形），中心单词最后画在最上层
+        for (int k = visibleCount - 1; k >= 0; k--) {
+            int i = visible[k];
+            if (i >= wordCount) continue;
+            float px = frame.getScreenX(i);
+            float py = frame.getScreenY(i);
+            float halfWidth = halfWidths[i] * scale;
+            float halfHeight = WORD_HALF_HEIGHT * scale;
+            canvas.drawRect(px - halfWidth, py - halfHeight, px + halfWidth, py + halfHeight, wordPaint);
+            if (showLabels) {
+                canvas.drawText(labels[i], px, py + 15f * scale, textPaint);
             }
         }
+    }
+
+    /**
+     * 设置节点点击回调
+     */
+    public void setOnNodeClickListener(OnNodeClickListener listener) {
+        this.nodeClickListener = listener;
+    }
+
+    /**
+     * 屏幕坐标处的节点
+     * @return 节点编号，没有命中返回 -1
+     */
+    private int hitTest(float screenX, float screenY) {
+        float[] x = nodeX;
+        float[] y = nodeY;
+        if (x == null || x.length != labels.length) return -1;
+        if (hitGridDirty) {
+            hitGrid.build(x, y, halfWidths, halfHeights, x.length);
+            hitGridDirty = false;
+        }
+        return hitGrid.hit(camera.toWorldX(screenX), camera.toWorldY(screenY));
+    }
 
-        // 3. 绘制中心单词（矩形）
-        PointF wordPos = nodePositions.get(centerWord);
-        if (wordPos != null) {
-            canvas.drawRect(
-                    wordPos.x - 100f, wordPos.y - 50f,
-                    wordPos.x + 100f, wordPos.y + 50f,
-                    wordPaint
-            );
-            canvas.drawText(centerWord, wordPos.x, wordPos.y + 15f, textPaint);
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        if (labels.length == 0) return super.onTouchEvent(event);
+        if (event.getActionMasked() == MotionEvent.ACTION_DOWN) {
+            // 在滚动容器中：拖动和缩放交给图本身
+            getParent().requestDisallowInterceptTouchEvent(true);
         }
+        boolean handled = scaleDetector.onTouchEvent(event);
+        handled |= gestureDetector.onTouchEvent(event);
+        return handled || super.onTouchEvent(event);
     }
 
     private Paint getPaintByPosition(int position) {
@@ -186,15 +535,10 @@ public class MorphemeGraphView extends View {
     }
 
     private void drawPositionLabel(Canvas canvas, int position, float x, float y) {
-        String label;
-        switch (position) {
-            case 0: label = "前缀"; break;
-            case 1: label = "词根"; break;
-            case 2: label = "后缀"; break;
-            default: label = "未知"; break;
-        }
-        // 绘制标签背景（圆角矩形）
-        float labelWidth = positionTextPaint.measureText(label);
+        int index = position >= 0 && position < 3 ? position : 3;
+        String label = POSITION_LABELS[index];
+        // 绘制标签背景（圆角矩形），文字宽度在 init() 中测量过
+        float labelWidth = positionLabelWidths[index];
         canvas.drawRoundRect(
                 x - labelWidth/2 - 10f, y - 15f,
                 x + labelWidth/2 + 10f, y + 15f,
@@ -208,6 +552,25 @@ public class MorphemeGraphView extends View {
     @Override
     protected void onSizeChanged(int w, int h, int oldw, int oldh) {
         super.onSizeChanged(w, h, oldw, oldh);
-        calculatePositions();
+        // 布局使用世界坐标，尺寸变化只影响绘制时的缩放
+        invalidate();
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        // 上次布局在离开窗口时被取消，重新开始
+        if (!layoutSettled && labels.length > 0) {
+            float[] x = nodeX;
+            float[] y = nodeY;
+            boolean resume = x != null && x.length == labels.length;
+            startLayout(resume ? x : null, resume ? y : null);
+        }
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        layoutRunner.cancel();
     }
 }
\ No newline at end of file
@@ -1,7 +1,13 @@
 package com.wcw.wordnet.ui.worddetail;
 
+import android.content.Intent;
 import android.os.Bundle;
+import android.widget.Toast;
+
+import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.Observer;
 import androidx.lifecycle.ViewModelProvider;
 
 import com.wcw.wordnet.databinding.ActivityWordDetailBinding;
@@ -10,10 +16,11 @@ import com.wcw.wordnet.model.entity.WordNode;
 import com.wcw.wordnet.ui.WordGraphViewModel;
 
 import java.util.ArrayList;
+import java.util.List;
 
 /**
  * 单词详情页面
- * 展示词根网络可视化
+ * 展示词根网络可视化：单词 → 词根 → 共用词根的其他单词（两跳邻域）
  */
 public class WordDetailActivity extends AppCompatActivity {
     private ActivityWordDetailBinding binding;
@@ -35,10 +42,70 @@ public class WordDetailActivity extends AppCompatActivity {
             return;
         }
 
+        // 点击图中的节点：单词 → 打开它的详情，词根 → 列出使用它的单词
+        binding.morphemeGraphView.setOnNodeClickListener(new MorphemeGraphView.OnNodeClickListener() {
+            @Override
+            public void onWordClick(String clicked) {
+                if (!clicked.equals(word)) {
+                    openWordDetail(clicked);
+                }
+            }
+
+            @Override
+            public void onMorphemeClick(String morpheme) {
+                showWordsOfMorpheme(morpheme);
+            }
+
+            @Override
+            public void onNodeLongClick(String label, boolean isWord) {
+                Toast.makeText(WordDetailActivity.this,
+                        (isWord ? "单词: " : "词根: ") + label, Toast.LENGTH_SHORT).show();
+            }
+        });
+
+        // 邻域查询返回后追加到图中（先显示单词自己的词根，不等待邻域）
+        viewModel.getNeighbourRelations().observe(this, neighbours -> {
+            if (neighbours != null) {
+                binding.morphemeGraphView.addRelations(neighbours);
+            }
+        });
+
         // 加载单词信息和词根关系
         loadWordDetail(word);
     }
 
+    private void openWordDetail(String word) {
+        Intent intent = new Intent(this, WordDetailActivity.class);
+        intent.putExtra("WORD", word);
+        startActivity(intent);
+    }
+
+    /**
+     * 弹出使用该词根的单词列表，选中后打开单词详情
+     */
+    private void showWordsOfMorpheme(String morpheme) {
+        LiveData<List<WordNode>> words = viewModel.getWordsByMorpheme(morpheme);
+        words.observe(this, new Observer<List<WordNode>>() {
+            @Override
+            public void onChanged(List<WordNode> wordNodes) {
+                // 只取第一次结果
+                words.removeObserver(this);
+                if (wordNodes == null || wordNodes.isEmpty()) {
+                    Toast.makeText(WordDetailActivity.this, "没有使用该词根的单词", Toast.LENGTH_SHORT).show();
+                    return;
+                }
+                String[] items = new String[wordNodes.size()];
+                for (int i = 0; i < items.length; i++) {
+                    items[i] = wordNodes.get(i).getWord();
+                }
+                new AlertDialog.Builder(WordDetailActivity.this)
+                        .setTitle("词根: " + morpheme)
+                        .setItems(items, (dialog, which) -> openWordDetail(items[which]))
+                        .show();
+            }
+        });
+    }
+
     private void loadWordDetail(String word) {
         // 观察单词信息
         viewModel.getWordById(word).observe(this, wordNode -> {
@@ -61,5 +128,8 @@ public class WordDetailActivity extends AppCompatActivity {
 
         // 在 MorphemeGraphView 中显示
         binding.morphemeGraphView.setData(wordNode.getWord(), relations);
+
+        // 再异步加载两跳邻域（一条 SQL），返回后渐进追加
+        viewModel.loadMorphemeNeighbourhood(wordNode.getWord());
     }
 }
\ No newline at end of file
@@ -10,20 +10,29 @@ import android.view.ViewGroup;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.paging.PagingDataAdapter;
 import androidx.recyclerview.widget.DiffUtil;
-import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.wcw.wordnet.R;
 import com.wcw.wordnet.model.entity.WordNode;
 import com.wcw.wordnet.ui.worddetail.WordDetailActivity;
 
+import java.util.Collections;
+import java.util.List;
+
 /**
  * 单词列表适配器
- * 使用 ListAdapter + DiffUtil，自动计算列表差异，高效刷新
+ * 使用 PagingDataAdapter：数据按页加载，滚动到附近时才读取下一页，
+ * DiffUtil 在后台线程（PagingDataAdapter 的 workerDispatcher）计算差异
+ *
+ * 刷新尽量只动变化的部分：
+ * - 复习后 DiffUtil 通过 getChangePayload 给出 WordPayloads.STRENGTH，只更新掌握度文字和背景色
+ * - 长按选中/取消选中只刷新新旧两行（WordSelection），不再 notifyDataSetChanged()
+ * - 点击监听在创建 ViewHolder 时设置一次，不在每次绑定时重新创建
  */
 
-public class WordAdapter extends ListAdapter<WordNode, WordAdapter.WordViewHolder> {
+public class WordAdapter extends PagingDataAdapter<WordNode, WordAdapter.WordViewHolder> {
 
     /**
      * DiffUtil.ItemCallback：定义如何判断两个WordNode是同一个
@@ -38,15 +47,20 @@ public class WordAdapter extends ListAdapter<WordNode, WordAdapter.WordViewHolde
 
                 @Override
                 public boolean areContentsTheSame(@NonNull WordNode oldItem, @NonNull WordNode newItem) {
-                    // 内容相同（记忆强度、复习次数等）
-                    return oldItem.getMemoryStrength() == newItem.getMemoryStrength()
-                            && oldItem.getReviewCount() == newItem.getReviewCount()
-                            && oldItem.isActive() == newItem.isActive();
+                    // 内容相同（记忆强度、复习次数、释义、词根等）
+                    return WordPayloads.diff(oldItem, newItem) == 0;
+                }
+
+                @Override
+                public Object getChangePayload(@NonNull WordNode oldItem, @NonNull WordNode newItem) {
+                    // 只标记变化的部分，onBindViewHolder 据此局部更新
+                    return WordPayloads.diff(oldItem, newItem);
                 }
             };
 
-    // 当前正在复习的单词（用于 btn_review_correct / wrong）
-    private WordNode selectedWord;
+    // 当前选中的单词（用于 btn_review_correct / wrong），以单词为标识
+    private final WordSelection selection = new WordSelection();
+    private final int[] changedPositions = new int[2];
 
     public WordAdapter() {
         super(DIFF_CALLBACK);
@@ -56,40 +70,54 @@ public class WordAdapter extends ListAdapter<WordNode, WordAdapter.WordViewHolde
     @Override
     public WordViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
         View view = LayoutInflater.from(parent.getContext()).inflate(R.layout.item_word, parent, false);
-        return new WordViewHolder(view);
-    }
-
-    @Override
-    public void onBindViewHolder(@NonNull WordViewHolder holder, int position) {
-        WordNode word = getItem(position);
-
-        // 1. 绑定数据
-        holder.bind(word);
-
-        // 2. 设置选中状态
-        if (selectedWord != null && selectedWord.getWord().equals(word.getWord())) {
-            // 选中态：绿色边框
-            holder.itemView.setBackgroundResource(R.drawable.item_selected_background);
-        } else {
-            // 非选中态
-            holder.itemView.setBackground(null);
-            holder.setColorsByStrength(word.getMemoryStrength());
-        }
-
-        // 3. 点击监听
-        holder.itemView.setOnClickListener(v -> {
-            selectedWord = word;
-            notifyDataSetChanged();
-            Log.d("DebugSelect", "用户选中: " + word.getWord());
-        });
+        WordViewHolder holder = new WordViewHolder(view);
 
-        holder.itemView.setOnClickListener(v -> {
-            // 启动 WordDetailActivity
+        // 点击：启动 WordDetailActivity
+        view.setOnClickListener(v -> {
+            WordNode word = itemAt(holder.getBindingAdapterPosition());
+            if (word == null) return;
             Intent intent = new Intent(v.getContext(), WordDetailActivity.class);
             intent.putExtra("WORD", word.getWord());
             v.getContext().startActivity(intent);
         });
 
+        // 长按：选中 / 取消选中，只刷新新旧两行
+        view.setOnLongClickListener(v -> {
+            int position = holder.getBindingAdapterPosition();
+            WordNode word = itemAt(position);
+            if (word == null) return false;
+            relocateSelection();
+            int count = selection.toggle(word.getWord(), position, changedPositions);
+            for (int i = 0; i < count; i++) {
+                notifyItemChanged(changedPositions[i], WordPayloads.SELECTION);
+            }
+            Log.d("DebugSelect", "用户选中: " + selection.getSelectedWord());
+            return true;
+        });
+        return holder;
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull WordViewHolder holder, int position) {
+        onBindViewHolder(holder, position, Collections.emptyList());
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull WordViewHolder holder, int position, @NonNull List<Object> payloads) {
+        WordNode word = getItem(position);
+        if (word == null) return;  // 未启用占位符，正常不会出现
+        selection.onBound(word.getWord(), position);
+
+        int changes = WordPayloads.merge(payloads);
+        if ((changes & WordPayloads.CONTENT) != 0) {
+            // 整行绑定
+            holder.bind(word);
+        } else if ((changes & WordPayloads.STRENGTH) != 0) {
+            // 复习后：只更新掌握度
+            holder.bindStrength(word);
+        }
+        // 背景色：选中态或按掌握度着色
+        holder.bindBackground(word, selection.isSelected(word.getWord()));
     }
 
     /**
@@ -97,7 +125,36 @@ public class WordAdapter extends ListAdapter<WordNode, WordAdapter.WordViewHolde
      * @return WordNode or null
      */
     public WordNode getCurrentWord(){
-        return selectedWord;
+        String selected = selection.getSelectedWord();
+        int position = selection.getSelectedPosition();
+        WordNode word = itemAt(position);
+        return word != null && word.getWord().equals(selected) ? word : null;
+    }
+
+    /**
+     * 选中行的位置在分页加载、重新排序后可能已经变化：核对记录的位置，不对时在已加载的数据中重新查找
+     */
+    private void relocateSelection() {
+        String selected = selection.getSelectedWord();
+        if (selected == null) return;
+        WordNode recorded = itemAt(selection.getSelectedPosition());
+        if (recorded != null && recorded.getWord().equals(selected)) return;
+        List<WordNode> loaded = snapshot();
+        for (int i = 0; i < loaded.size(); i++) {
+            WordNode word = loaded.get(i);
+            if (word != null && word.getWord().equals(selected)) {
+                selection.onBound(selected, i);
+                return;
+            }
+        }
+    }
+
+    /**
+     * 不触发分页加载地读取某个位置上的单词
+     */
+    private WordNode itemAt(int position) {
+        if (position == RecyclerView.NO_POSITION || position >= getItemCount()) return null;
+        return peek(position);
     }
 
     // ViewHolder
@@ -122,12 +179,7 @@ public class WordAdapter extends ListAdapter<WordNode, WordAdapter.WordViewHolde
             tvMorphemes.setText("词根：" + formatMorphemes(word.getMorphemeList()));
 
             // 显示记忆强度百分比
-            int percentage = (int)(word.getMemoryStrength() * 100);
-            tvStrength.setText("掌握度：" + percentage + "%");
-
-            // 根据掌握度设置背景色（绿色=熟，红色=生）
-            int color = getColorByStrength(word.getMemoryStrength());
-            itemView.setBackgroundColor(color);
+            bindStrength(word);
 
             // ✅ 绑定中文释义
             String chinese = word.getChineseMeaning();
@@ -140,6 +192,26 @@ public class WordAdapter extends ListAdapter<WordNode, WordAdapter.WordViewHolde
             }
         }
 
+        /**
+         * 只更新掌握度文字（复习后的局部刷新）
+         */
+        void bindStrength(WordNode word) {
+            int percentage = (int)(word.getMemoryStrength() * 100);
+            tvStrength.setText("掌握度：" + percentage + "%");
+        }
+
+        /**
+         * 背景：选中态为绿色边框，否则根据掌握度着色（绿色=熟，红色=生）
+         */
+        void bindBackground(WordNode word, boolean selected) {
+            if (selected) {
+                itemView.setBackgroundResource(R.drawable.item_selected_background);
+            } else {
+                itemView.setBackground(null);
+                setColorsByStrength(word.getMemoryStrength());
+            }
+        }
+
         private String formatMorphemes(String morphemeList){
             // 格式化 JSON 字符串，如 ["re","struct","tion"] → re + struct + tion
             return morphemeList.replace("[", "")
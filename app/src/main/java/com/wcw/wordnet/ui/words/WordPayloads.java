@@ -0,0 +1,66 @@
+package com.wcw.wordnet.ui.words;
+
+import androidx.annotation.NonNull;
+
+import com.wcw.wordnet.model.entity.WordNode;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 单词列表的局部刷新标记（RecyclerView payload）
+ * DiffUtil 发现同一个单词的内容变化时，只标记变化的部分，onBindViewHolder 只更新对应的控件：
+ * 复习后只有掌握度文字和背景色需要更新，不必重新格式化词根、设置释义
+ */
+final class WordPayloads {
+
+    /**
+     * 记忆强度或复习次数变化：掌握度文字、背景色
+     */
+    static final int STRENGTH = 1;
+
+    /**
+     * 单词、释义或词根变化：整行重新绑定
+     */
+    static final int CONTENT = 1 << 1;
+
+    /**
+     * 选中状态变化：只更新背景
+     */
+    static final int SELECTION = 1 << 2;
+
+    private WordPayloads() {}
+
+    /**
+     * 同一个单词（areItemsTheSame 为 true）新旧两个版本之间的变化
+     * @return 变化标记的组合，0 表示内容相同
+     */
+    static int diff(@NonNull WordNode oldItem, @NonNull WordNode newItem) {
+        int changes = 0;
+        if (oldItem.getMemoryStrength() != newItem.getMemoryStrength()
+                || oldItem.getReviewCount() != newItem.getReviewCount()
+                || oldItem.isActive() != newItem.isActive()) {
+            changes |= STRENGTH;
+        }
+        if (!Objects.equals(oldItem.getChineseMeaning(), newItem.getChineseMeaning())
+                || !Objects.equals(oldItem.getMorphemeList(), newItem.getMorphemeList())) {
+            changes |= CONTENT;
+        }
+        return changes;
+    }
+
+    /**
+     * 合并一次绑定收到的全部 payload
+     * RecyclerView 会把同一帧内的多次 notifyItemChanged 合并到一个列表里
+     * @return 变化标记的组合；列表为空或含有未知 payload 时返回 CONTENT（整行绑定）
+     */
+    static int merge(@NonNull List<Object> payloads) {
+        if (payloads.isEmpty()) return CONTENT;
+        int changes = 0;
+        for (Object payload : payloads) {
+            if (!(payload instanceof Integer)) return CONTENT;
+            changes |= (Integer) payload;
+        }
+        return changes;
+    }
+}
@@ -0,0 +1,68 @@
+package com.wcw.wordnet.ui.words;
+
+import androidx.annotation.Nullable;
+
+/**
+ * 单词列表的单选模型
+ * 以单词本身（主键）作为稳定的标识，而不是列表位置：分页加载、复习后重新排序时选中状态不会错位。
+ * 同时记住选中项最后一次出现的位置，切换选中时只需要刷新新旧两行，而不是 notifyDataSetChanged()。
+ */
+final class WordSelection {
+
+    static final int NO_POSITION = -1;
+
+    @Nullable
+    private String selectedWord;
+    private int selectedPosition = NO_POSITION;
+
+    @Nullable
+    String getSelectedWord() {
+        return selectedWord;
+    }
+
+    boolean isSelected(@Nullable String word) {
+        return word != null && word.equals(selectedWord);
+    }
+
+    /**
+     * 绑定时记录选中项当前所在的位置（列表重新排序后位置会变）
+     */
+    void onBound(@Nullable String word, int position) {
+        if (isSelected(word)) {
+            selectedPosition = position;
+        }
+    }
+
+    /**
+     * 点击某一行：未选中则选中它，已选中则取消
+     * @param word 被点击的单词
+     * @param position 被点击的位置
+     * @param changed 输出：需要刷新的位置（最多两个），其余为 NO_POSITION
+     * @return 需要刷新的行数
+     */
+    int toggle(String word, int position, int[] changed) {
+        changed[0] = NO_POSITION;
+        changed[1] = NO_POSITION;
+        int count = 0;
+        if (isSelected(word)) {
+            selectedWord = null;
+            selectedPosition = NO_POSITION;
+            changed[count++] = position;
+            return count;
+        }
+        if (selectedWord != null && selectedPosition != NO_POSITION && selectedPosition != position) {
+            changed[count++] = selectedPosition;
+        }
+        selectedWord = word;
+        selectedPosition = position;
+        changed[count++] = position;
+        return count;
+    }
+
+    /**
+     * 上一次记录的选中位置（可能已经过期，调用方需要核对该位置上的单词）
+     */
+    int getSelectedPosition() {
+        return selectedPosition;
+    }
+}
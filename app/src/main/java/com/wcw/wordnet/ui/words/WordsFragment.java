@@ -1,9 +1,12 @@
 package com.wcw.wordnet.ui.words;
 
 import android.os.Bundle;
+import android.text.Editable;
+import android.text.TextWatcher;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
+import android.widget.ArrayAdapter;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -12,11 +15,15 @@ import androidx.lifecycle.ViewModelProvider;
 import androidx.recyclerview.widget.LinearLayoutManager;
 
 import com.wcw.wordnet.databinding.FragmentWordsBinding;
+import com.wcw.wordnet.model.DashboardStats;
+import com.wcw.wordnet.model.MorphemeCount;
 import com.wcw.wordnet.ui.WordGraphViewModel;
 
+import java.util.ArrayList;
+
 /**
  * 单词列表Fragment
- * 职责：展示所有单词，支持词根搜索
+ * 职责：展示所有单词（分页加载），支持全文搜索（单词、释义、词根）和词根搜索（输入时联想词根）
  * 生命周期：用户点击底部"单词"Tab时显示
  */
 public class WordsFragment extends Fragment {
@@ -24,6 +31,7 @@ public class WordsFragment extends Fragment {
     private WordGraphViewModel viewModel;
     private FragmentWordsBinding binding;
     private WordAdapter adapter;
+    private ArrayAdapter<String> suggestionAdapter;
 
     @Override
     public void onCreate(@Nullable Bundle savedInstanceState) {
@@ -47,36 +55,63 @@ public class WordsFragment extends Fragment {
         binding.rvWords.setLayoutManager(new LinearLayoutManager(getContext()));
         binding.rvWords.setAdapter(adapter);
 
-        // 2. 观察所有单词
-        viewModel.getAllActiveWords().observe(getViewLifecycleOwner(), words -> {
-            adapter.submitList(words);
-        });
+        // 2. 观察单词列表：搜索条件为空时是全部单词（分页加载），否则是搜索结果
+        viewModel.getWordsByRoot().observe(getViewLifecycleOwner(), pagingData ->
+                adapter.submitData(getViewLifecycleOwner().getLifecycle(), pagingData));
 
-        // 3. 观察进度条
-        viewModel.getWordCount().observe(getViewLifecycleOwner(), totalCount -> {
-            viewModel.getMasteredWordCount().observe(getViewLifecycleOwner(), masteredCount -> {
-                if (totalCount != null && totalCount > 0 && masteredCount != null) {
-                    int percentage = (int) ((masteredCount * 100.0f) / totalCount);
-                    binding.pbMastery.setProgress(percentage);
-                    binding.tvMasteryText.setText(percentage + "% (" + masteredCount + "/" + totalCount + ")");
-                } else {
-                    binding.pbMastery.setProgress(0);
-                    binding.tvMasteryText.setText("0% (0/0)");
-                }
-            });
-        });
+        // 3. 观察进度条（一条统计查询，与列表加载了多少页无关）
+        viewModel.getDashboardStats().observe(getViewLifecycleOwner(), this::updateMasteryHeader);
+
+        // 4. 全文搜索：英文前缀、中文释义、词根（输入框清空后搜索即回到全部单词）
+        binding.btnSearch.setOnClickListener(v ->
+                viewModel.searchWords(binding.etSearchRoot.getText().toString()));
 
-        // 4. 搜索功能
-        binding.btnSearch.setOnClickListener(v -> {
-            String root = binding.etSearchRoot.getText().toString().trim();
-            viewModel.searchByRoot(root);
+        // 5. 词根联想：每次按键交给 ViewModel（防抖后查内存前缀树），选中联想项直接按词根搜索
+        suggestionAdapter = new ArrayAdapter<>(requireContext(),
+                android.R.layout.simple_dropdown_item_1line, new ArrayList<>());
+        binding.etSearchRoot.setAdapter(suggestionAdapter);
+        binding.etSearchRoot.addTextChangedListener(new TextWatcher() {
+            @Override
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) { }
+
+            @Override
+            public void onTextChanged(CharSequence s, int start, int before, int count) { }
+
+            @Override
+            public void afterTextChanged(Editable s) {
+                viewModel.onRootInputChanged(s.toString());
+            }
         });
+        binding.etSearchRoot.setOnItemClickListener((parent, itemView, position, id) ->
+                viewModel.searchByRoot(suggestionAdapter.getItem(position)));
 
-        viewModel.getWordsByRoot().observe(getViewLifecycleOwner(), words -> {
-            adapter.submitList(words);
+        viewModel.getMorphemeSuggestions().observe(getViewLifecycleOwner(), suggestions -> {
+            suggestionAdapter.clear();
+            for (MorphemeCount suggestion : suggestions) {
+                suggestionAdapter.add(suggestion.getMorpheme());
+            }
+            // ArrayAdapter 会缓存上一次的过滤结果，用当前输入重新过滤后下拉框才会刷新
+            if (binding.etSearchRoot.hasFocus()) {
+                suggestionAdapter.getFilter().filter(binding.etSearchRoot.getText(), binding.etSearchRoot);
+            }
         });
     }
 
+    /**
+     * 用最新的看板统计刷新进度条
+     */
+    private void updateMasteryHeader(@Nullable DashboardStats stats) {
+        if (stats != null && stats.getTotalWords() > 0) {
+            int percentage = stats.getMasteredPercentage();
+            binding.pbMastery.setProgress(percentage);
+            binding.tvMasteryText.setText(percentage + "% (" + stats.getMasteredWords() + "/" + stats.getTotalWords()
+                    + ")  待复习 " + stats.getDueNow() + " · 今日 " + stats.getDueToday());
+        } else {
+            binding.pbMastery.setProgress(0);
+            binding.tvMasteryText.setText("0% (0/0)");
+        }
+    }
+
     @Override
     public void onDestroyView() {
         super.onDestroyView();
@@ -0,0 +1,233 @@
+package com.wcw.wordnet.data.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import com.wcw.wordnet.model.entity.MorphemeRelation;
+import com.wcw.wordnet.model.entity.WordChange;
+import com.wcw.wordnet.model.entity.WordNode;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class WordCacheTest {
+
+    @Test
+    public void readThroughLoadsOnceAndCountsHits() {
+        WordCache cache = new WordCache(4, 4);
+        AtomicInteger loads = new AtomicInteger();
+
+        WordNode first = cache.getWord("construct", w -> {
+            loads.incrementAndGet();
+            return word(w);
+        });
+        WordNode second = cache.getWord("construct", w -> {
+            loads.incrementAndGet();
+            return word(w);
+        });
+        assertSame(first, second);
+        assertSame(first, cache.getWordIfPresent("construct"));
+        assertEquals(1, loads.get());
+        assertEquals(2, cache.getStats().getHits());
+        assertEquals(1, cache.getStats().getMisses());
+
+        // 数据库里也没有的单词不缓存
+        assertNull(cache.getWord("missing", w -> null));
+        assertNull(cache.getWordIfPresent("missing"));
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsed() {
+        WordCache cache = new WordCache(3, 3);
+        cache.putWords(Arrays.asList(word("a"), word("b"), word("c")), cache.version());
+        // 访问 a 之后，最久未使用的是 b
+        assertNotNull(cache.getWordIfPresent("a"));
+        cache.putWords(Collections.singletonList(word("d")), cache.version());
+
+        assertEquals(3, cache.wordCount());
+        assertNull(cache.getWordIfPresent("b"));
+        assertNotNull(cache.getWordIfPresent("a"));
+        assertNotNull(cache.getWordIfPresent("c"));
+        assertNotNull(cache.getWordIfPresent("d"));
+
+        // 内存紧张：只保留最近使用的一半；进入后台：全部清空
+        cache.trim(false);
+        assertEquals(1, cache.wordCount());
+        assertNotNull(cache.getWordIfPresent("d"));
+        cache.trim(true);
+        assertEquals(0, cache.wordCount());
+        assertEquals(2, cache.getStats().getTrims());
+    }
+
+    @Test
+    public void invalidationClearsOnlyTheChangedTableAndNotifies() {
+        WordCache cache = new WordCache(8, 8);
+        cache.putWords(Collections.singletonList(word("a")), cache.version());
+        cache.getRelations(Collections.singletonList("a"), ids -> relations("a", "re", "act"));
+        List<Set<String>> notified = new ArrayList<>();
+        WordCache.Listener listener = notified::add;
+        cache.addListener(listener);
+
+        // 词根关系变化不影响单词，也不通知单词的监听者
+        cache.invalidate(new HashSet<>(Collections.singletonList("morpheme_relations")));
+        assertEquals(1, cache.wordCount());
+        assertEquals(0, cache.relationCount());
+        assertEquals(0, notified.size());
+
+        cache.invalidate(new HashSet<>(Collections.singletonList("word_nodes")));
+        assertEquals(0, cache.wordCount());
+        assertEquals(Collections.singletonList(null), notified);
+
+        cache.removeListener(listener);
+        cache.invalidate(new HashSet<>(Collections.singletonList("word_nodes")));
+        assertEquals(1, notified.size());
+    }
+
+    @Test
+    public void changesPatchOnlyTheCachedWords() {
+        WordCache cache = new WordCache(8, 8);
+        cache.putWords(Arrays.asList(word("a"), word("b"), word("c")), cache.version());
+        cache.getRelations(Collections.singletonList("a"), ids -> relations("a", "re", "act"));
+        List<Set<String>> notified = new ArrayList<>();
+        cache.addListener(notified::add);
+
+        WordNode reviewed = new WordNode("a", 0.9f, 100L, 2, true, "[]");
+        WordNode added = word("d");
+        Map<String, WordNode> rows = new HashMap<>();
+        rows.put("a", reviewed);
+        rows.put("d", added);
+        // a 评分，b 删除，d 新增（不在缓存中），c 没有变化
+        cache.applyChanges(Arrays.asList(
+                change(1, "a", WordChange.UPDATED),
+                change(2, "b", WordChange.DELETED),
+                change(3, "d", WordChange.INSERTED),
+                change(4, "a", WordChange.UPDATED)), rows);
+
+        assertSame(reviewed, cache.getWordIfPresent("a"));
+        assertNull(cache.getWordIfPresent("b"));
+        assertNotNull(cache.getWordIfPresent("c"));
+        assertNull(cache.getWordIfPresent("d"));
+        assertEquals(1, cache.relationCount());
+        assertEquals(2, cache.getStats().getPatches());
+        assertEquals(0, cache.getStats().getInvalidations());
+        assertEquals(Collections.singletonList(new HashSet<>(Arrays.asList("a", "b", "d"))), notified);
+    }
+
+    @Test
+    public void changesDuringLoadDiscardTheStaleResult() {
+        WordCache cache = new WordCache(8, 8);
+        WordNode fresh = new WordNode("a", 0.9f, 100L, 2, true, "[]");
+        // 读取数据库期间这个单词被评分：读到的旧行照常返回，但不放入缓存
+        WordNode loaded = cache.getWord("a", w -> {
+            WordNode stale = word(w);
+            cache.applyChanges(Collections.singletonList(change(1, "a", WordChange.UPDATED)),
+                    Collections.singletonMap("a", fresh));
+            return stale;
+        });
+        assertNotNull(loaded);
+        assertEquals(0, cache.wordCount());
+        assertSame(fresh, cache.getWord("a", w -> fresh));
+    }
+
+    @Test
+    public void changesDuringLoadDiscardOnlyTheChangedWords() {
+        WordCache cache = new WordCache(8, 8);
+        cache.getRelations(Collections.singletonList("a"), ids -> relations("a", "re", "act"));
+        long version = cache.version();
+        // 读取一页期间 b 被评分：a、c 照常放入，b 丢弃；词根关系不受影响
+        cache.applyChanges(Collections.singletonList(change(1, "b", WordChange.UPDATED)),
+                Collections.singletonMap("b", word("b")));
+        cache.putWords(Arrays.asList(word("a"), word("b"), word("c")), version);
+        assertNotNull(cache.getWordIfPresent("a"));
+        assertNull(cache.getWordIfPresent("b"));
+        assertNotNull(cache.getWordIfPresent("c"));
+        assertEquals(1, cache.relationCount());
+
+        // 修补之后开始的读取可以放入 b
+        cache.putWords(Collections.singletonList(word("b")), cache.version());
+        assertNotNull(cache.getWordIfPresent("b"));
+    }
+
+    @Test
+    public void forgottenPatchVersionsDiscardOlderLoadsConservatively() {
+        WordCache cache = new WordCache(8, 8);
+        long version = cache.version();
+        // 修补记录超出上限（16 项）后，遗忘的单词无法判断，早于它开始的读取整批丢弃
+        for (int i = 0; i < 17; i++) {
+            cache.applyChanges(Collections.singletonList(change(i + 1, "w" + i, WordChange.UPDATED)),
+                    Collections.emptyMap());
+        }
+        cache.putWords(Collections.singletonList(word("a")), version);
+        assertEquals(0, cache.wordCount());
+    }
+
+    @Test
+    public void writeDuringLoadDiscardsTheStaleResult() {
+        WordCache cache = new WordCache(8, 8);
+        // 读取数据库期间 word_nodes 被写入：结果照常返回，但不放入缓存
+        WordNode loaded = cache.getWord("a", w -> {
+            cache.invalidate(Collections.singleton("word_nodes"));
+            return word(w);
+        });
+        assertNotNull(loaded);
+        assertEquals(0, cache.wordCount());
+
+        long version = cache.version();
+        cache.trim(false);
+        cache.putWords(Collections.singletonList(word("b")), version);
+        assertEquals(0, cache.wordCount());
+    }
+
+    @Test
+    public void relationsLoadOnlyMissingWordsInOneQuery() {
+        WordCache cache = new WordCache(8, 8);
+        List<List<String>> queries = new ArrayList<>();
+        cache.getRelations(Collections.singletonList("react"), ids -> {
+            queries.add(ids);
+            return relations("react", "re", "act");
+        });
+
+        List<MorphemeRelation> result = cache.getRelations(Arrays.asList("react", "object", "xyz"), ids -> {
+            queries.add(new ArrayList<>(ids));
+            return relations("object", "ob", "ject");
+        });
+        // 第二次只查询缓存中没有的两个单词；没有词根关系的单词也被缓存
+        assertEquals(Arrays.asList(Collections.singletonList("react"), Arrays.asList("object", "xyz")), queries);
+        assertEquals(Arrays.asList("re", "act", "ob", "ject"), MorphemeRelation.morphemesOf(result));
+
+        cache.getRelations(Arrays.asList("xyz", "object"), ids -> {
+            queries.add(ids);
+            return Collections.emptyList();
+        });
+        assertEquals(2, queries.size());
+        assertEquals(3, cache.getStats().getHits());
+        assertEquals(3, cache.getStats().getMisses());
+    }
+
+    private static WordNode word(String text) {
+        return new WordNode(text, 0.5f, 0L, 1, true, "[]");
+    }
+
+    private static WordChange change(long seq, String word, int kind) {
+        return new WordChange(seq, word, kind, true, 0.5f, kind != WordChange.DELETED, 0.5f);
+    }
+
+    private static List<MorphemeRelation> relations(String word, String... morphemes) {
+        List<MorphemeRelation> list = new ArrayList<>();
+        for (int i = 0; i < morphemes.length; i++) {
+            list.add(new MorphemeRelation(morphemes[i], word, i));
+        }
+        return list;
+    }
+}
@@ -0,0 +1,88 @@
+package com.wcw.wordnet.data.graph;
+
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * 单词—词根图基准：5 万个单词、2 万个词根、约 20 万条关系（词根热度呈长尾分布）
+ * 目标：数组占用几 MB，邻域查询在微秒级
+ *
+ * 默认跳过，运行方式：./gradlew :app:testDebugUnitTest -Dwordnet.bench=true
+ *      --tests "*WordGraphBenchmark"
+ */
+public class WordGraphBenchmark {
+
+    private static final int WORDS = 50_000;
+    private static final int MORPHEMES = 20_000;
+    private static final int EDGES_PER_WORD = 4;
+    private static final int QUERIES = 20_000;
+
+    @Before
+    public void onlyWhenRequested() {
+        Assume.assumeTrue("设置 -Dwordnet.bench=true 以运行基准", Boolean.getBoolean("wordnet.bench"));
+    }
+
+    @Test
+    public void buildAndQuery() {
+        Random random = new Random(42);
+        String[] words = new String[WORDS];
+        String[] morphemes = new String[MORPHEMES];
+        for (int i = 0; i < WORDS; i++) words[i] = "word" + i;
+        for (int i = 0; i < MORPHEMES; i++) morphemes[i] = "m" + i;
+
+        long start = System.nanoTime();
+        WordGraph.Builder builder = new WordGraph.Builder();
+        for (String word : words) {
+            for (int e = 0; e < EDGES_PER_WORD; e++) {
+                // 长尾：少数词根被大量单词使用
+                int morpheme = (int) (MORPHEMES * Math.pow(random.nextDouble(), 3));
+                builder.addEdge(word, morphemes[morpheme]);
+            }
+        }
+        WordGraph graph = builder.build();
+        long build = System.nanoTime() - start;
+        System.out.printf("构建: %d 单词, %d 词根, %d 条边, %.1f ms, 数组 %.2f MB%n",
+                graph.wordCount(), graph.morphemeCount(), graph.edgeCount(),
+                build / 1_000_000.0, graph.memoryBytes() / (1024.0 * 1024.0));
+
+        report("1 跳邻域 (limit 50)", graph, random, (g, w) -> g.neighbourhood(w, 1, 50).length);
+        report("2 跳邻域 (limit 200)", graph, random, (g, w) -> g.neighbourhood(w, 2, 200).length);
+        report("共享词根最多的 10 个单词", graph, random, (g, w) -> g.mostSimilar(w, 10).length);
+        report("两个单词的共享词根数", graph, random, (g, w) -> g.sharedMorphemeCount(w, (w * 31) % WORDS));
+
+        start = System.nanoTime();
+        int components = graph.componentCount();
+        long componentNanos = System.nanoTime() - start;
+        start = System.nanoTime();
+        int[] central = graph.topWordsByCentrality(10);
+        long centralityNanos = System.nanoTime() - start;
+        System.out.printf("连通分量: %d 个, %.1f ms; 中心度前 10: %.1f ms (第一名 %s)%n",
+                components, componentNanos / 1_000_000.0,
+                centralityNanos / 1_000_000.0, graph.word(central[0]));
+    }
+
+    private interface Query {
+        int run(WordGraph graph, int word);
+    }
+
+    private static void report(String name, WordGraph graph, Random random, Query query) {
+        int sink = 0;
+        for (int i = 0; i < QUERIES; i++) {
+            sink += query.run(graph, random.nextInt(WORDS));
+        }
+        long[] nanos = new long[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            int word = random.nextInt(WORDS);
+            long begin = System.nanoTime();
+            sink += query.run(graph, word);
+            nanos[i] = System.nanoTime() - begin;
+        }
+        Arrays.sort(nanos);
+        System.out.printf("%s: median %.1f µs, p99 %.1f µs (%d)%n", name,
+                nanos[QUERIES / 2] / 1_000.0, nanos[QUERIES * 99 / 100] / 1_000.0, sink);
+    }
+}
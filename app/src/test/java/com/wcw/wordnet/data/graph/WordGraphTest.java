@@ -0,0 +1,130 @@
+package com.wcw.wordnet.data.graph;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+public class WordGraphTest {
+
+    private WordGraph graph;
+
+    /**
+     * construct — con, struct
+     * structure — struct, ure
+     * reconstruction — re, con, struct, tion
+     * predict — pre, dict
+     * dictation — dict, tion
+     * apple — apple（孤立）
+     */
+    @Before
+    public void setUp() {
+        graph = new WordGraph.Builder()
+                .addEdge("construct", "con").addEdge("construct", "struct")
+                .addEdge("structure", "struct").addEdge("structure", "ure")
+                .addEdge("reconstruction", "re").addEdge("reconstruction", "con")
+                .addEdge("reconstruction", "struct").addEdge("reconstruction", "tion")
+                .addEdge("predict", "pre").addEdge("predict", "dict")
+                .addEdge("dictation", "dict").addEdge("dictation", "tion")
+                .addEdge("apple", "apple")
+                // 重复关系和空值被忽略
+                .addEdge("construct", "struct").addEdge(null, "struct").addEdge("construct", null)
+                .addWord("orphan")
+                .build();
+    }
+
+    private int id(String word) {
+        return graph.wordId(word);
+    }
+
+    private String[] words(int[] ids) {
+        String[] names = new String[ids.length];
+        for (int i = 0; i < ids.length; i++) names[i] = graph.word(ids[i]);
+        return names;
+    }
+
+    private String[] sortedWords(int[] ids) {
+        String[] names = words(ids);
+        Arrays.sort(names);
+        return names;
+    }
+
+    @Test
+    public void build_internsAndDeduplicates() {
+        assertEquals(7, graph.wordCount());
+        assertEquals(8, graph.morphemeCount());
+        assertEquals(13, graph.edgeCount());
+        assertEquals(-1, graph.wordId("missing"));
+        assertEquals("construct", graph.word(id("construct")));
+        assertEquals(2, graph.wordDegree(id("construct")));
+        assertEquals(0, graph.wordDegree(id("orphan")));
+        assertEquals(3, graph.morphemeDegree(graph.morphemeId("struct")));
+        int[] users = graph.wordsOf(graph.morphemeId("struct"));
+        assertEquals(Arrays.asList("construct", "reconstruction", "structure"), Arrays.asList(sortedWords(users)));
+        // 行内有序
+        for (int i = 1; i < users.length; i++) assertTrue(users[i - 1] < users[i]);
+    }
+
+    @Test
+    public void neighbourhood_expandsByHops() {
+        assertArrayEquals(new String[]{"reconstruction", "structure"},
+                sortedWords(graph.neighbourhood(id("construct"), 1, 100)));
+        assertArrayEquals(new String[]{"dictation", "reconstruction", "structure"},
+                sortedWords(graph.neighbourhood(id("construct"), 2, 100)));
+        int[] three = graph.neighbourhood(id("construct"), 3, 100);
+        assertEquals(4, three.length);
+        // 近的在前
+        assertEquals("predict", graph.word(three[3]));
+        assertEquals(2, graph.neighbourhood(id("construct"), 3, 2).length);
+        assertEquals(0, graph.neighbourhood(id("apple"), 3, 100).length);
+        assertEquals(0, graph.neighbourhood(id("orphan"), 1, 100).length);
+    }
+
+    @Test
+    public void sharedMorphemes_countsIntersection() {
+        assertEquals(2, graph.sharedMorphemeCount(id("construct"), id("reconstruction")));
+        assertEquals(1, graph.sharedMorphemeCount(id("structure"), id("reconstruction")));
+        assertEquals(0, graph.sharedMorphemeCount(id("construct"), id("predict")));
+        assertArrayEquals(new String[]{"construct", "structure", "dictation"},
+                words(graph.mostSimilar(id("reconstruction"), 10)));
+        assertArrayEquals(new String[]{"construct"}, words(graph.mostSimilar(id("reconstruction"), 1)));
+    }
+
+    @Test
+    public void components_groupConnectedWords() {
+        // {construct, structure, reconstruction, predict, dictation}, {apple}, {orphan}
+        assertEquals(3, graph.componentCount());
+        int main = graph.componentOf(id("construct"));
+        assertEquals(main, graph.componentOf(id("predict")));
+        assertEquals(5, graph.componentSize(main));
+        assertNotEquals(main, graph.componentOf(id("apple")));
+        assertEquals(1, graph.componentSize(graph.componentOf(id("orphan"))));
+    }
+
+    @Test
+    public void rankings_orderByDegreeAndCentrality() {
+        assertArrayEquals(new String[]{"reconstruction", "construct", "structure"},
+                words(graph.topWordsByDegree(3)));
+        int[] morphemes = graph.topMorphemesByDegree(3);
+        assertEquals("struct", graph.morpheme(morphemes[0]));
+        assertEquals(3, graph.morphemeDegree(morphemes[0]));
+
+        int[] central = graph.topWordsByCentrality(7);
+        assertEquals("reconstruction", graph.word(central[0]));
+        assertTrue(graph.centrality(id("construct")) > graph.centrality(id("predict")));
+        assertEquals(0.0, graph.centrality(id("orphan")), 1e-12);
+    }
+
+    @Test
+    public void emptyGraph() {
+        WordGraph empty = new WordGraph.Builder().build();
+        assertEquals(0, empty.wordCount());
+        assertEquals(0, empty.componentCount());
+        assertEquals(0, empty.topWordsByCentrality(5).length);
+    }
+}
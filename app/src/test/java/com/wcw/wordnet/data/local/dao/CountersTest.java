@@ -0,0 +1,167 @@
+package com.wcw.wordnet.data.local.dao;
+
+import static com.wcw.wordnet.data.local.dao.DaoQueries.count;
+import static com.wcw.wordnet.data.local.dao.DaoQueries.execute;
+import static com.wcw.wordnet.data.local.dao.DaoQueries.insertWord;
+import static com.wcw.wordnet.data.local.dao.DaoQueries.queue;
+import static com.wcw.wordnet.data.local.dao.DaoQueries.review;
+import static com.wcw.wordnet.data.local.dao.DaoQueries.strings;
+import static org.junit.Assert.assertEquals;
+
+import com.wcw.wordnet.model.entity.DueDay;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 触发器维护的 counters / due_histogram 必须始终等于从 word_nodes / review_queue 直接聚合的结果，
+ * 红点角标的到期数不包含已归档的单词
+ */
+public class CountersTest {
+
+    private static final long DAY = DueDay.DAY_MILLIS;
+    private static final long NOW = 20_000 * DAY + 9 * DAY / 24;
+    private static final float[] STRENGTHS = {0f, 0.1f, 0.3f, 0.5f, 0.8f, 0.81f, 1f};
+
+    private Connection connection;
+
+    @Before
+    public void setUp() throws Exception {
+        connection = DaoQueries.openDatabaseWithTriggers();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        connection.close();
+    }
+
+    @Test
+    public void dueCountExcludesArchivedWords() throws Exception {
+        insertWord(connection, "construct", 0.3f, true);
+        insertWord(connection, "obstruct", 0.3f, false);
+        queue(connection, "construct", NOW - 2 * DAY);
+        queue(connection, "obstruct", NOW - 2 * DAY);
+        assertEquals(1, dueReviewCount(NOW));
+
+        execute(connection, "UPDATE word_nodes SET isActive = 1 WHERE word = 'obstruct'");
+        assertEquals(2, dueReviewCount(NOW));
+        execute(connection, "UPDATE word_nodes SET isActive = 0 WHERE word = 'construct'");
+        assertEquals(1, dueReviewCount(NOW));
+        assertEquals(oracle(), state());
+    }
+
+    @Test
+    public void randomWritesKeepCountersExact() throws Exception {
+        Random random = new Random(24);
+        List<String> words = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            words.add("w" + i);
+            insertWord(connection, "w" + i, STRENGTHS[random.nextInt(STRENGTHS.length)], random.nextInt(4) > 0);
+            if (random.nextBoolean()) queue(connection, "w" + i, randomTime(random));
+        }
+        assertEquals(oracle(), state());
+
+        for (int step = 0; step < 800; step++) {
+            String word = words.get(random.nextInt(words.size()));
+            switch (random.nextInt(9)) {
+                case 0:
+                    execute(connection, "UPDATE word_nodes SET isActive = 1 - isActive WHERE word = '" + word + "'");
+                    break;
+                case 1:
+                    // 删除单词，复习项被级联删除，只扣减一次
+                    execute(connection, "DELETE FROM word_nodes WHERE word = '" + word + "'");
+                    insertWord(connection, word, STRENGTHS[random.nextInt(STRENGTHS.length)], true);
+                    break;
+                case 2:
+                    // 与 ReviewQueueDao.insertReviewQueue 一样以 REPLACE 写入
+                    queue(connection, word, randomTime(random));
+                    break;
+                case 3:
+                    execute(connection, "DELETE FROM review_queue WHERE wordId = '" + word + "'");
+                    break;
+                case 4:
+                    execute(connection, "UPDATE word_nodes SET chineseMeaning = '释义" + step + "' " +
+                            "WHERE word = '" + word + "'");
+                    break;
+                default:
+                    // 评分：更新强度并推迟下次复习
+                    reviewAndReschedule(word, STRENGTHS[random.nextInt(STRENGTHS.length)], randomTime(random));
+                    break;
+            }
+            assertEquals("step " + step, oracle(), state());
+            assertEquals("step " + step, count(connection, "SELECT COUNT(*) FROM review_queue q JOIN word_nodes w " +
+                    "ON w.word = q.wordId WHERE q.next_review_time <= " + NOW + " AND w.isActive = 1"),
+                    dueReviewCount(NOW));
+        }
+    }
+
+    @Test
+    public void everyRowWriteBumpsTheReviewWriteCounter() throws Exception {
+        insertWord(connection, "construct", 0.3f, false);                     // 1 行，不影响其他计数
+        queue(connection, "construct", NOW);                                  // 1 行
+        queue(connection, "construct", NOW + DAY);                            // REPLACE：1 行
+        execute(connection, "UPDATE word_nodes SET chineseMeaning = '建造'");  // 1 行
+        insertWord(connection, "react", 0.3f, true);
+        execute(connection, "DELETE FROM word_nodes");                        // 2 行单词 + 级联删除的 1 行复习项
+        assertEquals(8, count(connection, "SELECT value FROM review_writes WHERE id = 0"));
+        assertEquals(oracle(), state());
+    }
+
+    // ==================== 工具方法 ====================
+
+    private long dueReviewCount(long now) throws Exception {
+        return count(connection, DaoQueries.get("ReviewQueueDao.getDueReviewCount")
+                .replace(":currentTime", String.valueOf(now)));
+    }
+
+    /**
+     * 计数器和直方图的内容（每行一条，便于比较）
+     */
+    private List<String> state() throws Exception {
+        List<String> rows = strings(connection, "SELECT name || ' ' || value FROM counters ORDER BY name");
+        rows.addAll(strings(connection, "SELECT epochDay || ' ' || dueCount FROM due_histogram ORDER BY epochDay"));
+        return rows;
+    }
+
+    /**
+     * 直接从 word_nodes / review_queue 聚合
+     */
+    private List<String> oracle() throws Exception {
+        List<String> rows = new ArrayList<>();
+        rows.add("active_words " + count(connection, "SELECT COUNT(*) FROM word_nodes WHERE isActive = 1"));
+        rows.add("mastered_words " + count(connection,
+                "SELECT COUNT(*) FROM word_nodes WHERE isActive = 1 AND memoryStrength > 0.8"));
+        rows.add("strength_micros " + count(connection,
+                "SELECT COALESCE(SUM(CAST(ROUND(memoryStrength * 1000000) AS INTEGER)), 0) " +
+                "FROM word_nodes WHERE isActive = 1"));
+        rows.addAll(strings(connection,
+                "SELECT (q.next_review_time / " + DAY + ") || ' ' || COUNT(*) FROM review_queue q " +
+                "JOIN word_nodes w ON w.word = q.wordId WHERE w.isActive = 1 " +
+                "GROUP BY q.next_review_time / " + DAY + " ORDER BY q.next_review_time / " + DAY));
+        return rows;
+    }
+
+    private static long randomTime(Random random) {
+        return NOW + (random.nextInt(10) - 5) * DAY + random.nextInt((int) DAY);
+    }
+
+    /**
+     * 评分：更新强度并推迟下次复习
+     */
+    private void reviewAndReschedule(String word, float strength, long nextReview) throws Exception {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "UPDATE review_queue SET next_review_time = ? WHERE wordId = ?")) {
+            statement.setLong(1, nextReview);
+            statement.setString(2, word);
+            statement.executeUpdate();
+        }
+        review(connection, word, strength);
+    }
+}
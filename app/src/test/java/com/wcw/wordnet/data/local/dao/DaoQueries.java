@@ -0,0 +1,253 @@
+package com.wcw.wordnet.data.local.dao;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.wcw.wordnet.data.change.WordChangeTriggers;
+import com.wcw.wordnet.data.counter.CounterTriggers;
+import com.wcw.wordnet.data.morpheme.MorphemeStatsTriggers;
+import com.wcw.wordnet.data.morpheme.MorphemeWriteCounter;
+import com.wcw.wordnet.data.review.ReviewJournalMark;
+import com.wcw.wordnet.data.review.ReviewWriteCounter;
+import com.wcw.wordnet.data.search.SearchIndex;
+
+import java.io.File;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Scanner;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * JVM 测试用的 DAO 查询工具
+ * - 按 Room 建表语句（wordnet_schema.sql）创建 SQLite 数据库，需要时安装应用的全部触发器
+ * - 从 DAO 源码中解析 @Query，使测试执行的 SQL 与应用完全一致
+ * - 写入测试数据的共用方法（按列名插入，与实体的列顺序无关）
+ */
+final class DaoQueries {
+
+    /**
+     * 按列名插入单词和复习项（批量写入测试数据时与实体的列顺序无关）
+     */
+    static final String WORD_NODES_COLUMNS = "word_nodes (word, memoryStrength, lastReviewed, reviewCount, " +
+            "isActive, morphemeList, chineseMeaning)";
+    static final String REVIEW_QUEUE_COLUMNS = "review_queue (wordId, next_review_time, interval_days, " +
+            "easiness_factor, repetition_count, review_state)";
+
+    private static final String[] DAOS = {"WordDao", "ReviewQueueDao", "MorphemeDao", "SearchDao"};
+
+    private static final Pattern QUERY = Pattern.compile(
+            "@Query\\(((?:\\s*\"(?:[^\"\\\\]|\\\\.)*\"\\s*\\+?)+)\\s*\\)");
+    private static final Pattern LITERAL = Pattern.compile("\"((?:[^\"\\\\]|\\\\.)*)\"");
+    private static final Pattern METHOD = Pattern.compile("(\\w+)\\s*\\(");
+
+    private DaoQueries() {}
+
+    /**
+     * 打开一个按当前 Room 结构建表的内存数据库
+     */
+    static Connection openDatabase() throws Exception {
+        Connection connection = DriverManager.getConnection("jdbc:sqlite::memory:");
+        try (Statement statement = connection.createStatement()) {
+            for (String ddl : readResource("/wordnet_schema.sql").split(";")) {
+                String sql = ddl.replaceAll("(?m)^--.*$", "").trim();
+                if (!sql.isEmpty()) statement.execute(sql);
+            }
+        }
+        return connection;
+    }
+
+    /**
+     * 打开内存数据库，并像 AppDatabase 创建和打开数据库时一样安装全部触发器和计数表、回填计数器；
+     * 与 Room 一样打开外键约束（删除单词时级联删除复习项和词根关系）
+     */
+    static Connection openDatabaseWithTriggers() throws Exception {
+        Connection connection = openDatabase();
+        List<String> statements = new ArrayList<>();
+        statements.add("PRAGMA foreign_keys = ON");
+        statements.add(ReviewWriteCounter.CREATE_TABLE_SQL);
+        statements.add(ReviewWriteCounter.SEED_SQL);
+        statements.addAll(ReviewWriteCounter.triggerStatements());
+        statements.add(ReviewJournalMark.CREATE_TABLE_SQL);
+        statements.add(MorphemeWriteCounter.CREATE_TABLE_SQL);
+        statements.add(MorphemeWriteCounter.SEED_SQL);
+        statements.addAll(MorphemeWriteCounter.triggerStatements());
+        statements.addAll(SearchIndex.triggerStatements());
+        statements.addAll(MorphemeStatsTriggers.triggerStatements());
+        statements.addAll(WordChangeTriggers.triggerStatements());
+        statements.addAll(CounterTriggers.triggerStatements());
+        statements.addAll(CounterTriggers.backfillStatements());
+        try (Statement statement = connection.createStatement()) {
+            for (String sql : statements) {
+                statement.execute(sql);
+            }
+        }
+        return connection;
+    }
+
+    /**
+     * 解析 DAO 源文件中的全部 @Query（"Dao.method" → SQL）
+     */
+    static Map<String, String> collect() throws Exception {
+        Map<String, String> queries = new LinkedHashMap<>();
+        for (String dao : DAOS) {
+            String source = new String(Files.readAllBytes(daoSource(dao).toPath()), StandardCharsets.UTF_8);
+            Matcher query = QUERY.matcher(source);
+            int found = 0;
+            while (query.find()) {
+                StringBuilder sql = new StringBuilder();
+                Matcher literal = LITERAL.matcher(query.group(1));
+                while (literal.find()) {
+                    sql.append(literal.group(1).replace("\\\"", "\""));
+                }
+                Matcher method = METHOD.matcher(source);
+                if (!method.find(query.end())) {
+                    fail("无法确定 @Query 所在的方法: " + sql);
+                }
+                queries.put(dao + "." + method.group(1), sql.toString());
+                found++;
+            }
+            assertTrue("未在 " + dao + " 中解析到任何 @Query", found > 0);
+        }
+        return queries;
+    }
+
+    /**
+     * 获取单条查询的 SQL
+     * @param key "Dao.method"
+     */
+    static String get(String key) throws Exception {
+        String sql = collect().get(key);
+        if (sql == null) fail("未找到查询: " + key);
+        return sql;
+    }
+
+    /**
+     * Room 的 :param 换成 JDBC 占位符；集合参数按 3 个元素展开
+     * 注意同名参数出现多次时会变成多个占位符，需按出现顺序分别绑定
+     */
+    static String toJdbc(String sql) {
+        return sql.replaceAll("IN\\s*\\(\\s*:\\w+\\s*\\)", "IN (?, ?, ?)")
+                .replaceAll(":\\w+", "?");
+    }
+
+    // ==================== 测试数据 ====================
+
+    /**
+     * 插入一个没有词根和释义的单词
+     */
+    static void insertWord(Connection connection, String word, float strength, boolean active) throws Exception {
+        insertWord(connection, word, strength, active, "[]", "");
+    }
+
+    /**
+     * 插入单词（强度与 Room 一样按 float 绑定：0.8f 存为 0.800000011920929，算作已掌握）
+     */
+    static void insertWord(Connection connection, String word, float strength, boolean active,
+                           String morphemeList, String meaning) throws Exception {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO " + WORD_NODES_COLUMNS + " VALUES (?, ?, 0, 0, ?, ?, ?)")) {
+            statement.setString(1, word);
+            statement.setFloat(2, strength);
+            statement.setInt(3, active ? 1 : 0);
+            statement.setString(4, morphemeList);
+            statement.setString(5, meaning);
+            statement.executeUpdate();
+        }
+    }
+
+    /**
+     * 写入单词的词根关系
+     * 与 MorphemeDao 一样以 REPLACE 写入（外层的冲突策略会作用到触发器内的语句）；
+     * 位置规则与 WordNode.parseMorphemeRelations 相同：首个=前缀，末个=后缀，其余=词根
+     */
+    static void insertRelations(Connection connection, String word, String... morphemes) throws Exception {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT OR REPLACE INTO morpheme_relations (morpheme, wordId, position) VALUES (?, ?, ?)")) {
+            for (int i = 0; i < morphemes.length; i++) {
+                statement.setString(1, morphemes[i]);
+                statement.setString(2, word);
+                statement.setInt(3, i == 0 ? 0 : i == morphemes.length - 1 ? 2 : 1);
+                statement.executeUpdate();
+            }
+        }
+    }
+
+    /**
+     * 写入复习项（已存在时与 ReviewQueueDao 一样替换）
+     */
+    static void queue(Connection connection, String word, long nextReview) throws Exception {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT OR REPLACE INTO " + REVIEW_QUEUE_COLUMNS + " VALUES (?, ?, 1, 2.5, 0, 0)")) {
+            statement.setString(1, word);
+            statement.setLong(2, nextReview);
+            statement.executeUpdate();
+        }
+    }
+
+    /**
+     * 记录一次复习后的单词强度（按 float 绑定，同 {@link #insertWord}）
+     */
+    static void review(Connection connection, String word, float strength) throws Exception {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "UPDATE word_nodes SET memoryStrength = ?, reviewCount = reviewCount + 1 WHERE word = ?")) {
+            statement.setFloat(1, strength);
+            statement.setString(2, word);
+            statement.executeUpdate();
+        }
+    }
+
+    static void execute(Connection connection, String sql) throws Exception {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    /**
+     * 单个数值结果（没有结果行时为 0）
+     */
+    static long count(Connection connection, String sql) throws Exception {
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery(sql)) {
+            return result.next() ? result.getLong(1) : 0;
+        }
+    }
+
+    /**
+     * 每行第一列的文本
+     */
+    static List<String> strings(Connection connection, String sql) throws Exception {
+        List<String> values = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery(sql)) {
+            while (result.next()) {
+                values.add(result.getString(1));
+            }
+        }
+        return values;
+    }
+
+    private static File daoSource(String dao) {
+        String path = "src/main/java/com/wcw/wordnet/data/local/dao/" + dao + ".java";
+        File file = new File(path);
+        // Gradle 以模块目录为工作目录；从仓库根目录运行时补上模块名
+        return file.exists() ? file : new File("app", path);
+    }
+
+    private static String readResource(String name) throws Exception {
+        try (InputStream in = DaoQueries.class.getResourceAsStream(name);
+             Scanner scanner = new Scanner(in, "UTF-8").useDelimiter("\\A")) {
+            return scanner.hasNext() ? scanner.next() : "";
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.wcw.wordnet.data.local.dao;
+
+import static com.wcw.wordnet.data.local.dao.DaoQueries.count;
+import static com.wcw.wordnet.data.local.dao.DaoQueries.execute;
+import static com.wcw.wordnet.data.local.dao.DaoQueries.insertWord;
+import static com.wcw.wordnet.data.local.dao.DaoQueries.queue;
+import static org.junit.Assert.assertEquals;
+
+import com.wcw.wordnet.model.DashboardStats;
+import com.wcw.wordnet.model.entity.DueDay;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * 数据看板统计：单条语句（读取计数器和到期直方图）的结果必须与直接对基表计数一致，
+ * 到期数不包含已归档的单词
+ */
+public class DashboardStatsTest {
+
+    private static final long DAY = DueDay.DAY_MILLIS;
+    private static final long HOUR = DAY / 24;
+
+    /**
+     * UTC 第 20000 天 10:00；本地时区 UTC+8 时今天在 UTC 16:00 结束
+     */
+    private static final long NOW = 20_000 * DAY + 10 * HOUR;
+    private static final long END_OF_DAY = 20_000 * DAY + 16 * HOUR;
+
+    private Connection connection;
+
+    @Before
+    public void setUp() throws Exception {
+        connection = DaoQueries.openDatabaseWithTriggers();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        connection.close();
+    }
+
+    @Test
+    public void emptyDatabaseHasZeroStats() throws Exception {
+        assertEquals(new DashboardStats(0, 0, 0, 0, 0f), dashboardStats(NOW, END_OF_DAY));
+    }
+
+    @Test
+    public void singleQueryMatchesSeparateCounts() throws Exception {
+        insertQueuedWord("construct", 0.9f, true, NOW - 3 * DAY);  // 已掌握，三天前到期（直方图）
+        insertQueuedWord("structure", 0.2f, true, NOW);            // 正好到期（当天逐行计数）
+        insertQueuedWord("destroy", 0.5f, true, NOW + 10);         // 今天晚些时候到期
+        insertQueuedWord("instruct", 0.4f, true, END_OF_DAY);      // 明天到期
+        insertQueuedWord("obstruct", 0.95f, false, NOW - DAY);     // 已归档，不计入任何统计
+        insertQueuedWord("react", 0.3f, true, -1);                 // 不在复习队列中
+
+        DashboardStats stats = dashboardStats(NOW, END_OF_DAY);
+        assertSameStats(oracle(NOW, END_OF_DAY), stats);
+        assertEquals(5, stats.getTotalWords());
+        assertEquals(1, stats.getMasteredWords());
+        assertEquals(2, stats.getDueNow());
+        assertEquals(3, stats.getDueToday());
+        assertEquals((0.9f + 0.2f + 0.5f + 0.4f + 0.3f) / 5, stats.getAvgStrength(), 1e-6);
+        assertEquals(20, stats.getMasteredPercentage());
+
+        // 本地时区 UTC-5：今天在下一个 UTC 日的 05:00 结束
+        long endOfDayWest = 20_001 * DAY + 5 * HOUR;
+        insertQueuedWord("restructure", 0.6f, true, 20_001 * DAY + HOUR);
+        assertSameStats(oracle(NOW, endOfDayWest), dashboardStats(NOW, endOfDayWest));
+        assertEquals(5, dashboardStats(NOW, endOfDayWest).getDueToday());
+
+        // 归档、恢复、删除后仍与基表一致
+        execute(connection, "UPDATE word_nodes SET isActive = 0 WHERE word = 'construct'");
+        execute(connection, "UPDATE word_nodes SET isActive = 1 WHERE word = 'obstruct'");
+        execute(connection, "DELETE FROM word_nodes WHERE word = 'structure'");
+        assertSameStats(oracle(NOW, END_OF_DAY), dashboardStats(NOW, END_OF_DAY));
+        assertEquals(count(connection, "SELECT value FROM counters WHERE name = 'active_words'"),
+                dashboardStats(NOW, END_OF_DAY).getTotalWords());
+    }
+
+    // ==================== 工具方法 ====================
+
+    /**
+     * 平均强度由计数器中的强度和换算，与 AVG 只在浮点末位上可能不同
+     */
+    private static void assertSameStats(DashboardStats expected, DashboardStats actual) {
+        assertEquals(expected.getTotalWords(), actual.getTotalWords());
+        assertEquals(expected.getMasteredWords(), actual.getMasteredWords());
+        assertEquals(expected.getDueNow(), actual.getDueNow());
+        assertEquals(expected.getDueToday(), actual.getDueToday());
+        assertEquals(expected.getAvgStrength(), actual.getAvgStrength(), 1e-6);
+    }
+
+    private DashboardStats dashboardStats(long now, long endOfDay) throws Exception {
+        return read(DaoQueries.get("WordDao.getDashboardStats")
+                .replace(":now", String.valueOf(now))
+                .replace(":endOfDay", String.valueOf(endOfDay)));
+    }
+
+    /**
+     * 直接对 word_nodes / review_queue 计数
+     */
+    private DashboardStats oracle(long now, long endOfDay) throws Exception {
+        return read("SELECT " +
+                "(SELECT COUNT(*) FROM word_nodes WHERE isActive = 1) AS totalWords, " +
+                "(SELECT COUNT(*) FROM word_nodes WHERE isActive = 1 AND memoryStrength > 0.8) AS masteredWords, " +
+                "(SELECT COUNT(*) FROM review_queue q JOIN word_nodes w ON w.word = q.wordId " +
+                "WHERE q.next_review_time <= " + now + " AND w.isActive = 1) AS dueNow, " +
+                "(SELECT COUNT(*) FROM review_queue q JOIN word_nodes w ON w.word = q.wordId " +
+                "WHERE q.next_review_time < " + endOfDay + " AND w.isActive = 1) AS dueToday, " +
+                "(SELECT COALESCE(AVG(memoryStrength), 0) FROM word_nodes WHERE isActive = 1) AS avgStrength");
+    }
+
+    private DashboardStats read(String sql) throws Exception {
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery(sql)) {
+            result.next();
+            return new DashboardStats(result.getInt("totalWords"), result.getInt("masteredWords"),
+                    result.getInt("dueNow"), result.getInt("dueToday"), result.getFloat("avgStrength"));
+        }
+    }
+
+    /**
+     * @param nextReview 下次复习时间，负数表示不加入复习队列
+     */
+    private void insertQueuedWord(String word, float strength, boolean active, long nextReview) throws Exception {
+        insertWord(connection, word, strength, active);
+        if (nextReview >= 0) queue(connection, word, nextReview);
+    }
+}
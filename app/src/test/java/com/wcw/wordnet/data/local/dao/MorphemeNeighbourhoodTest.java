@@ -0,0 +1,184 @@
+package com.wcw.wordnet.data.local.dao;
+
+import static com.wcw.wordnet.data.local.dao.DaoQueries.insertRelations;
+import static com.wcw.wordnet.data.local.dao.DaoQueries.insertWord;
+import static com.wcw.wordnet.data.local.dao.DaoQueries.strings;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * 单词详情页的两跳邻域查询：排名、封顶、归档过滤，以及大词根下的耗时
+ */
+public class MorphemeNeighbourhoodTest {
+
+    private Connection connection;
+
+    @Before
+    public void setUp() throws Exception {
+        connection = DaoQueries.openDatabaseWithTriggers();
+        insertWordWithRelations("reconstruction", 0.5f, true, "re", "con", "struct", "tion");
+        insertWordWithRelations("construct", 0.9f, true, "con", "struct");
+        insertWordWithRelations("construction", 0.4f, true, "con", "struct", "tion");
+        insertWordWithRelations("structure", 0.3f, true, "struct", "ure");
+        insertWordWithRelations("return", 0.2f, true, "re", "turn");
+        insertWordWithRelations("nation", 0.1f, true, "na", "tion");
+        insertWordWithRelations("restructure", 0.6f, false, "re", "struct", "ure");
+        insertWordWithRelations("turnip", 0.1f, true, "turn", "ip");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        connection.close();
+    }
+
+    @Test
+    public void siblingsAreRankedBySharedMorphemes() throws Exception {
+        // construction 共用 3 个；construct 2 个；其余各 1 个，按记忆强度从低到高
+        // restructure 已归档，turnip 不共用词根，都不出现
+        assertEquals(Arrays.asList(
+                "construction con 3", "construction struct 3", "construction tion 3",
+                "construct con 2", "construct struct 2",
+                "nation tion 1", "return re 1", "structure struct 1"),
+                neighbourhood("reconstruction", 10));
+    }
+
+    @Test
+    public void limitCapsSiblingsNotEdges() throws Exception {
+        // 封顶的是邻居单词数，入选单词的全部共用词根都返回
+        assertEquals(Arrays.asList(
+                "construction con 3", "construction struct 3", "construction tion 3",
+                "construct con 2", "construct struct 2"),
+                neighbourhood("reconstruction", 2));
+        assertEquals(Arrays.asList("turnip turn 1"), neighbourhood("return", 10).subList(0, 1));
+        assertTrue(neighbourhood("unknown", 10).isEmpty());
+    }
+
+    @Test
+    public void randomGraphsMatchNaiveExpansion() throws Exception {
+        Random random = new Random(11);
+        String[] morphemes = {"re", "con", "struct", "tion", "pre", "dict", "able", "port", "spect", "ment"};
+        List<String> words = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            String word = "w" + i;
+            int parts = 1 + random.nextInt(3);
+            String[] chosen = new String[parts];
+            for (int p = 0; p < parts; p++) {
+                chosen[p] = morphemes[random.nextInt(morphemes.length)];
+            }
+            insertWordWithRelations(word, random.nextFloat(), random.nextInt(8) != 0, chosen);
+            words.add(word);
+        }
+        for (int i = 0; i < 30; i++) {
+            String word = words.get(random.nextInt(words.size()));
+            int limit = 1 + random.nextInt(20);
+            assertEquals(word + " limit " + limit, naive(word, limit), neighbourhood(word, limit));
+        }
+    }
+
+    @Test
+    public void largeRootStaysFast() throws Exception {
+        // "re" 有 5000 个兄弟单词
+        connection.setAutoCommit(false);
+        for (int i = 0; i < 5000; i++) {
+            insertWordWithRelations("re" + i, (i % 100) / 100f, true, "re", "x" + (i % 50));
+        }
+        connection.commit();
+        connection.setAutoCommit(true);
+
+        neighbourhood("reconstruction", 40);
+        long start = System.nanoTime();
+        List<String> rows = neighbourhood("reconstruction", 40);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        assertEquals("construction con 3", rows.get(0));
+        Set<String> siblings = new HashSet<>();
+        for (String row : rows) {
+            siblings.add(row.split(" ")[0]);
+        }
+        assertEquals(40, siblings.size());
+        assertTrue("两跳邻域耗时 " + elapsedMs + " ms", elapsedMs < 50);
+    }
+
+    // ==================== 工具方法 ====================
+
+    /**
+     * 执行 DAO 中的查询（邻居 词根 共用数）
+     */
+    private List<String> neighbourhood(String word, int limit) throws Exception {
+        List<String> rows = new ArrayList<>();
+        // :word 出现两次，:limit 一次
+        try (PreparedStatement statement = connection.prepareStatement(
+                DaoQueries.toJdbc(DaoQueries.get("MorphemeDao.getMorphemeNeighbourhood")))) {
+            statement.setString(1, word);
+            statement.setString(2, word);
+            statement.setInt(3, limit);
+            try (ResultSet result = statement.executeQuery()) {
+                while (result.next()) {
+                    rows.add(result.getString("wordId") + " " + result.getString("morpheme")
+                            + " " + result.getInt("sharedCount"));
+                }
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * 逐个词根展开（即原来的 N+1 次查询）后在内存中排名
+     */
+    private List<String> naive(String word, int limit) throws Exception {
+        Set<String> own = new HashSet<>(strings(connection,
+                "SELECT morpheme FROM morpheme_relations WHERE wordId = '" + word + "'"));
+        Map<String, Set<String>> shared = new HashMap<>();
+        for (String morpheme : own) {
+            for (String sibling : strings(connection, "SELECT w.word FROM word_nodes w "
+                    + "INNER JOIN morpheme_relations mr ON w.word = mr.wordId "
+                    + "WHERE mr.morpheme = '" + morpheme + "' AND w.isActive = 1")) {
+                if (!sibling.equals(word)) {
+                    shared.computeIfAbsent(sibling, key -> new HashSet<>()).add(morpheme);
+                }
+            }
+        }
+        Map<String, Float> strength = new HashMap<>();
+        for (String sibling : shared.keySet()) {
+            strength.put(sibling, Float.parseFloat(strings(connection,
+                    "SELECT memoryStrength FROM word_nodes WHERE word = '" + sibling + "'").get(0)));
+        }
+        List<String> ranked = new ArrayList<>(shared.keySet());
+        ranked.sort(Comparator.<String>comparingInt(sibling -> -shared.get(sibling).size())
+                .thenComparing(strength::get)
+                .thenComparing(Comparator.naturalOrder()));
+
+        List<String> rows = new ArrayList<>();
+        for (String sibling : ranked.subList(0, Math.min(limit, ranked.size()))) {
+            for (String morpheme : strings(connection, "SELECT morpheme FROM morpheme_relations "
+                    + "WHERE wordId = '" + sibling + "' ORDER BY position, id")) {
+                if (own.contains(morpheme)) {
+                    rows.add(sibling + " " + morpheme + " " + shared.get(sibling).size());
+                }
+            }
+        }
+        return rows;
+    }
+
+    private void insertWordWithRelations(String word, float strength, boolean active, String... morphemes)
+            throws Exception {
+        insertWord(connection, word, strength, active);
+        insertRelations(connection, word, morphemes);
+    }
+}
@@ -0,0 +1,142 @@
+package com.wcw.wordnet.data.local.dao;
+
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * 词根搜索基准：旧的 morphemeList LIKE '%root%' 与 morpheme 索引前缀查找对比
+ * 规模：10k / 100k / 500k 条词根关系（平均每个单词 2.5 个词根）
+ *
+ * 默认跳过，运行方式：./gradlew :app:testDebugUnitTest -Dwordnet.bench=true
+ *      --tests "*MorphemeSearchBenchmark"
+ */
+public class MorphemeSearchBenchmark {
+
+    /**
+     * 替换前 WordDao.getWordsByRoot 的查询
+     */
+    private static final String LEGACY_LIKE_SQL =
+            "SELECT * FROM word_nodes WHERE morphemeList LIKE '%' || ? || '%' AND isActive=1";
+
+    private static final int[] RELATION_COUNTS = {10_000, 100_000, 500_000};
+    private static final int QUERIES = 50;
+
+    @Before
+    public void onlyWhenRequested() {
+        Assume.assumeTrue("设置 -Dwordnet.bench=true 以运行基准", Boolean.getBoolean("wordnet.bench"));
+    }
+
+    @Test
+    public void prefixSearchVsLike() throws Exception {
+        String prefixSql = DaoQueries.toJdbc(DaoQueries.get("MorphemeDao.searchWordsByMorphemePrefix"));
+        for (int relations : RELATION_COUNTS) {
+            try (Connection connection = DaoQueries.openDatabase()) {
+                String[] morphemes = seed(connection, relations);
+                Random random = new Random(7);
+                long[] like = new long[QUERIES];
+                long[] prefix = new long[QUERIES];
+                int likeRows = 0;
+                int prefixRows = 0;
+                for (int i = 0; i < QUERIES; i++) {
+                    String root = morphemes[random.nextInt(morphemes.length)];
+                    String upper = root.substring(0, root.length() - 1)
+                            + (char) (root.charAt(root.length() - 1) + 1);
+
+                    long start = System.nanoTime();
+                    likeRows += count(connection, LEGACY_LIKE_SQL, root);
+                    like[i] = System.nanoTime() - start;
+
+                    start = System.nanoTime();
+                    int rows = count(connection, prefixSql, root, upper, root);
+                    prefix[i] = System.nanoTime() - start;
+                    assertTrue("精确词根必须命中: " + root, rows > 0);
+                    prefixRows += rows;
+                }
+                System.out.printf("relations=%,d  LIKE: median %.2f ms, p95 %.2f ms, %d rows/query%n",
+                        relations, percentile(like, 50), percentile(like, 95), likeRows / QUERIES);
+                System.out.printf("relations=%,d  前缀索引: median %.2f ms, p95 %.2f ms, %d rows/query%n",
+                        relations, percentile(prefix, 50), percentile(prefix, 95), prefixRows / QUERIES);
+            }
+        }
+    }
+
+    /**
+     * 按给定关系数生成单词和词根关系，返回词根表
+     */
+    private static String[] seed(Connection connection, int relations) throws Exception {
+        Random random = new Random(42);
+        String[] morphemes = new String[Math.max(100, relations / 50)];
+        for (int i = 0; i < morphemes.length; i++) {
+            morphemes[i] = randomMorpheme(random) + i;
+        }
+
+        connection.setAutoCommit(false);
+        try (PreparedStatement word = connection.prepareStatement(
+                "INSERT INTO " + DaoQueries.WORD_NODES_COLUMNS + " VALUES (?, ?, 0, 0, 1, ?, '')");
+             PreparedStatement relation = connection.prepareStatement(
+                     "INSERT INTO morpheme_relations (morpheme, wordId, position) VALUES (?, ?, ?)")) {
+            int inserted = 0;
+            for (int w = 0; inserted < relations; w++) {
+                String id = "w" + w;
+                int parts = Math.min(2 + random.nextInt(2), relations - inserted);
+                StringBuilder list = new StringBuilder("[");
+                for (int p = 0; p < parts; p++) {
+                    String morpheme = morphemes[random.nextInt(morphemes.length)];
+                    relation.setString(1, morpheme);
+                    relation.setString(2, id);
+                    relation.setInt(3, p == 0 ? 0 : (p == parts - 1 ? 2 : 1));
+                    relation.addBatch();
+                    list.append(p > 0 ? "," : "").append('"').append(morpheme).append('"');
+                }
+                word.setString(1, id);
+                word.setFloat(2, random.nextFloat());
+                word.setString(3, list.append(']').toString());
+                word.addBatch();
+                inserted += parts;
+            }
+            word.executeBatch();
+            relation.executeBatch();
+        }
+        connection.commit();
+        connection.setAutoCommit(true);
+        return morphemes;
+    }
+
+    private static String randomMorpheme(Random random) {
+        int length = 2 + random.nextInt(4);
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = (char) ('a' + random.nextInt(26));
+        }
+        return new String(chars);
+    }
+
+    private static int count(Connection connection, String sql, String... params) throws Exception {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < params.length; i++) {
+                statement.setString(i + 1, params[i]);
+            }
+            int rows = 0;
+            try (ResultSet result = statement.executeQuery()) {
+                while (result.next()) rows++;
+            }
+            return rows;
+        }
+    }
+
+    private static double percentile(long[] nanos, int percentile) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        int index = Math.min(sorted.length - 1, sorted.length * percentile / 100);
+        return sorted[index] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,198 @@
+package com.wcw.wordnet.data.local.dao;
+
+import static com.wcw.wordnet.data.local.dao.DaoQueries.count;
+import static com.wcw.wordnet.data.local.dao.DaoQueries.execute;
+import static com.wcw.wordnet.data.local.dao.DaoQueries.insertRelations;
+import static com.wcw.wordnet.data.local.dao.DaoQueries.insertWord;
+import static org.junit.Assert.assertEquals;
+
+import com.wcw.wordnet.data.morpheme.MorphemeStatsTriggers;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * 触发器维护的 morpheme_stats 必须始终等于从 word_nodes / morpheme_relations 直接聚合的结果
+ */
+public class MorphemeStatsTest {
+
+    private Connection connection;
+
+    @Before
+    public void setUp() throws Exception {
+        connection = DaoQueries.openDatabaseWithTriggers();
+        insertWordWithRelations("construct", 0.9f, "con", "struct");
+        insertWordWithRelations("structure", 0.3f, "struct", "ure");
+        insertWordWithRelations("reconstruction", 0.5f, "re", "con", "struct", "tion");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        connection.close();
+    }
+
+    @Test
+    public void insertsAreCounted() throws Exception {
+        List<String> dashboard = dashboard();
+        assertEquals(Arrays.asList("struct 3 1 0.57", "con 2 1 0.70"), dashboard.subList(0, 2));
+        // 单词数相同的词根之间不保证顺序
+        assertEquals(Arrays.asList("re 1 0 0.50", "tion 1 0 0.50", "ure 1 0 0.30"),
+                sorted(dashboard.subList(2, dashboard.size())));
+        assertEquals(oracle(), stats());
+    }
+
+    @Test
+    public void reviewsArchivesAndDeletesKeepStatsExact() throws Exception {
+        // 复习：跨过掌握阈值
+        execute(connection, "UPDATE word_nodes SET memoryStrength = 0.95 WHERE word = 'structure'");
+        assertEquals(oracle(), stats());
+        // 归档后不再计入，ure 行被删除
+        execute(connection, "UPDATE word_nodes SET isActive = 0 WHERE word = 'structure'");
+        assertEquals(oracle(), stats());
+        assertEquals(0, count(connection, "SELECT COUNT(*) FROM morpheme_stats WHERE morpheme = 'ure'"));
+        // 归档期间的强度变化不影响统计；恢复时按新强度计入
+        execute(connection, "UPDATE word_nodes SET memoryStrength = 0.1 WHERE word = 'structure'");
+        assertEquals(oracle(), stats());
+        execute(connection, "UPDATE word_nodes SET isActive = 1 WHERE word = 'structure'");
+        assertEquals(oracle(), stats());
+
+        // 重新拆分：先删后插
+        execute(connection, "DELETE FROM morpheme_relations WHERE wordId = 'construct'");
+        insertRelations(connection, "construct", "con", "str", "uct");
+        assertEquals(oracle(), stats());
+
+        // 删除单词，关系被级联删除，只扣减一次
+        execute(connection, "DELETE FROM word_nodes WHERE word = 'reconstruction'");
+        assertEquals(0, count(connection, "SELECT COUNT(*) FROM morpheme_relations WHERE wordId = 'reconstruction'"));
+        assertEquals(oracle(), stats());
+        assertEquals(0, count(connection, "SELECT COUNT(*) FROM morpheme_stats WHERE morpheme = 're'"));
+
+        // 已归档单词的删除和关系写入都不计入
+        execute(connection, "UPDATE word_nodes SET isActive = 0 WHERE word = 'construct'");
+        insertRelations(connection, "construct", "extra");
+        execute(connection, "DELETE FROM word_nodes WHERE word = 'construct'");
+        assertEquals(oracle(), stats());
+    }
+
+    @Test
+    public void everyRelationWriteBumpsTheMorphemeWriteCounter() throws Exception {
+        long before = count(connection, "SELECT value FROM morpheme_writes WHERE id = 0");
+        insertRelations(connection, "structure", "st");                                        // 1 行
+        execute(connection, "UPDATE morpheme_relations SET position = 1 WHERE morpheme = 'st'");  // 1 行
+        execute(connection, "DELETE FROM morpheme_relations WHERE wordId = 'construct'");        // 2 行
+        execute(connection, "UPDATE word_nodes SET memoryStrength = 0.1");                      // 不涉及关系表
+        execute(connection, "DELETE FROM word_nodes WHERE word = 'reconstruction'");            // 级联删除 4 行
+        assertEquals(before + 8, count(connection, "SELECT value FROM morpheme_writes WHERE id = 0"));
+        assertEquals(oracle(), stats());
+    }
+
+    @Test
+    public void randomOperationsMatchGroupBy() throws Exception {
+        Random random = new Random(7);
+        String[] morphemes = {"re", "con", "struct", "ure", "tion", "pre", "dict", "able"};
+        List<String> words = new ArrayList<>(Arrays.asList("construct", "structure", "reconstruction"));
+        for (int step = 0; step < 400; step++) {
+            String word = words.isEmpty() ? null : words.get(random.nextInt(words.size()));
+            switch (random.nextInt(6)) {
+                case 0: {
+                    String added = "w" + step;
+                    insertWordWithRelations(added, random.nextFloat(),
+                            morphemes[random.nextInt(morphemes.length)],
+                            morphemes[random.nextInt(morphemes.length)]);
+                    words.add(added);
+                    break;
+                }
+                case 1:
+                    if (word != null) update(word, "memoryStrength = " + random.nextFloat());
+                    break;
+                case 2:
+                    if (word != null) update(word, "isActive = " + random.nextInt(2));
+                    break;
+                case 3:
+                    if (word != null) {
+                        execute(connection, "DELETE FROM morpheme_relations WHERE wordId = '" + word + "'");
+                        insertRelations(connection, word, morphemes[random.nextInt(morphemes.length)]);
+                    }
+                    break;
+                case 4:
+                    if (word != null) {
+                        execute(connection, "DELETE FROM word_nodes WHERE word = '" + word + "'");
+                        words.remove(word);
+                    }
+                    break;
+                default:
+                    if (word != null) update(word, "isActive = 1, memoryStrength = " + random.nextFloat());
+                    break;
+            }
+            assertEquals("step " + step, oracle(), stats());
+        }
+        assertEquals(0, count(connection, "SELECT COUNT(*) FROM morpheme_stats WHERE wordCount <= 0"));
+    }
+
+    // ==================== 工具方法 ====================
+
+    /**
+     * 数据看板查询的结果（词根 单词数 已掌握数 平均强度）
+     */
+    private List<String> dashboard() throws Exception {
+        List<String> rows = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery(DaoQueries.get("WordDao.getRootStatistics"))) {
+            while (result.next()) {
+                rows.add(String.format(Locale.ROOT, "%s %d %d %.2f",
+                        result.getString("morpheme"), result.getInt("wordCount"),
+                        result.getInt("masteredCount"), result.getDouble("avgStrength")));
+            }
+        }
+        return rows;
+    }
+
+    private static List<String> sorted(List<String> rows) {
+        List<String> copy = new ArrayList<>(rows);
+        Collections.sort(copy);
+        return copy;
+    }
+
+    private List<String> stats() throws Exception {
+        return statsRows("SELECT morpheme, wordCount, masteredCount, strengthSum FROM morpheme_stats " +
+                "ORDER BY morpheme");
+    }
+
+    private List<String> oracle() throws Exception {
+        return statsRows(MorphemeStatsTriggers.backfillStatement()
+                .replaceFirst("^INSERT INTO morpheme_stats \\([^)]*\\) ", "")
+                + " ORDER BY mr.morpheme");
+    }
+
+    private List<String> statsRows(String sql) throws Exception {
+        List<String> rows = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery(sql)) {
+            while (result.next()) {
+                rows.add(String.format(Locale.ROOT, "%s %d %d %.4f",
+                        result.getString(1), result.getInt(2), result.getInt(3), result.getDouble(4)));
+            }
+        }
+        return rows;
+    }
+
+    private void insertWordWithRelations(String word, float strength, String... morphemes) throws Exception {
+        insertWord(connection, word, strength, true);
+        insertRelations(connection, word, morphemes);
+    }
+
+    private void update(String word, String assignments) throws Exception {
+        execute(connection, "UPDATE word_nodes SET " + assignments + " WHERE word = '" + word + "'");
+    }
+}
@@ -0,0 +1,218 @@
+package com.wcw.wordnet.data.local.dao;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * 查询计划回归测试
+ * 从 DAO 源码中解析每一条 @Query，在按 Room 建表语句创建、并填充了数据的 SQLite 中执行
+ * EXPLAIN QUERY PLAN：出现全表 SCAN 或临时 B 树排序（USE TEMP B-TREE）即失败，
+ * 除非该查询在 ALLOWLIST 中登记了原因，或有专门的计划断言。
+ *
+ * 不执行 ANALYZE：设备上的数据库同样没有统计信息，规划器只依赖索引和启发式规则。
+ */
+public class QueryPlanTest {
+
+    /**
+     * 允许扫描/临时排序的查询（"Dao.method" → 原因）
+     */
+    private static final Map<String, String> ALLOWLIST = new HashMap<>();
+
+    static {
+        ALLOWLIST.put("MorphemeDao.getAllMorphemes", "列出全部词根，本身就要遍历（走覆盖索引）");
+        ALLOWLIST.put("MorphemeDao.getMorphemeWordCountsSync", "构建联想前缀树，按词根索引顺序遍历全部关系一次");
+        ALLOWLIST.put("MorphemeDao.getMorphemeUsageSync", "构建拆分器，遍历全部关系一次");
+        ALLOWLIST.put("MorphemeDao.getActiveRelationsCursor", "构建单词—词根图，遍历全部关系一次");
+        ALLOWLIST.put("MorphemeDao.searchWordsByMorphemePrefix", "词根索引范围查找后，只对命中结果去重排序");
+        ALLOWLIST.put("SearchDao.search", "全文索引命中后，只对命中结果按相关度排序");
+        ALLOWLIST.put("ReviewQueueDao.getAllReviewQueues", "调试用，返回整个队列");
+        ALLOWLIST.put("ReviewQueueDao.getAllReviewQueuesSync", "调试用，返回整个队列");
+        ALLOWLIST.put("ReviewQueueDao.deleteOrphanedReviewQueues", "每个进程对齐一次，需检查每一行");
+        ALLOWLIST.put("WordDao.getRootStatistics", "按 wordCount 索引读取整张 morpheme_stats 聚合表（每个词根一行）");
+        ALLOWLIST.put("WordDao.getWordCountSync", "COUNT(*) 统计全表");
+        ALLOWLIST.put("WordDao.getUnsplitWordsSync", "每个进程批量拆分一次，需检查每一行的词根列表");
+    }
+
+    /**
+     * 有专门断言的查询，不参与 everyQueryUsesAnIndex 的通用检查
+     */
+    private static final String NEIGHBOURHOOD = "MorphemeDao.getMorphemeNeighbourhood";
+
+    private static Connection connection;
+
+    @BeforeClass
+    public static void createSeededDatabase() throws Exception {
+        connection = DaoQueries.openDatabase();
+        seed(2000);
+    }
+
+    @AfterClass
+    public static void closeDatabase() throws Exception {
+        connection.close();
+    }
+
+    @Test
+    public void everyQueryUsesAnIndex() throws Exception {
+        List<String> violations = new ArrayList<>();
+        for (Map.Entry<String, String> query : DaoQueries.collect().entrySet()) {
+            if (ALLOWLIST.containsKey(query.getKey()) || query.getKey().equals(NEIGHBOURHOOD)) continue;
+            for (String step : explain(query.getValue())) {
+                if (isFullScan(step)) {
+                    violations.add(query.getKey() + ": " + step);
+                }
+            }
+        }
+        if (!violations.isEmpty()) {
+            fail("以下查询未使用索引（修复索引或登记到 ALLOWLIST）:\n  " + String.join("\n  ", violations));
+        }
+    }
+
+    @Test
+    public void allowlistHasNoStaleEntries() throws Exception {
+        Map<String, String> queries = DaoQueries.collect();
+        for (String key : ALLOWLIST.keySet()) {
+            assertTrue("ALLOWLIST 中的查询已不存在: " + key, queries.containsKey(key));
+            boolean scans = false;
+            for (String step : explain(queries.get(key))) {
+                scans |= isFullScan(step);
+            }
+            assertTrue("查询已不再扫描，请从 ALLOWLIST 中移除: " + key, scans);
+        }
+    }
+
+    @Test
+    public void dueQueriesDriveFromNextReviewTimeIndex() throws Exception {
+        for (Map.Entry<String, String> query : DaoQueries.collect().entrySet()) {
+            String sql = query.getValue();
+            if (!query.getKey().startsWith("ReviewQueueDao.")
+                    || !sql.contains("next_review_time <=")) continue;
+            List<String> plan = tableAccesses(explain(sql));
+            assertFalse(query.getKey(), plan.isEmpty());
+            // 外层循环必须是 next_review_time 上的范围查找，而不是遍历所有活跃单词
+            assertTrue(query.getKey() + ": " + plan,
+                    plan.get(0).contains("index_review_queue_next_review_time"));
+        }
+    }
+
+    @Test
+    public void neighbourhoodSearchesBaseTablesAndScansOnlyCtes() throws Exception {
+        String sql = DaoQueries.collect().get(NEIGHBOURHOOD);
+        assertNotNull(NEIGHBOURHOOD, sql);
+        List<String> plan = tableAccesses(explain(sql));
+        // 基表只允许索引查找：own 按 wordId 取单词自己的词根，siblings 按 morpheme 找兄弟单词、按主键取单词，
+        // 最后按 wordId 取回入选邻居的边
+        assertTrue(plan.toString(), plan.contains(
+                "SEARCH morpheme_relations USING INDEX index_morpheme_relations_wordId_position (wordId=?)"));
+        assertTrue(plan.toString(), plan.contains(
+                "SEARCH mr USING INDEX index_morpheme_relations_morpheme (morpheme=?)"));
+        assertTrue(plan.toString(), plan.contains(
+                "SEARCH w USING INDEX sqlite_autoindex_word_nodes_1 (word=?)"));
+        assertTrue(plan.toString(), plan.contains(
+                "SEARCH mr USING INDEX index_morpheme_relations_wordId_position (wordId=?)"));
+        for (String step : plan) {
+            if (step.startsWith("SEARCH ")) {
+                assertTrue(step, step.contains(" USING INDEX ") || step.contains(" USING COVERING INDEX "));
+            } else {
+                // 只扫描 CTE 的中间结果：own（单词自己的几个词根）和 s（LIMIT 封顶后的邻居）
+                assertTrue(step, step.equals("SCAN own") || step.equals("SCAN s"));
+            }
+        }
+    }
+
+    /**
+     * 只保留读表的步骤（去掉 SCALAR SUBQUERY 等分组行和不读表的 SCAN CONSTANT ROW）
+     */
+    private static List<String> tableAccesses(List<String> plan) {
+        List<String> accesses = new ArrayList<>();
+        for (String step : plan) {
+            if ((step.startsWith("SEARCH ") || step.startsWith("SCAN ")) && !step.equals("SCAN CONSTANT ROW")) {
+                accesses.add(step);
+            }
+        }
+        return accesses;
+    }
+
+    private static boolean isFullScan(String step) {
+        if (step.contains("VIRTUAL TABLE INDEX")) {
+            // FTS 虚拟表：INDEX 0 为全表扫描，其余为 rowid 或 MATCH 查找
+            return step.contains("VIRTUAL TABLE INDEX 0:");
+        }
+        if (step.equals("SCAN CONSTANT ROW")) {
+            // 没有 FROM 的外层 SELECT（只由标量子查询组成），不读任何表
+            return false;
+        }
+        return step.startsWith("SCAN ") || step.contains("USE TEMP B-TREE");
+    }
+
+    private static List<String> explain(String sql) throws Exception {
+        String jdbcSql = DaoQueries.toJdbc(sql);
+        List<String> plan = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement("EXPLAIN QUERY PLAN " + jdbcSql)) {
+            int params = statement.getParameterMetaData().getParameterCount();
+            for (int i = 1; i <= params; i++) {
+                statement.setNull(i, Types.NULL);
+            }
+            try (ResultSet rows = statement.executeQuery()) {
+                while (rows.next()) {
+                    plan.add(rows.getString("detail"));
+                }
+            }
+        }
+        return plan;
+    }
+
+    private static void seed(int words) throws Exception {
+        Random random = new Random(42);
+        String[] morphemes = {"re", "pre", "struct", "spect", "port", "tion", "able", "dict", "ject", "ment"};
+        connection.setAutoCommit(false);
+        try (PreparedStatement word = connection.prepareStatement(
+                "INSERT INTO " + DaoQueries.WORD_NODES_COLUMNS + " VALUES (?, ?, ?, ?, ?, ?, ?)");
+             PreparedStatement review = connection.prepareStatement(
+                     "INSERT INTO " + DaoQueries.REVIEW_QUEUE_COLUMNS + " VALUES (?, ?, 1, 2.5, 0, 0)");
+             PreparedStatement relation = connection.prepareStatement(
+                     "INSERT INTO morpheme_relations (morpheme, wordId, position) VALUES (?, ?, ?)")) {
+            for (int i = 0; i < words; i++) {
+                String id = "word" + i;
+                String first = morphemes[random.nextInt(morphemes.length)];
+                String last = morphemes[random.nextInt(morphemes.length)];
+                word.setString(1, id);
+                word.setFloat(2, random.nextFloat());
+                word.setLong(3, random.nextInt(1_000_000));
+                word.setInt(4, random.nextInt(20));
+                word.setInt(5, random.nextInt(10) == 0 ? 0 : 1);
+                word.setString(6, "[" + first + ", " + last + "]");
+                word.setString(7, "释义" + i);
+                word.executeUpdate();
+
+                review.setString(1, id);
+                review.setLong(2, random.nextInt(2_000_000));
+                review.executeUpdate();
+
+                for (int position = 0; position < 2; position++) {
+                    relation.setString(1, position == 0 ? first : last);
+                    relation.setString(2, id);
+                    relation.setInt(3, position == 0 ? 0 : 2);
+                    relation.executeUpdate();
+                }
+            }
+        }
+        connection.commit();
+        connection.setAutoCommit(true);
+    }
+}
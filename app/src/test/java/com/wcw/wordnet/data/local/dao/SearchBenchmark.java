@@ -0,0 +1,140 @@
+package com.wcw.wordnet.data.local.dao;
+
+import com.wcw.wordnet.data.search.SearchIndex;
+import com.wcw.wordnet.data.search.SearchQuery;
+
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * 全文搜索基准：100k 单词，模拟边输入边搜索（英文逐字母前缀、两字中文）
+ * 与 WordRepository.searchWords 一样，只有一个字母时走单词前缀查询
+ * 目标：中端手机上每次查询 < 10 ms（JVM 上的数字仅作相对参考）
+ *
+ * 默认跳过，运行方式：./gradlew :app:testDebugUnitTest -Dwordnet.bench=true
+ *      --tests "*SearchBenchmark"
+ */
+public class SearchBenchmark {
+
+    private static final int WORDS = 100_000;
+    private static final int QUERIES = 200;
+    private static final String HAN = "重建改造结构字典词预览习不可测性构体语法义理解释放开关";
+
+    @Before
+    public void onlyWhenRequested() {
+        Assume.assumeTrue("设置 -Dwordnet.bench=true 以运行基准", Boolean.getBoolean("wordnet.bench"));
+    }
+
+    @Test
+    public void searchAsYouType() throws Exception {
+        try (Connection connection = DaoQueries.openDatabase()) {
+            try (Statement statement = connection.createStatement()) {
+                for (String trigger : SearchIndex.triggerStatements()) {
+                    statement.execute(trigger);
+                }
+            }
+            String[] words = seed(connection);
+            String sql = DaoQueries.toJdbc(DaoQueries.get("SearchDao.search"));
+            String prefixSql = DaoQueries.toJdbc(DaoQueries.get("SearchDao.searchWordPrefix"));
+
+            Random random = new Random(7);
+            for (int length = 1; length <= 4; length++) {
+                long[] nanos = new long[QUERIES];
+                for (int i = 0; i < QUERIES; i++) {
+                    String word = words[random.nextInt(words.length)];
+                    nanos[i] = time(connection, sql, prefixSql, word.substring(0, Math.min(length, word.length())));
+                }
+                report("英文前缀 " + length + " 个字母", nanos);
+            }
+            long[] nanos = new long[QUERIES];
+            for (int i = 0; i < QUERIES; i++) {
+                int start = random.nextInt(HAN.length() - 1);
+                nanos[i] = time(connection, sql, prefixSql, HAN.substring(start, start + 2));
+            }
+            report("中文两字", nanos);
+        }
+    }
+
+    private static String[] seed(Connection connection) throws Exception {
+        Random random = new Random(42);
+        String[] words = new String[WORDS];
+        connection.setAutoCommit(false);
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT OR IGNORE INTO " + DaoQueries.WORD_NODES_COLUMNS + " VALUES (?, ?, 0, 0, 1, ?, ?)")) {
+            for (int i = 0; i < WORDS; i++) {
+                String first = letters(random, 2 + random.nextInt(3));
+                String second = letters(random, 3 + random.nextInt(4));
+                words[i] = first + second + i;
+                StringBuilder meaning = new StringBuilder();
+                for (int c = 2 + random.nextInt(6); c > 0; c--) {
+                    meaning.append(HAN.charAt(random.nextInt(HAN.length())));
+                }
+                insert.setString(1, words[i]);
+                insert.setFloat(2, random.nextFloat());
+                insert.setString(3, "[\"" + first + "\",\"" + second + "\"]");
+                insert.setString(4, meaning.toString());
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+        connection.setAutoCommit(true);
+        return words;
+    }
+
+    private static long time(Connection connection, String sql, String prefixSql, String input) throws Exception {
+        SearchQuery query = SearchQuery.parse(input);
+        long start = System.nanoTime();
+        if (query.isShortPrefix()) {
+            try (PreparedStatement statement = connection.prepareStatement(prefixSql)) {
+                statement.setString(1, query.getTerm());
+                statement.setString(2, query.getTermUpperBound());
+                statement.setInt(3, 50);
+                try (ResultSet rows = statement.executeQuery()) {
+                    while (rows.next()) {
+                        rows.getString("word");
+                    }
+                }
+            }
+            return System.nanoTime() - start;
+        }
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, query.getMatch());
+            statement.setString(2, query.getTerm());
+            statement.setString(3, query.getTerm());
+            statement.setString(4, query.getTermUpperBound());
+            statement.setString(5, query.getTerm());
+            statement.setInt(6, 50);
+            try (ResultSet rows = statement.executeQuery()) {
+                while (rows.next()) {
+                    rows.getString("word");
+                }
+            }
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static String letters(Random random, int length) {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = (char) ('a' + random.nextInt(26));
+        }
+        return new String(chars);
+    }
+
+    private static void report(String label, long[] nanos) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        System.out.printf("%s: median %.2f ms, p95 %.2f ms%n", label,
+                sorted[sorted.length / 2] / 1_000_000.0,
+                sorted[sorted.length * 95 / 100] / 1_000_000.0);
+    }
+}
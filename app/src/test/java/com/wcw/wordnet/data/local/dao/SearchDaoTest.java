@@ -0,0 +1,131 @@
+package com.wcw.wordnet.data.local.dao;
+
+import static com.wcw.wordnet.data.local.dao.DaoQueries.execute;
+import static com.wcw.wordnet.data.local.dao.DaoQueries.insertWord;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.wcw.wordnet.data.search.SearchQuery;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class SearchDaoTest {
+
+    private Connection connection;
+
+    @Before
+    public void setUp() throws Exception {
+        connection = DaoQueries.openDatabaseWithTriggers();
+        insertWord(connection, "reconstruction", 0.6f, true, "[\"re\",\"struct\",\"tion\"]", "重建、改造");
+        insertWord(connection, "structure", 0.2f, true, "[\"struct\",\"ure\"]", "结构、构造");
+        insertWord(connection, "struct", 0.9f, true, "[\"struct\"]", "结构体");
+        insertWord(connection, "construct", 0.1f, true, "[\"con\",\"struct\"]", "建造");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        connection.close();
+    }
+
+    @Test
+    public void englishResultsRankExactThenPrefixThenMorpheme() throws Exception {
+        // struct 完全相同 → structure 前缀 → construct / reconstruction 词根（按记忆强度）
+        assertEquals(Arrays.asList("struct", "structure", "construct", "reconstruction"), search("struct"));
+        assertEquals(Arrays.asList("structure", "struct", "construct", "reconstruction"), search("stru"));
+    }
+
+    @Test
+    public void chineseMeaningMatchesAdjacentCharacters() throws Exception {
+        assertEquals(Arrays.asList("structure", "struct"), search("结构"));
+        // 只有“建造”中“建”“造”相邻；“重建、改造”不应命中
+        assertEquals(Collections.singletonList("construct"), search("建造"));
+        assertEquals(Collections.singletonList("reconstruction"), search("re 改造"));
+    }
+
+    @Test
+    public void triggersFollowUpdatesAndDeletes() throws Exception {
+        execute(connection, "UPDATE word_nodes SET chineseMeaning = '语法结构' WHERE word = 'construct'");
+        assertEquals(Collections.emptyList(), search("建造"));
+        assertEquals(Collections.singletonList("construct"), search("语法"));
+
+        execute(connection, "DELETE FROM word_nodes WHERE word = 'structure'");
+        assertEquals(Arrays.asList("construct", "struct"), search("结构"));
+
+        // 归档的单词仍在索引中，但不出现在结果里
+        execute(connection, "UPDATE word_nodes SET isActive = 0 WHERE word = 'struct'");
+        assertEquals(Collections.singletonList("construct"), search("结构"));
+    }
+
+    @Test
+    public void operatorsInInputAreTreatedAsSeparators() throws Exception {
+        // 大写运算符被转成普通小写词项，引号和星号被丢弃后重新生成
+        assertEquals("struct* or* \"结 构\"", SearchQuery.parse("STRUCT OR \"结构*").getMatch());
+        assertNull(SearchQuery.parse("  -*\"() "));
+        assertEquals(Collections.singletonList("reconstruction"), search("(re)-\"struct\""));
+    }
+
+    @Test
+    public void singleLetterSearchesWordPrefixInDictionaryOrder() throws Exception {
+        insertWord(connection, "s", 0.5f, true, "[]", "");
+        assertTrue(SearchQuery.parse("S").isShortPrefix());
+        assertFalse(SearchQuery.parse("st").isShortPrefix());
+        assertFalse(SearchQuery.parse("s 结构").isShortPrefix());
+
+        // 完全相同的单词排在最前，其余按字典序；词根和释义不参与
+        assertEquals(Arrays.asList("s", "struct", "structure"), searchWordPrefix("s", 50));
+        assertEquals(Collections.singletonList("s"), searchWordPrefix("s", 1));
+
+        execute(connection, "UPDATE word_nodes SET isActive = 0 WHERE word = 'struct'");
+        assertEquals(Arrays.asList("s", "structure"), searchWordPrefix("s", 50));
+    }
+
+    private List<String> searchWordPrefix(String input, int limit) throws Exception {
+        SearchQuery query = SearchQuery.parse(input);
+        List<String> words = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(
+                DaoQueries.toJdbc(DaoQueries.get("SearchDao.searchWordPrefix")))) {
+            statement.setString(1, query.getTerm());
+            statement.setString(2, query.getTermUpperBound());
+            statement.setInt(3, limit);
+            try (ResultSet rows = statement.executeQuery()) {
+                while (rows.next()) {
+                    words.add(rows.getString("word"));
+                }
+            }
+        }
+        return words;
+    }
+
+    private List<String> search(String input) throws Exception {
+        SearchQuery query = SearchQuery.parse(input);
+        List<String> words = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(
+                DaoQueries.toJdbc(DaoQueries.get("SearchDao.search")))) {
+            // :match, :term, :term, :termUpperBound, :term, :limit
+            statement.setString(1, query.getMatch());
+            statement.setString(2, query.getTerm());
+            statement.setString(3, query.getTerm());
+            statement.setString(4, query.getTermUpperBound());
+            statement.setString(5, query.getTerm());
+            statement.setInt(6, 50);
+            try (ResultSet rows = statement.executeQuery()) {
+                while (rows.next()) {
+                    words.add(rows.getString("word"));
+                }
+            }
+        }
+        return words;
+    }
+}
@@ -0,0 +1,208 @@
+package com.wcw.wordnet.data.local.dao;
+
+import static com.wcw.wordnet.data.local.dao.DaoQueries.count;
+import static com.wcw.wordnet.data.local.dao.DaoQueries.execute;
+import static com.wcw.wordnet.data.local.dao.DaoQueries.insertWord;
+import static com.wcw.wordnet.data.local.dao.DaoQueries.review;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.wcw.wordnet.model.entity.WordChange;
+import com.wcw.wordnet.model.entity.WordNode;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * 触发器写入的单词变更日志：日志加上变化单词的当前行足以修补任何内存副本（单词缓存），
+ * 修补后必须始终等于直接查询 word_nodes 的结果
+ */
+public class WordChangeLogTest {
+
+    private static final float[] STRENGTHS = {0f, 0.1f, 0.3f, 0.5f, 0.8f, 0.81f, 1f};
+
+    private Connection connection;
+    private long lastSeq;
+
+    @Before
+    public void setUp() throws Exception {
+        connection = DaoQueries.openDatabaseWithTriggers();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        connection.close();
+    }
+
+    @Test
+    public void everyWriteIsLoggedWithBeforeAndAfterState() throws Exception {
+        insertWord(connection, "construct", 0.3f, true);
+        execute(connection, "UPDATE word_nodes SET memoryStrength = 0.9, reviewCount = 1 WHERE word = 'construct'");
+        execute(connection, "UPDATE word_nodes SET isActive = 0 WHERE word = 'construct'");
+        execute(connection, "DELETE FROM word_nodes WHERE word = 'construct'");
+
+        List<WordChange> changes = readChanges();
+        assertEquals(4, changes.size());
+        assertChange(changes.get(0), WordChange.INSERTED, false, 0f, true, 0.3f);
+        assertChange(changes.get(1), WordChange.UPDATED, true, 0.3f, true, 0.9f);
+        assertChange(changes.get(2), WordChange.UPDATED, true, 0.9f, false, 0.9f);
+        assertTrue(changes.get(2).isRemoved());
+        assertChange(changes.get(3), WordChange.DELETED, false, 0.9f, false, 0f);
+        assertFalse(changes.get(3).isRemoved());
+
+        // 已分发的日志被删除后，序号继续递增
+        execute(connection, DaoQueries.get("WordDao.pruneWordChanges").replace(":seq", String.valueOf(lastSeq)));
+        assertEquals(0, count(connection, "SELECT COUNT(*) FROM word_changes"));
+        insertWord(connection, "react", 0.5f, true);
+        assertEquals(lastSeq + 1, readChanges().get(0).getSeq());
+    }
+
+    @Test
+    public void logAndCurrentRowsKeepACopyExact() throws Exception {
+        // 与单词缓存一样只按日志和变化单词的当前行修补内存副本，副本必须始终等于 word_nodes
+        Random random = new Random(11);
+        List<String> words = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            words.add("w" + i);
+            insertWord(connection, "w" + i, STRENGTHS[random.nextInt(STRENGTHS.length)], random.nextInt(5) > 0);
+        }
+        Map<String, WordNode> copy = new HashMap<>();
+        for (WordNode node : allWords()) {
+            copy.put(node.getWord(), node);
+        }
+        lastSeq = count(connection, "SELECT MAX(seq) FROM word_changes");
+
+        for (int step = 0; step < 600; step++) {
+            // 每批 1-3 次写入（评分批量提交时一个事务会写多行）
+            int writes = 1 + random.nextInt(3);
+            for (int i = 0; i < writes; i++) {
+                String word = words.get(random.nextInt(words.size()));
+                float strength = STRENGTHS[random.nextInt(STRENGTHS.length)];
+                switch (random.nextInt(8)) {
+                    case 0:
+                        execute(connection, "UPDATE word_nodes SET isActive = 0 WHERE word = '" + word + "'");
+                        break;
+                    case 1:
+                        execute(connection, "UPDATE word_nodes SET isActive = 1 WHERE word = '" + word + "'");
+                        break;
+                    case 2:
+                        execute(connection, "DELETE FROM word_nodes WHERE word = '" + word + "'");
+                        if (random.nextBoolean()) insertWord(connection, word, strength, true);
+                        break;
+                    case 3:
+                        execute(connection, "UPDATE word_nodes SET chineseMeaning = '释义" + step + "' " +
+                                "WHERE word = '" + word + "'");
+                        break;
+                    default:
+                        review(connection, word, strength);
+                        break;
+                }
+            }
+
+            List<WordChange> changes = readChanges();
+            Map<String, WordNode> rows = currentRows(changes);
+            for (WordChange change : changes) {
+                WordNode row = rows.get(change.getWord());
+                if (row != null) {
+                    copy.put(change.getWord(), row);
+                } else {
+                    copy.remove(change.getWord());
+                }
+            }
+            assertEquals("step " + step, describe(allWords()), describe(copy.values()));
+        }
+    }
+
+    // ==================== 工具方法 ====================
+
+    private List<WordChange> readChanges() throws Exception {
+        List<WordChange> changes = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(
+                DaoQueries.toJdbc(DaoQueries.get("WordDao.getWordChangesSync")))) {
+            statement.setLong(1, lastSeq);
+            statement.setInt(2, 500);
+            try (ResultSet result = statement.executeQuery()) {
+                while (result.next()) {
+                    changes.add(new WordChange(result.getLong("seq"), result.getString("word"),
+                            result.getInt("kind"), result.getBoolean("oldActive"), result.getFloat("oldStrength"),
+                            result.getBoolean("newActive"), result.getFloat("newStrength")));
+                }
+            }
+        }
+        if (!changes.isEmpty()) {
+            lastSeq = changes.get(changes.size() - 1).getSeq();
+        }
+        return changes;
+    }
+
+    private Map<String, WordNode> currentRows(List<WordChange> changes) throws Exception {
+        Set<String> words = new LinkedHashSet<>();
+        for (WordChange change : changes) {
+            words.add(change.getWord());
+        }
+        String placeholders = String.join(", ", Collections.nCopies(words.size(), "?"));
+        Map<String, WordNode> rows = new HashMap<>();
+        try (PreparedStatement statement = connection.prepareStatement(DaoQueries.get("WordDao.getWordsByIdsSync")
+                .replace("(:words)", "(" + placeholders + ")"))) {
+            int index = 1;
+            for (String word : words) {
+                statement.setString(index++, word);
+            }
+            for (WordNode row : wordNodes(statement)) {
+                rows.put(row.getWord(), row);
+            }
+        }
+        return rows;
+    }
+
+    private List<WordNode> allWords() throws Exception {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT * FROM word_nodes")) {
+            return wordNodes(statement);
+        }
+    }
+
+    private static List<WordNode> wordNodes(PreparedStatement statement) throws Exception {
+        List<WordNode> nodes = new ArrayList<>();
+        try (ResultSet result = statement.executeQuery()) {
+            while (result.next()) {
+                nodes.add(new WordNode(result.getString("word"), result.getFloat("memoryStrength"),
+                        result.getLong("lastReviewed"), result.getInt("reviewCount"),
+                        result.getBoolean("isActive"), result.getString("morphemeList")));
+            }
+        }
+        return nodes;
+    }
+
+    private static List<String> describe(Collection<WordNode> nodes) {
+        List<String> rows = new ArrayList<>();
+        for (WordNode node : nodes) {
+            rows.add(node.getWord() + "@" + node.getMemoryStrength() + "/" + node.isActive() + "/" + node.getReviewCount());
+        }
+        Collections.sort(rows);
+        return rows;
+    }
+
+    private static void assertChange(WordChange change, int kind, boolean oldActive, float oldStrength,
+                                     boolean newActive, float newStrength) {
+        assertEquals(change.toString(), kind, change.getKind());
+        assertEquals(change.toString(), oldActive, change.isOldActive());
+        assertEquals(change.toString(), oldStrength, change.getOldStrength(), 1e-6);
+        assertEquals(change.toString(), newActive, change.isNewActive());
+        assertEquals(change.toString(), newStrength, change.getNewStrength(), 1e-6);
+    }
+}
@@ -0,0 +1,166 @@
+package com.wcw.wordnet.data.local.dao;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 单词列表的键集分页查询：逐页向后、向前翻页拼起来必须正好是完整的排序结果，
+ * 记忆强度相同的单词按 word 决定先后，不重复也不遗漏
+ */
+public class WordPagingTest {
+
+    private static final float[] STRENGTHS = {0f, 0.1f, 0.25f, 0.5f, 0.8f, 1f};
+
+    private Connection connection;
+
+    @Before
+    public void setUp() throws Exception {
+        connection = DaoQueries.openDatabase();
+        Random random = new Random(3);
+        connection.setAutoCommit(false);
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO " + DaoQueries.WORD_NODES_COLUMNS + " VALUES (?, ?, 0, 0, ?, '[]', '')")) {
+            for (int i = 0; i < 1000; i++) {
+                // 强度取值很少，大量并列
+                statement.setString(1, "w" + random.nextInt(1_000_000) + "_" + i);
+                statement.setFloat(2, STRENGTHS[random.nextInt(STRENGTHS.length)]);
+                statement.setInt(3, random.nextInt(10) == 0 ? 0 : 1);
+                statement.executeUpdate();
+            }
+        }
+        connection.commit();
+        connection.setAutoCommit(true);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        connection.close();
+    }
+
+    @Test
+    public void appendPagesConcatenateToFullOrder() throws Exception {
+        for (int pageSize : new int[]{1, 7, 50, 2000}) {
+            List<Row> walked = new ArrayList<>();
+            List<Row> page = page("WordDao.getActiveWordsFirstPage", null, pageSize);
+            walked.addAll(page);
+            while (page.size() == pageSize) {
+                Row last = page.get(page.size() - 1);
+                page = page("WordDao.getActiveWordsAfter", last, pageSize);
+                walked.addAll(page);
+            }
+            assertEquals("pageSize " + pageSize, fullOrder(), walked);
+        }
+    }
+
+    @Test
+    public void prependPagesWalkBackToTheTop() throws Exception {
+        List<Row> full = fullOrder();
+        // 从中间某个单词刷新（包含该单词），再一直向上翻页
+        Row anchor = full.get(full.size() / 2);
+        List<Row> walked = new ArrayList<>(page("WordDao.getActiveWordsFrom", anchor, 30));
+        assertEquals(anchor, walked.get(0));
+        Row first = anchor;
+        while (true) {
+            List<Row> before = page("WordDao.getActiveWordsBefore", first, 30);
+            Collections.reverse(before);
+            walked.addAll(0, before);
+            if (before.size() < 30) break;
+            first = before.get(0);
+        }
+        assertEquals(full.subList(0, walked.size()), walked);
+        assertEquals(full.size() / 2 + 30, walked.size());
+    }
+
+    @Test
+    public void pageQueriesAreIndexRangeScans() throws Exception {
+        for (String key : new String[]{"WordDao.getActiveWordsFirstPage", "WordDao.getActiveWordsFrom",
+                "WordDao.getActiveWordsAfter", "WordDao.getActiveWordsBefore"}) {
+            List<String> plan = new ArrayList<>();
+            try (Statement statement = connection.createStatement();
+                 ResultSet result = statement.executeQuery("EXPLAIN QUERY PLAN "
+                         + DaoQueries.get(key).replaceAll(":\\w+", "1"))) {
+                while (result.next()) {
+                    plan.add(result.getString("detail"));
+                }
+            }
+            // 只有一步：索引上的范围查找，没有临时排序
+            assertEquals(key + ": " + plan, 1, plan.size());
+            assertTrue(key + ": " + plan,
+                    plan.get(0).contains("index_word_nodes_isActive_memoryStrength_word"));
+        }
+    }
+
+    // ==================== 工具方法 ====================
+
+    private List<Row> fullOrder() throws Exception {
+        List<Row> rows = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("SELECT word, memoryStrength FROM word_nodes "
+                     + "WHERE isActive = 1 ORDER BY memoryStrength, word")) {
+            while (result.next()) {
+                rows.add(new Row(result.getString(1), result.getFloat(2)));
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * 执行 DAO 中的分页查询；参数顺序：strength 出现两次、word、limit（第一页只有 limit）
+     */
+    private List<Row> page(String key, Row cursor, int limit) throws Exception {
+        List<Row> rows = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(DaoQueries.toJdbc(DaoQueries.get(key)))) {
+            int index = 1;
+            if (cursor != null) {
+                statement.setFloat(index++, cursor.strength);
+                statement.setFloat(index++, cursor.strength);
+                statement.setString(index++, cursor.word);
+            }
+            statement.setInt(index, limit);
+            try (ResultSet result = statement.executeQuery()) {
+                while (result.next()) {
+                    rows.add(new Row(result.getString("word"), result.getFloat("memoryStrength")));
+                }
+            }
+        }
+        return rows;
+    }
+
+    private static final class Row {
+        final String word;
+        final float strength;
+
+        Row(String word, float strength) {
+            this.word = word;
+            this.strength = strength;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Row && ((Row) other).word.equals(word) && ((Row) other).strength == strength;
+        }
+
+        @Override
+        public int hashCode() {
+            return word.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return word + "@" + strength;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.wcw.wordnet.data.local.database;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class MeteredExecutorTest {
+
+    @Test
+    public void singleWriterRunsInSubmissionOrderAndCountsQueueDepth() throws Exception {
+        MeteredExecutor writer = new MeteredExecutor("test-writer", 1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(4);
+        List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+
+        writer.execute(() -> {
+            await(release);
+            order.add(0);
+            done.countDown();
+        });
+        for (int i = 1; i <= 3; i++) {
+            int task = i;
+            writer.execute(() -> {
+                order.add(task);
+                done.countDown();
+            });
+        }
+        // 第一个任务占着写线程，后面三个排队
+        waitUntilStarted(writer.getStats(), 1);
+        assertEquals(3, writer.getStats().getQueueDepth());
+
+        Thread.sleep(20);
+        release.countDown();
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        waitUntilCompleted(writer.getStats(), 4);
+
+        DatabaseExecutorStats stats = writer.getStats();
+        assertEquals(Arrays.asList(0, 1, 2, 3), order);
+        assertEquals(4, stats.getSubmitted());
+        assertEquals(0, stats.getQueueDepth());
+        assertTrue(stats.getMaxQueueDepth() >= 3);
+        // 排队的任务至少等了第一个任务阻塞的时间
+        assertTrue(stats.toString(), stats.getMaxWaitMillis() >= 20);
+        assertTrue(stats.toString(), stats.getAverageWaitMillis() > 0);
+    }
+
+    @Test
+    public void readerPoolNeverGrowsBeyondItsThreads() throws Exception {
+        MeteredExecutor readers = new MeteredExecutor("test-reader", 3);
+        Set<String> threads = Collections.synchronizedSet(new HashSet<>());
+        CountDownLatch done = new CountDownLatch(100);
+        for (int i = 0; i < 100; i++) {
+            readers.execute(() -> {
+                threads.add(Thread.currentThread().getName());
+                sleep(1);
+                done.countDown();
+            });
+        }
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertTrue(threads.toString(), threads.size() <= 3);
+        waitUntilCompleted(readers.getStats(), 100);
+        assertEquals(100, readers.getStats().getCompleted());
+    }
+
+    private static void waitUntilStarted(DatabaseExecutorStats stats, int started) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (stats.getSubmitted() - stats.getQueueDepth() < started && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+
+    private static void waitUntilCompleted(DatabaseExecutorStats stats, int completed) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (stats.getCompleted() < completed && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
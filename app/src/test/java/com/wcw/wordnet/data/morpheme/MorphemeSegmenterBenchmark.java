@@ -0,0 +1,78 @@
+package com.wcw.wordnet.data.morpheme;
+
+import com.wcw.wordnet.model.MorphemeUsage;
+
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 词根拆分基准：2 万个词根（前缀/词根/后缀），拆分 5 万个由 1~4 段组成的单词
+ * 目标：每个单词 < 1 ms，整个词库可以在导入时一遍拆完
+ *
+ * 默认跳过，运行方式：./gradlew :app:testDebugUnitTest -Dwordnet.bench=true
+ *      --tests "*MorphemeSegmenterBenchmark"
+ */
+public class MorphemeSegmenterBenchmark {
+
+    private static final int MORPHEMES = 20_000;
+    private static final int WORDS = 50_000;
+
+    @Before
+    public void onlyWhenRequested() {
+        Assume.assumeTrue("设置 -Dwordnet.bench=true 以运行基准", Boolean.getBoolean("wordnet.bench"));
+    }
+
+    @Test
+    public void segmentDeck() {
+        Random random = new Random(42);
+        List<MorphemeUsage> usages = new ArrayList<>();
+        String[] morphemes = new String[MORPHEMES];
+        for (int i = 0; i < MORPHEMES; i++) {
+            morphemes[i] = letters(random, 2 + random.nextInt(6));
+            usages.add(new MorphemeUsage(morphemes[i], random.nextInt(3), 1 + random.nextInt(50)));
+        }
+        MorphemeSegmenter segmenter = new MorphemeSegmenter();
+        segmenter.load(usages);
+
+        String[] words = new String[WORDS];
+        for (int i = 0; i < WORDS; i++) {
+            StringBuilder word = new StringBuilder();
+            for (int parts = 1 + random.nextInt(4); parts > 0; parts--) {
+                // 偶尔混入词库外的字母
+                word.append(random.nextInt(5) == 0 ? letters(random, 3) : morphemes[random.nextInt(MORPHEMES)]);
+            }
+            words[i] = word.toString();
+        }
+
+        for (int i = 0; i < 5_000; i++) {
+            segmenter.segment(words[i]);
+        }
+        long[] nanos = new long[WORDS];
+        long start = System.nanoTime();
+        for (int i = 0; i < WORDS; i++) {
+            long begin = System.nanoTime();
+            segmenter.segment(words[i]);
+            nanos[i] = System.nanoTime() - begin;
+        }
+        long total = System.nanoTime() - start;
+
+        Arrays.sort(nanos);
+        System.out.printf("拆分 %d 个单词: 共 %.1f ms, median %.1f µs, p99 %.1f µs, max %.1f µs%n",
+                WORDS, total / 1_000_000.0,
+                nanos[WORDS / 2] / 1_000.0, nanos[WORDS * 99 / 100] / 1_000.0, nanos[WORDS - 1] / 1_000.0);
+    }
+
+    private static String letters(Random random, int length) {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = (char) ('a' + random.nextInt(26));
+        }
+        return new String(chars);
+    }
+}
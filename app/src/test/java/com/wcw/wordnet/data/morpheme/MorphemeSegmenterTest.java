@@ -0,0 +1,101 @@
+package com.wcw.wordnet.data.morpheme;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.wcw.wordnet.model.MorphemeUsage;
+import com.wcw.wordnet.model.entity.MorphemeRelation;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class MorphemeSegmenterTest {
+
+    private MorphemeSegmenter segmenter;
+
+    /**
+     * 内置词库 default_words.json 的词根
+     */
+    @Before
+    public void setUp() {
+        segmenter = new MorphemeSegmenter();
+        assertTrue(segmenter.refreshIfStale(() -> Arrays.asList(
+                new MorphemeUsage("re", MorphemeSegmenter.PREFIX, 1),
+                new MorphemeUsage("un", MorphemeSegmenter.PREFIX, 1),
+                new MorphemeUsage("pre", MorphemeSegmenter.PREFIX, 2),
+                new MorphemeUsage("con", MorphemeSegmenter.PREFIX, 1),
+                new MorphemeUsage("struct", MorphemeSegmenter.PREFIX, 1),
+                new MorphemeUsage("struct", MorphemeSegmenter.ROOT, 2),
+                new MorphemeUsage("dict", MorphemeSegmenter.ROOT, 1),
+                new MorphemeUsage("dict", MorphemeSegmenter.PREFIX, 1),
+                new MorphemeUsage("ion", MorphemeSegmenter.ROOT, 1),
+                new MorphemeUsage("view", MorphemeSegmenter.SUFFIX, 1),
+                new MorphemeUsage("tion", MorphemeSegmenter.SUFFIX, 2),
+                new MorphemeUsage("ure", MorphemeSegmenter.SUFFIX, 1),
+                new MorphemeUsage("ary", MorphemeSegmenter.SUFFIX, 1),
+                new MorphemeUsage("ability", MorphemeSegmenter.SUFFIX, 1))));
+    }
+
+    private List<String> split(String word) {
+        return MorphemeRelation.morphemesOf(segmenter.segment(word));
+    }
+
+    private List<Integer> positions(String word) {
+        List<Integer> positions = new ArrayList<>();
+        for (MorphemeRelation relation : segmenter.segment(word)) {
+            positions.add(relation.getPosition());
+        }
+        return positions;
+    }
+
+    @Test
+    public void segment_usesKnownPrefixesRootsAndSuffixes() {
+        assertEquals(Arrays.asList("con", "struct"), split("construct"));
+        assertEquals(Arrays.asList("pre", "dict"), split("Predict"));
+        assertEquals(Arrays.asList("re", "struct", "ure"), split("restructure"));
+        assertEquals(Arrays.asList(0, 1, 2), positions("restructure"));
+        assertEquals(Arrays.asList("un", "pre", "dict", "ability"), split("unpredictability"));
+        assertEquals(Arrays.asList(0, 0, 1, 2), positions("unpredictability"));
+    }
+
+    @Test
+    public void segment_keepsUnknownPartsAsRoots() {
+        // build 不在词库中，作为未知词根保留
+        assertEquals(Arrays.asList("re", "build"), split("rebuild"));
+        assertEquals(Arrays.asList(0, 1), positions("rebuild"));
+        // 完全不认识的单词就是它本身
+        assertEquals(Collections.singletonList("apple"), split("apple"));
+        assertEquals(Collections.singletonList(1), positions("apple"));
+        // 前缀不能单独成词，后缀不能出现在词根之前
+        assertEquals(Collections.singletonList("pre"), split("pre"));
+        assertEquals(Collections.singletonList(1), positions("pre"));
+        assertEquals(Collections.emptyList(), split("  "));
+    }
+
+    @Test
+    public void learn_makesNewRootsAvailable() {
+        assertEquals(Collections.singletonList("buildable"), split("buildable"));
+
+        List<MorphemeRelation> rebuild = segmenter.segment("rebuild");
+        segmenter.learn(rebuild);
+        segmenter.learn(Collections.singletonList(new MorphemeRelation("able", "readable", 2)));
+        // 整个单词本身作为词根的关系不学习
+        segmenter.learn(Collections.singletonList(new MorphemeRelation("apple", "apple", 1)));
+
+        assertEquals(Arrays.asList("build", "able"), split("buildable"));
+        assertEquals(Collections.singletonList("applesauce"), split("applesauce"));
+    }
+
+    @Test
+    public void segment_wordIdIsTheWordAsGiven() {
+        for (MorphemeRelation relation : segmenter.segment("construction")) {
+            assertEquals("construction", relation.getWordId());
+        }
+        assertEquals(Arrays.asList("con", "struct", "ion"), split("construction"));
+    }
+}
@@ -0,0 +1,249 @@
+package com.wcw.wordnet.data.review;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.wcw.wordnet.model.DueCard;
+import com.wcw.wordnet.model.entity.ReviewQueue;
+import com.wcw.wordnet.model.entity.WordNode;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ReviewDueQueueTest {
+
+    private static final long DAY = TimeUnit.DAYS.toMillis(1);
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static DueCard card(String word, long nextReviewTime) {
+        return new DueCard(new ReviewQueue(word, nextReviewTime), new WordNode(word));
+    }
+
+    /**
+     * 与 ReviewCommitter 相同的叠加方式：committed 模拟数据库中已落库的最大序号
+     */
+    private static void overlayJournal(ReviewDueQueue queue, ReviewJournal journal, AtomicLong committed) {
+        queue.setPendingReviews(cards -> {
+            try {
+                return PendingReviews.overlay(cards, journal.snapshot(), committed.get());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    @Test
+    public void peekDue_returnsEarliestCard() {
+        ReviewDueQueue queue = new ReviewDueQueue();
+        queue.load(Arrays.asList(card("c", 30), card("a", 10), card("d", 40), card("b", 20)));
+
+        assertEquals("a", queue.peekDue(100).getWordId());
+        assertEquals(4, queue.size());
+    }
+
+    @Test
+    public void peekDue_ignoresCardsNotYetDue() {
+        ReviewDueQueue queue = new ReviewDueQueue();
+        queue.load(Arrays.asList(card("a", 50), card("b", 60)));
+
+        assertNull(queue.peekDue(40));
+        assertEquals("a", queue.peekDue(50).getWordId());
+    }
+
+    @Test
+    public void applyReview_movesCardBehindRemainingDueCards() {
+        ReviewDueQueue queue = new ReviewDueQueue();
+        List<DueCard> cards = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            cards.add(card("w" + i, i));
+        }
+        queue.load(cards);
+
+        // 依次评分：每张卡都被推迟到很远的将来，堆顶应按时间顺序依次出现
+        for (int i = 0; i < 100; i++) {
+            DueCard head = queue.peekDue(1000);
+            assertEquals("w" + i, head.getWordId());
+            ReviewQueue updated = new ReviewQueue(head.getWordId(), 10_000 + i);
+            queue.applyReview(updated, head.getWord());
+        }
+        assertNull(queue.peekDue(1000));
+        assertEquals(100, queue.size());
+    }
+
+    @Test
+    public void applyReview_leavesHandedOutCardUntouched() {
+        ReviewDueQueue queue = new ReviewDueQueue();
+        queue.load(Arrays.asList(card("a", 10), card("b", 20)));
+
+        // 界面正在显示的卡片和单词不能被写线程修改
+        DueCard shown = queue.peekDue(100);
+        WordNode shownWord = shown.getWord();
+        WordNode reviewed = new WordNode("a");
+        reviewed.updateMemoryStrengthByQuality(5);
+        queue.applyReview(new ReviewQueue("a", 1000), reviewed);
+
+        assertSame(shownWord, shown.getWord());
+        assertEquals(10, shown.getSchedule().getNextReviewTime());
+        assertEquals(0, shownWord.getReviewCount());
+        assertSame(reviewed, queue.get("a").getWord());
+        assertEquals("b", queue.peekDue(100).getWordId());
+    }
+
+    @Test
+    public void upsertAndRemove_keepHeapOrdered() {
+        ReviewDueQueue queue = new ReviewDueQueue();
+        queue.load(Arrays.asList(card("a", 10), card("b", 20), card("c", 30)));
+
+        queue.upsert(card("z", 5));
+        assertEquals("z", queue.peekDue(100).getWordId());
+
+        queue.remove("z");
+        queue.remove("a");
+        assertEquals("b", queue.peekDue(100).getWordId());
+        assertNull(queue.get("a"));
+        assertEquals(2, queue.size());
+    }
+
+    @Test
+    public void invalidation_afterLocalWriteDoesNotForceReload() {
+        AtomicLong writes = new AtomicLong(100);
+        ReviewDueQueue queue = new ReviewDueQueue(writes::get, Runnable::run);
+        queue.refreshIfStale(() -> Arrays.asList(card("a", 10)));
+        assertFalse(queue.isStale());
+
+        // 两次本地写入的通知被合并成一次
+        queue.runLocalWrite(() -> writes.addAndGet(2));
+        queue.runLocalWrite(() -> writes.addAndGet(1));
+        queue.onTablesInvalidated();
+        assertFalse(queue.isStale());
+
+        // 外部写入引起的通知必须让队列过期
+        writes.incrementAndGet();
+        queue.onTablesInvalidated();
+        assertTrue(queue.isStale());
+    }
+
+    @Test
+    public void invalidation_coalescedWithExternalWriteForcesReload() {
+        AtomicLong writes = new AtomicLong(0);
+        ReviewDueQueue queue = new ReviewDueQueue(writes::get, Runnable::run);
+        queue.refreshIfStale(() -> Arrays.asList(card("a", 10)));
+
+        // 本地写入之前有一次外部写入，两者只收到一次通知
+        writes.addAndGet(3);
+        queue.runLocalWrite(() -> writes.addAndGet(2));
+        queue.onTablesInvalidated();
+        assertTrue(queue.isStale());
+
+        // 本地写入之后的外部写入同样不能被本地写入抵消
+        queue.refreshIfStale(() -> Arrays.asList(card("a", 10)));
+        assertFalse(queue.isStale());
+        queue.runLocalWrite(() -> writes.addAndGet(2));
+        writes.incrementAndGet();
+        queue.onTablesInvalidated();
+        assertTrue(queue.isStale());
+    }
+
+    @Test
+    public void invalidation_duringLocalWriteIsAcceptedOnlyForItsOwnRows() {
+        AtomicLong writes = new AtomicLong(0);
+        ReviewDueQueue queue = new ReviewDueQueue(writes::get, Runnable::run);
+        queue.refreshIfStale(() -> Arrays.asList(card("a", 10)));
+        queue.runLocalWrite(() -> writes.addAndGet(2));
+        queue.runLocalWrite(() -> writes.addAndGet(2));
+
+        // 前一次写入的通知晚到：数据库已经处于更新的本地状态，仍然一致
+        queue.onTablesInvalidated();
+        assertFalse(queue.isStale());
+
+        // 写入失败回滚：不计入，之后的外部写入让队列过期
+        try {
+            queue.runLocalWrite(() -> {
+                throw new IllegalStateException("rollback");
+            });
+        } catch (IllegalStateException expected) {
+            // 异常照常抛出
+        }
+        writes.incrementAndGet();
+        queue.onTablesInvalidated();
+        assertTrue(queue.isStale());
+    }
+
+    @Test
+    public void invalidation_withoutWriteCounterAlwaysReloads() {
+        ReviewDueQueue queue = new ReviewDueQueue();
+        queue.refreshIfStale(() -> Arrays.asList(card("a", 10)));
+        queue.runLocalWrite(() -> { });
+        queue.onTablesInvalidated();
+        assertTrue(queue.isStale());
+    }
+
+    @Test
+    public void reload_withPendingEntriesKeepsReviewedCardsOutOfTheDueSet() throws Exception {
+        ReviewJournal journal = new ReviewJournal(new File(folder.getRoot(), "journal.log"));
+        AtomicLong committed = new AtomicLong(0);
+        ReviewDueQueue queue = new ReviewDueQueue();
+        overlayJournal(queue, journal, committed);
+        queue.refreshIfStale(() -> Arrays.asList(card("a", 10), card("b", 20)));
+
+        // 评分已写入日志、已更新堆，但还没有落库
+        journal.append("a", 5, 50);
+        DueCard reviewed = PendingReviews.review(queue.get("a"), 5, 50);
+        queue.applyReview(reviewed.getSchedule(), reviewed.getWord());
+
+        // 此时外部写入让队列过期：数据库里 a 仍然到期，重新加载后不能再发出 a
+        queue.invalidate();
+        queue.refreshIfStale(() -> Arrays.asList(card("a", 10), card("b", 20)));
+        assertEquals("b", queue.peekDue(100).getWordId());
+        assertEquals(50 + DAY, queue.get("a").getNextReviewTime());
+        assertEquals(1, queue.get("a").getWord().getReviewCount());
+
+        // 落库后（日志尚未清理）再加载：数据库已包含这条评分，不能再应用一次
+        committed.set(1);
+        DueCard fromDb = new DueCard(reviewed.getSchedule(), reviewed.getWord());
+        queue.invalidate();
+        queue.refreshIfStale(() -> Arrays.asList(fromDb, card("b", 20)));
+        assertSame(fromDb, queue.get("a"));
+        assertEquals(1, queue.get("a").getSchedule().getRepetitionCount());
+    }
+
+    @Test
+    public void journalReplay_afterCrashOverlaysOnlyUncommittedEntries() throws Exception {
+        File file = new File(folder.getRoot(), "journal.log");
+        ReviewJournal beforeCrash = new ReviewJournal(file);
+        beforeCrash.append("a", 4, 50);   // 已随上一批落库，日志没来得及清理
+        beforeCrash.append("b", 5, 60);   // 进程被杀前还没有落库
+
+        // 重启：新日志实例从文件读回两条；数据库里 a 已反映第一条评分，b 仍然到期
+        ReviewJournal afterCrash = new ReviewJournal(file, () -> 1);
+        AtomicLong committed = new AtomicLong(1);
+        ReviewDueQueue queue = new ReviewDueQueue();
+        overlayJournal(queue, afterCrash, committed);
+        DueCard committedA = PendingReviews.review(card("a", 10), 4, 50);
+        queue.refreshIfStale(() -> Arrays.asList(committedA, card("b", 20), card("c", 30)));
+
+        assertSame(committedA, queue.get("a"));
+        assertEquals(60 + DAY, queue.get("b").getNextReviewTime());
+        assertEquals("c", queue.peekDue(100).getWordId());
+        assertNull(queue.peekDue(25));
+
+        // 重放前又评了一张卡：序号接在日志中的最大序号之后
+        afterCrash.append("c", 3, 70);
+        assertEquals(3, afterCrash.snapshot().get(2).seq);
+    }
+}
@@ -0,0 +1,97 @@
+package com.wcw.wordnet.data.review;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+public class ReviewJournalTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void unacknowledgedEntriesSurviveReopen() throws Exception {
+        File file = new File(folder.getRoot(), "journal.log");
+        ReviewJournal journal = new ReviewJournal(file);
+        journal.append("apple", 4, 1000L);
+        journal.append("banana", 0, 2000L);
+        assertEquals(3, journal.append("cherry", 5, 3000L));
+
+        journal.acknowledge(1);
+
+        // 模拟进程被杀后重启：新实例从文件重放
+        List<ReviewJournal.Entry> replayed = new ReviewJournal(file).snapshot();
+        assertEquals(2, replayed.size());
+        assertEquals("banana", replayed.get(0).wordId);
+        assertEquals(0, replayed.get(0).quality);
+        assertEquals(3000L, replayed.get(1).reviewedAt);
+    }
+
+    @Test
+    public void acknowledgeAllEmptiesJournal() throws Exception {
+        File file = new File(folder.getRoot(), "journal.log");
+        ReviewJournal journal = new ReviewJournal(file);
+        journal.append("apple", 4, 1000L);
+        journal.acknowledge(1);
+        journal.append("pear", 3, 4000L);
+
+        List<ReviewJournal.Entry> replayed = new ReviewJournal(file).snapshot();
+        assertEquals(1, replayed.size());
+        assertEquals("pear", replayed.get(0).wordId);
+    }
+
+    @Test
+    public void tornLastLineIsDropped() throws Exception {
+        File file = new File(folder.getRoot(), "journal.log");
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write("1\tapple\t4\t1000\n2\tbanana\t0".getBytes(StandardCharsets.UTF_8));
+        }
+        ReviewJournal journal = new ReviewJournal(file);
+        assertEquals(1, journal.size());
+        journal.append("cherry", 5, 3000L);
+
+        List<ReviewJournal.Entry> replayed = new ReviewJournal(file).snapshot();
+        assertEquals(2, replayed.size());
+        assertEquals("cherry", replayed.get(1).wordId);
+    }
+
+    @Test
+    public void sequenceKeepsGrowingAfterJournalIsEmptied() throws Exception {
+        File file = new File(folder.getRoot(), "journal.log");
+        ReviewJournal journal = new ReviewJournal(file);
+        journal.append("apple", 4, 1000L);
+        journal.append("banana", 0, 2000L);
+        journal.acknowledge(2);
+
+        // 重启后新评分的序号必须大于已落库的序号，否则会被当作重放跳过
+        ReviewJournal reopened = new ReviewJournal(file);
+        assertEquals(0, reopened.size());
+        reopened.append("apple", 5, 3000L);
+
+        List<ReviewJournal.Entry> replayed = new ReviewJournal(file).snapshot();
+        assertEquals(1, replayed.size());
+        assertEquals(3L, replayed.get(0).seq);
+    }
+
+    @Test
+    public void sequenceContinuesFromCommittedMarkWhenJournalIsLost() throws Exception {
+        File file = new File(folder.getRoot(), "journal.log");
+        ReviewJournal journal = new ReviewJournal(file);
+        journal.append("apple", 4, 1000L);
+        journal.acknowledge(1);
+        assertTrue(file.delete());
+
+        // 日志文件丢失，但数据库已落库到序号 7：新评分从 8 开始，不会被当作已落库跳过
+        ReviewJournal reopened = new ReviewJournal(file, () -> 7);
+        reopened.append("banana", 3, 2000L);
+        assertEquals(8L, reopened.snapshot().get(0).seq);
+    }
+}
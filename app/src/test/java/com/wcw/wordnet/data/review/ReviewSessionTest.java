@@ -0,0 +1,73 @@
+package com.wcw.wordnet.data.review;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import com.wcw.wordnet.model.DueCard;
+import com.wcw.wordnet.model.ReviewCard;
+import com.wcw.wordnet.model.entity.MorphemeRelation;
+import com.wcw.wordnet.model.entity.ReviewQueue;
+import com.wcw.wordnet.model.entity.WordNode;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ReviewSessionTest {
+
+    private static List<DueCard> cards(int count) {
+        List<DueCard> cards = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            cards.add(new DueCard(new ReviewQueue("w" + i, i), new WordNode("w" + i)));
+        }
+        return cards;
+    }
+
+    @Test
+    public void prefetchedCardsAreServedInDueOrderWithRelations() {
+        ReviewDueQueue queue = new ReviewDueQueue();
+        AtomicInteger relationQueries = new AtomicInteger();
+        ReviewSession session = new ReviewSession(queue, now -> cards(10), ids -> {
+            relationQueries.incrementAndGet();
+            List<MorphemeRelation> relations = new ArrayList<>();
+            for (String id : ids) {
+                relations.add(new MorphemeRelation("root-" + id, id, 1));
+            }
+            return relations;
+        }, 4);
+
+        // 第一张：缓冲区为空，未命中
+        assertNull(session.poll());
+        ReviewCard first = session.loadNext(100);
+        assertEquals("w0", first.getWordId());
+        assertEquals("root-w0", first.getRelations().get(0).getMorpheme());
+
+        // 之后三张直接来自缓冲区
+        assertEquals("w1", session.poll().getWordId());
+        assertEquals("w2", session.poll().getWordId());
+        assertEquals("w3", session.poll().getWordId());
+        assertEquals(1, relationQueries.get());
+
+        assertEquals(3, session.getStats().getHits());
+        assertEquals(1, session.getStats().getMisses());
+        assertEquals(0.75f, session.getStats().getHitRate(), 0.001f);
+    }
+
+    @Test
+    public void refillSkipsCardsAlreadyHandedOut() {
+        ReviewDueQueue queue = new ReviewDueQueue();
+        ReviewSession session = new ReviewSession(queue, now -> cards(3), ids -> new ArrayList<>(), 2);
+
+        // 已发出的卡片还没写库（仍在堆顶），补货时不能再次取出
+        assertEquals("w0", session.loadNext(100).getWordId());
+        session.refill(100);
+        assertEquals("w1", session.poll().getWordId());
+        assertEquals("w2", session.poll().getWordId());
+        assertNull(session.poll());
+        assertNull(session.loadNext(100));
+        assertNotNull(session.getStats().toString());
+    }
+}
@@ -0,0 +1,90 @@
+package com.wcw.wordnet.data.search;
+
+import com.wcw.wordnet.model.MorphemeCount;
+
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * 词根联想基准：5 万个不同词根，模拟逐字母输入
+ * 目标：每次按键微秒级；报告节点数和平行数组的内存占用
+ *
+ * 默认跳过，运行方式：./gradlew :app:testDebugUnitTest -Dwordnet.bench=true
+ *      --tests "*MorphemeTrieBenchmark"
+ */
+public class MorphemeTrieBenchmark {
+
+    private static final int MORPHEMES = 50_000;
+    private static final int QUERIES = 20_000;
+
+    /**
+     * 每个节点：label(2) + parent/firstChild/nextSibling/wordCount/best(5 × 4)
+     */
+    private static final int BYTES_PER_NODE = 22;
+
+    @Before
+    public void onlyWhenRequested() {
+        Assume.assumeTrue("设置 -Dwordnet.bench=true 以运行基准", Boolean.getBoolean("wordnet.bench"));
+    }
+
+    @Test
+    public void suggestAsYouType() {
+        Random random = new Random(42);
+        List<MorphemeCount> morphemes = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        while (morphemes.size() < MORPHEMES) {
+            String morpheme = letters(random, 2 + random.nextInt(7));
+            if (seen.add(morpheme)) {
+                // 少数词根关联大量单词（长尾分布）
+                morphemes.add(new MorphemeCount(morpheme, 1 + (int) (Math.pow(random.nextDouble(), 4) * 300)));
+            }
+        }
+
+        MorphemeTrie trie = new MorphemeTrie();
+        long start = System.nanoTime();
+        trie.load(morphemes);
+        long buildNanos = System.nanoTime() - start;
+        System.out.printf("构建: %.1f ms, 节点 %d, 约 %.1f MB%n", buildNanos / 1_000_000.0,
+                trie.nodeCount(), trie.nodeCount() * (double) BYTES_PER_NODE / (1 << 20));
+
+        // 预热
+        for (int i = 0; i < QUERIES; i++) {
+            trie.suggest(morphemes.get(i % MORPHEMES).getMorpheme().substring(0, 1), 8);
+        }
+        for (int length = 1; length <= 4; length++) {
+            long[] nanos = new long[QUERIES];
+            for (int i = 0; i < QUERIES; i++) {
+                String morpheme = morphemes.get(random.nextInt(MORPHEMES)).getMorpheme();
+                String prefix = morpheme.substring(0, Math.min(length, morpheme.length()));
+                long begin = System.nanoTime();
+                trie.suggest(prefix, 8);
+                nanos[i] = System.nanoTime() - begin;
+            }
+            report("前缀 " + length + " 个字母", nanos);
+        }
+    }
+
+    private static String letters(Random random, int length) {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = (char) ('a' + random.nextInt(26));
+        }
+        return new String(chars);
+    }
+
+    private static void report(String label, long[] nanos) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        System.out.printf("%s: median %.1f µs, p95 %.1f µs%n", label,
+                sorted[sorted.length / 2] / 1_000.0,
+                sorted[sorted.length * 95 / 100] / 1_000.0);
+    }
+}
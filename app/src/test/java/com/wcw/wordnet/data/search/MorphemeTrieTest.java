@@ -0,0 +1,168 @@
+package com.wcw.wordnet.data.search;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.wcw.wordnet.data.local.database.WriteCounterSync;
+import com.wcw.wordnet.model.MorphemeCount;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class MorphemeTrieTest {
+
+    private static MorphemeTrie trie(Object... pairs) {
+        List<MorphemeCount> morphemes = new ArrayList<>();
+        for (int i = 0; i < pairs.length; i += 2) {
+            morphemes.add(new MorphemeCount((String) pairs[i], (Integer) pairs[i + 1]));
+        }
+        MorphemeTrie trie = new MorphemeTrie();
+        assertTrue(trie.refreshIfStale(() -> morphemes));
+        return trie;
+    }
+
+    private static List<String> names(List<MorphemeCount> suggestions) {
+        List<String> names = new ArrayList<>();
+        for (MorphemeCount suggestion : suggestions) {
+            names.add(suggestion.getMorpheme());
+        }
+        return names;
+    }
+
+    @Test
+    public void suggest_ranksByWordCountThenAlphabetically() {
+        MorphemeTrie trie = trie("struct", 5, "stru", 1, "structure", 5, "strict", 9, "spect", 3, "re", 7);
+
+        assertEquals(Arrays.asList("strict", "struct", "structure", "stru"), names(trie.suggest("str", 10)));
+        // 前缀本身也是词根时参与排序
+        assertEquals(Arrays.asList("struct", "structure", "stru"), names(trie.suggest("STRU", 10)));
+        assertEquals(Arrays.asList("strict", "struct"), names(trie.suggest("s", 2)));
+        assertEquals(5, trie.suggest("structure", 1).get(0).getWordCount());
+    }
+
+    @Test
+    public void suggest_returnsEmptyForBlankOrUnknownPrefix() {
+        MorphemeTrie trie = trie("struct", 2);
+
+        assertEquals(Collections.emptyList(), trie.suggest("", 5));
+        assertEquals(Collections.emptyList(), trie.suggest("  ", 5));
+        assertEquals(Collections.emptyList(), trie.suggest("xyz", 5));
+        assertEquals(Collections.emptyList(), trie.suggest("structures", 5));
+    }
+
+    @Test
+    public void addAndRemoveWord_updateCountsIncrementally() {
+        MorphemeTrie trie = trie("struct", 2, "spect", 1);
+
+        trie.addWord(Arrays.asList("spect", "spectrum", "spect"));
+        trie.addWord(Collections.singletonList("spect"));
+        assertEquals(3, trie.getWordCount("spect"));
+        assertEquals(Arrays.asList("spect", "struct", "spectrum"), names(trie.suggest("s", 5)));
+
+        // 归档后单词数归零的词根不再出现
+        trie.removeWord(Collections.singletonList("struct"));
+        trie.removeWord(Collections.singletonList("struct"));
+        trie.removeWord(Collections.singletonList("struct"));
+        assertEquals(0, trie.getWordCount("struct"));
+        assertEquals(Arrays.asList("spect", "spectrum"), names(trie.suggest("s", 5)));
+        assertEquals(Collections.emptyList(), trie.suggest("str", 5));
+    }
+
+    @Test
+    public void staleTrie_ignoresLocalUpdatesUntilReloaded() {
+        AtomicLong writes = new AtomicLong(0);
+        MorphemeTrie trie = new MorphemeTrie(writes::get);
+        trie.addWord(Collections.singletonList("struct"));
+        assertEquals(0, trie.getWordCount("struct"));
+
+        assertTrue(trie.refreshIfStale(() -> Collections.singletonList(new MorphemeCount("struct", 4))));
+        assertFalse(trie.refreshIfStale(Collections::emptyList));
+        assertEquals(4, trie.getWordCount("struct"));
+
+        // 计入的本地写入引起的通知不让前缀树过期（重复的通知也一样）
+        trie.acceptLocalWrite(writes.get(), writes.addAndGet(2));
+        trie.onTablesInvalidated();
+        trie.onTablesInvalidated();
+        assertFalse(trie.isStale());
+
+        // 没有计入的写入（外部写入）使前缀树过期
+        writes.incrementAndGet();
+        trie.onTablesInvalidated();
+        assertTrue(trie.isStale());
+    }
+
+    @Test
+    public void invalidation_coalescingLocalAndExternalWritesMarksTrieStale() {
+        AtomicLong writes = new AtomicLong(5);
+        MorphemeTrie trie = new MorphemeTrie(writes::get);
+        assertTrue(trie.refreshIfStale(() -> Collections.singletonList(new MorphemeCount("struct", 4))));
+
+        // 本地写入和随后的外部写入合并成一次通知
+        trie.acceptLocalWrite(writes.get(), writes.incrementAndGet());
+        writes.incrementAndGet();
+        trie.onTablesInvalidated();
+        assertTrue(trie.isStale());
+
+        // 外部写入之后的本地写入不能接上已同步的区间
+        assertTrue(trie.refreshIfStale(Collections::emptyList));
+        writes.incrementAndGet();
+        trie.acceptLocalWrite(writes.get(), writes.incrementAndGet());
+        trie.onTablesInvalidated();
+        assertTrue(trie.isStale());
+    }
+
+    @Test
+    public void invalidation_withoutWriteCounterAlwaysMarksTrieStale() {
+        MorphemeTrie trie = trie("struct", 4);
+        trie.acceptLocalWrite(WriteCounterSync.UNSYNCED, WriteCounterSync.UNSYNCED);
+        trie.onTablesInvalidated();
+        assertTrue(trie.isStale());
+    }
+
+    @Test
+    public void suggest_matchesBruteForceOnRandomInventory() {
+        Random random = new Random(11);
+        List<MorphemeCount> morphemes = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            StringBuilder morpheme = new StringBuilder();
+            for (int c = 1 + random.nextInt(5); c > 0; c--) {
+                morpheme.append((char) ('a' + random.nextInt(4)));
+            }
+            morphemes.add(new MorphemeCount(morpheme.toString(), 1 + random.nextInt(20)));
+        }
+        MorphemeTrie trie = new MorphemeTrie();
+        trie.load(morphemes);
+        // 随机增删，检验 best 的增量维护
+        for (int i = 0; i < 500; i++) {
+            MorphemeCount target = morphemes.get(random.nextInt(morphemes.size()));
+            if (random.nextBoolean()) {
+                trie.addWord(Collections.singletonList(target.getMorpheme()));
+            } else {
+                trie.removeWord(Collections.singletonList(target.getMorpheme()));
+            }
+        }
+
+        for (String prefix : Arrays.asList("a", "b", "ab", "cd", "dda", "abcd")) {
+            List<MorphemeCount> expected = new ArrayList<>();
+            for (MorphemeCount morpheme : morphemes) {
+                String name = morpheme.getMorpheme();
+                int count = trie.getWordCount(name);
+                if (name.startsWith(prefix) && count > 0 && !names(expected).contains(name)) {
+                    expected.add(new MorphemeCount(name, count));
+                }
+            }
+            expected.sort((a, b) -> a.getWordCount() != b.getWordCount()
+                    ? Integer.compare(b.getWordCount(), a.getWordCount())
+                    : a.getMorpheme().compareTo(b.getMorpheme()));
+            List<String> top = names(expected.subList(0, Math.min(8, expected.size())));
+            assertEquals(prefix, top, names(trie.suggest(prefix, 8)));
+        }
+    }
+}
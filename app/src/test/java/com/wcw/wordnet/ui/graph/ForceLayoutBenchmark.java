@@ -0,0 +1,63 @@
+package com.wcw.wordnet.ui.graph;
+
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+/**
+ * 力导向布局基准：单词—词根邻域图（每个单词 3 个词根，词根热度呈长尾分布）
+ * 对比每轮迭代耗时随节点数的增长（Barnes–Hut 约 O(n log n)），以及稳定所需的轮数和总时间
+ *
+ * 默认跳过，运行方式：./gradlew :app:testDebugUnitTest -Dwordnet.bench=true
+ *      --tests "*ForceLayoutBenchmark"
+ */
+public class ForceLayoutBenchmark {
+
+    @Before
+    public void onlyWhenRequested() {
+        Assume.assumeTrue("设置 -Dwordnet.bench=true 以运行基准", Boolean.getBoolean("wordnet.bench"));
+    }
+
+    @Test
+    public void iterationCost() {
+        for (int words : new int[]{250, 1_000, 4_000}) {
+            // 预热
+            run(words, 40);
+            run(words, 40);
+            ForceLayout layout = build(words);
+            long start = System.nanoTime();
+            while (layout.step()) {
+                // 迭代到稳定
+            }
+            long total = System.nanoTime() - start;
+            System.out.printf("%d 个节点: %d 轮稳定, 共 %.1f ms, 每轮 %.2f ms%n",
+                    layout.getNodeCount(), layout.getIteration(), total / 1_000_000.0,
+                    total / 1_000_000.0 / layout.getIteration());
+        }
+    }
+
+    private static void run(int words, int iterations) {
+        ForceLayout layout = build(words);
+        for (int i = 0; i < iterations && layout.step(); i++) {
+            // 预热
+        }
+    }
+
+    private static ForceLayout build(int words) {
+        Random random = new Random(7);
+        int morphemes = Math.max(10, words / 3);
+        int[] from = new int[words * 3];
+        int[] to = new int[words * 3];
+        for (int w = 0; w < words; w++) {
+            for (int e = 0; e < 3; e++) {
+                from[w * 3 + e] = w;
+                to[w * 3 + e] = words + (int) (morphemes * Math.pow(random.nextDouble(), 2));
+            }
+        }
+        ForceLayout layout = new ForceLayout(words + morphemes, from, to);
+        layout.pin(0, 0f, 0f);
+        return layout;
+    }
+}
@@ -0,0 +1,158 @@
+package com.wcw.wordnet.ui.graph;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class ForceLayoutTest {
+
+    @Test
+    public void barnesHut_matchesExactRepulsion() {
+        Random random = new Random(1);
+        int n = 500;
+        float[] x = new float[n];
+        float[] y = new float[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = random.nextFloat() * 2000 - 1000;
+            y[i] = random.nextFloat() * 2000 - 1000;
+        }
+        BarnesHutTree tree = new BarnesHutTree();
+        tree.build(x, y, n);
+        float strength = 40_000f;
+        for (int i = 0; i < n; i += 25) {
+            float[] approx = new float[2];
+            tree.repulsion(i, x[i], y[i], ForceLayout.THETA, strength, approx);
+            double fx = 0;
+            double fy = 0;
+            for (int j = 0; j < n; j++) {
+                if (j == i) continue;
+                double dx = x[i] - x[j];
+                double dy = y[i] - y[j];
+                double d2 = dx * dx + dy * dy;
+                fx += strength * dx / d2;
+                fy += strength * dy / d2;
+            }
+            double error = Math.hypot(approx[0] - fx, approx[1] - fy);
+            assertTrue("node " + i + " error " + error, error <= 0.1 * Math.hypot(fx, fy) + 1);
+        }
+    }
+
+    @Test
+    public void barnesHut_handlesCoincidentPoints() {
+        float[] x = {5, 5, 5, 100};
+        float[] y = {5, 5, 5, 100};
+        BarnesHutTree tree = new BarnesHutTree();
+        tree.build(x, y, 4);
+        float[] force = new float[2];
+        tree.repulsion(3, x[3], y[3], ForceLayout.THETA, 1f, force);
+        // 三个重合点合计质量 3，推向右下
+        assertTrue(force[0] > 0 && force[1] > 0);
+        float[] self = new float[2];
+        tree.repulsion(1, x[1], y[1], ForceLayout.THETA, 1f, self);
+        assertFalse(Float.isNaN(self[0]) || Float.isNaN(self[1]));
+    }
+
+    @Test
+    public void layout_settlesWithConnectedNodesCloser() {
+        // 两个星形簇：0 连接 1..20，21 连接 22..41，两簇之间一条边 0—21
+        List<int[]> edges = new ArrayList<>();
+        for (int i = 1; i <= 20; i++) edges.add(new int[]{0, i});
+        for (int i = 22; i <= 41; i++) edges.add(new int[]{21, i});
+        edges.add(new int[]{0, 21});
+        ForceLayout layout = layout(42, edges);
+        layout.pin(0, 0f, 0f);
+        while (layout.step()) {
+            // 迭代到稳定
+        }
+        assertTrue(layout.isSettled());
+        assertEquals(0f, layout.getX(0), 0f);
+        assertEquals(0f, layout.getY(0), 0f);
+
+        double inside = 0;
+        double across = 0;
+        for (int i = 1; i <= 20; i++) {
+            inside += distance(layout, 0, i);
+            across += distance(layout, 0, i + 21);
+        }
+        assertTrue("簇内 " + inside + " 簇间 " + across, inside * 1.5 < across);
+        // 叶子节点离中心大约一个理想边长
+        double average = inside / 20;
+        assertTrue(average > ForceLayout.IDEAL_EDGE_LENGTH * 0.3 && average < ForceLayout.IDEAL_EDGE_LENGTH * 3);
+    }
+
+    @Test
+    public void warmStart_keepsSettledNodesInPlace() {
+        // 先布局一个星形，再追加 10 个挂在叶子上的节点，从上一次的位置低温继续
+        List<int[]> edges = new ArrayList<>();
+        for (int i = 1; i <= 10; i++) edges.add(new int[]{0, i});
+        ForceLayout first = layout(11, edges);
+        first.pin(0, 0f, 0f);
+        while (first.step()) {
+            // 迭代到稳定
+        }
+        for (int i = 11; i <= 20; i++) edges.add(new int[]{i - 10, i});
+        ForceLayout second = layout(21, edges);
+        second.pin(0, 0f, 0f);
+        for (int i = 1; i <= 10; i++) {
+            second.setPosition(i, first.getX(i), first.getY(i));
+            second.setPosition(i + 10, first.getX(i) * 1.5f, first.getY(i) * 1.5f);
+        }
+        second.setTemperature(ForceLayout.IDEAL_EDGE_LENGTH / 4);
+        while (second.step()) {
+            // 迭代到稳定
+        }
+        for (int i = 1; i <= 10; i++) {
+            double moved = Math.hypot(second.getX(i) - first.getX(i), second.getY(i) - first.getY(i));
+            assertTrue("node " + i + " moved " + moved, moved < ForceLayout.IDEAL_EDGE_LENGTH);
+        }
+    }
+
+    @Test
+    public void runner_streamsFramesAndEndsSettled() {
+        List<int[]> edges = new ArrayList<>();
+        for (int i = 1; i < 300; i++) edges.add(new int[]{i / 3, i});
+        List<Boolean> frames = new ArrayList<>();
+        // 同步执行：工作和回调都在当前线程
+        ForceLayoutRunner runner = new ForceLayoutRunner(Runnable::run, Runnable::run);
+        runner.start(layout(300, edges), (x, y, settled) -> {
+            assertEquals(300, x.length);
+            frames.add(settled);
+        });
+        assertTrue(frames.size() >= 2);
+        assertFalse(frames.get(0));
+        assertTrue(frames.get(frames.size() - 1));
+        assertEquals(1, frames.stream().filter(settled -> settled).count());
+    }
+
+    @Test
+    public void runner_dropsFramesAfterCancel() {
+        List<Runnable> posted = new ArrayList<>();
+        List<Boolean> frames = new ArrayList<>();
+        ForceLayoutRunner runner = new ForceLayoutRunner(Runnable::run, posted::add);
+        runner.start(layout(10, new ArrayList<>()), (x, y, settled) -> frames.add(settled));
+        assertFalse(posted.isEmpty());
+        runner.cancel();
+        for (Runnable frame : posted) frame.run();
+        assertTrue(frames.isEmpty());
+    }
+
+    private static ForceLayout layout(int n, List<int[]> edges) {
+        int[] from = new int[edges.size()];
+        int[] to = new int[edges.size()];
+        for (int e = 0; e < edges.size(); e++) {
+            from[e] = edges.get(e)[0];
+            to[e] = edges.get(e)[1];
+        }
+        return new ForceLayout(n, from, to);
+    }
+
+    private static double distance(ForceLayout layout, int a, int b) {
+        return Math.hypot(layout.getX(a) - layout.getX(b), layout.getY(a) - layout.getY(b));
+    }
+}
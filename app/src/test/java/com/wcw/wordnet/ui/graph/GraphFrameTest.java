@@ -0,0 +1,144 @@
+package com.wcw.wordnet.ui.graph;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.Random;
+
+public class GraphFrameTest {
+
+    private static final int WIDTH = 1000;
+    private static final int HEIGHT = 800;
+
+    /**
+     * 三个节点排成一行：0 在屏幕中央，1 在右侧屏幕外，2 在更远处；边 0—1、1—2
+     */
+    private GraphFrame lineGraph() {
+        GraphFrame frame = new GraphFrame();
+        float[] half = {10f, 10f, 10f};
+        frame.setGraph(3, new int[]{0, 1}, new int[]{1, 2}, half, half);
+        return frame;
+    }
+
+    @Test
+    public void prepare_cullsNodesAndEdgesOutsideViewport() {
+        GraphFrame frame = lineGraph();
+        GraphCamera camera = new GraphCamera();
+        camera.panBy(500, 400);
+        float[] x = {0, 600, 1200};
+        float[] y = {0, 0, 0};
+        frame.prepare(x, y, camera, WIDTH, HEIGHT);
+
+        assertEquals(1, frame.getVisibleCount());
+        assertEquals(0, frame.getVisible()[0]);
+        // 0—1 穿过屏幕边缘，保留；1—2 完全在屏幕外
+        assertEquals(4, frame.getLineFloats());
+        assertEquals(500f, frame.getLines()[0], 0f);
+        assertEquals(1100f, frame.getLines()[2], 0f);
+
+        // 节点中心在屏幕外但有一部分露出来时仍然可见
+        x[1] = 505;
+        frame.prepare(x, y, camera, WIDTH, HEIGHT);
+        assertEquals(2, frame.getVisibleCount());
+    }
+
+    @Test
+    public void levelOfDetail_hidesTextWhenZoomedOut() {
+        GraphFrame frame = lineGraph();
+        GraphCamera camera = new GraphCamera();
+        float[] x = {0, 10, 20};
+        float[] y = {0, 0, 0};
+        frame.prepare(x, y, camera, WIDTH, HEIGHT);
+        assertTrue(frame.showLabels());
+        assertTrue(frame.showTags());
+
+        camera.zoomBy(0.6f, 0, 0);
+        frame.prepare(x, y, camera, WIDTH, HEIGHT);
+        assertTrue(frame.showLabels());
+        assertFalse(frame.showTags());
+
+        camera.zoomBy(0.5f, 0, 0);
+        frame.prepare(x, y, camera, WIDTH, HEIGHT);
+        assertFalse(frame.showLabels());
+    }
+
+    @Test
+    public void camera_zoomKeepsFocusPointAndClamps() {
+        GraphCamera camera = new GraphCamera();
+        float[] x = {-500, 500};
+        float[] y = {-100, 300};
+        camera.fit(x, y, 2, WIDTH, HEIGHT, 100f, 1.5f);
+        assertEquals(0.8f, camera.getScale(), 1e-6f);
+        assertEquals(WIDTH / 2f, camera.toScreenX(0), 1e-3f);
+        assertFalse(camera.isUserControlled());
+
+        float worldX = camera.toWorldX(300);
+        float worldY = camera.toWorldY(200);
+        camera.zoomBy(2.5f, 300, 200);
+        assertEquals(2f, camera.getScale(), 1e-6f);
+        assertEquals(300f, camera.toScreenX(worldX), 1e-3f);
+        assertEquals(200f, camera.toScreenY(worldY), 1e-3f);
+        assertTrue(camera.isUserControlled());
+
+        camera.zoomBy(1000f, 0, 0);
+        assertEquals(GraphCamera.MAX_SCALE, camera.getScale(), 0f);
+        camera.zoomBy(1e-6f, 0, 0);
+        assertEquals(GraphCamera.MIN_SCALE, camera.getScale(), 0f);
+        camera.reset();
+        assertFalse(camera.isUserControlled());
+    }
+
+    @Test
+    public void prepare_allocatesNothingPerFrame() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        Assume.assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        // 2000 个节点、约 3000 条边
+        int n = 2000;
+        Random random = new Random(3);
+        float[] x = new float[n];
+        float[] y = new float[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = random.nextFloat() * 6000 - 3000;
+            y[i] = random.nextFloat() * 6000 - 3000;
+        }
+        int[] from = new int[3000];
+        int[] to = new int[3000];
+        for (int e = 0; e < from.length; e++) {
+            from[e] = random.nextInt(n);
+            to[e] = random.nextInt(n);
+        }
+        float[] half = new float[n];
+        Arrays.fill(half, 60f);
+        GraphFrame frame = new GraphFrame();
+        frame.setGraph(n, from, to, half, half);
+        GraphCamera camera = new GraphCamera();
+        camera.fit(x, y, n, WIDTH, HEIGHT, 100f, 1.5f);
+
+        // 预热：让 JIT 编译完成，避免把编译期间的分配算进来
+        for (int i = 0; i < 2_000; i++) {
+            camera.panBy((i & 1) == 0 ? 3 : -3, 0);
+            frame.prepare(x, y, camera, WIDTH, HEIGHT);
+        }
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < 600; i++) {
+            camera.zoomBy((i & 1) == 0 ? 1.01f : 1 / 1.01f, 500, 400);
+            camera.panBy((i & 1) == 0 ? 3 : -3, 0);
+            frame.prepare(x, y, camera, WIDTH, HEIGHT);
+        }
+        long after = threads.getThreadAllocatedBytes(threadId);
+        assertEquals("600 帧共分配了 " + (after - before) + " 字节", 0, after - before);
+        assertTrue(frame.getVisibleCount() > 0 && frame.getVisibleCount() <= n);
+    }
+}
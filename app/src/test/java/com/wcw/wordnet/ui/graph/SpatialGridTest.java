@@ -0,0 +1,80 @@
+package com.wcw.wordnet.ui.graph;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+public class SpatialGridTest {
+
+    @Test
+    public void hit_findsContainingNodeClosestToPoint() {
+        // 0：单词矩形 100×50；1：词根 60×95；2 与 0 部分重叠
+        float[] x = {0, 300, 80};
+        float[] y = {0, 0, 0};
+        float[] halfWidth = {100, 60, 100};
+        float[] halfHeight = {50, 95, 50};
+        SpatialGrid grid = new SpatialGrid();
+        grid.build(x, y, halfWidth, halfHeight, 3);
+
+        assertEquals(0, grid.hit(-90, 10));
+        assertEquals(1, grid.hit(300, -90));
+        // 重叠区域取中心更近的节点
+        assertEquals(2, grid.hit(60, 0));
+        assertEquals(0, grid.hit(30, 0));
+        assertEquals(-1, grid.hit(200, 0));
+        assertEquals(-1, grid.hit(-5000, 5000));
+    }
+
+    @Test
+    public void hit_matchesLinearScan() {
+        Random random = new Random(11);
+        SpatialGrid grid = new SpatialGrid();
+        for (int round = 0; round < 5; round++) {
+            int n = 50 + random.nextInt(3000);
+            float[] x = new float[n];
+            float[] y = new float[n];
+            float[] halfWidth = new float[n];
+            float[] halfHeight = new float[n];
+            float spread = 500 + random.nextFloat() * 20000;
+            for (int i = 0; i < n; i++) {
+                x[i] = random.nextFloat() * spread - spread / 2;
+                y[i] = random.nextFloat() * spread / 3;
+                halfWidth[i] = 20 + random.nextFloat() * 100;
+                halfHeight[i] = 20 + random.nextFloat() * 80;
+            }
+            // 同一个索引对象反复重建
+            grid.build(x, y, halfWidth, halfHeight, n);
+            for (int q = 0; q < 2000; q++) {
+                float px = random.nextFloat() * spread * 1.2f - spread * 0.6f;
+                float py = random.nextFloat() * spread / 2 - spread / 12;
+                assertEquals(linearHit(x, y, halfWidth, halfHeight, n, px, py), grid.hit(px, py));
+            }
+        }
+    }
+
+    @Test
+    public void emptyGrid() {
+        SpatialGrid grid = new SpatialGrid();
+        grid.build(new float[0], new float[0], new float[0], new float[0], 0);
+        assertEquals(-1, grid.hit(0, 0));
+    }
+
+    private static int linearHit(float[] x, float[] y, float[] halfWidth, float[] halfHeight,
+                                 int n, float px, float py) {
+        int best = -1;
+        float bestDistance = Float.POSITIVE_INFINITY;
+        for (int i = 0; i < n; i++) {
+            float dx = px - x[i];
+            float dy = py - y[i];
+            if (Math.abs(dx) > halfWidth[i] || Math.abs(dy) > halfHeight[i]) continue;
+            float distance = dx * dx + dy * dy;
+            if (distance < bestDistance) {
+                bestDistance = distance;
+                best = i;
+            }
+        }
+        return best;
+    }
+}
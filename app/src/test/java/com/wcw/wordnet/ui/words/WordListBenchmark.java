@@ -0,0 +1,101 @@
+package com.wcw.wordnet.ui.words;
+
+import com.wcw.wordnet.model.entity.WordNode;
+
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 单词列表刷新基准（10k 个单词）
+ * - 复习一轮后的差异：DiffUtil 对每个匹配到的单词调用 areContentsTheSame / getChangePayload，
+ *   统计整行绑定、只更新掌握度、无需绑定的行数，以及计算耗时
+ * - 选中切换：每次刷新的行数（原来 notifyDataSetChanged() 刷新全部行）
+ *
+ * 默认跳过，运行方式：./gradlew :app:testDebugUnitTest -Dwordnet.bench=true
+ *      --tests "*WordListBenchmark"
+ */
+public class WordListBenchmark {
+
+    private static final int SIZE = 10_000;
+
+    @Before
+    public void onlyWhenRequested() {
+        Assume.assumeTrue("设置 -Dwordnet.bench=true 以运行基准", Boolean.getBoolean("wordnet.bench"));
+    }
+
+    @Test
+    public void reviewDiff() {
+        Random random = new Random(5);
+        List<WordNode> before = new ArrayList<>(SIZE);
+        for (int i = 0; i < SIZE; i++) {
+            before.add(WordPayloadsTest.word("w" + i, random.nextFloat(), random.nextInt(10), "释义" + i));
+        }
+        // 复习 200 个单词，编辑 10 个单词的释义
+        List<WordNode> after = new ArrayList<>(SIZE);
+        for (WordNode word : before) {
+            after.add(WordPayloadsTest.word(word.getWord(), word.getMemoryStrength(),
+                    word.getReviewCount(), word.getChineseMeaning()));
+        }
+        for (int i = 0; i < 200; i++) {
+            WordNode word = after.get(random.nextInt(SIZE));
+            word.setMemoryStrength(Math.min(1f, word.getMemoryStrength() + 0.1f));
+            word.setReviewCount(word.getReviewCount() + 1);
+        }
+        for (int i = 0; i < 10; i++) {
+            after.get(random.nextInt(SIZE)).setChineseMeaning("新释义" + i);
+        }
+
+        int[] counts = new int[3];
+        for (int round = 0; round < 20; round++) {
+            counts = classify(before, after);
+        }
+        int rounds = 200;
+        long start = System.nanoTime();
+        for (int round = 0; round < rounds; round++) {
+            counts = classify(before, after);
+        }
+        double micros = (System.nanoTime() - start) / 1_000.0 / rounds;
+        System.out.printf("%d 个单词的差异: %.0f µs, 整行绑定 %d 行, 只更新掌握度 %d 行, 不变 %d 行%n",
+                SIZE, micros, counts[2], counts[1], counts[0]);
+    }
+
+    @Test
+    public void selectionToggles() {
+        WordSelection selection = new WordSelection();
+        int[] changed = new int[2];
+        Random random = new Random(9);
+        long notified = 0;
+        int toggles = 100_000;
+        long start = System.nanoTime();
+        for (int i = 0; i < toggles; i++) {
+            int position = random.nextInt(SIZE);
+            notified += selection.toggle("w" + position, position, changed);
+        }
+        double nanos = (System.nanoTime() - start) / (double) toggles;
+        System.out.printf("选中切换: 每次 %.0f ns, 平均刷新 %.2f 行（notifyDataSetChanged: %d 行）%n",
+                nanos, notified / (double) toggles, SIZE);
+    }
+
+    /**
+     * @return [不变, 只更新掌握度, 整行绑定] 的行数
+     */
+    private static int[] classify(List<WordNode> before, List<WordNode> after) {
+        int[] counts = new int[3];
+        for (int i = 0; i < before.size(); i++) {
+            int changes = WordPayloads.diff(before.get(i), after.get(i));
+            if (changes == 0) {
+                counts[0]++;
+            } else if ((changes & WordPayloads.CONTENT) == 0) {
+                counts[1]++;
+            } else {
+                counts[2]++;
+            }
+        }
+        return counts;
+    }
+}
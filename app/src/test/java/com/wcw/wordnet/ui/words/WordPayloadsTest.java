@@ -0,0 +1,74 @@
+package com.wcw.wordnet.ui.words;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.wcw.wordnet.model.entity.WordNode;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+public class WordPayloadsTest {
+
+    @Test
+    public void reviewChangesOnlyStrength() {
+        WordNode before = word("construct", 0.3f, 2, "建造");
+        WordNode reviewed = word("construct", 0.45f, 3, "建造");
+        assertEquals(WordPayloads.STRENGTH, WordPayloads.diff(before, reviewed));
+        assertEquals(0, WordPayloads.diff(before, word("construct", 0.3f, 2, "建造")));
+
+        WordNode edited = word("construct", 0.3f, 2, "构造");
+        assertEquals(WordPayloads.CONTENT, WordPayloads.diff(before, edited));
+        assertEquals(WordPayloads.STRENGTH | WordPayloads.CONTENT, WordPayloads.diff(before,
+                word("construct", 0.9f, 2, "构造")));
+    }
+
+    @Test
+    public void mergeFallsBackToFullBind() {
+        // 没有 payload 或 payload 未知时整行绑定
+        assertEquals(WordPayloads.CONTENT, WordPayloads.merge(Collections.emptyList()));
+        assertEquals(WordPayloads.CONTENT, WordPayloads.merge(Arrays.asList(WordPayloads.STRENGTH, "x")));
+        assertEquals(WordPayloads.STRENGTH | WordPayloads.SELECTION,
+                WordPayloads.merge(Arrays.asList(WordPayloads.STRENGTH, WordPayloads.SELECTION)));
+    }
+
+    @Test
+    public void selectionTouchesAtMostTwoRows() {
+        WordSelection selection = new WordSelection();
+        int[] changed = new int[2];
+
+        assertEquals(1, selection.toggle("a", 3, changed));
+        assertEquals(3, changed[0]);
+        assertTrue(selection.isSelected("a"));
+
+        // 换选：旧行 + 新行
+        assertEquals(2, selection.toggle("b", 7, changed));
+        assertEquals(3, changed[0]);
+        assertEquals(7, changed[1]);
+        assertFalse(selection.isSelected("a"));
+
+        // 列表重新排序后 b 出现在 2；之后的切换刷新的是新位置
+        selection.onBound("b", 2);
+        selection.onBound("c", 9);
+        assertEquals(2, selection.getSelectedPosition());
+        assertEquals(2, selection.toggle("c", 9, changed));
+        assertEquals(2, changed[0]);
+        assertEquals(9, changed[1]);
+
+        // 再次点击取消选中
+        assertEquals(1, selection.toggle("c", 9, changed));
+        assertEquals(9, changed[0]);
+        assertNull(selection.getSelectedWord());
+        assertEquals(WordSelection.NO_POSITION, selection.getSelectedPosition());
+    }
+
+    static WordNode word(String text, float strength, int reviews, String chinese) {
+        WordNode node = new WordNode(text, strength, 0L, reviews, true, "[\"con\",\"struct\"]");
+        node.setChineseMeaning(chinese);
+        return node;
+    }
+}
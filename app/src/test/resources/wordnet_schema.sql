@@ -0,0 +1,15 @@
+-- Room 为 AppDatabase 生成的建表语句（数据库版本 10）
+-- 修改实体的 @Entity / @Index 后需要同步更新本文件；触发器不在此处（由 SearchIndex、MorphemeStatsTriggers、WordChangeTriggers 等类安装）
+CREATE TABLE IF NOT EXISTS `word_nodes` (`word` TEXT NOT NULL, `memoryStrength` REAL NOT NULL, `lastReviewed` INTEGER NOT NULL, `reviewCount` INTEGER NOT NULL, `isActive` INTEGER NOT NULL, `morphemeList` TEXT, `chineseMeaning` TEXT, PRIMARY KEY(`word`));
+CREATE INDEX IF NOT EXISTS `index_word_nodes_isActive_memoryStrength_word` ON `word_nodes` (`isActive`, `memoryStrength`, `word`);
+CREATE TABLE IF NOT EXISTS `review_queue` (`wordId` TEXT NOT NULL, `next_review_time` INTEGER NOT NULL, `interval_days` INTEGER NOT NULL, `easiness_factor` REAL NOT NULL, `repetition_count` INTEGER NOT NULL, `review_state` INTEGER NOT NULL, PRIMARY KEY(`wordId`), FOREIGN KEY(`wordId`) REFERENCES `word_nodes`(`word`) ON UPDATE NO ACTION ON DELETE CASCADE );
+CREATE INDEX IF NOT EXISTS `index_review_queue_next_review_time` ON `review_queue` (`next_review_time`);
+CREATE TABLE IF NOT EXISTS `morpheme_relations` (`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, `morpheme` TEXT, `wordId` TEXT, `position` INTEGER NOT NULL, FOREIGN KEY(`wordId`) REFERENCES `word_nodes`(`word`) ON UPDATE NO ACTION ON DELETE CASCADE );
+CREATE INDEX IF NOT EXISTS `index_morpheme_relations_wordId_position` ON `morpheme_relations` (`wordId`, `position`);
+CREATE INDEX IF NOT EXISTS `index_morpheme_relations_morpheme` ON `morpheme_relations` (`morpheme`);
+CREATE VIRTUAL TABLE IF NOT EXISTS `word_search` USING FTS4(`word` TEXT, `chinese` TEXT, `morphemes` TEXT, prefix=`1,2`);
+CREATE TABLE IF NOT EXISTS `morpheme_stats` (`morpheme` TEXT NOT NULL, `wordCount` INTEGER NOT NULL, `masteredCount` INTEGER NOT NULL, `strengthSum` REAL NOT NULL, PRIMARY KEY(`morpheme`));
+CREATE INDEX IF NOT EXISTS `index_morpheme_stats_wordCount` ON `morpheme_stats` (`wordCount`);
+CREATE TABLE IF NOT EXISTS `word_changes` (`seq` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, `word` TEXT NOT NULL, `kind` INTEGER NOT NULL, `oldActive` INTEGER NOT NULL, `oldStrength` REAL NOT NULL, `newActive` INTEGER NOT NULL, `newStrength` REAL NOT NULL);
+CREATE TABLE IF NOT EXISTS `counters` (`name` TEXT NOT NULL, `value` INTEGER NOT NULL, PRIMARY KEY(`name`));
+CREATE TABLE IF NOT EXISTS `due_histogram` (`epochDay` INTEGER NOT NULL, `dueCount` INTEGER NOT NULL, PRIMARY KEY(`epochDay`));